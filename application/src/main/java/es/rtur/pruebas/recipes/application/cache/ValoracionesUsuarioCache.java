@@ -0,0 +1,184 @@
+package es.rtur.pruebas.recipes.application.cache;
+
+import es.rtur.pruebas.recipes.application.collection.IntHashSet;
+import es.rtur.pruebas.recipes.application.metrics.CacheEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+
+/**
+ * Per-user cache of liked and disliked recipe ids (RF-04), kept as primitive int sets.
+ *
+ * A user's ratings are loaded with one query the first time they are needed and then
+ * kept up to date by {@link #update} on every write, so listing pages need no rating queries.
+ * The number of cached users is bounded (least recently used users are evicted).
+ *
+ * A load that races with a write of the same user is served but not cached: writes bump
+ * a striped version counter and the load only stores its snapshot if the counter is unchanged.
+ *
+ * Gets, puts (loads stored and writes applied) and evictions are emitted as {@link CacheEvent}s.
+ */
+@ApplicationScoped
+public class ValoracionesUsuarioCache {
+
+    public static final String LIKE = "like";
+    public static final String DISLIKE = "dislike";
+
+    static final String CACHE_NAME = "valoraciones-usuario";
+
+    private static final int STRIPES = 64;
+
+    private final boolean enabled;
+    private final int maxUsuarios;
+    private final LinkedHashMap<Integer, Entry> entries;
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    @Inject
+    public ValoracionesUsuarioCache(
+            @ConfigProperty(name = "recipes.valoraciones.user-cache.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "recipes.valoraciones.user-cache.max-users", defaultValue = "10000") int maxUsuarios) {
+        this.enabled = enabled;
+        this.maxUsuarios = maxUsuarios;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() <= ValoracionesUsuarioCache.this.maxUsuarios) {
+                    return false;
+                }
+                new CacheEvent(CACHE_NAME, CacheEvent.EVICT).commit(eldest.getKey(), true);
+                return true;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the user's valoracion type for each of the given recipes.
+     * @param idUsuario User ID
+     * @param idsReceta Recipe IDs
+     * @param loader Loads every active rating of a user (recipe ID → type) on a cache miss
+     * @return Map of recipe ID to 'like' or 'dislike'; recipes not rated by the user are omitted
+     */
+    public Map<Integer, String> getTipos(int idUsuario, Collection<Integer> idsReceta,
+                                         IntFunction<Map<Integer, String>> loader) {
+        Entry entry = getOrLoad(idUsuario, loader);
+        Map<Integer, String> tipos = new HashMap<>();
+        synchronized (entry) {
+            for (Integer idReceta : idsReceta) {
+                if (entry.likes.contains(idReceta)) {
+                    tipos.put(idReceta, LIKE);
+                } else if (entry.dislikes.contains(idReceta)) {
+                    tipos.put(idReceta, DISLIKE);
+                }
+            }
+        }
+        return tipos;
+    }
+
+    /**
+     * Applies a committed write to the cached entry of the user, if any.
+     * @param activa false when the valoracion has been removed
+     */
+    public void update(int idUsuario, int idReceta, String tipo, boolean activa) {
+        CacheEvent event = new CacheEvent(CACHE_NAME, CacheEvent.PUT);
+        versions.incrementAndGet(stripe(idUsuario));
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(idUsuario);
+        }
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.likes.remove(idReceta);
+            entry.dislikes.remove(idReceta);
+            if (activa) {
+                if (LIKE.equals(tipo)) {
+                    entry.likes.add(idReceta);
+                } else if (DISLIKE.equals(tipo)) {
+                    entry.dislikes.add(idReceta);
+                }
+            }
+        }
+        event.commit(idUsuario, true);
+    }
+
+    /**
+     * Drops the cached entry of a user.
+     */
+    public void invalidate(int idUsuario) {
+        CacheEvent event = new CacheEvent(CACHE_NAME, CacheEvent.EVICT);
+        versions.incrementAndGet(stripe(idUsuario));
+        Entry removed;
+        synchronized (entries) {
+            removed = entries.remove(idUsuario);
+        }
+        event.commit(idUsuario, removed != null);
+    }
+
+    /**
+     * Number of users currently cached.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Entry getOrLoad(int idUsuario, IntFunction<Map<Integer, String>> loader) {
+        CacheEvent get = new CacheEvent(CACHE_NAME, CacheEvent.GET);
+        synchronized (entries) {
+            Entry cached = entries.get(idUsuario);
+            if (cached != null) {
+                get.commit(idUsuario, true);
+                return cached;
+            }
+        }
+        long version = versions.get(stripe(idUsuario));
+        Entry loaded = new Entry(loader.apply(idUsuario));
+        get.commit(idUsuario, false);
+        CacheEvent put = new CacheEvent(CACHE_NAME, CacheEvent.PUT);
+        synchronized (entries) {
+            Entry cached = entries.get(idUsuario);
+            if (cached != null) {
+                return cached;
+            }
+            if (versions.get(stripe(idUsuario)) == version) {
+                entries.put(idUsuario, loaded);
+                put.commit(idUsuario, false);
+            }
+        }
+        return loaded;
+    }
+
+    private static int stripe(int idUsuario) {
+        return idUsuario & (STRIPES - 1);
+    }
+
+    private static final class Entry {
+        private final IntHashSet likes;
+        private final IntHashSet dislikes;
+
+        Entry(Map<Integer, String> tipos) {
+            likes = new IntHashSet(tipos.size());
+            dislikes = new IntHashSet(Math.max(4, tipos.size() / 4));
+            for (Map.Entry<Integer, String> tipo : tipos.entrySet()) {
+                if (LIKE.equals(tipo.getValue())) {
+                    likes.add(tipo.getKey());
+                } else if (DISLIKE.equals(tipo.getValue())) {
+                    dislikes.add(tipo.getKey());
+                }
+            }
+        }
+    }
+}
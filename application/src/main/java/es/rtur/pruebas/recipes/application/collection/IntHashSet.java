@@ -0,0 +1,163 @@
+package es.rtur.pruebas.recipes.application.collection;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive ints with open addressing and linear probing.
+ * Stores ids without boxing: about 4 to 8 bytes per element instead of
+ * the ~50 bytes of a {@code HashSet<Integer>} entry.
+ * Not thread-safe.
+ */
+public final class IntHashSet {
+
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    // 0 marks free slots, so it is tracked separately
+    private boolean containsZero;
+
+    public IntHashSet() {
+        this(8);
+    }
+
+    public IntHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public boolean contains(int value) {
+        if (value == FREE) {
+            return containsZero;
+        }
+        int index = hash(value) & mask;
+        int key;
+        while ((key = keys[index]) != FREE) {
+            if (key == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the value was not already present
+     */
+    public boolean add(int value) {
+        if (value == FREE) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int index = hash(value) & mask;
+        int key;
+        while ((key = keys[index]) != FREE) {
+            if (key == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the value was present
+     */
+    public boolean remove(int value) {
+        if (value == FREE) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int index = hash(value) & mask;
+        int key;
+        while ((key = keys[index]) != FREE) {
+            if (key == value) {
+                keys[index] = FREE;
+                size--;
+                compactChain(index);
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * Backward-shift deletion: moves the following entries of the probe chain
+     * into the freed slot so lookups never need tombstones.
+     */
+    private void compactChain(int deleteIndex) {
+        int index = deleteIndex;
+        while (true) {
+            index = (index + 1) & mask;
+            int key = keys[index];
+            if (key == FREE) {
+                return;
+            }
+            int ideal = hash(key) & mask;
+            // The entry stays if its ideal slot lies in the cyclic range (deleteIndex, index]
+            boolean stays = deleteIndex <= index
+                    ? deleteIndex < ideal && ideal <= index
+                    : deleteIndex < ideal || ideal <= index;
+            if (!stays) {
+                keys[deleteIndex] = key;
+                keys[index] = FREE;
+                deleteIndex = index;
+            }
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        allocate(newCapacity);
+        for (int key : oldKeys) {
+            if (key != FREE) {
+                int index = hash(key) & mask;
+                while (keys[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
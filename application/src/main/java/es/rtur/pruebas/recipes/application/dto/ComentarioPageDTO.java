@@ -0,0 +1,22 @@
+package es.rtur.pruebas.recipes.application.dto;
+
+import java.util.List;
+
+/**
+ * Page of comments returned by the keyset-paginated listing.
+ * {@code nextCursor} is opaque to clients and is null on the last page.
+ */
+public class ComentarioPageDTO {
+
+    private final List<ComentarioDTO> comentarios;
+    private final String nextCursor;
+
+    public ComentarioPageDTO(List<ComentarioDTO> comentarios, String nextCursor) {
+        this.comentarios = comentarios;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ComentarioDTO> getComentarios() { return comentarios; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,26 @@
+package es.rtur.pruebas.recipes.application.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object for an ingredient line of a recipe.
+ */
+public class IngredienteRecetaDTO {
+
+    private final Integer idIngrediente;
+    private final String nombre;
+    private final BigDecimal cantidad;
+    private final String unidadMedida;
+
+    public IngredienteRecetaDTO(Integer idIngrediente, String nombre, BigDecimal cantidad, String unidadMedida) {
+        this.idIngrediente = idIngrediente;
+        this.nombre = nombre;
+        this.cantidad = cantidad;
+        this.unidadMedida = unidadMedida;
+    }
+
+    public Integer getIdIngrediente() { return idIngrediente; }
+    public String getNombre() { return nombre; }
+    public BigDecimal getCantidad() { return cantidad; }
+    public String getUnidadMedida() { return unidadMedida; }
+}
@@ -24,6 +24,7 @@ public class RecetaDTO {
 
     private String dificultad;
     private String preparacion;
+    private String resumen; // Preparation snippet; lists carry only this, not preparacion
     private String categoria;
     private Integer idAutor;
     private String nombreAutor; // For display purposes
@@ -67,6 +68,9 @@ public RecetaDTO(Integer id, String nombre, Integer tiempo, Integer comensales,
     public String getPreparacion() { return preparacion; }
     public void setPreparacion(String preparacion) { this.preparacion = preparacion; }
 
+    public String getResumen() { return resumen; }
+    public void setResumen(String resumen) { this.resumen = resumen; }
+
     public String getCategoria() { return categoria; }
     public void setCategoria(String categoria) { this.categoria = categoria; }
 
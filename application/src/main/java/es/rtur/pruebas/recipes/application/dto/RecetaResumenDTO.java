@@ -0,0 +1,67 @@
+package es.rtur.pruebas.recipes.application.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object for recipe listings with popularity counters.
+ */
+public class RecetaResumenDTO {
+
+    private final Integer id;
+    private final String nombre;
+    private final Integer tiempo;
+    private final Integer comensales;
+    private final String dificultad;
+    private final String categoria;
+    private final String resumen;
+    private final Integer idAutor;
+    private final LocalDateTime fCreacion;
+    private final long likes;
+    private final long dislikes;
+    private final long comentarios;
+    // Only filled by listings that request the composition
+    private List<IngredienteRecetaDTO> ingredientes;
+    private List<UtensilioRecetaDTO> utensilios;
+
+    public RecetaResumenDTO(Integer id, String nombre, Integer tiempo, Integer comensales,
+                            String dificultad, String categoria, String resumen,
+                            Integer idAutor, LocalDateTime fCreacion,
+                            long likes, long dislikes, long comentarios) {
+        this.id = id;
+        this.nombre = nombre;
+        this.tiempo = tiempo;
+        this.comensales = comensales;
+        this.dificultad = dificultad;
+        this.categoria = categoria;
+        this.resumen = resumen;
+        this.idAutor = idAutor;
+        this.fCreacion = fCreacion;
+        this.likes = likes;
+        this.dislikes = dislikes;
+        this.comentarios = comentarios;
+    }
+
+    public Integer getId() { return id; }
+    public String getNombre() { return nombre; }
+    public Integer getTiempo() { return tiempo; }
+    public Integer getComensales() { return comensales; }
+    public String getDificultad() { return dificultad; }
+    public String getCategoria() { return categoria; }
+    public String getResumen() { return resumen; }
+    public Integer getIdAutor() { return idAutor; }
+    public LocalDateTime getFCreacion() { return fCreacion; }
+    public long getLikes() { return likes; }
+    public long getDislikes() { return dislikes; }
+    public long getComentarios() { return comentarios; }
+    public List<IngredienteRecetaDTO> getIngredientes() { return ingredientes; }
+    public List<UtensilioRecetaDTO> getUtensilios() { return utensilios; }
+
+    /**
+     * Attaches the ingredients and utensils loaded for the page.
+     */
+    public void setComposicion(List<IngredienteRecetaDTO> ingredientes, List<UtensilioRecetaDTO> utensilios) {
+        this.ingredientes = ingredientes;
+        this.utensilios = utensilios;
+    }
+}
@@ -0,0 +1,18 @@
+package es.rtur.pruebas.recipes.application.dto;
+
+/**
+ * Data Transfer Object for a utensil used by a recipe.
+ */
+public class UtensilioRecetaDTO {
+
+    private final Integer idUtensilio;
+    private final String nombre;
+
+    public UtensilioRecetaDTO(Integer idUtensilio, String nombre) {
+        this.idUtensilio = idUtensilio;
+        this.nombre = nombre;
+    }
+
+    public Integer getIdUtensilio() { return idUtensilio; }
+    public String getNombre() { return nombre; }
+}
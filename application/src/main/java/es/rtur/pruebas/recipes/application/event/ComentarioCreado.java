@@ -0,0 +1,26 @@
+package es.rtur.pruebas.recipes.application.event;
+
+/**
+ * Event published when a comment has been created on a recipe (RF-03).
+ */
+public final class ComentarioCreado extends DomainEvent {
+
+    private final Integer idComentario;
+    private final Integer idReceta;
+    private final Integer idAutor;
+
+    public ComentarioCreado(Integer idComentario, Integer idReceta, Integer idAutor) {
+        this.idComentario = idComentario;
+        this.idReceta = idReceta;
+        this.idAutor = idAutor;
+    }
+
+    public Integer getIdComentario() { return idComentario; }
+    public Integer getIdReceta() { return idReceta; }
+    public Integer getIdAutor() { return idAutor; }
+
+    @Override
+    public String toString() {
+        return "ComentarioCreado{idComentario=" + idComentario + ", idReceta=" + idReceta + '}';
+    }
+}
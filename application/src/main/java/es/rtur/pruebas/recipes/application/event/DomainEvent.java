@@ -0,0 +1,18 @@
+package es.rtur.pruebas.recipes.application.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Base class for domain events published by the use cases.
+ * Events are immutable and carry only identifiers and the data consumers need.
+ */
+public abstract class DomainEvent {
+
+    private final LocalDateTime fOcurrencia;
+
+    protected DomainEvent() {
+        this.fOcurrencia = LocalDateTime.now();
+    }
+
+    public LocalDateTime getFOcurrencia() { return fOcurrencia; }
+}
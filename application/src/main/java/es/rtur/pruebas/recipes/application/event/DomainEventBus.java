@@ -0,0 +1,60 @@
+package es.rtur.pruebas.recipes.application.event;
+
+import es.rtur.pruebas.recipes.application.event.ringbuffer.EventBusMetrics;
+import es.rtur.pruebas.recipes.application.event.ringbuffer.RingBufferEventBus;
+import es.rtur.pruebas.recipes.application.event.ringbuffer.WaitStrategy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process domain event bus used by the use cases.
+ * Wraps a RingBufferEventBus with every DomainEventHandler bean registered as a consumer.
+ * Publishing is lock-free and never blocks: when the slowest handler falls a full
+ * buffer behind, new events are dropped and counted in the metrics.
+ */
+@ApplicationScoped
+public class DomainEventBus implements DomainEventPublisher {
+
+    @Inject
+    Instance<DomainEventHandler> handlers;
+
+    @ConfigProperty(name = "recipes.event-bus.buffer-size", defaultValue = "8192")
+    int bufferSize;
+
+    @ConfigProperty(name = "recipes.event-bus.wait-strategy", defaultValue = "blocking")
+    String waitStrategy;
+
+    private RingBufferEventBus ringBuffer;
+
+    @PostConstruct
+    void init() {
+        ringBuffer = new RingBufferEventBus(bufferSize, WaitStrategy.of(waitStrategy));
+        for (DomainEventHandler handler : handlers) {
+            ringBuffer.addHandler(handler);
+        }
+        ringBuffer.start();
+    }
+
+    @PreDestroy
+    void destroy() {
+        ringBuffer.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean publish(DomainEvent event) {
+        return ringBuffer.tryPublish(event);
+    }
+
+    /**
+     * Backpressure metrics: cursor, rejected events and lag per handler.
+     */
+    public EventBusMetrics getMetrics() {
+        return ringBuffer.getMetrics();
+    }
+}
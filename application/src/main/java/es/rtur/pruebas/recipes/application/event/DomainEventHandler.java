@@ -0,0 +1,25 @@
+package es.rtur.pruebas.recipes.application.event;
+
+/**
+ * Consumer of domain events (indexers, caches, notifiers).
+ * CDI beans implementing this interface are registered on the event bus at startup.
+ * Each handler runs on its own thread and sees every event in publication order.
+ */
+public interface DomainEventHandler {
+
+    /**
+     * Handles one event.
+     * @param event Event being delivered
+     * @param sequence Sequence number of the event in the bus
+     * @param endOfBatch true for the last event of the batch currently available,
+     *                   so handlers can buffer work and flush once per batch
+     */
+    void onEvent(DomainEvent event, long sequence, boolean endOfBatch);
+
+    /**
+     * Name used for the consumer thread and the lag metrics.
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
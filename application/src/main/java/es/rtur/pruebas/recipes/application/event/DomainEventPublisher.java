@@ -0,0 +1,15 @@
+package es.rtur.pruebas.recipes.application.event;
+
+/**
+ * Port used by the use cases to publish domain events.
+ * Publishing never blocks the calling thread.
+ */
+public interface DomainEventPublisher {
+
+    /**
+     * Publishes an event to all registered handlers.
+     * @param event Event to publish
+     * @return true if the event was accepted, false if it was dropped because the bus is full
+     */
+    boolean publish(DomainEvent event);
+}
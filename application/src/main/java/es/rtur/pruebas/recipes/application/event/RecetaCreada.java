@@ -0,0 +1,23 @@
+package es.rtur.pruebas.recipes.application.event;
+
+/**
+ * Event published when a recipe has been created (RF-02).
+ */
+public final class RecetaCreada extends DomainEvent {
+
+    private final Integer idReceta;
+    private final Integer idAutor;
+
+    public RecetaCreada(Integer idReceta, Integer idAutor) {
+        this.idReceta = idReceta;
+        this.idAutor = idAutor;
+    }
+
+    public Integer getIdReceta() { return idReceta; }
+    public Integer getIdAutor() { return idAutor; }
+
+    @Override
+    public String toString() {
+        return "RecetaCreada{idReceta=" + idReceta + ", idAutor=" + idAutor + '}';
+    }
+}
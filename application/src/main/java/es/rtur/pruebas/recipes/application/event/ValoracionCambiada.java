@@ -0,0 +1,31 @@
+package es.rtur.pruebas.recipes.application.event;
+
+/**
+ * Event published when a user's like/dislike on a recipe has been created,
+ * changed or reactivated (RF-04).
+ */
+public final class ValoracionCambiada extends DomainEvent {
+
+    private final Integer idReceta;
+    private final Integer idUsuario;
+    private final String tipo;
+    private final boolean activa;
+
+    public ValoracionCambiada(Integer idReceta, Integer idUsuario, String tipo, boolean activa) {
+        this.idReceta = idReceta;
+        this.idUsuario = idUsuario;
+        this.tipo = tipo;
+        this.activa = activa;
+    }
+
+    public Integer getIdReceta() { return idReceta; }
+    public Integer getIdUsuario() { return idUsuario; }
+    public String getTipo() { return tipo; }
+    public boolean isActiva() { return activa; }
+
+    @Override
+    public String toString() {
+        return "ValoracionCambiada{idReceta=" + idReceta + ", idUsuario=" + idUsuario +
+                ", tipo='" + tipo + "', activa=" + activa + '}';
+    }
+}
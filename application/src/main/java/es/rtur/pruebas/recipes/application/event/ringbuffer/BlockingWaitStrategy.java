@@ -0,0 +1,52 @@
+package es.rtur.pruebas.recipes.application.event.ringbuffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Parks consumers on a condition until a producer signals. Lowest CPU usage,
+ * highest latency. Producers only take the lock when some consumer is waiting.
+ */
+public final class BlockingWaitStrategy implements WaitStrategy {
+
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private volatile int waiters;
+
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier running) throws InterruptedException {
+        long available = cursor.get();
+        if (available >= sequence) {
+            return available;
+        }
+        lock.lock();
+        try {
+            waiters++;
+            while ((available = cursor.get()) < sequence && running.getAsBoolean()) {
+                // Bounded wait so a missed signal or a shutdown is noticed quickly
+                published.awaitNanos(MAX_WAIT_NANOS);
+            }
+        } finally {
+            waiters--;
+            lock.unlock();
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        if (waiters == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package es.rtur.pruebas.recipes.application.event.ringbuffer;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spins on the cursor. Lowest latency, burns a full core per consumer:
+ * only for dedicated cores.
+ */
+public final class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier running) {
+        long available;
+        while ((available = cursor.get()) < sequence && running.getAsBoolean()) {
+            Thread.onSpinWait();
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        // Nothing to signal: consumers never park
+    }
+}
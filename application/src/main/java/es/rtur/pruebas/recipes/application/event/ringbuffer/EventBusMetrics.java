@@ -0,0 +1,73 @@
+package es.rtur.pruebas.recipes.application.event.ringbuffer;
+
+import java.util.List;
+
+/**
+ * Point-in-time snapshot of the event bus: producer cursor, rejected events and
+ * the position and lag of every consumer.
+ */
+public final class EventBusMetrics {
+
+    private final int bufferSize;
+    private final long cursor;
+    private final long rejected;
+    private final List<ConsumerMetrics> consumers;
+
+    public EventBusMetrics(int bufferSize, long cursor, long rejected, List<ConsumerMetrics> consumers) {
+        this.bufferSize = bufferSize;
+        this.cursor = cursor;
+        this.rejected = rejected;
+        this.consumers = List.copyOf(consumers);
+    }
+
+    public int getBufferSize() { return bufferSize; }
+    public long getCursor() { return cursor; }
+    public long getRejected() { return rejected; }
+    public List<ConsumerMetrics> getConsumers() { return consumers; }
+
+    /**
+     * Highest lag among consumers; when it reaches the buffer size, producers start being rejected.
+     */
+    public long getMaxLag() {
+        long max = 0;
+        for (ConsumerMetrics consumer : consumers) {
+            max = Math.max(max, consumer.getLag());
+        }
+        return max;
+    }
+
+    /**
+     * Metrics of a single consumer.
+     */
+    public static final class ConsumerMetrics {
+        private final String name;
+        private final long sequence;
+        private final long lag;
+        private final long processed;
+        private final long batches;
+        private final long errors;
+
+        public ConsumerMetrics(String name, long sequence, long lag, long processed, long batches, long errors) {
+            this.name = name;
+            this.sequence = sequence;
+            this.lag = lag;
+            this.processed = processed;
+            this.batches = batches;
+            this.errors = errors;
+        }
+
+        public String getName() { return name; }
+        public long getSequence() { return sequence; }
+        public long getLag() { return lag; }
+        public long getProcessed() { return processed; }
+        public long getBatches() { return batches; }
+        public long getErrors() { return errors; }
+
+        /**
+         * Average events drained per batch: grows under load, close to 1 when idle.
+         */
+        public double getAverageBatchSize() {
+            return batches == 0 ? 0 : (double) processed / batches;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package es.rtur.pruebas.recipes.application.event.ringbuffer;
+
+import es.rtur.pruebas.recipes.application.event.DomainEvent;
+import es.rtur.pruebas.recipes.application.event.DomainEventHandler;
+import org.jboss.logging.Logger;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Lock-free multi-producer, multi-consumer event bus backed by a pre-allocated ring buffer.
+ *
+ * Producers claim a sequence with a CAS on the cursor, store the event in the slot and
+ * mark the slot as published. Every consumer owns a thread and a sequence, sees every event
+ * in order and drains all available events in one batch. Producers never overwrite a slot
+ * that the slowest consumer has not read yet: {@link #tryPublish} fails instead and the
+ * rejection is counted, so request threads are never blocked.
+ */
+public final class RingBufferEventBus {
+
+    private static final Logger LOG = Logger.getLogger(RingBufferEventBus.class);
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int bufferSize;
+    private final int mask;
+    private final int indexShift;
+    private final DomainEvent[] entries;
+    private final int[] availableBuffer;
+
+    private final Sequence cursor = new Sequence();
+    private final Sequence gatingSequenceCache = new Sequence();
+    private final WaitStrategy waitStrategy;
+    private volatile Consumer[] consumers = new Consumer[0];
+    private final LongAdder rejected = new LongAdder();
+    private volatile boolean running;
+    private final BooleanSupplier isRunning = () -> running;
+
+    /**
+     * @param bufferSize Number of slots, must be a power of two
+     * @param waitStrategy Strategy used by idle consumers
+     */
+    public RingBufferEventBus(int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a positive power of two");
+        }
+        this.bufferSize = bufferSize;
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.entries = new DomainEvent[bufferSize];
+        this.availableBuffer = new int[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            availableBuffer[i] = -1;
+        }
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Registers a handler. Must be called before {@link #start()}.
+     */
+    public synchronized void addHandler(DomainEventHandler handler) {
+        if (running) {
+            throw new IllegalStateException("Handlers must be registered before the bus is started");
+        }
+        Consumer[] updated = Arrays.copyOf(consumers, consumers.length + 1);
+        updated[consumers.length] = new Consumer(handler);
+        consumers = updated;
+    }
+
+    /**
+     * Starts one daemon thread per registered handler.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (Consumer consumer : consumers) {
+            Thread thread = new Thread(consumer, "event-bus-" + consumer.name);
+            thread.setDaemon(true);
+            consumer.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops the consumers after they drain the events already published,
+     * waiting at most the given time.
+     */
+    public synchronized void shutdown(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (running && getMinimumGatingSequence() < cursor.get() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        running = false;
+        waitStrategy.signalAllWhenBlocking();
+        for (Consumer consumer : consumers) {
+            if (consumer.thread != null) {
+                try {
+                    consumer.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes an event without blocking.
+     * @return false if the buffer is full (the event is dropped and counted as rejected)
+     */
+    public boolean tryPublish(DomainEvent event) {
+        long current;
+        long next;
+        do {
+            current = cursor.get();
+            next = current + 1;
+            if (!hasCapacity(next)) {
+                rejected.increment();
+                return false;
+            }
+        } while (!cursor.compareAndSet(current, next));
+        write(next, event);
+        return true;
+    }
+
+    /**
+     * Publishes an event, waiting for a free slot if the buffer is full.
+     * Meant for background producers (relays, imports), not for request threads.
+     */
+    public void publish(DomainEvent event) {
+        long current;
+        long next;
+        do {
+            current = cursor.get();
+            next = current + 1;
+            if (!hasCapacity(next)) {
+                LockSupport.parkNanos(1);
+                continue;
+            }
+            if (cursor.compareAndSet(current, next)) {
+                break;
+            }
+        } while (true);
+        write(next, event);
+    }
+
+    private boolean hasCapacity(long next) {
+        long wrapPoint = next - bufferSize;
+        long cachedGating = gatingSequenceCache.get();
+        if (wrapPoint > cachedGating) {
+            long minSequence = getMinimumGatingSequence();
+            gatingSequenceCache.set(minSequence);
+            return wrapPoint <= minSequence;
+        }
+        return true;
+    }
+
+    private void write(long sequence, DomainEvent event) {
+        int index = (int) sequence & mask;
+        entries[index] = event;
+        AVAILABLE.setRelease(availableBuffer, index, (int) (sequence >>> indexShift));
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    private boolean isAvailable(long sequence) {
+        int index = (int) sequence & mask;
+        return (int) AVAILABLE.getAcquire(availableBuffer, index) == (int) (sequence >>> indexShift);
+    }
+
+    private long getHighestPublishedSequence(long lowerBound, long availableSequence) {
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+            if (!isAvailable(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    private long getMinimumGatingSequence() {
+        long minimum = cursor.get();
+        for (Consumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    // Metrics
+
+    /**
+     * Highest sequence claimed by producers.
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Events dropped by {@link #tryPublish} because the buffer was full.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Number of events published but not yet processed by the given consumer.
+     * @return lag, or -1 if there is no consumer with that name
+     */
+    public long getLag(String consumerName) {
+        for (Consumer consumer : consumers) {
+            if (consumer.name.equals(consumerName)) {
+                return cursor.get() - consumer.sequence.get();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Snapshot of the bus and per-consumer backpressure metrics.
+     */
+    public EventBusMetrics getMetrics() {
+        long currentCursor = cursor.get();
+        List<EventBusMetrics.ConsumerMetrics> consumerMetrics = new ArrayList<>(consumers.length);
+        for (Consumer consumer : consumers) {
+            long sequence = consumer.sequence.get();
+            consumerMetrics.add(new EventBusMetrics.ConsumerMetrics(
+                    consumer.name, sequence, currentCursor - sequence,
+                    consumer.processed.sum(), consumer.batches.sum(), consumer.errors.sum()));
+        }
+        return new EventBusMetrics(bufferSize, currentCursor, rejected.sum(), consumerMetrics);
+    }
+
+    /**
+     * Consumer loop: waits for the cursor, drains every published event as one batch
+     * and then advances its own sequence, releasing the slots to the producers.
+     */
+    private final class Consumer implements Runnable {
+
+        private final DomainEventHandler handler;
+        private final String name;
+        private final Sequence sequence = new Sequence();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private Thread thread;
+
+        Consumer(DomainEventHandler handler) {
+            this.handler = handler;
+            this.name = handler.getName();
+        }
+
+        @Override
+        public void run() {
+            long nextSequence = sequence.get() + 1;
+            while (true) {
+                try {
+                    long availableSequence = waitStrategy.waitFor(nextSequence, cursor, isRunning);
+                    if (availableSequence < nextSequence) {
+                        if (!running) {
+                            return;
+                        }
+                        continue;
+                    }
+                    long highest = getHighestPublishedSequence(nextSequence, availableSequence);
+                    if (highest < nextSequence) {
+                        // Claimed but not yet written by the producer
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    for (long s = nextSequence; s <= highest; s++) {
+                        dispatch(entries[(int) s & mask], s, s == highest);
+                    }
+                    processed.add(highest - nextSequence + 1);
+                    batches.increment();
+                    sequence.set(highest);
+                    nextSequence = highest + 1;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        private void dispatch(DomainEvent event, long s, boolean endOfBatch) {
+            try {
+                handler.onEvent(event, s, endOfBatch);
+            } catch (RuntimeException e) {
+                errors.increment();
+                LOG.errorf(e, "Event handler %s failed on %s", name, event);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package es.rtur.pruebas.recipes.application.event.ringbuffer;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spins, then yields, then parks for short periods. Producers never pay for a
+ * signal, and idle consumers use almost no CPU, at the cost of up to
+ * {@code sleepNanos} extra latency when the bus wakes up.
+ */
+public final class SleepingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long DEFAULT_SLEEP_NANOS = 100_000L;
+
+    private final long sleepNanos;
+
+    public SleepingWaitStrategy() {
+        this(DEFAULT_SLEEP_NANOS);
+    }
+
+    public SleepingWaitStrategy(long sleepNanos) {
+        this.sleepNanos = sleepNanos;
+    }
+
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier running) {
+        int counter = SPIN_TRIES + YIELD_TRIES;
+        long available;
+        while ((available = cursor.get()) < sequence && running.getAsBoolean()) {
+            if (counter > YIELD_TRIES) {
+                counter--;
+                Thread.onSpinWait();
+            } else if (counter > 0) {
+                counter--;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(sleepNanos);
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        // Consumers wake up on their own
+    }
+}
@@ -0,0 +1,38 @@
+package es.rtur.pruebas.recipes.application.event.ringbuffer;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Strategy used by consumers to wait until a sequence has been claimed by a producer.
+ * Trades latency against CPU usage.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Waits until the producer cursor reaches the given sequence or the bus is halted.
+     * @param sequence Sequence the consumer wants to read
+     * @param cursor Producer cursor (highest claimed sequence)
+     * @param running Returns false once the bus is shutting down
+     * @return Current cursor value; lower than {@code sequence} only when halted
+     */
+    long waitFor(long sequence, Sequence cursor, BooleanSupplier running) throws InterruptedException;
+
+    /**
+     * Called by producers after publishing, for strategies that park consumers.
+     */
+    void signalAllWhenBlocking();
+
+    /**
+     * Creates a strategy from its configuration name:
+     * {@code blocking}, {@code sleeping}, {@code yielding} or {@code busy-spin}.
+     */
+    static WaitStrategy of(String name) {
+        return switch (name == null ? "" : name.trim().toLowerCase()) {
+            case "blocking" -> new BlockingWaitStrategy();
+            case "sleeping" -> new SleepingWaitStrategy();
+            case "yielding" -> new YieldingWaitStrategy();
+            case "busy-spin" -> new BusySpinWaitStrategy();
+            default -> throw new IllegalArgumentException("Unknown wait strategy: " + name);
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package es.rtur.pruebas.recipes.application.event.ringbuffer;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spins for a while and then yields the CPU. Low latency with some headroom
+ * for other threads when there are more threads than cores.
+ */
+public final class YieldingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public long waitFor(long sequence, Sequence cursor, BooleanSupplier running) {
+        int counter = SPIN_TRIES;
+        long available;
+        while ((available = cursor.get()) < sequence && running.getAsBoolean()) {
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        // Nothing to signal: consumers never park
+    }
+}
@@ -0,0 +1,70 @@
+package es.rtur.pruebas.recipes.application.loader;
+
+import es.rtur.pruebas.recipes.application.collection.IntObjectHashMap;
+import es.rtur.pruebas.recipes.application.dto.IngredienteRecetaDTO;
+import es.rtur.pruebas.recipes.application.dto.RecetaResumenDTO;
+import es.rtur.pruebas.recipes.application.dto.UtensilioRecetaDTO;
+import es.rtur.pruebas.recipes.domain.readmodel.IngredienteReceta;
+import es.rtur.pruebas.recipes.domain.readmodel.UtensilioReceta;
+import es.rtur.pruebas.recipes.domain.repository.ComposicionRecetaRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the ingredients and utensils of a page of recipes and attaches them to the results.
+ * Two queries per page (one per table) whatever the number of recipes; the rows are
+ * grouped in memory by recipe id in primitive int-keyed maps.
+ */
+@ApplicationScoped
+public class ComposicionRecetaLoader {
+
+    private final ComposicionRecetaRepository composicionRecetaRepository;
+
+    @Inject
+    public ComposicionRecetaLoader(ComposicionRecetaRepository composicionRecetaRepository) {
+        this.composicionRecetaRepository = composicionRecetaRepository;
+    }
+
+    /**
+     * Loads and attaches the composition of every recipe in the page.
+     * Recipes without ingredients or utensils get empty lists.
+     * @param recetas Page of recipes
+     */
+    public void attach(List<RecetaResumenDTO> recetas) {
+        if (recetas.isEmpty()) {
+            return;
+        }
+        List<RecetaId> ids = recetas.stream()
+                .map(receta -> RecetaId.of(receta.getId()))
+                .collect(Collectors.toList());
+
+        IntObjectHashMap<List<IngredienteRecetaDTO>> ingredientes = new IntObjectHashMap<>(ids.size());
+        for (IngredienteReceta ingrediente : composicionRecetaRepository.findIngredientesByRecetas(ids)) {
+            ingredientes.computeIfAbsent(ingrediente.getIdReceta().getValue(), id -> new ArrayList<>())
+                    .add(new IngredienteRecetaDTO(
+                            ingrediente.getIdIngrediente().getValue(),
+                            ingrediente.getNombre(),
+                            ingrediente.getCantidad(),
+                            ingrediente.getUnidadMedida()));
+        }
+
+        IntObjectHashMap<List<UtensilioRecetaDTO>> utensilios = new IntObjectHashMap<>(ids.size());
+        for (UtensilioReceta utensilio : composicionRecetaRepository.findUtensiliosByRecetas(ids)) {
+            utensilios.computeIfAbsent(utensilio.getIdReceta().getValue(), id -> new ArrayList<>())
+                    .add(new UtensilioRecetaDTO(
+                            utensilio.getIdUtensilio().getValue(),
+                            utensilio.getNombre()));
+        }
+
+        for (RecetaResumenDTO receta : recetas) {
+            receta.setComposicion(
+                    ingredientes.getOrDefault(receta.getId(), List.of()),
+                    utensilios.getOrDefault(receta.getId(), List.of()));
+        }
+    }
+}
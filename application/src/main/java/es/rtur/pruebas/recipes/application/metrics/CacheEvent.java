@@ -0,0 +1,69 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A get, put or evict on one of the application caches. The event starts when it is
+ * created and ends on {@link #commit(Object, boolean)}, so a get that misses lasts as long
+ * as the load. Emitters create it right before the operation and commit it right after.
+ */
+@Name(CacheEvent.NAME)
+@Label("Cache Operation")
+@Category({"Recipes", "Cache"})
+@Description("Get, put or evict on an application cache")
+@StackTrace(false)
+public class CacheEvent extends Event {
+
+    public static final String NAME = "recipes.Cache";
+
+    public static final String GET = "get";
+    public static final String PUT = "put";
+    public static final String EVICT = "evict";
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key")
+    String key;
+
+    /**
+     * Get: the value was cached. Put: an existing entry was updated. Evict: an entry was removed.
+     */
+    @Label("Hit")
+    boolean hit;
+
+    public CacheEvent(String cache, String operation) {
+        this.cache = cache;
+        this.operation = operation;
+        begin();
+    }
+
+    /**
+     * Records the event if a recording wants it.
+     * @param key Cache key
+     * @param hit Whether the key was found (see the field)
+     */
+    public void commit(Object key, boolean hit) {
+        if (shouldCommit()) {
+            this.key = String.valueOf(key);
+            this.hit = hit;
+            commit();
+        }
+    }
+
+    public String getCache() {
+        return cache;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+}
@@ -0,0 +1,112 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, failures and latency histogram of one method.
+ *
+ * Recording is lock-free: a few {@link LongAdder} increments and a bucket search over
+ * {@link #BUCKETS}, with no allocation. The buckets follow the Prometheus histogram
+ * convention (cumulative counts are computed when reading).
+ */
+public final class CallTimer {
+
+    /**
+     * Upper bounds of the latency buckets, in nanoseconds (0.5 ms to 10 s).
+     */
+    static final long[] BUCKETS = {
+            500_000L, 1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L,
+            10_000_000_000L
+    };
+
+    private final String layer;
+    private final String type;
+    private final String method;
+    private final LongAdder[] buckets = new LongAdder[BUCKETS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    CallTimer(String layer, String type, String method) {
+        this.layer = layer;
+        this.type = type;
+        this.method = method;
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one call.
+     * @param nanos Duration of the call
+     * @param failed Whether the call ended with an exception
+     */
+    public void record(long nanos, boolean failed) {
+        int bucket = 0;
+        while (bucket < BUCKETS.length && nanos > BUCKETS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        if (failed) {
+            errors.increment();
+        }
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public String layer() {
+        return layer;
+    }
+
+    /**
+     * @return Simple name of the measured class
+     */
+    public String type() {
+        return type;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return Upper bounds of the buckets in nanoseconds; the last bucket (+Inf) has no bound
+     */
+    public static long[] bucketBounds() {
+        return BUCKETS.clone();
+    }
+
+    /**
+     * @return Calls per bucket (not cumulative), one more entry than {@link #bucketBounds()}
+     */
+    public long[] bucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+}
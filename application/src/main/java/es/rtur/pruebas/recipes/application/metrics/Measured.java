@@ -0,0 +1,85 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import es.rtur.pruebas.recipes.domain.repository.RecetaRepository;
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Times the calls to a use case or a repository adapter and counts their failures;
+ * see {@link MeasuredInterceptor} and {@link MetricsRegistry}.
+ */
+@Inherited
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Measured {
+
+    /**
+     * Which methods of the annotated class are measured.
+     */
+    @Nonbinding
+    Layer value() default Layer.USE_CASE;
+
+    enum Layer {
+
+        /**
+         * The {@code execute*} methods of a use case.
+         */
+        USE_CASE("usecase") {
+            @Override
+            boolean measures(Method method) {
+                return method.getName().startsWith("execute");
+            }
+        },
+
+        /**
+         * The methods of a domain repository port implemented by the class, not the
+         * helpers it inherits from Panache or declares for the infrastructure.
+         */
+        REPOSITORY("repository") {
+            @Override
+            boolean measures(Method method) {
+                return declaredByPort(method.getDeclaringClass(), method);
+            }
+        };
+
+        private static final String PORTS_PACKAGE = RecetaRepository.class.getPackageName();
+
+        private final String metricName;
+
+        Layer(String metricName) {
+            this.metricName = metricName;
+        }
+
+        /**
+         * @return Prefix of the metrics of this layer
+         */
+        public String metricName() {
+            return metricName;
+        }
+
+        abstract boolean measures(Method method);
+
+        private static boolean declaredByPort(Class<?> type, Method method) {
+            for (Class<?> contract : type.getInterfaces()) {
+                if (contract.getPackageName().equals(PORTS_PACKAGE) && Arrays.stream(contract.getMethods())
+                        .anyMatch(m -> m.getName().equals(method.getName())
+                                && Arrays.equals(m.getParameterTypes(), method.getParameterTypes()))) {
+                    return true;
+                }
+                if (declaredByPort(contract, method)) {
+                    return true;
+                }
+            }
+            return type.getSuperclass() != null && declaredByPort(type.getSuperclass(), method);
+        }
+    }
+}
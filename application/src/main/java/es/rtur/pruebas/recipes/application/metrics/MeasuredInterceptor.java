@@ -0,0 +1,94 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Times every call to a {@link Measured} method and counts the ones ending in an exception.
+ * Runs before the routing and transaction interceptors, so a use case is timed including
+ * its commit. The cost per call is two clock reads and a few counter increments.
+ *
+ * Each measured call is also a JFR event ({@link UseCaseEvent} or {@link RepositoryCallEvent}),
+ * which costs next to nothing while no recording has the event enabled. Use case time is
+ * also added to the {@link RequestTiming} of the request, when it is sampled.
+ *
+ * When the request is traced, each call is a {@link Span} with the id arguments as attributes;
+ * a use case called outside a traced request starts its own trace if the {@link Tracer}
+ * samples it.
+ */
+@Measured
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 50)
+public class MeasuredInterceptor {
+
+    private static final String USE_CASE = Measured.Layer.USE_CASE.metricName();
+
+    private final MetricsRegistry registry;
+    private final Tracer tracer;
+
+    @Inject
+    public MeasuredInterceptor(MetricsRegistry registry, Tracer tracer) {
+        this.registry = registry;
+        this.tracer = tracer;
+    }
+
+    @AroundInvoke
+    public Object measure(InvocationContext context) throws Exception {
+        CallTimer timer = registry.timer(context.getTarget().getClass(), context.getMethod());
+        if (timer == null) {
+            return context.proceed();
+        }
+        boolean useCase = USE_CASE.equals(timer.layer());
+        CallEvent event = useCase ? new UseCaseEvent() : new RepositoryCallEvent();
+        event.begin();
+        Trace trace = Trace.current();
+        boolean rootTrace = trace == null && useCase && tracer.sample();
+        Span span = null;
+        if (rootTrace) {
+            trace = tracer.start(null, null, timer.type() + '.' + timer.method(), Span.Kind.INTERNAL);
+            span = trace.root();
+        } else if (trace != null) {
+            span = trace.startSpan(timer.type() + '.' + timer.method(), Span.Kind.INTERNAL);
+        }
+        if (span != null) {
+            tracer.addIdAttributes(span, context.getMethod(), context.getParameters());
+        }
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = context.proceed();
+            return result;
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            timer.record(nanos, failure != null);
+            if (useCase) {
+                RequestTiming timing = RequestTiming.current();
+                if (timing != null) {
+                    timing.addUseCase(nanos);
+                }
+            }
+            if (span != null) {
+                if (failure != null) {
+                    span.error(failure.getClass().getSimpleName());
+                }
+                if (rootTrace) {
+                    tracer.finish(trace);
+                } else {
+                    trace.end(span);
+                }
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.describe(timer, result, failure);
+                event.commit();
+            }
+        }
+    }
+}
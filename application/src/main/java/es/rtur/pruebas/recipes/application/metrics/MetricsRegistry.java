@@ -0,0 +1,68 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import io.quarkus.arc.Subclass;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timers of the {@link Measured} classes, one per class and method name.
+ *
+ * The interceptor resolves the timer of a {@link Method} once; later calls cost one
+ * hash lookup. Overloads of a method share their timer.
+ */
+@ApplicationScoped
+public class MetricsRegistry {
+
+    /**
+     * Cached answer for methods of a measured class that are not measured.
+     */
+    private static final CallTimer NOT_MEASURED = new CallTimer("", "", "");
+
+    private final Map<Method, CallTimer> byMethod = new ConcurrentHashMap<>();
+    private final Map<String, CallTimer> byName = new ConcurrentHashMap<>();
+
+    /**
+     * @param beanClass Class of the intercepted instance (may be the container subclass)
+     * @param method Intercepted method
+     * @return Timer of the method, or null if the method is not measured
+     */
+    public CallTimer timer(Class<?> beanClass, Method method) {
+        CallTimer timer = byMethod.get(method);
+        if (timer == null) {
+            timer = byMethod.computeIfAbsent(method, m -> resolve(beanClass, m));
+        }
+        return timer == NOT_MEASURED ? null : timer;
+    }
+
+    /**
+     * @return Every timer, by layer, class and method
+     */
+    public List<CallTimer> timers() {
+        List<CallTimer> timers = new ArrayList<>(byName.values());
+        timers.sort(Comparator.comparing(CallTimer::layer)
+                .thenComparing(CallTimer::type)
+                .thenComparing(CallTimer::method));
+        return timers;
+    }
+
+    private CallTimer resolve(Class<?> beanClass, Method method) {
+        Class<?> type = beanClass;
+        while (Subclass.class.isAssignableFrom(type) && type.getSuperclass() != null) {
+            type = type.getSuperclass();
+        }
+        Measured measured = type.getAnnotation(Measured.class);
+        if (measured == null || !measured.value().measures(method)) {
+            return NOT_MEASURED;
+        }
+        String layer = measured.value().metricName();
+        String name = type.getSimpleName();
+        return byName.computeIfAbsent(layer + ':' + name + '#' + method.getName(),
+                key -> new CallTimer(layer, name, method.getName()));
+    }
+}
@@ -0,0 +1,52 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * One call to a method of a domain repository port.
+ */
+@Name(RepositoryCallEvent.NAME)
+@Label("Repository Call")
+@Category({"Recipes", "Repository"})
+@Description("Call to a repository port method, with the number of rows returned")
+public class RepositoryCallEvent extends CallEvent {
+
+    public static final String NAME = "recipes.RepositoryCall";
+
+    /**
+     * Size of a returned collection or map, 0 or 1 for an Optional, -1 for other results
+     * (counts, flags, saved entities).
+     */
+    @Label("Rows")
+    long rows;
+
+    @Override
+    void describe(CallTimer timer, Object result, Throwable failure) {
+        super.describe(timer, result, failure);
+        rows = rows(result);
+    }
+
+    static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,99 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+/**
+ * Time breakdown of one sampled request: use cases, JDBC statements, connection waits and
+ * response serialization.
+ *
+ * The web layer binds an instance to the request thread with {@link #start()} only for
+ * sampled requests; the collectors ({@link MeasuredInterceptor}, the persistence layer and
+ * the response writer) look it up with {@link #current()} and do nothing when it is null, so
+ * an unsampled request pays one thread-local read per measured call. Not thread-safe: the
+ * whole request must run on the thread that started it.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long useCaseNanos;
+    private int useCases;
+    private long statementNanos;
+    private int statements;
+    private long connectionWaitNanos;
+    private long serializationNanos;
+
+    private RequestTiming() {
+    }
+
+    /**
+     * Starts collecting for the request running on this thread.
+     */
+    public static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * @return Timing of the request running on this thread, or null if it is not sampled
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops collecting on this thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public void addUseCase(long nanos) {
+        useCaseNanos += nanos;
+        useCases++;
+    }
+
+    public void addStatement(long nanos) {
+        statementNanos += nanos;
+        statements++;
+    }
+
+    public void addConnectionWait(long nanos) {
+        connectionWaitNanos += nanos;
+    }
+
+    public void addSerialization(long nanos) {
+        serializationNanos += nanos;
+    }
+
+    /**
+     * @return Time since {@link #start()}
+     */
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long useCaseNanos() {
+        return useCaseNanos;
+    }
+
+    public int useCases() {
+        return useCases;
+    }
+
+    public long statementNanos() {
+        return statementNanos;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long connectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+
+    public long serializationNanos() {
+        return serializationNanos;
+    }
+}
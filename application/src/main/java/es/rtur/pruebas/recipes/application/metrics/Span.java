@@ -0,0 +1,102 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed operation of a {@link Trace}: the REST request, a use case, a repository call or
+ * a JDBC statement. Times are {@link System#nanoTime()} readings; the trace turns them into
+ * wall-clock times when exported. Not thread-safe, like the trace it belongs to.
+ */
+public final class Span {
+
+    /**
+     * Same meaning as the OpenTelemetry span kinds of the same name.
+     */
+    public enum Kind { SERVER, INTERNAL, CLIENT }
+
+    private final String spanId;
+    private final Span parent;
+    private final String name;
+    private final Kind kind;
+    private final long startNanos;
+    private long endNanos = -1;
+    private Map<String, Object> attributes;
+    private String error;
+
+    Span(String spanId, Span parent, String name, Kind kind, long startNanos) {
+        this.spanId = spanId;
+        this.parent = parent;
+        this.name = name;
+        this.kind = kind;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Adds an attribute; null values are ignored.
+     * @return This span
+     */
+    public Span attribute(String key, Object value) {
+        if (value != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Marks the span as failed.
+     * @param error Short description, usually the simple name of the exception
+     */
+    public void error(String error) {
+        this.error = error;
+    }
+
+    void end(long endNanos) {
+        this.endNanos = endNanos;
+    }
+
+    public String spanId() {
+        return spanId;
+    }
+
+    /**
+     * @return Enclosing span, or null for the root span
+     */
+    public Span parent() {
+        return parent;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    /**
+     * @return Duration of the span, or -1 while it is open
+     */
+    public long durationNanos() {
+        return endNanos < 0 ? -1 : endNanos - startNanos;
+    }
+
+    public Map<String, Object> attributes() {
+        return attributes == null ? Map.of() : Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * @return Error description, or null if the span did not fail
+     */
+    public String error() {
+        return error;
+    }
+}
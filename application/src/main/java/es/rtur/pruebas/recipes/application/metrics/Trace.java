@@ -0,0 +1,129 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Spans of one sampled request or background use case, bound to the thread that runs it.
+ *
+ * {@link Tracer} starts and finishes traces; the collectors ({@link MeasuredInterceptor}, the
+ * persistence layer and the REST filters) look the trace up with {@link #current()} and open
+ * child spans of the innermost open span. Ids follow the W3C Trace Context format, so a trace
+ * can continue one started by the caller and be exported over OTLP. Not thread-safe: the whole
+ * request must run on the thread that started it.
+ */
+public final class Trace {
+
+    /**
+     * Spans kept per trace; later spans are counted in {@link #droppedSpans()} but not kept,
+     * so a use case that loops over thousands of rows does not hold them all in memory.
+     */
+    static final int MAX_SPANS = 1000;
+
+    static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final String traceId;
+    private final String remoteParentId;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private final List<Span> spans = new ArrayList<>();
+    private Span open;
+    private int droppedSpans;
+
+    Trace(String traceId, String remoteParentId) {
+        this.traceId = traceId;
+        this.remoteParentId = remoteParentId;
+        this.startNanos = System.nanoTime();
+        this.startEpochNanos = System.currentTimeMillis() * 1_000_000L;
+    }
+
+    /**
+     * @return Trace of the request running on this thread, or null if it is not sampled
+     */
+    public static Trace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Unbinds whatever trace was left on this thread, for entry points that do not trace.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Opens a span as a child of the innermost open span.
+     */
+    public Span startSpan(String name, Span.Kind kind) {
+        Span span = new Span(newSpanId(), open, name, kind, System.nanoTime());
+        if (spans.size() < MAX_SPANS) {
+            spans.add(span);
+        } else {
+            droppedSpans++;
+        }
+        open = span;
+        return span;
+    }
+
+    /**
+     * Closes a span opened with {@link #startSpan}; its parent becomes the innermost open span.
+     */
+    public void end(Span span) {
+        span.end(System.nanoTime());
+        open = span.parent();
+    }
+
+    public String traceId() {
+        return traceId;
+    }
+
+    /**
+     * @return Id of the caller's span this trace continues, or null if it started here
+     */
+    public String remoteParentId() {
+        return remoteParentId;
+    }
+
+    public Span root() {
+        return spans.get(0);
+    }
+
+    /**
+     * @return Spans in start order, the root first
+     */
+    public List<Span> spans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    public int droppedSpans() {
+        return droppedSpans;
+    }
+
+    /**
+     * @return Wall-clock time of a {@link System#nanoTime()} reading taken during the trace,
+     *         in nanoseconds since the epoch (millisecond accuracy for the trace start)
+     */
+    public long epochNanos(long nanoTime) {
+        return startEpochNanos + (nanoTime - startNanos);
+    }
+
+    /**
+     * @return Random 16-byte trace id in lowercase hex
+     */
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return HEX.toHexDigits(random.nextLong()) + HEX.toHexDigits(random.nextLong());
+    }
+
+    /**
+     * @return Random 8-byte span id in lowercase hex
+     */
+    static String newSpanId() {
+        return HEX.toHexDigits(ThreadLocalRandom.current().nextLong());
+    }
+}
@@ -0,0 +1,10 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+/**
+ * Receives every finished {@link Trace}. Called on the request thread right after the
+ * response is written, so implementations should only copy or queue the trace.
+ */
+public interface TraceExporter {
+
+    void export(Trace trace);
+}
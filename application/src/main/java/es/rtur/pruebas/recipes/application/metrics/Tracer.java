@@ -0,0 +1,119 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts and finishes {@link Trace}s and hands the finished ones to every {@link TraceExporter}.
+ *
+ * A trace starts at the REST layer for a sample of the requests, or at the
+ * {@link MeasuredInterceptor} for a use case called outside a request (scheduled jobs, event
+ * consumers, tests). Unsampled calls pay one thread-local read per measured method.
+ */
+@ApplicationScoped
+public class Tracer {
+
+    private static final Logger LOG = Logger.getLogger(Tracer.class);
+
+    /**
+     * Prefix of the attributes with the id arguments of a measured method.
+     */
+    static final String ID_ATTRIBUTE_PREFIX = "recipes.";
+
+    private static final String[] NO_IDS = new String[0];
+
+    private final double sampleRate;
+    private final List<TraceExporter> exporters;
+    private final Map<Method, String[]> idAttributes = new ConcurrentHashMap<>();
+
+    @Inject
+    public Tracer(@ConfigProperty(name = "recipes.tracing.sample-rate", defaultValue = "0") double sampleRate,
+                  Instance<TraceExporter> exporters) {
+        this(sampleRate, exporters.stream().toList());
+    }
+
+    /**
+     * For use outside the container (benchmarks).
+     */
+    public Tracer(double sampleRate, List<TraceExporter> exporters) {
+        this.sampleRate = sampleRate;
+        this.exporters = List.copyOf(exporters);
+    }
+
+    /**
+     * @return Whether a new trace should be started, according to the sample rate
+     */
+    public boolean sample() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Starts a trace on this thread with its root span.
+     * @param traceId Id of the caller's trace to continue, or null to start a new one
+     * @param remoteParentId Id of the caller's span, or null
+     */
+    public Trace start(String traceId, String remoteParentId, String name, Span.Kind kind) {
+        Trace trace = new Trace(traceId != null ? traceId : Trace.newTraceId(), remoteParentId);
+        trace.startSpan(name, kind);
+        Trace.CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Closes the root span if still open, unbinds the trace and exports it.
+     */
+    public void finish(Trace trace) {
+        Trace.CURRENT.remove();
+        Span root = trace.root();
+        if (root.durationNanos() < 0) {
+            trace.end(root);
+        }
+        for (TraceExporter exporter : exporters) {
+            try {
+                exporter.export(trace);
+            } catch (RuntimeException e) {
+                LOG.warnf(e, "Trace %s could not be exported by %s", trace.traceId(), exporter.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Adds the id arguments of a call (Integer or Long parameters named id or id*, such as
+     * idUsuario) as {@value #ID_ATTRIBUTE_PREFIX}-prefixed attributes. Parameter names come
+     * from the -parameters compiler flag and are resolved once per method.
+     */
+    void addIdAttributes(Span span, Method method, Object[] arguments) {
+        String[] names = idAttributes.computeIfAbsent(method, Tracer::idAttributeNames);
+        for (int i = 0; i < names.length && i < arguments.length; i++) {
+            if (names[i] != null) {
+                span.attribute(names[i], arguments[i]);
+            }
+        }
+    }
+
+    private static String[] idAttributeNames(Method method) {
+        Parameter[] parameters = method.getParameters();
+        String[] names = new String[parameters.length];
+        boolean any = false;
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> type = parameters[i].getType();
+            String name = parameters[i].getName();
+            boolean numeric = type == Integer.class || type == int.class || type == Long.class || type == long.class;
+            if (numeric && parameters[i].isNamePresent() && name.startsWith("id")) {
+                names[i] = ID_ATTRIBUTE_PREFIX + name;
+                any = true;
+            }
+        }
+        return any ? names : NO_IDS;
+    }
+}
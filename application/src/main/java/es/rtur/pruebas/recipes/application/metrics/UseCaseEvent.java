@@ -0,0 +1,18 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One execution of a use case, including its transaction commit.
+ */
+@Name(UseCaseEvent.NAME)
+@Label("Use Case")
+@Category({"Recipes", "Application"})
+@Description("Execution of a use case, with its outcome (ok or the exception thrown)")
+public class UseCaseEvent extends CallEvent {
+
+    public static final String NAME = "recipes.UseCase";
+}
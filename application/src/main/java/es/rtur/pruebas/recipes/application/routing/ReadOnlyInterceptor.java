@@ -0,0 +1,26 @@
+package es.rtur.pruebas.recipes.application.routing;
+
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Flags the current thread as read-only while a {@link ReadOnly} use case runs.
+ * Runs before the transaction interceptor, so sessions opened by the use case already see the flag.
+ */
+@ReadOnly
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class ReadOnlyInterceptor {
+
+    @AroundInvoke
+    Object route(InvocationContext context) throws Exception {
+        boolean previous = RoutingContext.enterReadOnly();
+        try {
+            return context.proceed();
+        } finally {
+            RoutingContext.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package es.rtur.pruebas.recipes.application.routing;
+
+/**
+ * Per-thread routing hint for the persistence layer.
+ * The infrastructure reads it when a new session is opened: sessions opened inside a
+ * {@link ReadOnly} use case may go to a read replica, every other session goes to the primary.
+ * A session keeps the database it was opened on, so the hint only matters at session start.
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private RoutingContext() {
+    }
+
+    /**
+     * @return true if the current thread is running a read-only use case
+     */
+    public static boolean isReadOnly() {
+        return READ_ONLY.get();
+    }
+
+    /**
+     * Flags the current thread as read-only.
+     * @return the previous value, to be passed to {@link #restore(boolean)}
+     */
+    public static boolean enterReadOnly() {
+        boolean previous = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    /**
+     * Restores the value returned by {@link #enterReadOnly()}.
+     */
+    public static void restore(boolean previous) {
+        if (previous) {
+            READ_ONLY.set(Boolean.TRUE);
+        } else {
+            READ_ONLY.remove();
+        }
+    }
+}
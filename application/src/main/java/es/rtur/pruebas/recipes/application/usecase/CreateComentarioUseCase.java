@@ -1,8 +1,13 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.ComentarioDTO;
+import es.rtur.pruebas.recipes.application.event.ComentarioCreado;
+import es.rtur.pruebas.recipes.application.event.DomainEventPublisher;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Comentario;
+import es.rtur.pruebas.recipes.domain.entity.Usuario;
 import es.rtur.pruebas.recipes.domain.repository.ComentarioRepository;
+import es.rtur.pruebas.recipes.domain.repository.UsuarioRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.ComentarioId;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
 import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
@@ -12,16 +17,24 @@
 
 /**
  * Use Case for creating a comment on a recipe (RF-03).
- * RN-08: Comments can only be created by logged-in users.
+ * RN-08: Comments can only be created by logged-in users; accounts waiting to be deleted
+ * cannot comment, so the background deletion never finds new rows behind it.
  */
 @ApplicationScoped
+@Measured
 public class CreateComentarioUseCase {
 
     private final ComentarioRepository comentarioRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final DomainEventPublisher eventPublisher;
 
     @Inject
-    public CreateComentarioUseCase(ComentarioRepository comentarioRepository) {
+    public CreateComentarioUseCase(ComentarioRepository comentarioRepository,
+                                   UsuarioRepository usuarioRepository,
+                                   DomainEventPublisher eventPublisher) {
         this.comentarioRepository = comentarioRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -29,11 +42,17 @@ public CreateComentarioUseCase(ComentarioRepository comentarioRepository) {
      * @param dto Comment data
      * @param idAutor ID of the user creating the comment
      * @return ComentarioDTO with the created comment data
+     * @throws IllegalArgumentException if the user is missing, unknown or marked for deletion
      */
     public ComentarioDTO execute(@Valid ComentarioDTO dto, Integer idAutor) {
         if (idAutor == null) {
             throw new IllegalArgumentException("User must be authenticated to create a comment");
         }
+        Usuario usuario = usuarioRepository.findById(UsuarioId.of(idAutor))
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + idAutor));
+        if (usuario.isMarkedForDeletion()) {
+            throw new IllegalArgumentException("User account is being deleted: " + idAutor);
+        }
 
         // Create domain entity
         Comentario comentario = new Comentario(
@@ -45,6 +64,11 @@ public ComentarioDTO execute(@Valid ComentarioDTO dto, Integer idAutor) {
 
         Comentario savedComentario = comentarioRepository.save(comentario);
 
+        eventPublisher.publish(new ComentarioCreado(
+                savedComentario.getId().getValue(),
+                savedComentario.getIdReceta().getValue(),
+                savedComentario.getIdAutor().getValue()));
+
         return mapToDTO(savedComentario);
     }
 
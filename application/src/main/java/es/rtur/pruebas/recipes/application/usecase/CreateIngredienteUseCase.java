@@ -1,6 +1,7 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.IngredienteDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Ingrediente;
 import es.rtur.pruebas.recipes.domain.repository.IngredienteRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.IngredienteId;
@@ -12,6 +13,7 @@
  * Use Case for creating an ingrediente (RF-06 - Admin only).
  */
 @ApplicationScoped
+@Measured
 public class CreateIngredienteUseCase {
 
     private final IngredienteRepository ingredienteRepository;
@@ -1,6 +1,9 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.RecetaDTO;
+import es.rtur.pruebas.recipes.application.event.DomainEventPublisher;
+import es.rtur.pruebas.recipes.application.event.RecetaCreada;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Receta;
 import es.rtur.pruebas.recipes.domain.repository.RecetaRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
@@ -14,13 +17,17 @@
  * RN-01: Only logged-in users can create recipes.
  */
 @ApplicationScoped
+@Measured
 public class CreateRecetaUseCase {
 
     private final RecetaRepository recetaRepository;
+    private final DomainEventPublisher eventPublisher;
 
     @Inject
-    public CreateRecetaUseCase(RecetaRepository recetaRepository) {
+    public CreateRecetaUseCase(RecetaRepository recetaRepository,
+                               DomainEventPublisher eventPublisher) {
         this.recetaRepository = recetaRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -48,11 +55,15 @@ public RecetaDTO execute(@Valid RecetaDTO dto, Integer idAutor) {
 
         Receta savedReceta = recetaRepository.save(receta);
 
+        eventPublisher.publish(new RecetaCreada(
+                savedReceta.getId().getValue(),
+                savedReceta.getIdAutor().getValue()));
+
         return mapToDTO(savedReceta);
     }
 
     private RecetaDTO mapToDTO(Receta receta) {
-        return new RecetaDTO(
+        RecetaDTO dto = new RecetaDTO(
                 receta.getId() != null ? receta.getId().getValue() : null,
                 receta.getNombre(),
                 receta.getTiempo(),
@@ -64,5 +75,7 @@ private RecetaDTO mapToDTO(Receta receta) {
                 receta.getFCreacion(),
                 receta.getFModificacion()
         );
+        dto.setResumen(receta.getResumen());
+        return dto;
     }
 }
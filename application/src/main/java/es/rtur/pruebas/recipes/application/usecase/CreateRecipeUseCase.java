@@ -1,6 +1,7 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.RecipeDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Recipe;
 import es.rtur.pruebas.recipes.domain.repository.RecipeRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.RecipeId;
@@ -9,6 +10,7 @@
 import jakarta.validation.Valid;
 
 @ApplicationScoped
+@Measured
 public class CreateRecipeUseCase {
 
     private final RecipeRepository recipeRepository;
@@ -1,6 +1,7 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.UtensilioDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Utensilio;
 import es.rtur.pruebas.recipes.domain.repository.UtensilioRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.UtensilioId;
@@ -12,6 +13,7 @@
  * Use Case for creating a utensilio (RF-06 - Admin only).
  */
 @ApplicationScoped
+@Measured
 public class CreateUtensilioUseCase {
 
     private final UtensilioRepository utensilioRepository;
@@ -1,7 +1,13 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
+import es.rtur.pruebas.recipes.application.cache.ValoracionesUsuarioCache;
 import es.rtur.pruebas.recipes.application.dto.ValoracionDTO;
+import es.rtur.pruebas.recipes.application.event.DomainEventPublisher;
+import es.rtur.pruebas.recipes.application.event.ValoracionCambiada;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.domain.entity.Usuario;
 import es.rtur.pruebas.recipes.domain.entity.Valoracion;
+import es.rtur.pruebas.recipes.domain.repository.UsuarioRepository;
 import es.rtur.pruebas.recipes.domain.repository.ValoracionRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
 import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
@@ -15,15 +21,26 @@
 /**
  * Use Case for creating/updating a valoracion (like/dislike) on a recipe (RF-04).
  * RN-04: A user can only give one like/dislike per recipe.
+ * Accounts waiting to be deleted cannot rate, so the background deletion never finds new rows behind it.
  */
 @ApplicationScoped
+@Measured
 public class CreateValoracionUseCase {
 
     private final ValoracionRepository valoracionRepository;
+    private final DomainEventPublisher eventPublisher;
+    private final ValoracionesUsuarioCache valoracionesUsuarioCache;
+    private final UsuarioRepository usuarioRepository;
 
     @Inject
-    public CreateValoracionUseCase(ValoracionRepository valoracionRepository) {
+    public CreateValoracionUseCase(ValoracionRepository valoracionRepository,
+                                   DomainEventPublisher eventPublisher,
+                                   ValoracionesUsuarioCache valoracionesUsuarioCache,
+                                   UsuarioRepository usuarioRepository) {
         this.valoracionRepository = valoracionRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.eventPublisher = eventPublisher;
+        this.valoracionesUsuarioCache = valoracionesUsuarioCache;
     }
 
     /**
@@ -32,11 +49,17 @@ public CreateValoracionUseCase(ValoracionRepository valoracionRepository) {
      * @param dto Valoracion data
      * @param idUsuario ID of the user creating the valoracion
      * @return ValoracionDTO with the created/updated valoracion data
+     * @throws IllegalArgumentException if the user is missing, unknown or marked for deletion
      */
     public ValoracionDTO execute(@Valid ValoracionDTO dto, Integer idUsuario) {
         if (idUsuario == null) {
             throw new IllegalArgumentException("User must be authenticated to rate a recipe");
         }
+        Usuario usuario = usuarioRepository.findById(UsuarioId.of(idUsuario))
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + idUsuario));
+        if (usuario.isMarkedForDeletion()) {
+            throw new IllegalArgumentException("User account is being deleted: " + idUsuario);
+        }
 
         RecetaId recetaId = RecetaId.of(dto.getIdReceta());
         UsuarioId usuarioId = UsuarioId.of(idUsuario);
@@ -74,6 +97,15 @@ public ValoracionDTO execute(@Valid ValoracionDTO dto, Integer idUsuario) {
 
         Valoracion savedValoracion = valoracionRepository.save(valoracion);
 
+        valoracionesUsuarioCache.update(idUsuario, recetaId.getValue(),
+                savedValoracion.getTipo(), savedValoracion.isActive());
+
+        eventPublisher.publish(new ValoracionCambiada(
+                recetaId.getValue(),
+                usuarioId.getValue(),
+                savedValoracion.getTipo(),
+                savedValoracion.isActive()));
+
         return mapToDTO(savedValoracion);
     }
 
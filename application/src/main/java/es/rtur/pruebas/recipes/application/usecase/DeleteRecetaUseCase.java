@@ -1,5 +1,6 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Receta;
 import es.rtur.pruebas.recipes.domain.repository.RecetaRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
@@ -12,6 +13,7 @@
  * RN-02: A user can only delete their own recipes (except admin).
  */
 @ApplicationScoped
+@Measured
 public class DeleteRecetaUseCase {
 
     private final RecetaRepository recetaRepository;
@@ -0,0 +1,54 @@
+package es.rtur.pruebas.recipes.application.usecase;
+
+import es.rtur.pruebas.recipes.application.cache.ValoracionesUsuarioCache;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.domain.entity.Usuario;
+import es.rtur.pruebas.recipes.domain.repository.UsuarioRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Use Case for deleting a user account (RF-06).
+ * The account is only marked as "eliminado" here, which disables it at once; its recipes,
+ * comments and ratings are deleted later in small batches by a background job, so the
+ * request never holds a transaction over the user's whole history.
+ */
+@ApplicationScoped
+@Measured
+public class DeleteUsuarioUseCase {
+
+    private final UsuarioRepository usuarioRepository;
+    private final ValoracionesUsuarioCache valoracionesUsuarioCache;
+
+    @Inject
+    public DeleteUsuarioUseCase(UsuarioRepository usuarioRepository,
+                                ValoracionesUsuarioCache valoracionesUsuarioCache) {
+        this.usuarioRepository = usuarioRepository;
+        this.valoracionesUsuarioCache = valoracionesUsuarioCache;
+    }
+
+    /**
+     * Schedules the deletion of a user.
+     * @param id User ID to delete
+     * @param idSolicitante ID of the user requesting the deletion
+     * @param isAdmin Whether the requesting user is an admin
+     * @throws IllegalArgumentException if the user does not exist
+     * @throws SecurityException if a non-admin user tries to delete another account
+     */
+    public void execute(Integer id, Integer idSolicitante, boolean isAdmin) {
+        Usuario usuario = usuarioRepository.findById(UsuarioId.of(id))
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
+
+        if (!isAdmin && !id.equals(idSolicitante)) {
+            throw new SecurityException("User is not authorized to delete this account");
+        }
+
+        if (usuario.isMarkedForDeletion()) {
+            return;
+        }
+        usuario.markForDeletion();
+        usuarioRepository.save(usuario);
+        valoracionesUsuarioCache.invalidate(id);
+    }
+}
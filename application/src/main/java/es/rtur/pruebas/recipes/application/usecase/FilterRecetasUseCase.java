@@ -1,6 +1,8 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.RecetaDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.application.routing.ReadOnly;
 import es.rtur.pruebas.recipes.domain.entity.Receta;
 import es.rtur.pruebas.recipes.domain.repository.RecetaRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -13,6 +15,8 @@
  * Use Case for filtering recipes by difficulty or category (RF-07).
  */
 @ApplicationScoped
+@Measured
+@ReadOnly
 public class FilterRecetasUseCase {
 
     private final RecetaRepository recetaRepository;
@@ -53,7 +57,7 @@ public List<RecetaDTO> executeByCategoria(String categoria) {
     }
 
     private RecetaDTO mapToDTO(Receta receta) {
-        return new RecetaDTO(
+        RecetaDTO dto = new RecetaDTO(
                 receta.getId() != null ? receta.getId().getValue() : null,
                 receta.getNombre(),
                 receta.getTiempo(),
@@ -65,5 +69,7 @@ private RecetaDTO mapToDTO(Receta receta) {
                 receta.getFCreacion(),
                 receta.getFModificacion()
         );
+        dto.setResumen(receta.getResumen());
+        return dto;
     }
 }
@@ -1,6 +1,8 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.RecetaDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.application.routing.ReadOnly;
 import es.rtur.pruebas.recipes.domain.entity.Receta;
 import es.rtur.pruebas.recipes.domain.repository.RecetaRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
@@ -11,6 +13,8 @@
  * Use Case for getting a recipe by ID (RF-02).
  */
 @ApplicationScoped
+@Measured
+@ReadOnly
 public class GetRecetaUseCase {
 
     private final RecetaRepository recetaRepository;
@@ -33,7 +37,7 @@ public RecetaDTO execute(Integer id) {
     }
 
     private RecetaDTO mapToDTO(Receta receta) {
-        return new RecetaDTO(
+        RecetaDTO dto = new RecetaDTO(
                 receta.getId() != null ? receta.getId().getValue() : null,
                 receta.getNombre(),
                 receta.getTiempo(),
@@ -45,5 +49,7 @@ private RecetaDTO mapToDTO(Receta receta) {
                 receta.getFCreacion(),
                 receta.getFModificacion()
         );
+        dto.setResumen(receta.getResumen());
+        return dto;
     }
 }
@@ -1,6 +1,7 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.RecipeDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Recipe;
 import es.rtur.pruebas.recipes.domain.repository.RecipeRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.RecipeId;
@@ -10,6 +11,7 @@
 import java.util.Optional;
 
 @ApplicationScoped
+@Measured
 public class GetRecipeUseCase {
 
     private final RecipeRepository recipeRepository;
@@ -1,14 +1,25 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.application.routing.ReadOnly;
 import es.rtur.pruebas.recipes.domain.repository.ValoracionRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionCount;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
  * Use Case for getting valoracion counts for a recipe (RF-04).
  */
 @ApplicationScoped
+@Measured
+@ReadOnly
 public class GetValoracionesUseCase {
 
     private final ValoracionRepository valoracionRepository;
@@ -32,6 +43,26 @@ public ValoracionSummary execute(Integer idReceta) {
         return new ValoracionSummary(likes, dislikes);
     }
 
+    /**
+     * Gets like and dislike counts for several recipes with a single query.
+     * @param idsReceta Recipe IDs
+     * @return Map of recipe ID to ValoracionSummary, with zero counts for recipes without valoraciones
+     */
+    public Map<Integer, ValoracionSummary> executeBatch(Collection<Integer> idsReceta) {
+        List<RecetaId> recetaIds = idsReceta.stream()
+                .map(RecetaId::of)
+                .collect(Collectors.toList());
+
+        Map<RecetaId, ValoracionCount> counts = valoracionRepository.countByRecetas(recetaIds);
+
+        Map<Integer, ValoracionSummary> summaries = new HashMap<>();
+        for (RecetaId recetaId : recetaIds) {
+            ValoracionCount count = counts.getOrDefault(recetaId, ValoracionCount.empty());
+            summaries.put(recetaId.getValue(), new ValoracionSummary(count.getLikes(), count.getDislikes()));
+        }
+        return summaries;
+    }
+
     /**
      * Inner class to return valoracion summary.
      */
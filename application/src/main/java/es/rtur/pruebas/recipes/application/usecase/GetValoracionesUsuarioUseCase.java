@@ -0,0 +1,68 @@
+package es.rtur.pruebas.recipes.application.usecase;
+
+import es.rtur.pruebas.recipes.application.cache.ValoracionesUsuarioCache;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.application.routing.ReadOnly;
+import es.rtur.pruebas.recipes.domain.repository.ValoracionRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Use Case for getting the viewer's like/dislike state on a page of recipes (RF-04).
+ * Resolves the whole page at once: from the per-user cache when enabled,
+ * otherwise with a single IN-list query.
+ */
+@ApplicationScoped
+@Measured
+@ReadOnly
+public class GetValoracionesUsuarioUseCase {
+
+    private final ValoracionRepository valoracionRepository;
+    private final ValoracionesUsuarioCache cache;
+
+    @Inject
+    public GetValoracionesUsuarioUseCase(ValoracionRepository valoracionRepository,
+                                         ValoracionesUsuarioCache cache) {
+        this.valoracionRepository = valoracionRepository;
+        this.cache = cache;
+    }
+
+    /**
+     * Gets the user's valoracion type for each of the given recipes.
+     * @param idsReceta Recipe IDs (typically one listing page)
+     * @param idUsuario ID of the viewer
+     * @return Map of recipe ID to 'like' or 'dislike'; recipes the user has not rated are omitted
+     */
+    public Map<Integer, String> execute(Collection<Integer> idsReceta, Integer idUsuario) {
+        if (idUsuario == null || idsReceta.isEmpty()) {
+            return Map.of();
+        }
+
+        if (cache.isEnabled()) {
+            return cache.getTipos(idUsuario, idsReceta, this::loadAll);
+        }
+
+        List<RecetaId> recetaIds = idsReceta.stream()
+                .map(RecetaId::of)
+                .collect(Collectors.toList());
+        return toIntegerKeys(valoracionRepository.findTiposByUsuarioAndRecetas(UsuarioId.of(idUsuario), recetaIds));
+    }
+
+    private Map<Integer, String> loadAll(int idUsuario) {
+        return toIntegerKeys(valoracionRepository.findTiposByUsuario(UsuarioId.of(idUsuario)));
+    }
+
+    private Map<Integer, String> toIntegerKeys(Map<RecetaId, String> tipos) {
+        Map<Integer, String> result = new HashMap<>();
+        tipos.forEach((recetaId, tipo) -> result.put(recetaId.getValue(), tipo));
+        return result;
+    }
+}
@@ -1,12 +1,20 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.ComentarioDTO;
+import es.rtur.pruebas.recipes.application.dto.ComentarioPageDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.application.routing.ReadOnly;
 import es.rtur.pruebas.recipes.domain.entity.Comentario;
 import es.rtur.pruebas.recipes.domain.repository.ComentarioRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.ComentarioId;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -14,8 +22,15 @@
  * Use Case for listing comments on a recipe (RF-03).
  */
 @ApplicationScoped
+@Measured
+@ReadOnly
 public class ListComentariosUseCase {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String ESTADO_ACTIVO = "activo";
+
     private final ComentarioRepository comentarioRepository;
 
     @Inject
@@ -25,15 +40,69 @@ public ListComentariosUseCase(ComentarioRepository comentarioRepository) {
 
     /**
      * Lists all active comments for a recipe.
+     * Unbounded: prefer {@link #executePage} for recipes with long threads.
      * @param idReceta Recipe ID
      * @return List of ComentarioDTO
      */
     public List<ComentarioDTO> execute(Integer idReceta) {
-        return comentarioRepository.findByRecetaAndEstado(RecetaId.of(idReceta), "activo").stream()
+        return comentarioRepository.findByRecetaAndEstado(RecetaId.of(idReceta), ESTADO_ACTIVO).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lists the latest active comments of a recipe (newest first).
+     * @param idReceta Recipe ID
+     * @param limit Maximum number of comments, capped at MAX_PAGE_SIZE
+     * @return List of ComentarioDTO
+     */
+    public List<ComentarioDTO> executeLatest(Integer idReceta, int limit) {
+        return comentarioRepository.findLatestByRecetaAndEstado(RecetaId.of(idReceta), ESTADO_ACTIVO, pageSize(limit)).stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lists one page of active comments of a recipe (newest first) using keyset pagination.
+     * @param idReceta Recipe ID
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Page size; DEFAULT_PAGE_SIZE if null, capped at MAX_PAGE_SIZE
+     * @return Page with the comments and the cursor of the next page
+     */
+    public ComentarioPageDTO executePage(Integer idReceta, String cursor, Integer limit) {
+        RecetaId recetaId = RecetaId.of(idReceta);
+        int size = pageSize(limit != null ? limit : DEFAULT_PAGE_SIZE);
+
+        // One extra row tells whether there is a next page without a COUNT query
+        List<Comentario> comentarios;
+        if (cursor == null || cursor.isBlank()) {
+            comentarios = comentarioRepository.findLatestByRecetaAndEstado(recetaId, ESTADO_ACTIVO, size + 1);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            comentarios = comentarioRepository.findByRecetaAndEstadoBefore(
+                    recetaId, ESTADO_ACTIVO, position.fCreacion, position.idComentario, size + 1);
+        }
+
+        boolean hasMore = comentarios.size() > size;
+        List<Comentario> page = hasMore ? comentarios.subList(0, size) : comentarios;
+        String nextCursor = null;
+        if (hasMore) {
+            Comentario last = page.get(page.size() - 1);
+            nextCursor = new Cursor(last.getFCreacion(), last.getId()).encode();
+        }
+
+        return new ComentarioPageDTO(
+                page.stream().map(this::mapToDTO).collect(Collectors.toList()),
+                nextCursor);
+    }
+
+    private int pageSize(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
     private ComentarioDTO mapToDTO(Comentario comentario) {
         return new ComentarioDTO(
                 comentario.getId() != null ? comentario.getId().getValue() : null,
@@ -45,4 +114,37 @@ private ComentarioDTO mapToDTO(Comentario comentario) {
                 comentario.getFModificacion()
         );
     }
+
+    /**
+     * Position of the last comment of a page, encoded as an opaque URL-safe string.
+     */
+    private static final class Cursor {
+        private final LocalDateTime fCreacion;
+        private final ComentarioId idComentario;
+
+        Cursor(LocalDateTime fCreacion, ComentarioId idComentario) {
+            this.fCreacion = fCreacion;
+            this.idComentario = idComentario;
+        }
+
+        String encode() {
+            String raw = fCreacion + "|" + idComentario.getValue();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return new Cursor(
+                        LocalDateTime.parse(raw.substring(0, separator)),
+                        ComentarioId.of(Integer.valueOf(raw.substring(separator + 1))));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.IngredienteDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.application.routing.ReadOnly;
 import es.rtur.pruebas.recipes.domain.entity.Ingrediente;
 import es.rtur.pruebas.recipes.domain.repository.IngredienteRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -13,6 +15,8 @@
  * Use Case for listing all ingredientes (RF-06).
  */
 @ApplicationScoped
+@Measured
+@ReadOnly
 public class ListIngredientesUseCase {
 
     private final IngredienteRepository ingredienteRepository;
@@ -0,0 +1,86 @@
+package es.rtur.pruebas.recipes.application.usecase;
+
+import es.rtur.pruebas.recipes.application.dto.RecetaResumenDTO;
+import es.rtur.pruebas.recipes.application.loader.ComposicionRecetaLoader;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.application.routing.ReadOnly;
+import es.rtur.pruebas.recipes.domain.readmodel.RecetaResumen;
+import es.rtur.pruebas.recipes.domain.repository.RecetaResumenRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Use Case for listing recipes with like, dislike and comment counts (RF-02, RF-07).
+ * A page costs one SQL statement whatever its size.
+ */
+@ApplicationScoped
+@Measured
+@ReadOnly
+public class ListRecetasResumenUseCase {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final RecetaResumenRepository recetaResumenRepository;
+    private final ComposicionRecetaLoader composicionRecetaLoader;
+
+    @Inject
+    public ListRecetasResumenUseCase(RecetaResumenRepository recetaResumenRepository,
+                                     ComposicionRecetaLoader composicionRecetaLoader) {
+        this.recetaResumenRepository = recetaResumenRepository;
+        this.composicionRecetaLoader = composicionRecetaLoader;
+    }
+
+    /**
+     * Lists a page of recipes, newest first, optionally filtered.
+     * @param dificultad Difficulty filter, or null
+     * @param categoria Category filter, or null
+     * @param page Zero-based page number
+     * @param size Page size; DEFAULT_PAGE_SIZE if null, capped at MAX_PAGE_SIZE
+     * @return List of RecetaResumenDTO
+     */
+    public List<RecetaResumenDTO> execute(String dificultad, String categoria, int page, Integer size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page number cannot be negative");
+        }
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer");
+        }
+        pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+
+        return recetaResumenRepository.findPage(dificultad, categoria, page * pageSize, pageSize).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Same as {@link #execute} with the ingredients and utensils of every recipe attached.
+     * Costs two extra queries per page, independent of the page size.
+     */
+    public List<RecetaResumenDTO> executeWithComposicion(String dificultad, String categoria, int page, Integer size) {
+        List<RecetaResumenDTO> recetas = execute(dificultad, categoria, page, size);
+        composicionRecetaLoader.attach(recetas);
+        return recetas;
+    }
+
+    private RecetaResumenDTO mapToDTO(RecetaResumen resumen) {
+        return new RecetaResumenDTO(
+                resumen.getId().getValue(),
+                resumen.getNombre(),
+                resumen.getTiempo(),
+                resumen.getComensales(),
+                resumen.getDificultad(),
+                resumen.getCategoria(),
+                resumen.getResumen(),
+                resumen.getIdAutor().getValue(),
+                resumen.getFCreacion(),
+                resumen.getLikes(),
+                resumen.getDislikes(),
+                resumen.getComentarios()
+        );
+    }
+}
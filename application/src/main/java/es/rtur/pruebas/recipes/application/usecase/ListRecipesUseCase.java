@@ -1,6 +1,7 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.RecipeDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Recipe;
 import es.rtur.pruebas.recipes.domain.repository.RecipeRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -10,6 +11,7 @@
 import java.util.stream.Collectors;
 
 @ApplicationScoped
+@Measured
 public class ListRecipesUseCase {
 
     private final RecipeRepository recipeRepository;
@@ -1,6 +1,8 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.UtensilioDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.application.routing.ReadOnly;
 import es.rtur.pruebas.recipes.domain.entity.Utensilio;
 import es.rtur.pruebas.recipes.domain.repository.UtensilioRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -13,6 +15,8 @@
  * Use Case for listing all utensilios (RF-06).
  */
 @ApplicationScoped
+@Measured
+@ReadOnly
 public class ListUtensiliosUseCase {
 
     private final UtensilioRepository utensilioRepository;
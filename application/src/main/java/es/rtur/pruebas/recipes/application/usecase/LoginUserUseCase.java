@@ -1,6 +1,7 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.UsuarioDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Usuario;
 import es.rtur.pruebas.recipes.domain.repository.UsuarioRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -13,6 +14,7 @@
  * Validates credentials and returns user data if successful.
  */
 @ApplicationScoped
+@Measured
 public class LoginUserUseCase {
 
     private final UsuarioRepository usuarioRepository;
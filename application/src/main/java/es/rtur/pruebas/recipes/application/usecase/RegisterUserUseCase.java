@@ -1,6 +1,7 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.UsuarioDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Usuario;
 import es.rtur.pruebas.recipes.domain.repository.UsuarioRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
@@ -13,6 +14,7 @@
  * Handles user registration ensuring email uniqueness.
  */
 @ApplicationScoped
+@Measured
 public class RegisterUserUseCase {
 
     private final UsuarioRepository usuarioRepository;
@@ -1,6 +1,8 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.RecetaDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.application.routing.ReadOnly;
 import es.rtur.pruebas.recipes.domain.entity.Receta;
 import es.rtur.pruebas.recipes.domain.repository.RecetaRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -13,6 +15,8 @@
  * Use Case for searching recipes by name (RF-07).
  */
 @ApplicationScoped
+@Measured
+@ReadOnly
 public class SearchRecetasUseCase {
 
     private final RecetaRepository recetaRepository;
@@ -38,7 +42,7 @@ public List<RecetaDTO> execute(String searchTerm) {
     }
 
     private RecetaDTO mapToDTO(Receta receta) {
-        return new RecetaDTO(
+        RecetaDTO dto = new RecetaDTO(
                 receta.getId() != null ? receta.getId().getValue() : null,
                 receta.getNombre(),
                 receta.getTiempo(),
@@ -50,5 +54,7 @@ private RecetaDTO mapToDTO(Receta receta) {
                 receta.getFCreacion(),
                 receta.getFModificacion()
         );
+        dto.setResumen(receta.getResumen());
+        return dto;
     }
 }
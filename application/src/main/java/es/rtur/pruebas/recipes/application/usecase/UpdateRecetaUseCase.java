@@ -1,6 +1,7 @@
 package es.rtur.pruebas.recipes.application.usecase;
 
 import es.rtur.pruebas.recipes.application.dto.RecetaDTO;
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Receta;
 import es.rtur.pruebas.recipes.domain.repository.RecetaRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
@@ -14,6 +15,7 @@
  * RN-02: A user can only edit their own recipes (except admin).
  */
 @ApplicationScoped
+@Measured
 public class UpdateRecetaUseCase {
 
     private final RecetaRepository recetaRepository;
@@ -56,7 +58,7 @@ public RecetaDTO execute(Integer id, @Valid RecetaDTO dto, Integer idUsuario, bo
     }
 
     private RecetaDTO mapToDTO(Receta receta) {
-        return new RecetaDTO(
+        RecetaDTO dto = new RecetaDTO(
                 receta.getId() != null ? receta.getId().getValue() : null,
                 receta.getNombre(),
                 receta.getTiempo(),
@@ -68,5 +70,7 @@ private RecetaDTO mapToDTO(Receta receta) {
                 receta.getFCreacion(),
                 receta.getFModificacion()
         );
+        dto.setResumen(receta.getResumen());
+        return dto;
     }
 }
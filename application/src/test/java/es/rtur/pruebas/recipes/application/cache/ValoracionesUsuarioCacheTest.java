@@ -0,0 +1,80 @@
+package es.rtur.pruebas.recipes.application.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValoracionesUsuarioCacheTest {
+
+    @Test
+    void shouldLoadOnceAndServeFromCache() {
+        ValoracionesUsuarioCache cache = new ValoracionesUsuarioCache(true, 100);
+        AtomicInteger loads = new AtomicInteger();
+
+        Map<Integer, String> first = cache.getTipos(1, List.of(10, 11, 12), idUsuario -> {
+            loads.incrementAndGet();
+            return Map.of(10, "like", 12, "dislike", 99, "like");
+        });
+        Map<Integer, String> second = cache.getTipos(1, List.of(99, 13), idUsuario -> {
+            loads.incrementAndGet();
+            return Map.of();
+        });
+
+        assertEquals(Map.of(10, "like", 12, "dislike"), first);
+        assertEquals(Map.of(99, "like"), second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldApplyWritesToCachedUsers() {
+        ValoracionesUsuarioCache cache = new ValoracionesUsuarioCache(true, 100);
+        cache.getTipos(1, List.of(10), idUsuario -> Map.of(10, "like"));
+
+        cache.update(1, 10, "dislike", true);
+        cache.update(1, 11, "like", true);
+        assertEquals(Map.of(10, "dislike", 11, "like"),
+                cache.getTipos(1, List.of(10, 11), idUsuario -> fail("Should not reload")));
+
+        cache.update(1, 10, "dislike", false);
+        assertEquals(Map.of(11, "like"),
+                cache.getTipos(1, List.of(10, 11), idUsuario -> fail("Should not reload")));
+    }
+
+    @Test
+    void shouldNotCacheLoadThatRacesWithWrite() {
+        ValoracionesUsuarioCache cache = new ValoracionesUsuarioCache(true, 100);
+
+        // A write of the same user lands while the snapshot is being read
+        Map<Integer, String> tipos = cache.getTipos(1, List.of(10), idUsuario -> {
+            cache.update(1, 10, "like", true);
+            return Map.of();
+        });
+
+        assertTrue(tipos.isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(Map.of(10, "like"), cache.getTipos(1, List.of(10), idUsuario -> Map.of(10, "like")));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedUsers() {
+        ValoracionesUsuarioCache cache = new ValoracionesUsuarioCache(true, 2);
+        cache.getTipos(1, List.of(10), idUsuario -> Map.of());
+        cache.getTipos(2, List.of(10), idUsuario -> Map.of());
+        cache.getTipos(1, List.of(10), idUsuario -> fail("Should not reload"));
+
+        cache.getTipos(3, List.of(10), idUsuario -> Map.of());
+
+        assertEquals(2, cache.size());
+        AtomicInteger loads = new AtomicInteger();
+        cache.getTipos(2, List.of(10), idUsuario -> {
+            loads.incrementAndGet();
+            return Map.of();
+        });
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,82 @@
+package es.rtur.pruebas.recipes.application.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashSetTest {
+
+    @Test
+    void shouldAddContainAndRemove() {
+        IntHashSet set = new IntHashSet();
+
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(7));
+        assertEquals(1, set.size());
+
+        assertTrue(set.remove(42));
+        assertFalse(set.remove(42));
+        assertFalse(set.contains(42));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void shouldHandleZeroAndNegativeValues() {
+        IntHashSet set = new IntHashSet();
+
+        assertTrue(set.add(0));
+        assertTrue(set.add(-5));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-5));
+        assertEquals(2, set.size());
+
+        assertTrue(set.remove(0));
+        assertFalse(set.contains(0));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void shouldGrowBeyondInitialCapacity() {
+        IntHashSet set = new IntHashSet(2);
+        for (int i = 1; i <= 10_000; i++) {
+            set.add(i);
+        }
+
+        assertEquals(10_000, set.size());
+        for (int i = 1; i <= 10_000; i++) {
+            assertTrue(set.contains(i));
+        }
+        assertFalse(set.contains(10_001));
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    void shouldBehaveLikeHashSetUnderRandomOperations() {
+        IntHashSet set = new IntHashSet();
+        Set<Integer> reference = new HashSet<>();
+        Random random = new Random(12345);
+
+        // Small key range so that probe chains collide and removals shift entries
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt(512);
+            if (random.nextBoolean()) {
+                assertEquals(reference.add(value), set.add(value));
+            } else {
+                assertEquals(reference.remove(value), set.remove(value));
+            }
+            assertEquals(reference.size(), set.size());
+        }
+        for (int value = 0; value < 512; value++) {
+            assertEquals(reference.contains(value), set.contains(value));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package es.rtur.pruebas.recipes.application.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectHashMapTest {
+
+    @Test
+    void shouldPutGetAndReplace() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+        assertNull(map.put(42, "a"));
+        assertEquals("a", map.put(42, "b"));
+        assertEquals("b", map.get(42));
+        assertNull(map.get(7));
+        assertEquals("x", map.getOrDefault(7, "x"));
+        assertTrue(map.containsKey(42));
+        assertFalse(map.containsKey(7));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(42));
+    }
+
+    @Test
+    void shouldHandleZeroAndNegativeKeys() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>(2);
+
+        map.put(0, "zero");
+        map.put(-5, "minus five");
+
+        assertEquals("zero", map.get(0));
+        assertEquals("minus five", map.get(-5));
+        assertEquals(2, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+    }
+
+    @Test
+    void shouldGroupWithComputeIfAbsent() {
+        IntObjectHashMap<List<Integer>> map = new IntObjectHashMap<>();
+
+        for (int i = 0; i < 10; i++) {
+            map.computeIfAbsent(i % 3, key -> new ArrayList<>()).add(i);
+        }
+
+        assertEquals(3, map.size());
+        assertEquals(List.of(0, 3, 6, 9), map.get(0));
+        assertEquals(List.of(2, 5, 8), map.get(2));
+    }
+
+    @Test
+    void shouldBehaveLikeHashMapAcrossResizes() {
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+        Map<Integer, Integer> reference = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(5_000) - 2_500;
+            assertEquals(reference.put(key, i), map.put(key, i));
+        }
+
+        assertEquals(reference.size(), map.size());
+        for (Map.Entry<Integer, Integer> entry : reference.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+    }
+}
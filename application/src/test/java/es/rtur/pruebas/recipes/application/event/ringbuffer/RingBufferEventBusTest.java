@@ -0,0 +1,210 @@
+package es.rtur.pruebas.recipes.application.event.ringbuffer;
+
+import es.rtur.pruebas.recipes.application.event.DomainEvent;
+import es.rtur.pruebas.recipes.application.event.DomainEventHandler;
+import es.rtur.pruebas.recipes.application.event.RecetaCreada;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferEventBusTest {
+
+    private RingBufferEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        if (bus != null) {
+            bus.shutdown(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void shouldDeliverEveryEventToEveryHandlerInOrder() throws InterruptedException {
+        bus = new RingBufferEventBus(64, WaitStrategy.of("blocking"));
+        RecordingHandler indexer = new RecordingHandler("indexer", 1000);
+        RecordingHandler cache = new RecordingHandler("cache", 1000);
+        bus.addHandler(indexer);
+        bus.addHandler(cache);
+        bus.start();
+
+        for (int i = 0; i < 1000; i++) {
+            bus.publish(new RecetaCreada(i, 1));
+        }
+
+        assertTrue(indexer.await());
+        assertTrue(cache.await());
+        assertEquals(expectedIds(1000), indexer.recetaIds());
+        assertEquals(expectedIds(1000), cache.recetaIds());
+    }
+
+    @Test
+    void shouldDeliverEventsFromConcurrentProducers() throws InterruptedException {
+        bus = new RingBufferEventBus(128, WaitStrategy.of("yielding"));
+        RecordingHandler handler = new RecordingHandler("handler", 4000);
+        bus.addHandler(handler);
+        bus.start();
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int offset = p * 1000;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    bus.publish(new RecetaCreada(offset + i, 1));
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertTrue(handler.await());
+        List<Integer> received = new ArrayList<>(handler.recetaIds());
+        Collections.sort(received);
+        assertEquals(expectedIds(4000), received);
+    }
+
+    @Test
+    void shouldRejectWhenSlowestHandlerIsAFullBufferBehind() throws InterruptedException {
+        bus = new RingBufferEventBus(8, WaitStrategy.of("sleeping"));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch firstEvent = new CountDownLatch(1);
+        bus.addHandler(new DomainEventHandler() {
+            @Override
+            public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+                firstEvent.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public String getName() {
+                return "slow";
+            }
+        });
+        bus.start();
+
+        // The handler blocks on the first event, so its sequence stays at -1
+        assertTrue(bus.tryPublish(new RecetaCreada(0, 1)));
+        assertTrue(firstEvent.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 8; i++) {
+            assertTrue(bus.tryPublish(new RecetaCreada(i, 1)));
+        }
+
+        assertFalse(bus.tryPublish(new RecetaCreada(8, 1)));
+        assertEquals(1, bus.getRejectedCount());
+        assertEquals(8, bus.getLag("slow"));
+        assertEquals(8, bus.getMetrics().getMaxLag());
+        assertEquals(-1, bus.getLag("unknown"));
+
+        release.countDown();
+    }
+
+    @Test
+    void shouldMarkLastEventOfEachBatch() throws InterruptedException {
+        bus = new RingBufferEventBus(16, WaitStrategy.of("busy-spin"));
+        RecordingHandler handler = new RecordingHandler("handler", 10);
+        bus.addHandler(handler);
+
+        // Published before start, so the handler drains all of them as one batch
+        for (int i = 0; i < 10; i++) {
+            assertTrue(bus.tryPublish(new RecetaCreada(i, 1)));
+        }
+        bus.start();
+
+        assertTrue(handler.await());
+        assertEquals(List.of(9L), handler.endOfBatchSequences());
+        EventBusMetrics.ConsumerMetrics metrics = bus.getMetrics().getConsumers().get(0);
+        assertEquals(10, metrics.getProcessed());
+        assertEquals(1, metrics.getBatches());
+        assertEquals(0, metrics.getLag());
+    }
+
+    @Test
+    void shouldKeepDeliveringWhenHandlerFails() throws InterruptedException {
+        bus = new RingBufferEventBus(16, WaitStrategy.of("blocking"));
+        CountDownLatch done = new CountDownLatch(3);
+        bus.addHandler(new DomainEventHandler() {
+            @Override
+            public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+                done.countDown();
+                if (sequence == 1) {
+                    throw new IllegalStateException("Simulated failure");
+                }
+            }
+        });
+        bus.start();
+
+        for (int i = 0; i < 3; i++) {
+            bus.publish(new RecetaCreada(i, 1));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        bus.shutdown(1, TimeUnit.SECONDS);
+        assertEquals(1, bus.getMetrics().getConsumers().get(0).getErrors());
+    }
+
+    @Test
+    void shouldRejectBufferSizeThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferEventBus(10, WaitStrategy.of("blocking")));
+        assertThrows(IllegalArgumentException.class, () -> WaitStrategy.of("unknown"));
+    }
+
+    private static List<Integer> expectedIds(int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(i);
+        }
+        return ids;
+    }
+
+    private static final class RecordingHandler implements DomainEventHandler {
+
+        private final String name;
+        private final CountDownLatch latch;
+        private final List<Integer> recetaIds = Collections.synchronizedList(new ArrayList<>());
+        private final List<Long> endOfBatchSequences = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingHandler(String name, int expected) {
+            this.name = name;
+            this.latch = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+            recetaIds.add(((RecetaCreada) event).getIdReceta());
+            if (endOfBatch) {
+                endOfBatchSequences.add(sequence);
+            }
+            latch.countDown();
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        boolean await() throws InterruptedException {
+            return latch.await(10, TimeUnit.SECONDS);
+        }
+
+        List<Integer> recetaIds() {
+            return new ArrayList<>(recetaIds);
+        }
+
+        List<Long> endOfBatchSequences() {
+            return new ArrayList<>(endOfBatchSequences);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package es.rtur.pruebas.recipes.application.metrics;
+
+import es.rtur.pruebas.recipes.domain.entity.Comentario;
+import es.rtur.pruebas.recipes.domain.repository.ComentarioRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.ComentarioId;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    void shouldMeasureOnlyExecuteMethodsOfUseCases() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        CallTimer execute = registry.timer(SampleUseCase.class, SampleUseCase.class.getMethod("execute", int.class));
+        CallTimer overload = registry.timer(SampleUseCase.class, SampleUseCase.class.getMethod("execute", String.class));
+        CallTimer helper = registry.timer(SampleUseCase.class, SampleUseCase.class.getMethod("describe"));
+
+        assertNotNull(execute);
+        assertSame(execute, overload);
+        assertNull(helper);
+        assertEquals("usecase", execute.layer());
+        assertEquals("SampleUseCase", execute.type());
+        assertEquals("execute", execute.method());
+    }
+
+    @Test
+    void shouldMeasureOnlyRepositoryPortMethods() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        Method port = SampleRepository.class.getMethod("findById", ComentarioId.class);
+        Method helper = SampleRepository.class.getMethod("deleteAll");
+
+        assertEquals("repository", registry.timer(SampleRepository.class, port).layer());
+        assertNull(registry.timer(SampleRepository.class, helper));
+        assertNull(registry.timer(Object.class, Object.class.getMethod("toString")));
+        assertEquals(1, registry.timers().size());
+    }
+
+    @Test
+    void shouldAccumulateCallsIntoBuckets() {
+        CallTimer timer = new CallTimer("usecase", "SampleUseCase", "execute");
+
+        timer.record(100_000L, false);
+        timer.record(3_000_000L, true);
+        timer.record(60_000_000_000L, false);
+
+        long[] counts = timer.bucketCounts();
+        assertEquals(CallTimer.bucketBounds().length + 1, counts.length);
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[3]);
+        assertEquals(1, counts[counts.length - 1]);
+        assertEquals(3, timer.count());
+        assertEquals(1, timer.errors());
+        assertEquals(60_003_100_000L, timer.totalNanos());
+        assertEquals(60_000_000_000L, timer.maxNanos());
+    }
+
+    @Measured
+    static class SampleUseCase {
+
+        public int execute(int value) {
+            return value;
+        }
+
+        public String execute(String value) {
+            return value;
+        }
+
+        public String describe() {
+            return "sample";
+        }
+    }
+
+    @Measured(Measured.Layer.REPOSITORY)
+    abstract static class SampleRepository implements ComentarioRepository {
+
+        @Override
+        public Optional<Comentario> findById(ComentarioId id) {
+            return Optional.empty();
+        }
+
+        public void deleteAll() {
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+import es.rtur.pruebas.recipes.domain.entity.Receta;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Deterministic generator of a realistic dataset:
+ * <ul>
+ *   <li>recipe popularity follows a Zipf distribution: a few recipes get most ratings and comments</li>
+ *   <li>user activity follows a power law: a few users rate and comment a lot, most only a few times</li>
+ *   <li>authorship is skewed too, and names, ingredients and texts come from Spanish vocabularies</li>
+ * </ul>
+ * Each table is generated in fixed partitions of {@value #PARTITION_SIZE} owners (users or recipes),
+ * in parallel. Every partition has its own random generator derived from the seed, so the rows do
+ * not depend on the number of threads. Ratings are generated per user, which keeps the unique
+ * (id_receta, id_usuario) constraint within a partition.
+ */
+public final class DatasetGenerator {
+
+    static final int PARTITION_SIZE = 10_000;
+
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final String CLAVE = "generada";
+
+    private final DatasetSpec spec;
+    private final DatasetSink sink;
+    private final int threads;
+
+    private final ZipfDistribution recipePopularity;
+    private final ZipfDistribution authorActivity;
+    private final ZipfDistribution ingredientFrequency;
+    private final ZipfDistribution categoryFrequency;
+    private final long recipeStride;
+    private final long userStride;
+    private final long window;
+    private short[] categoryCodes;
+
+    /**
+     * Rows written per table and total time.
+     */
+    public record Summary(Map<Table, Long> rows, Duration elapsed) {
+
+        public long rows(Table table) {
+            return rows.getOrDefault(table, 0L);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartitionTask {
+        long write(DatasetSink.RowWriter out, SplittableRandom random, int from, int to) throws IOException;
+    }
+
+    public DatasetGenerator(DatasetSpec spec, DatasetSink sink, int threads) {
+        this.spec = spec;
+        this.sink = sink;
+        this.threads = Math.max(1, threads);
+        this.recipePopularity = new ZipfDistribution(spec.recetas(), spec.recipeSkew());
+        this.authorActivity = new ZipfDistribution(spec.usuarios(), spec.userSkew());
+        this.ingredientFrequency = new ZipfDistribution(Vocabulary.INGREDIENTES.size(), 1.0);
+        this.categoryFrequency = new ZipfDistribution(Vocabulary.CATEGORIAS.size(), 0.8);
+        this.recipeStride = stride(spec.recetas());
+        this.userStride = stride(spec.usuarios());
+        this.window = spec.days() * SECONDS_PER_DAY;
+    }
+
+    public Summary generate() throws IOException {
+        long start = System.nanoTime();
+        sink.begin();
+        Map<String, Short> codes = sink.categoryCodes(Vocabulary.CATEGORIAS);
+        categoryCodes = new short[Vocabulary.CATEGORIAS.size()];
+        for (int i = 0; i < categoryCodes.length; i++) {
+            categoryCodes[i] = codes.get(Vocabulary.CATEGORIAS.get(i));
+        }
+
+        PowerLawAllocation ratings = new PowerLawAllocation(spec.usuarios(), spec.userSkew(), spec.valoraciones());
+        PowerLawAllocation comments = new PowerLawAllocation(spec.usuarios(), spec.userSkew(), spec.comentarios());
+        Map<Table, Long> rows = new EnumMap<>(Table.class);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            rows.put(Table.USUARIOS, run(executor, Table.USUARIOS, spec.usuarios(), this::usuarios));
+            rows.put(Table.INGREDIENTES, run(executor, Table.INGREDIENTES, Vocabulary.INGREDIENTES.size(), this::ingredientes));
+            rows.put(Table.RECETAS, run(executor, Table.RECETAS, spec.recetas(), this::recetas));
+            rows.put(Table.INGREDIENTES_RECETA, run(executor, Table.INGREDIENTES_RECETA, spec.recetas(), this::ingredientesReceta));
+            rows.put(Table.VALORACIONES, run(executor, Table.VALORACIONES, spec.usuarios(),
+                    (out, random, from, to) -> valoraciones(out, random, from, to, ratings)));
+            rows.put(Table.COMENTARIOS, run(executor, Table.COMENTARIOS, spec.usuarios(),
+                    (out, random, from, to) -> comentarios(out, random, from, to, comments)));
+        } finally {
+            executor.shutdownNow();
+        }
+        sink.finish();
+        return new Summary(rows, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private long run(ExecutorService executor, Table table, int owners, PartitionTask task) throws IOException {
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int partition = 0; partition * (long) PARTITION_SIZE < owners; partition++) {
+            int from = partition * PARTITION_SIZE;
+            int to = (int) Math.min(owners, from + (long) PARTITION_SIZE);
+            int index = partition;
+            futures.add(executor.submit(() -> {
+                SplittableRandom random = new SplittableRandom(mix(spec.seed() * 31 + table.ordinal()) ^ mix(index + 1L));
+                try (DatasetSink.RowWriter out = sink.open(table, index)) {
+                    return task.write(out, random, from, to);
+                }
+            }));
+        }
+        long total = 0;
+        try {
+            for (Future<Long> future : futures) {
+                total += future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating " + table.tableName(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Error generating " + table.tableName(), e.getCause());
+        }
+        return total;
+    }
+
+    private long usuarios(DatasetSink.RowWriter out, SplittableRandom random, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            int id = i + 1;
+            String nombre = pick(Vocabulary.NOMBRES, random);
+            String apellido1 = pick(Vocabulary.APELLIDOS, random);
+            String apellido2 = pick(Vocabulary.APELLIDOS, random);
+            String email = slug(nombre) + "." + slug(apellido1) + "." + id + "@ejemplo.es";
+            LocalDateTime creada = spec.start().plusSeconds((long) ((i + random.nextDouble()) * window / spec.usuarios()));
+            out.write(id, nombre + " " + apellido1 + " " + apellido2, CLAVE, email, creada, false, "activo");
+        }
+        return to - from;
+    }
+
+    private long ingredientes(DatasetSink.RowWriter out, SplittableRandom random, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            Vocabulary.Ingredient ingrediente = Vocabulary.INGREDIENTES.get(i);
+            out.write(i + 1, ingrediente.nombre(), ingrediente.tipo(), spec.start());
+        }
+        return to - from;
+    }
+
+    private long recetas(DatasetSink.RowWriter out, SplittableRandom random, int from, int to) throws IOException {
+        StringBuilder preparacion = new StringBuilder(512);
+        for (int i = from; i < to; i++) {
+            // The main ingredient is never a seasoning (sal, aceite de oliva, ajo)
+            Vocabulary.Ingredient principal = Vocabulary.INGREDIENTES.get(
+                    3 + ingredientFrequency.sample(random) % (Vocabulary.INGREDIENTES.size() - 3));
+            String nombre = pick(Vocabulary.PLATOS, random) + " de " + principal.nombre() + pick(Vocabulary.ESTILOS, random);
+            preparacion.setLength(0);
+            int pasos = 3 + random.nextInt(5);
+            for (int p = 0; p < pasos; p++) {
+                if (p > 0) {
+                    preparacion.append(' ');
+                }
+                preparacion.append(pick(Vocabulary.PASOS, random));
+            }
+            String texto = preparacion.toString();
+            short dificultad = (short) (1 + Math.min(3, (int) (-Math.log(1 - random.nextDouble()) * 1.2)));
+            int autor = permute(authorActivity.sample(random), userStride, spec.usuarios());
+            out.write(i + 1, nombre, 5 * (2 + random.nextInt(24)), 2 + random.nextInt(5), dificultad,
+                    texto, Receta.resumir(texto), categoryCodes[categoryFrequency.sample(random)], autor,
+                    recipeCreated(i));
+        }
+        return to - from;
+    }
+
+    private long ingredientesReceta(DatasetSink.RowWriter out, SplittableRandom random, int from, int to)
+            throws IOException {
+        long rows = 0;
+        boolean[] used = new boolean[Vocabulary.INGREDIENTES.size()];
+        for (int i = from; i < to; i++) {
+            Arrays.fill(used, false);
+            int count = 3 + random.nextInt(10);
+            LocalDateTime creada = recipeCreated(i);
+            for (int n = 0; n < count; n++) {
+                int ingrediente = ingredientFrequency.sample(random);
+                if (used[ingrediente]) {
+                    continue;
+                }
+                used[ingrediente] = true;
+                String unidad = Vocabulary.INGREDIENTES.get(ingrediente).unidad();
+                out.write(i + 1, ingrediente + 1, quantity(unidad, random), unidad, creada);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long valoraciones(DatasetSink.RowWriter out, SplittableRandom random, int from, int to,
+                              PowerLawAllocation allocation) throws IOException {
+        long rows = 0;
+        for (int u = from; u < to; u++) {
+            int usuario = u + 1;
+            for (int rank : distinctRecipes((int) Math.min(allocation.count(u), spec.recetas()), random)) {
+                int receta = permute(rank, recipeStride, spec.recetas());
+                short tipo = (short) (random.nextDouble() < likeRatio(receta) ? 1 : 2);
+                out.write(receta, usuario, tipo, after(recipeCreated(receta - 1), random));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private long comentarios(DatasetSink.RowWriter out, SplittableRandom random, int from, int to,
+                             PowerLawAllocation allocation) throws IOException {
+        long rows = 0;
+        for (int u = from; u < to; u++) {
+            int autor = u + 1;
+            for (long c = allocation.count(u); c > 0; c--) {
+                int receta = permute(recipePopularity.sample(random), recipeStride, spec.recetas());
+                String contenido = pick(Vocabulary.COMENTARIOS, random);
+                if (random.nextInt(3) == 0) {
+                    contenido += " " + pick(Vocabulary.COMENTARIOS, random);
+                }
+                String estado = random.nextInt(20) == 0 ? "inactivo" : "activo";
+                out.write(receta, autor, contenido, estado, after(recipeCreated(receta - 1), random));
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Distinct popularity ranks drawn from the Zipf distribution. Heavy users exhaust the head,
+     * so after a bounded number of draws the rest is filled with the next unused ranks.
+     */
+    private List<Integer> distinctRecipes(int count, SplittableRandom random) {
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+        Set<Integer> ranks = new HashSet<>(count * 2);
+        List<Integer> ordered = new ArrayList<>(count);
+        for (long attempts = 16L * count; ordered.size() < count && attempts > 0; attempts--) {
+            int rank = recipePopularity.sample(random);
+            if (ranks.add(rank)) {
+                ordered.add(rank);
+            }
+        }
+        for (int rank = random.nextInt(spec.recetas()); ordered.size() < count; rank = (rank + 1) % spec.recetas()) {
+            if (ranks.add(rank)) {
+                ordered.add(rank);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Recipes are created at an even pace over the window, so the creation date of any recipe
+     * can be computed without reading it back.
+     */
+    private LocalDateTime recipeCreated(int index) {
+        return spec.start().plusSeconds(window * index / spec.recetas());
+    }
+
+    private LocalDateTime after(LocalDateTime created, SplittableRandom random) {
+        long remaining = Math.max(1, ChronoUnit.SECONDS.between(created, spec.end()));
+        return created.plusSeconds(random.nextLong(remaining));
+    }
+
+    /**
+     * Share of likes of a recipe, between 0.55 and 0.95, fixed per recipe.
+     */
+    private double likeRatio(int receta) {
+        return 0.55 + 0.4 * ((mix(spec.seed() ^ receta) >>> 11) * 0x1.0p-53);
+    }
+
+    private static BigDecimal quantity(String unidad, SplittableRandom random) {
+        return switch (unidad) {
+            case "g", "ml" -> BigDecimal.valueOf(25L * (2 + random.nextInt(39)));
+            case "pizca", "cucharada", "cucharadita", "hoja", "rama" -> BigDecimal.valueOf(1 + random.nextInt(3));
+            case "hebra" -> BigDecimal.valueOf(3 + random.nextInt(8));
+            default -> BigDecimal.valueOf(1 + random.nextInt(6));
+        };
+    }
+
+    private static <T> T pick(List<T> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String slug(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "").toLowerCase();
+    }
+
+    /**
+     * Maps popularity rank to id (1..n) with a fixed stride, so popular rows are spread over the
+     * whole id range instead of being the oldest ones.
+     */
+    static int permute(int rank, long stride, int n) {
+        return (int) (rank * stride % n) + 1;
+    }
+
+    static long stride(int n) {
+        long stride = 2_654_435_761L % n;
+        while (stride == 0 || gcd(stride, n) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Finalizer of MurmurHash3: spreads nearby seeds over the whole range.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,42 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Destination of the generated rows. The generator opens one writer per table partition
+ * and uses each writer from a single thread, but several writers are open at once.
+ */
+public interface DatasetSink {
+
+    /**
+     * Called once before any row is written.
+     */
+    default void begin() throws IOException {
+    }
+
+    /**
+     * Codes of the given categories, registering the missing ones.
+     */
+    Map<String, Short> categoryCodes(List<String> nombres) throws IOException;
+
+    RowWriter open(Table table, int partition) throws IOException;
+
+    /**
+     * Called once after every row has been written.
+     */
+    default void finish() throws IOException {
+    }
+
+    /**
+     * Writer of the rows of one partition, with values in {@link Table#columns()} order.
+     */
+    interface RowWriter extends AutoCloseable {
+
+        void write(Object... values) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+}
@@ -0,0 +1,55 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Size and shape of a generated dataset. The same spec always produces the same rows,
+ * whatever the number of threads.
+ *
+ * @param seed           Seed of every random choice
+ * @param usuarios       Number of users
+ * @param recetas        Number of recipes
+ * @param valoraciones   Number of ratings, spread over users with a power law
+ * @param comentarios    Number of comments, spread over users with a power law
+ * @param recipeSkew     Zipf exponent of recipe popularity (1.0: the classic 80/20 shape)
+ * @param userSkew       Power-law exponent of user activity
+ * @param days           Days covered by the creation dates
+ * @param end            Latest creation date; rows go back {@code days} from here
+ */
+public record DatasetSpec(long seed, int usuarios, int recetas, long valoraciones, long comentarios,
+                          double recipeSkew, double userSkew, int days, LocalDateTime end) {
+
+    public DatasetSpec {
+        if (usuarios < 1 || recetas < 1 || valoraciones < 0 || comentarios < 0 || days < 1) {
+            throw new IllegalArgumentException("Invalid dataset spec: " + usuarios + " usuarios, "
+                    + recetas + " recetas, " + valoraciones + " valoraciones, " + comentarios + " comentarios");
+        }
+    }
+
+    /**
+     * Dataset proportional to a number of ratings: N/10 recipes, N/20 users (at least 1000)
+     * and N/5 comments, over the last year.
+     */
+    public static DatasetSpec forValoraciones(long valoraciones, long seed) {
+        return new DatasetSpec(seed,
+                (int) Math.max(1000, valoraciones / 20),
+                (int) Math.max(100, valoraciones / 10),
+                valoraciones,
+                valoraciones / 5,
+                1.0, 0.9, 365,
+                LocalDate.now().atStartOfDay());
+    }
+
+    public DatasetSpec withSeed(long seed) {
+        return new DatasetSpec(seed, usuarios, recetas, valoraciones, comentarios, recipeSkew, userSkew, days, end);
+    }
+
+    public DatasetSpec withEnd(LocalDateTime end) {
+        return new DatasetSpec(seed, usuarios, recetas, valoraciones, comentarios, recipeSkew, userSkew, days, end);
+    }
+
+    public LocalDateTime start() {
+        return end.minusDays(days);
+    }
+}
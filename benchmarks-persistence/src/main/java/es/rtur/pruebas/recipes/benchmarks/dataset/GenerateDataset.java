@@ -0,0 +1,80 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entry point of dataset-generator.jar.
+ *
+ * <pre>
+ * java -jar benchmarks-persistence/target/dataset-generator.jar --valoraciones=10000000 --ndjson=target/dataset
+ * java -jar benchmarks-persistence/target/dataset-generator.jar --valoraciones=10000000 \
+ *      --jdbc-url=jdbc:postgresql://localhost:5432/recipes --user=postgres --password=postgres --truncate
+ * </pre>
+ *
+ * Options: {@code --seed} (42), {@code --threads} (available cores) and {@code --end} (today, the
+ * date the creation dates go back from). The JDBC target must already have the application schema.
+ */
+public final class GenerateDataset {
+
+    private GenerateDataset() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options.containsKey("help") || options.containsKey("ndjson") == options.containsKey("jdbc-url")) {
+            System.err.println("Usage: --valoraciones=N [--seed=S] [--threads=T] [--end=YYYY-MM-DD]"
+                    + " (--ndjson=DIR | --jdbc-url=URL [--user=U] [--password=P] [--truncate])");
+            System.exit(options.containsKey("help") ? 0 : 2);
+        }
+
+        DatasetSpec spec = DatasetSpec.forValoraciones(
+                Long.parseLong(options.getOrDefault("valoraciones", "10000000")),
+                Long.parseLong(options.getOrDefault("seed", "42")));
+        if (options.containsKey("end")) {
+            spec = spec.withEnd(LocalDate.parse(options.get("end")).atStartOfDay());
+        }
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        DatasetSink sink;
+        if (options.containsKey("ndjson")) {
+            sink = new NdjsonSink(Path.of(options.get("ndjson")));
+        } else {
+            String url = options.get("jdbc-url");
+            String user = options.getOrDefault("user", "");
+            String password = options.getOrDefault("password", "");
+            sink = new JdbcSink(() -> DriverManager.getConnection(url, user, password), options.containsKey("truncate"));
+        }
+
+        System.out.printf("Generating %,d usuarios, %,d recetas, %,d valoraciones and %,d comentarios with %d threads%n",
+                spec.usuarios(), spec.recetas(), spec.valoraciones(), spec.comentarios(), threads);
+        DatasetGenerator.Summary summary = new DatasetGenerator(spec, sink, threads).generate();
+        long total = 0;
+        for (Map.Entry<Table, Long> entry : summary.rows().entrySet()) {
+            System.out.printf("%-20s %,14d%n", entry.getKey().tableName(), entry.getValue());
+            total += entry.getValue();
+        }
+        double seconds = summary.elapsed().toMillis() / 1000.0;
+        System.out.printf("%,d rows in %.1f s (%,.0f rows/s)%n", total, seconds, total / seconds);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+}
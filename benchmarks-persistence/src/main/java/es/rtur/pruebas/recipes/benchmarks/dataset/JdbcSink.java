@@ -0,0 +1,253 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the rows into an existing schema (the one Hibernate creates for the application),
+ * one connection per partition. On PostgreSQL each partition is streamed with COPY; on any
+ * other database (H2 in the tests) it uses batched INSERTs.
+ *
+ * With {@code truncate} the generated tables are emptied first, which is required when the
+ * database already holds users or recipes: their ids are written explicitly. Categories are
+ * never truncated, they are looked up by name and only the missing ones are inserted.
+ */
+public final class JdbcSink implements DatasetSink {
+
+    /**
+     * Source of connections: a DataSource ({@code dataSource::getConnection}) or DriverManager.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection get() throws SQLException;
+    }
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COPY_ROWS = 20_000;
+    private static final List<String> TRUNCATED = List.of("outbox_eventos", "comentarios", "valoraciones",
+            "ingredientes_receta", "utensilios_receta", "recetas", "ingredientes", "usuarios");
+
+    private final ConnectionFactory connections;
+    private final boolean truncate;
+    private boolean postgresql;
+
+    public JdbcSink(ConnectionFactory connections, boolean truncate) {
+        this.connections = connections;
+        this.truncate = truncate;
+    }
+
+    @Override
+    public void begin() throws IOException {
+        try (Connection connection = connections.get(); Statement statement = connection.createStatement()) {
+            postgresql = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            if (!truncate) {
+                return;
+            }
+            if (postgresql) {
+                statement.execute("TRUNCATE TABLE " + String.join(", ", TRUNCATED) + " RESTART IDENTITY CASCADE");
+                return;
+            }
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            for (String table : TRUNCATED) {
+                statement.execute("TRUNCATE TABLE " + table + " RESTART IDENTITY");
+            }
+            statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        } catch (SQLException e) {
+            throw new IOException("Cannot prepare the target database", e);
+        }
+    }
+
+    @Override
+    public Map<String, Short> categoryCodes(List<String> nombres) throws IOException {
+        Map<String, Short> codes = new LinkedHashMap<>();
+        try (Connection connection = connections.get();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO categorias (nombre) SELECT ? WHERE NOT EXISTS (SELECT 1 FROM categorias WHERE nombre = ?)");
+             PreparedStatement select = connection.prepareStatement("SELECT id_categoria FROM categorias WHERE nombre = ?")) {
+            for (String nombre : nombres) {
+                insert.setString(1, nombre);
+                insert.setString(2, nombre);
+                insert.executeUpdate();
+                select.setString(1, nombre);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    codes.put(nombre, rs.getShort(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Cannot register the categories", e);
+        }
+        return codes;
+    }
+
+    @Override
+    public RowWriter open(Table table, int partition) throws IOException {
+        try {
+            Connection connection = connections.get();
+            connection.setAutoCommit(false);
+            return postgresql && connection.isWrapperFor(PGConnection.class)
+                    ? new CopyWriter(connection, table)
+                    : new InsertWriter(connection, table);
+        } catch (SQLException e) {
+            throw new IOException("Cannot open a connection for " + table.tableName(), e);
+        }
+    }
+
+    /**
+     * Moves the identity columns past the explicit ids and refreshes the planner statistics.
+     */
+    @Override
+    public void finish() throws IOException {
+        try (Connection connection = connections.get(); Statement statement = connection.createStatement()) {
+            for (Table table : Table.values()) {
+                if (!table.explicitIds()) {
+                    continue;
+                }
+                long next;
+                try (ResultSet rs = statement.executeQuery(
+                        "SELECT COALESCE(MAX(" + table.idColumn() + "), 0) + 1 FROM " + table.tableName())) {
+                    rs.next();
+                    next = rs.getLong(1);
+                }
+                statement.execute("ALTER TABLE " + table.tableName() + " ALTER COLUMN " + table.idColumn()
+                        + " RESTART WITH " + next);
+            }
+            statement.execute("ANALYZE");
+        } catch (SQLException e) {
+            throw new IOException("Cannot finish the load", e);
+        }
+    }
+
+    private static String insertSql(Table table) {
+        return "INSERT INTO " + table.tableName() + " (" + String.join(", ", table.columns()) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(table.columns().size(), "?")) + ")";
+    }
+
+    private static final class InsertWriter implements RowWriter {
+
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private int pending;
+
+        InsertWriter(Connection connection, Table table) throws SQLException {
+            this.connection = connection;
+            this.statement = connection.prepareStatement(insertSql(table));
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    statement.setObject(i + 1, values[i]);
+                }
+                statement.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    flush();
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+
+        private void flush() throws SQLException {
+            statement.executeBatch();
+            connection.commit();
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (connection; statement) {
+                if (pending > 0) {
+                    flush();
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    /**
+     * COPY in text format: tab separated, {@code \N} for null.
+     */
+    private static final class CopyWriter implements RowWriter {
+
+        private final Connection connection;
+        private final CopyManager copy;
+        private final String sql;
+        private final StringBuilder buffer = new StringBuilder(1 << 20);
+        private int pending;
+
+        CopyWriter(Connection connection, Table table) throws SQLException {
+            this.connection = connection;
+            this.copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            this.sql = "COPY " + table.tableName() + " (" + String.join(", ", table.columns()) + ") FROM STDIN";
+        }
+
+        @Override
+        public void write(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append('\t');
+                }
+                appendValue(values[i]);
+            }
+            buffer.append('\n');
+            if (++pending == COPY_ROWS) {
+                flush();
+            }
+        }
+
+        private void appendValue(Object value) {
+            if (value == null) {
+                buffer.append("\\N");
+                return;
+            }
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> buffer.append("\\\\");
+                    case '\t' -> buffer.append("\\t");
+                    case '\n' -> buffer.append("\\n");
+                    case '\r' -> buffer.append("\\r");
+                    default -> buffer.append(c);
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+            try {
+                copy.copyIn(sql, new StringReader(buffer.toString()));
+                connection.commit();
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+            buffer.setLength(0);
+            pending = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (connection) {
+                if (pending > 0) {
+                    flush();
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
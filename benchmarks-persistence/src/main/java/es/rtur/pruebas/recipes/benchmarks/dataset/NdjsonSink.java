@@ -0,0 +1,102 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes one NDJSON file per table partition ({@code <tabla>-<partición>.ndjson}), one JSON
+ * object per row keyed by column name. Categories go to {@code categorias.ndjson} with codes
+ * 1..n. Concatenating the partitions of a table in name order gives the same file for the
+ * same spec, whatever the number of threads.
+ */
+public final class NdjsonSink implements DatasetSink {
+
+    private final Path directory;
+
+    public NdjsonSink(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void begin() throws IOException {
+        Files.createDirectories(directory);
+    }
+
+    @Override
+    public Map<String, Short> categoryCodes(List<String> nombres) throws IOException {
+        Map<String, Short> codes = new LinkedHashMap<>();
+        try (BufferedWriter out = Files.newBufferedWriter(directory.resolve("categorias.ndjson"), StandardCharsets.UTF_8)) {
+            for (String nombre : nombres) {
+                short code = (short) (codes.size() + 1);
+                codes.put(nombre, code);
+                StringBuilder line = new StringBuilder("{\"id_categoria\":").append(code).append(",\"nombre\":");
+                appendValue(line, nombre);
+                out.write(line.append("}\n").toString());
+            }
+        }
+        return codes;
+    }
+
+    @Override
+    public RowWriter open(Table table, int partition) throws IOException {
+        Path file = directory.resolve(String.format("%s-%05d.ndjson", table.tableName(), partition));
+        BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        List<String> columns = table.columns();
+        StringBuilder line = new StringBuilder(256);
+        return new RowWriter() {
+            @Override
+            public void write(Object... values) throws IOException {
+                line.setLength(0);
+                line.append('{');
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    line.append('"').append(columns.get(i)).append("\":");
+                    appendValue(line, values[i]);
+                }
+                out.write(line.append("}\n").toString());
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.close();
+            }
+        };
+    }
+
+    static void appendValue(StringBuilder line, Object value) {
+        if (value == null) {
+            line.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            line.append(value);
+        } else {
+            line.append('"');
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\t' -> line.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            line.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            line.append(c);
+                        }
+                    }
+                }
+            }
+            line.append('"');
+        }
+    }
+}
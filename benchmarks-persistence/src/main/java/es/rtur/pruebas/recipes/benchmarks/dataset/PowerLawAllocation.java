@@ -0,0 +1,39 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+/**
+ * Splits a total number of rows among n owners (users) following a power law: owner i gets
+ * a share proportional to 1 / (i + OFFSET)^exponent. The offset flattens the head so the most
+ * active user stays within a fraction of a percent of the total instead of dominating it.
+ *
+ * Counts are derived from the cumulative shares, so they always add up to exactly the total
+ * and any range of owners can be computed on its own thread.
+ */
+final class PowerLawAllocation {
+
+    private static final int OFFSET = 10;
+
+    private final long total;
+    private final double[] cumulative;
+
+    PowerLawAllocation(int n, double exponent, long total) {
+        this.total = total;
+        cumulative = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            cumulative[i + 1] = cumulative[i] + Math.pow(i + OFFSET, -exponent);
+        }
+    }
+
+    /**
+     * Rows of the owners before the given index.
+     */
+    long start(int index) {
+        if (index >= cumulative.length - 1) {
+            return total;
+        }
+        return (long) Math.floor(total * (cumulative[index] / cumulative[cumulative.length - 1]));
+    }
+
+    long count(int index) {
+        return start(index + 1) - start(index);
+    }
+}
@@ -0,0 +1,56 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+import java.util.List;
+
+/**
+ * Tables written by the generator, in load order (referenced tables first). The columns
+ * are those of the JPA entities; ids of tables nobody references are left to the identity
+ * column so that partitions can be loaded in parallel.
+ */
+public enum Table {
+
+    USUARIOS("usuarios", "id_usuario", true,
+            "id_usuario", "nombre", "clave_acceso", "email", "f_creacion", "es_admin", "estado"),
+    INGREDIENTES("ingredientes", "id_ingrediente", true,
+            "id_ingrediente", "nombre", "tipo", "f_creacion"),
+    RECETAS("recetas", "id_receta", true,
+            "id_receta", "nombre", "tiempo", "comensales", "dificultad", "preparacion", "resumen",
+            "id_categoria", "id_autor", "f_creacion"),
+    INGREDIENTES_RECETA("ingredientes_receta", "id_ingrediente_receta", false,
+            "id_receta", "id_ingrediente", "cantidad", "unidad_medida", "f_creacion"),
+    VALORACIONES("valoraciones", "id_valoracion", false,
+            "id_receta", "id_usuario", "tipo", "f_creacion"),
+    COMENTARIOS("comentarios", "id_comentario", false,
+            "id_receta", "id_autor", "contenido", "estado", "f_creacion");
+
+    private final String tableName;
+    private final String idColumn;
+    private final boolean explicitIds;
+    private final List<String> columns;
+
+    Table(String tableName, String idColumn, boolean explicitIds, String... columns) {
+        this.tableName = tableName;
+        this.idColumn = idColumn;
+        this.explicitIds = explicitIds;
+        this.columns = List.of(columns);
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public String idColumn() {
+        return idColumn;
+    }
+
+    /**
+     * Whether the generator writes the id column itself (1..n).
+     */
+    public boolean explicitIds() {
+        return explicitIds;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+}
@@ -0,0 +1,143 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+import java.util.List;
+
+/**
+ * Spanish word lists the generated rows are built from. Lists used with a Zipf distribution
+ * are ordered from most to least common.
+ */
+final class Vocabulary {
+
+    /**
+     * Ingredient name and type, most common first.
+     */
+    record Ingredient(String nombre, String tipo, String unidad) {
+    }
+
+    /**
+     * The first five match the categories of the uniform seeder and the benchmark filter.
+     */
+    static final List<String> CATEGORIAS = List.of(
+            "principales", "postres", "entrantes", "ensaladas", "sopas", "arroces", "pastas",
+            "pescados", "carnes", "verduras", "legumbres", "panes y masas", "salsas", "desayunos");
+
+    static final List<Ingredient> INGREDIENTES = List.of(
+            new Ingredient("sal", "condimento", "pizca"),
+            new Ingredient("aceite de oliva", "aceite", "cucharada"),
+            new Ingredient("ajo", "verdura", "diente"),
+            new Ingredient("cebolla", "verdura", "unidad"),
+            new Ingredient("huevo", "huevo", "unidad"),
+            new Ingredient("pimienta negra", "especia", "pizca"),
+            new Ingredient("tomate", "verdura", "unidad"),
+            new Ingredient("harina de trigo", "cereal", "g"),
+            new Ingredient("azúcar", "endulzante", "g"),
+            new Ingredient("leche", "lácteo", "ml"),
+            new Ingredient("patata", "verdura", "g"),
+            new Ingredient("perejil", "hierba", "cucharada"),
+            new Ingredient("pimiento rojo", "verdura", "unidad"),
+            new Ingredient("mantequilla", "lácteo", "g"),
+            new Ingredient("arroz", "cereal", "g"),
+            new Ingredient("limón", "fruta", "unidad"),
+            new Ingredient("pimentón", "especia", "cucharadita"),
+            new Ingredient("vino blanco", "bebida", "ml"),
+            new Ingredient("pollo", "carne", "g"),
+            new Ingredient("zanahoria", "verdura", "unidad"),
+            new Ingredient("queso manchego", "lácteo", "g"),
+            new Ingredient("jamón serrano", "carne", "g"),
+            new Ingredient("pimiento verde", "verdura", "unidad"),
+            new Ingredient("laurel", "hierba", "hoja"),
+            new Ingredient("caldo de pollo", "caldo", "ml"),
+            new Ingredient("nata", "lácteo", "ml"),
+            new Ingredient("garbanzos", "legumbre", "g"),
+            new Ingredient("chorizo", "carne", "g"),
+            new Ingredient("calabacín", "verdura", "unidad"),
+            new Ingredient("berenjena", "verdura", "unidad"),
+            new Ingredient("comino", "especia", "cucharadita"),
+            new Ingredient("azafrán", "especia", "hebra"),
+            new Ingredient("gambas", "marisco", "g"),
+            new Ingredient("merluza", "pescado", "g"),
+            new Ingredient("lentejas", "legumbre", "g"),
+            new Ingredient("pan", "cereal", "g"),
+            new Ingredient("vinagre de Jerez", "condimento", "cucharada"),
+            new Ingredient("canela", "especia", "cucharadita"),
+            new Ingredient("almendras", "fruto seco", "g"),
+            new Ingredient("cerdo", "carne", "g"),
+            new Ingredient("ternera", "carne", "g"),
+            new Ingredient("bacalao", "pescado", "g"),
+            new Ingredient("mejillones", "marisco", "g"),
+            new Ingredient("calamar", "marisco", "g"),
+            new Ingredient("espinacas", "verdura", "g"),
+            new Ingredient("champiñones", "verdura", "g"),
+            new Ingredient("alubias blancas", "legumbre", "g"),
+            new Ingredient("pepino", "verdura", "unidad"),
+            new Ingredient("orégano", "hierba", "cucharadita"),
+            new Ingredient("romero", "hierba", "rama"),
+            new Ingredient("tomillo", "hierba", "rama"),
+            new Ingredient("guindilla", "especia", "unidad"),
+            new Ingredient("miel", "endulzante", "cucharada"),
+            new Ingredient("naranja", "fruta", "unidad"),
+            new Ingredient("manzana", "fruta", "unidad"),
+            new Ingredient("chocolate negro", "dulce", "g"),
+            new Ingredient("levadura", "cereal", "g"),
+            new Ingredient("fideos", "pasta", "g"),
+            new Ingredient("espaguetis", "pasta", "g"),
+            new Ingredient("atún", "pescado", "g"),
+            new Ingredient("sardinas", "pescado", "g"),
+            new Ingredient("cordero", "carne", "g"),
+            new Ingredient("morcilla", "carne", "g"),
+            new Ingredient("puerro", "verdura", "unidad"),
+            new Ingredient("alcachofa", "verdura", "unidad"),
+            new Ingredient("espárragos", "verdura", "g"),
+            new Ingredient("nueces", "fruto seco", "g"),
+            new Ingredient("aceitunas", "encurtido", "g"),
+            new Ingredient("alcaparras", "encurtido", "cucharada"),
+            new Ingredient("cilantro", "hierba", "cucharada"));
+
+    static final List<String> PLATOS = List.of(
+            "Tortilla", "Guiso", "Crema", "Ensalada", "Arroz", "Estofado", "Pisto", "Salteado",
+            "Potaje", "Croquetas", "Empanada", "Sopa", "Pastel", "Flan", "Bizcocho", "Tosta",
+            "Fideuá", "Caldereta", "Revuelto", "Escalivada", "Migas", "Gazpacho", "Salmorejo", "Tarta");
+
+    static final List<String> ESTILOS = List.of(
+            "", "", "", " al horno", " a la plancha", " de la abuela", " con ajo", " a la riojana",
+            " a la gallega", " casero", " rápido", " al pil pil", " en salsa verde", " a la vizcaína");
+
+    static final List<String> PASOS = List.of(
+            "Picar finamente la cebolla y el ajo.",
+            "Calentar el aceite en una cazuela a fuego medio.",
+            "Sofreír las verduras hasta que estén tiernas.",
+            "Añadir el resto de ingredientes y remover bien.",
+            "Salpimentar al gusto.",
+            "Cocinar a fuego lento durante veinte minutos.",
+            "Precalentar el horno a 180 grados.",
+            "Batir los huevos en un bol grande.",
+            "Dejar reposar unos minutos antes de servir.",
+            "Escurrir y reservar.",
+            "Incorporar el caldo poco a poco sin dejar de remover.",
+            "Triturar hasta obtener una textura fina.",
+            "Hornear hasta que esté dorado.",
+            "Servir caliente con un chorrito de aceite de oliva.");
+
+    static final List<String> COMENTARIOS = List.of(
+            "¡Riquísima!", "Me ha salido perfecta a la primera.", "La repetiré seguro.",
+            "Le he puesto menos sal y queda mejor.", "A mis hijos les ha encantado.",
+            "Un poco sosa para mi gusto.", "Muy fácil de hacer.", "Tardé más de lo indicado.",
+            "Mi abuela la hacía igual.", "Quedó algo seca, la próxima vez con más caldo.",
+            "Perfecta para una cena rápida.", "¿Se puede congelar?", "Gracias por compartirla.",
+            "La he probado con pollo en vez de cerdo y genial.", "Espectacular.");
+
+    static final List<String> NOMBRES = List.of(
+            "María", "Antonio", "Carmen", "José", "Ana", "Manuel", "Laura", "Francisco", "Isabel",
+            "David", "Lucía", "Javier", "Marta", "Carlos", "Elena", "Miguel", "Paula", "Pablo",
+            "Sara", "Alejandro", "Cristina", "Daniel", "Raquel", "Sergio", "Pilar", "Jorge",
+            "Nuria", "Alberto", "Silvia", "Rafael", "Rosa", "Fernando", "Teresa", "Luis", "Irene");
+
+    static final List<String> APELLIDOS = List.of(
+            "García", "Rodríguez", "González", "Fernández", "López", "Martínez", "Sánchez", "Pérez",
+            "Gómez", "Martín", "Jiménez", "Ruiz", "Hernández", "Díaz", "Moreno", "Muñoz", "Álvarez",
+            "Romero", "Alonso", "Gutiérrez", "Navarro", "Torres", "Domínguez", "Vázquez", "Ramos",
+            "Gil", "Ramírez", "Serrano", "Blanco", "Molina", "Morales", "Suárez", "Ortega", "Castro");
+
+    private Vocabulary() {
+    }
+}
@@ -0,0 +1,34 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf distribution over ranks 0..n-1: rank k is drawn with probability proportional to
+ * 1 / (k + 1)^exponent. Sampling is a binary search over the precomputed cumulative
+ * weights (8 bytes per rank), so one instance can be shared by every generator thread.
+ */
+final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += Math.pow(k + 1, -exponent);
+            cumulative[k] = sum;
+        }
+    }
+
+    int size() {
+        return cumulative.length;
+    }
+
+    int sample(SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,92 @@
+package es.rtur.pruebas.recipes.benchmarks.dataset;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatasetGeneratorTest {
+
+    private static final DatasetSpec SPEC = DatasetSpec.forValoraciones(50_000, 7)
+            .withEnd(LocalDateTime.of(2025, 1, 1, 0, 0));
+    private static final Pattern VALORACION = Pattern.compile("\"id_receta\":(\\d+),\"id_usuario\":(\\d+)");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sameSpecGivesSameRowsWhateverTheThreads() throws IOException {
+        new DatasetGenerator(SPEC, new NdjsonSink(dir.resolve("one")), 1).generate();
+        new DatasetGenerator(SPEC, new NdjsonSink(dir.resolve("four")), 4).generate();
+
+        for (Table table : Table.values()) {
+            assertEquals(read(dir.resolve("one"), table), read(dir.resolve("four"), table), table.tableName());
+        }
+    }
+
+    @Test
+    void writesTheRequestedCounts() throws IOException {
+        DatasetGenerator.Summary summary = new DatasetGenerator(SPEC, new NdjsonSink(dir), 4).generate();
+
+        assertEquals(SPEC.usuarios(), summary.rows(Table.USUARIOS));
+        assertEquals(SPEC.recetas(), summary.rows(Table.RECETAS));
+        assertEquals(SPEC.valoraciones(), summary.rows(Table.VALORACIONES));
+        assertEquals(SPEC.comentarios(), summary.rows(Table.COMENTARIOS));
+        assertEquals(SPEC.valoraciones(), read(dir, Table.VALORACIONES).size());
+        assertTrue(summary.rows(Table.INGREDIENTES_RECETA) >= 3L * SPEC.recetas());
+    }
+
+    @Test
+    void ratingsAreUniquePerUserAndSkewedTowardsPopularRecipes() throws IOException {
+        new DatasetGenerator(SPEC, new NdjsonSink(dir), 4).generate();
+
+        Set<String> pairs = new HashSet<>();
+        Map<Integer, Integer> perRecipe = new HashMap<>();
+        Map<Integer, Integer> perUser = new HashMap<>();
+        for (String line : read(dir, Table.VALORACIONES)) {
+            Matcher m = VALORACION.matcher(line);
+            assertTrue(m.find(), line);
+            assertTrue(pairs.add(m.group(1) + "/" + m.group(2)), "Duplicated rating: " + line);
+            perRecipe.merge(Integer.parseInt(m.group(1)), 1, Integer::sum);
+            perUser.merge(Integer.parseInt(m.group(2)), 1, Integer::sum);
+        }
+
+        // The most popular 1% of recipes and users account for far more than 1% of the ratings
+        assertTrue(topShare(perRecipe, SPEC.recetas() / 100) > 0.2, "Recipe popularity is not skewed");
+        assertTrue(topShare(perUser, SPEC.usuarios() / 100) > 0.05, "User activity is not skewed");
+    }
+
+    private static double topShare(Map<Integer, Integer> counts, int top) {
+        List<Integer> values = new ArrayList<>(counts.values());
+        values.sort(Comparator.reverseOrder());
+        long total = values.stream().mapToLong(Integer::longValue).sum();
+        long head = values.stream().limit(top).mapToLong(Integer::longValue).sum();
+        return (double) head / total;
+    }
+
+    private static List<String> read(Path dir, Table table) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().startsWith(table.tableName() + "-")).sorted().toList()) {
+                lines.addAll(Files.readAllLines(file));
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,132 @@
+package es.rtur.pruebas.recipes.benchmarks.persistence;
+
+import es.rtur.pruebas.recipes.infrastructure.persistence.CategoriaDiccionario;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the schema with set-based INSERT ... SELECT statements over a generated range
+ * (SYSTEM_RANGE on H2, generate_series on PostgreSQL), in chunks so that no single
+ * transaction gets too large. Every row is derived from its position, so a size always
+ * produces the same dataset.
+ *
+ * For a size of N valoraciones: N/10 recetas, N/2 comentarios and N/100 usuarios (at least 1000).
+ * Each receta gets 10 valoraciones from distinct users; 1 in 4 is a dislike.
+ */
+final class DatasetSeeder {
+
+    static final List<String> CATEGORIAS = List.of("entrantes", "principales", "postres", "ensaladas", "sopas");
+
+    private static final int CHUNK = 500_000;
+
+    private final EntityManager em;
+    private final CategoriaDiccionario categorias;
+    private final boolean postgresql;
+
+    DatasetSeeder(EntityManager em, CategoriaDiccionario categorias, boolean postgresql) {
+        this.em = em;
+        this.categorias = categorias;
+        this.postgresql = postgresql;
+    }
+
+    /**
+     * Empties the tables and seeds a dataset of the given size.
+     */
+    Dataset seed(long valoraciones) {
+        truncate();
+        List<Short> codigos = new ArrayList<>();
+        QuarkusTransaction.requiringNew().run(() -> CATEGORIAS.forEach(nombre -> codigos.add(categorias.registrar(nombre))));
+
+        long recetas = Math.max(1, valoraciones / 10);
+        long comentarios = valoraciones / 2;
+        long usuarios = Math.max(1000, valoraciones / 100);
+
+        insert(usuarios, "INSERT INTO usuarios (nombre, clave_acceso, email, f_creacion, es_admin, estado) "
+                + "SELECT CONCAT('Usuario ', x), 'password', CONCAT('usuario', x, '@bench.local'), "
+                + ago("x") + ", FALSE, 'activo' FROM " + range());
+        long primerUsuario = minId("usuarios", "id_usuario");
+
+        String categoria = "CASE MOD(x, " + codigos.size() + ")";
+        for (int i = 0; i < codigos.size(); i++) {
+            categoria += " WHEN " + i + " THEN " + codigos.get(i);
+        }
+        categoria += " END";
+        insert(recetas, "INSERT INTO recetas (nombre, tiempo, comensales, dificultad, preparacion, resumen, "
+                + "id_categoria, id_autor, f_creacion) "
+                + "SELECT CONCAT('Receta ', x), 10 + MOD(x, 120), 1 + MOD(x, 8), 1 + MOD(x, 4), "
+                + "CONCAT('Preparación de la receta ', x, '. Mezclar los ingredientes y cocinar a fuego lento.'), "
+                + "CONCAT('Preparación de la receta ', x), " + categoria + ", "
+                + primerUsuario + " + MOD(x, " + usuarios + "), " + ago("x") + " FROM " + range());
+        long primeraReceta = minId("recetas", "id_receta");
+
+        insert(valoraciones, "INSERT INTO valoraciones (id_receta, id_usuario, tipo, f_creacion) "
+                + "SELECT " + primeraReceta + " + MOD(x, " + recetas + "), "
+                + primerUsuario + " + MOD(x / " + recetas + ", " + usuarios + "), "
+                + "CASE WHEN MOD(x, 4) = 0 THEN 2 ELSE 1 END, " + ago("x") + " FROM " + range());
+
+        insert(comentarios, "INSERT INTO comentarios (id_receta, id_autor, contenido, estado, f_creacion) "
+                + "SELECT " + primeraReceta + " + MOD(x, " + recetas + "), "
+                + primerUsuario + " + MOD(x * 7, " + usuarios + "), "
+                + "CONCAT('Comentario ', x), CASE WHEN MOD(x, 20) = 0 THEN 'inactivo' ELSE 'activo' END, "
+                + ago("x") + " FROM " + range());
+
+        QuarkusTransaction.requiringNew().run(() -> em.createNativeQuery("ANALYZE").executeUpdate());
+        return new Dataset(valoraciones, recetas, comentarios, usuarios, primeraReceta, primerUsuario);
+    }
+
+    private void truncate() {
+        List<String> tablas = List.of("outbox_eventos", "comentarios", "valoraciones", "ingredientes_receta",
+                "utensilios_receta", "recetas", "usuarios");
+        QuarkusTransaction.requiringNew().run(() -> {
+            if (postgresql) {
+                em.createNativeQuery("TRUNCATE TABLE " + String.join(", ", tablas) + " RESTART IDENTITY CASCADE")
+                        .executeUpdate();
+                return;
+            }
+            em.createNativeQuery("SET REFERENTIAL_INTEGRITY FALSE").executeUpdate();
+            for (String tabla : tablas) {
+                em.createNativeQuery("TRUNCATE TABLE " + tabla + " RESTART IDENTITY").executeUpdate();
+            }
+            em.createNativeQuery("SET REFERENTIAL_INTEGRITY TRUE").executeUpdate();
+        });
+    }
+
+    private void insert(long rows, String sql) {
+        for (long desde = 1; desde <= rows; desde += CHUNK) {
+            long hasta = Math.min(rows, desde + CHUNK - 1);
+            long d = desde;
+            QuarkusTransaction.requiringNew().run(() -> em.createNativeQuery(sql)
+                    .setParameter("desde", d)
+                    .setParameter("hasta", hasta)
+                    .executeUpdate());
+        }
+    }
+
+    private long minId(String tabla, String columna) {
+        return QuarkusTransaction.requiringNew().call(() ->
+                ((Number) em.createNativeQuery("SELECT MIN(" + columna + ") FROM " + tabla).getSingleResult()).longValue());
+    }
+
+    private String range() {
+        return postgresql
+                ? "generate_series(CAST(:desde AS BIGINT), CAST(:hasta AS BIGINT)) AS x"
+                : "SYSTEM_RANGE(:desde, :hasta)";
+    }
+
+    /**
+     * Timestamp that many seconds in the past, so that rows are spread over time.
+     */
+    private static String ago(String seconds) {
+        return "LOCALTIMESTAMP - (" + seconds + ") * INTERVAL '1' SECOND";
+    }
+
+    /**
+     * Seeded dataset: row counts and the first ids of recetas and usuarios.
+     */
+    record Dataset(long valoraciones, long recetas, long comentarios, long usuarios,
+                   long primeraReceta, long primerUsuario) {
+    }
+}
@@ -0,0 +1,76 @@
+package es.rtur.pruebas.recipes.benchmarks.persistence;
+
+import java.util.Arrays;
+
+/**
+ * Records every latency of one thread, in nanoseconds. Keeping all samples is fine for
+ * a few seconds of database calls and gives exact percentiles.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    int count() {
+        return count;
+    }
+
+    /**
+     * Merges the samples of several threads into one result.
+     * @param elapsedNanos Wall-clock time of the measurement, used for the throughput
+     */
+    static Result merge(String operation, long rows, long elapsedNanos, LatencyRecorder... recorders) {
+        int total = 0;
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.count;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, all, offset, recorder.count);
+            offset += recorder.count;
+        }
+        Arrays.sort(all);
+        double sum = 0;
+        for (long sample : all) {
+            sum += sample;
+        }
+        return new Result(
+                operation,
+                rows,
+                total,
+                total / (elapsedNanos / 1e9),
+                millis(total == 0 ? 0 : sum / total),
+                millis(percentile(all, 50)),
+                millis(percentile(all, 90)),
+                millis(percentile(all, 99)),
+                millis(percentile(all, 99.9)),
+                millis(total == 0 ? 0 : all[total - 1]));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(double nanos) {
+        return Math.round(nanos / 1_000) / 1_000.0;
+    }
+
+    /**
+     * Throughput in operations per second and latencies in milliseconds.
+     */
+    record Result(String operation, long rows, int count, double throughput,
+                  double meanMs, double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+}
@@ -0,0 +1,256 @@
+package es.rtur.pruebas.recipes.benchmarks.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import es.rtur.pruebas.recipes.benchmarks.dataset.DatasetGenerator;
+import es.rtur.pruebas.recipes.benchmarks.dataset.DatasetSpec;
+import es.rtur.pruebas.recipes.benchmarks.dataset.JdbcSink;
+import es.rtur.pruebas.recipes.benchmarks.dataset.Table;
+import es.rtur.pruebas.recipes.domain.entity.Valoracion;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.infrastructure.persistence.CategoriaDiccionario;
+import es.rtur.pruebas.recipes.infrastructure.persistence.ComentarioRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.RecetaRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.RecetaResumenRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.ValoracionRepositoryImpl;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Persistence macro-benchmark: seeds the database with each configured size and measures
+ * the throughput and latency percentiles of the queries behind the main endpoints, calling
+ * the Panache repositories exactly as the use cases do. Every operation runs in its own
+ * request context, like an HTTP request.
+ *
+ * With {@code benchmark.dataset=uniform} the data is seeded with set-based SQL (every recipe gets
+ * the same number of ratings); with {@code realistic} it comes from {@link DatasetGenerator}, with
+ * skewed recipe popularity and user activity.
+ *
+ * Results are printed as a table and written as JSON to {@code benchmark.report}.
+ *
+ * Run: mvn -pl benchmarks-persistence test -Dbenchmark [-Dbenchmark.sizes=10000,1000000]
+ *      [-Dbenchmark.dataset=realistic] [-Ppostgresql]
+ */
+@QuarkusTest
+class PersistenceBenchmarkTest {
+
+    private static final Logger LOG = Logger.getLogger(PersistenceBenchmarkTest.class);
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    CategoriaDiccionario categorias;
+
+    @Inject
+    RecetaRepositoryImpl recetaRepository;
+
+    @Inject
+    RecetaResumenRepositoryImpl recetaResumenRepository;
+
+    @Inject
+    ValoracionRepositoryImpl valoracionRepository;
+
+    @Inject
+    ComentarioRepositoryImpl comentarioRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    @ConfigProperty(name = "benchmark.dataset")
+    String datasetKind;
+
+    @ConfigProperty(name = "benchmark.seed")
+    long seed;
+
+    @ConfigProperty(name = "benchmark.sizes")
+    List<Long> sizes;
+
+    @ConfigProperty(name = "benchmark.warmup")
+    Duration warmup;
+
+    @ConfigProperty(name = "benchmark.duration")
+    Duration duration;
+
+    @ConfigProperty(name = "benchmark.threads")
+    int threads;
+
+    @ConfigProperty(name = "benchmark.report")
+    String report;
+
+    /**
+     * One operation of the benchmark, called with a per-thread random generator.
+     */
+    @FunctionalInterface
+    interface Operation {
+        Object run(SplittableRandom random);
+    }
+
+    @Test
+    void benchmark() throws Exception {
+        DatasetSeeder seeder = new DatasetSeeder(em, categorias, "postgresql".equals(dbKind));
+        List<Map<String, Object>> seeds = new ArrayList<>();
+        List<LatencyRecorder.Result> results = new ArrayList<>();
+
+        for (long size : sizes) {
+            long start = System.nanoTime();
+            DatasetSeeder.Dataset dataset = "realistic".equals(datasetKind) ? generate(size) : seeder.seed(size);
+            long seedMillis = (System.nanoTime() - start) / 1_000_000;
+            LOG.infof("Seeded %d valoraciones, %d recetas, %d comentarios, %d usuarios in %d ms",
+                    dataset.valoraciones(), dataset.recetas(), dataset.comentarios(), dataset.usuarios(), seedMillis);
+            Map<String, Object> seed = new LinkedHashMap<>();
+            seed.put("dataset", dataset);
+            seed.put("seedMillis", seedMillis);
+            seeds.add(seed);
+
+            for (Map.Entry<String, Operation> operation : operations(dataset).entrySet()) {
+                LatencyRecorder.Result result = measure(operation.getKey(), size, operation.getValue());
+                LOG.infof("%-14s %10d rows %8d ops %10.1f ops/s  p50 %8.3f ms  p99 %8.3f ms  max %8.3f ms",
+                        result.operation(), size, result.count(), result.throughput(),
+                        result.p50Ms(), result.p99Ms(), result.maxMs());
+                results.add(result);
+            }
+        }
+
+        writeReport(seeds, results);
+        assertTrue(results.stream().allMatch(result -> result.count() > 0));
+    }
+
+    /**
+     * Loads the realistic dataset through the Quarkus datasource, with ids starting at 1.
+     */
+    private DatasetSeeder.Dataset generate(long size) throws IOException {
+        DatasetSpec spec = DatasetSpec.forValoraciones(size, seed);
+        DatasetGenerator.Summary summary = new DatasetGenerator(spec, new JdbcSink(dataSource::getConnection, true),
+                Runtime.getRuntime().availableProcessors()).generate();
+        return new DatasetSeeder.Dataset(summary.rows(Table.VALORACIONES), spec.recetas(),
+                summary.rows(Table.COMENTARIOS), spec.usuarios(), 1, 1);
+    }
+
+    /**
+     * The operations, in order: reads first, then the like toggle (which writes) and the
+     * top-rated aggregate, the slowest one.
+     */
+    private Map<String, Operation> operations(DatasetSeeder.Dataset dataset) {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        operations.put("list", random -> recetaResumenRepository.findPage(null, null, random.nextInt(10) * 20, 20));
+        operations.put("search", random -> recetaRepository.findByNombreContaining("Receta " + (1 + random.nextLong(dataset.recetas()))));
+        operations.put("filter", random -> recetaRepository.findByCategoria(
+                DatasetSeeder.CATEGORIAS.get(random.nextInt(DatasetSeeder.CATEGORIAS.size()))));
+        operations.put("comment-list", random -> comentarioRepository.findLatestByRecetaAndEstado(
+                receta(dataset, random), "activo", 20));
+        operations.put("counts", random -> {
+            List<RecetaId> page = new ArrayList<>(20);
+            for (int i = 0; i < 20; i++) {
+                page.add(receta(dataset, random));
+            }
+            return valoracionRepository.countByRecetas(page);
+        });
+        operations.put("like-toggle", random -> {
+            RecetaId receta = receta(dataset, random);
+            UsuarioId usuario = UsuarioId.of((int) (dataset.primerUsuario() + random.nextLong(dataset.usuarios())));
+            Valoracion valoracion = valoracionRepository.findByRecetaAndUsuario(receta, usuario)
+                    .orElseGet(() -> new Valoracion(null, receta, usuario, "dislike"));
+            valoracion.changeTipo(valoracion.isLike() ? "dislike" : "like");
+            return valoracionRepository.save(valoracion);
+        });
+        operations.put("top-rated", random -> valoracionRepository.getRecetasMasValoradas(10));
+        return operations;
+    }
+
+    private static RecetaId receta(DatasetSeeder.Dataset dataset, SplittableRandom random) {
+        return RecetaId.of((int) (dataset.primeraReceta() + random.nextLong(dataset.recetas())));
+    }
+
+    /**
+     * Runs the operation on every thread for the warmup time and then for the measurement time.
+     * Each thread runs at least one call in each phase, so slow operations still get a sample.
+     */
+    private LatencyRecorder.Result measure(String name, long size, Operation operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            runPhase(executor, operation, warmup, 1);
+            long start = System.nanoTime();
+            List<LatencyRecorder> recorders = runPhase(executor, operation, duration, 1 + threads);
+            return LatencyRecorder.merge(name, size, System.nanoTime() - start, recorders.toArray(new LatencyRecorder[0]));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<LatencyRecorder> runPhase(ExecutorService executor, Operation operation, Duration phase, long seed)
+            throws Exception {
+        long deadline = System.nanoTime() + phase.toNanos();
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(seed * 31 + t);
+            Callable<LatencyRecorder> worker = () -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                ManagedContext requestContext = Arc.container().requestContext();
+                do {
+                    long begin = System.nanoTime();
+                    requestContext.activate();
+                    try {
+                        operation.run(random);
+                    } finally {
+                        requestContext.terminate();
+                    }
+                    recorder.record(System.nanoTime() - begin);
+                } while (System.nanoTime() < deadline);
+                return recorder;
+            };
+            futures.add(executor.submit(worker));
+        }
+        List<LatencyRecorder> recorders = new ArrayList<>(threads);
+        for (Future<LatencyRecorder> future : futures) {
+            recorders.add(future.get());
+        }
+        return recorders;
+    }
+
+    private void writeReport(List<Map<String, Object>> seeds, List<LatencyRecorder.Result> results) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("database", dbKind);
+        document.put("dataset", datasetKind);
+        document.put("date", LocalDateTime.now().toString());
+        document.put("threads", threads);
+        document.put("warmup", warmup.toString());
+        document.put("duration", duration.toString());
+        document.put("seeds", seeds);
+        document.put("results", results);
+        File file = new File(report);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(file, document);
+        LOG.infof("Report written to %s", file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,46 @@
+package es.rtur.pruebas.recipes.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Same command line as the JMH runner, with two defaults so
+ * that every run can be compared afterwards:
+ * <ul>
+ *   <li>the allocation profiler ({@code -prof gc}) unless other profilers are given</li>
+ *   <li>results written as JSON to {@code jmh-result.json} unless {@code -rf}/{@code -rff} are given</li>
+ * </ul>
+ * The JSON files of two runs can be compared with any JMH visualizer or diffed directly.
+ *
+ * Run: java -jar benchmarks/target/benchmarks.jar [regexp] [jmh options]
+ */
+public final class BenchmarkRunner {
+
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(withDefaults(args));
+    }
+
+    static String[] withDefaults(String[] args) {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (options.stream().anyMatch(option -> option.equals("-h") || option.startsWith("-l"))) {
+            return args;
+        }
+        if (!options.contains("-prof")) {
+            options.add("-prof");
+            options.add("gc");
+        }
+        if (!options.contains("-rf") && !options.contains("-rff")) {
+            options.add("-rf");
+            options.add("json");
+            options.add("-rff");
+            options.add(DEFAULT_RESULT_FILE);
+        }
+        return options.toArray(new String[0]);
+    }
+}
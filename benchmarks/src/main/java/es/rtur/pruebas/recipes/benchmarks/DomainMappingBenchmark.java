@@ -0,0 +1,151 @@
+package es.rtur.pruebas.recipes.benchmarks;
+
+import es.rtur.pruebas.recipes.domain.entity.Comentario;
+import es.rtur.pruebas.recipes.domain.entity.Receta;
+import es.rtur.pruebas.recipes.domain.entity.Valoracion;
+import es.rtur.pruebas.recipes.domain.valueobject.ComentarioId;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row to domain mapping, as done by the toDomain mappers of the repositories for every row
+ * of a result list. The repositories live in the Quarkus infrastructure module, so the rows
+ * are plain holders with the same fields as the entities and each benchmark repeats the
+ * exact constructor calls of the corresponding mapper:
+ * RecetaRepositoryImpl.toDomain / toListingDomain, ComentarioRepositoryImpl.toDomain and
+ * ValoracionRepositoryImpl.toDomain. Keep them in sync when a mapper changes.
+ *
+ * Run: java -jar benchmarks/target/benchmarks.jar DomainMappingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DomainMappingBenchmark {
+
+    @Param({"20", "100", "1000"})
+    int rows;
+
+    private List<RecetaRow> recetas;
+    private List<ComentarioRow> comentarios;
+    private List<ValoracionRow> valoraciones;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        recetas = new ArrayList<>(rows);
+        comentarios = new ArrayList<>(rows);
+        valoraciones = new ArrayList<>(rows);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows; i++) {
+            int id = 100_000 + i;
+            recetas.add(new RecetaRow(id, "Receta " + i, 30, 4, "media", "Preparación de la receta " + i,
+                    "Preparación de la...", "postres", 1_000 + i % 50, now, now));
+            comentarios.add(new ComentarioRow(id, 100_000 + i % 20, 1_000 + i % 50, "Comentario " + i,
+                    "activo", now, now));
+            valoraciones.add(new ValoracionRow(id, 100_000 + i % 20, 1_000 + i, i % 3 == 0 ? "dislike" : "like",
+                    now, null));
+        }
+    }
+
+    @Benchmark
+    public List<Receta> recetaToDomain() {
+        List<Receta> result = new ArrayList<>(recetas.size());
+        for (RecetaRow row : recetas) {
+            result.add(new Receta(
+                    RecetaId.of(row.idReceta()),
+                    row.nombre(),
+                    row.tiempo(),
+                    row.comensales(),
+                    row.dificultad(),
+                    row.preparacion(),
+                    row.categoria(),
+                    UsuarioId.of(row.idAutor()),
+                    row.fCreacion(),
+                    row.fModificacion()));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Receta> recetaToListingDomain() {
+        List<Receta> result = new ArrayList<>(recetas.size());
+        for (RecetaRow row : recetas) {
+            result.add(Receta.forListing(
+                    RecetaId.of(row.idReceta()),
+                    row.nombre(),
+                    row.tiempo(),
+                    row.comensales(),
+                    row.dificultad(),
+                    row.resumen(),
+                    row.categoria(),
+                    UsuarioId.of(row.idAutor()),
+                    row.fCreacion(),
+                    row.fModificacion()));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Comentario> comentarioToDomain() {
+        List<Comentario> result = new ArrayList<>(comentarios.size());
+        for (ComentarioRow row : comentarios) {
+            result.add(new Comentario(
+                    ComentarioId.of(row.idComentario()),
+                    RecetaId.of(row.idReceta()),
+                    UsuarioId.of(row.idAutor()),
+                    row.contenido(),
+                    row.estado(),
+                    row.fCreacion(),
+                    row.fModificacion()));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Valoracion> valoracionToDomain() {
+        List<Valoracion> result = new ArrayList<>(valoraciones.size());
+        for (ValoracionRow row : valoraciones) {
+            result.add(new Valoracion(
+                    ValoracionId.of(row.idValoracion()),
+                    RecetaId.of(row.idReceta()),
+                    UsuarioId.of(row.idUsuario()),
+                    row.tipo(),
+                    row.fCreacion(),
+                    row.fEliminacion()));
+        }
+        return result;
+    }
+
+    record RecetaRow(Integer idReceta, String nombre, Integer tiempo, Integer comensales, String dificultad,
+                     String preparacion, String resumen, String categoria, Integer idAutor,
+                     LocalDateTime fCreacion, LocalDateTime fModificacion) {
+    }
+
+    record ComentarioRow(Integer idComentario, Integer idReceta, Integer idAutor, String contenido, String estado,
+                         LocalDateTime fCreacion, LocalDateTime fModificacion) {
+    }
+
+    record ValoracionRow(Integer idValoracion, Integer idReceta, Integer idUsuario, String tipo,
+                         LocalDateTime fCreacion, LocalDateTime fEliminacion) {
+    }
+}
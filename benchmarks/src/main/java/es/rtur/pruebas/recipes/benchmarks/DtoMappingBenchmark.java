@@ -0,0 +1,105 @@
+package es.rtur.pruebas.recipes.benchmarks;
+
+import es.rtur.pruebas.recipes.application.dto.ComentarioDTO;
+import es.rtur.pruebas.recipes.application.dto.RecetaDTO;
+import es.rtur.pruebas.recipes.application.usecase.FilterRecetasUseCase;
+import es.rtur.pruebas.recipes.application.usecase.ListComentariosUseCase;
+import es.rtur.pruebas.recipes.application.usecase.ListRecetasUseCase;
+import es.rtur.pruebas.recipes.application.usecase.SearchRecetasUseCase;
+import es.rtur.pruebas.recipes.domain.entity.Comentario;
+import es.rtur.pruebas.recipes.domain.entity.Receta;
+import es.rtur.pruebas.recipes.domain.repository.ComentarioRepository;
+import es.rtur.pruebas.recipes.domain.repository.RecetaRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.ComentarioId;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Domain to DTO conversion through the use cases, i.e. their private mapToDTO methods plus
+ * the stream collection around them. The repositories are stubs that return a prebuilt list,
+ * so the score is only the mapping cost for a result of the given size. ListRecetas, Search
+ * and Filter each carry their own copy of the RecetaDTO mapper; they should score the same.
+ *
+ * Run: java -jar benchmarks/target/benchmarks.jar DtoMappingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    @Param({"20", "100", "1000"})
+    int rows;
+
+    private ListRecetasUseCase listRecetas;
+    private SearchRecetasUseCase searchRecetas;
+    private FilterRecetasUseCase filterRecetas;
+    private ListComentariosUseCase listComentarios;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Receta> recetas = new ArrayList<>(rows);
+        List<Comentario> comentarios = new ArrayList<>(rows);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows; i++) {
+            recetas.add(new Receta(RecetaId.of(100_000 + i), "Receta " + i, 30, 4, "media",
+                    "Preparación de la receta " + i, "postres", UsuarioId.of(1_000 + i % 50), now, now));
+            comentarios.add(new Comentario(ComentarioId.of(100_000 + i), RecetaId.of(100_000),
+                    UsuarioId.of(1_000 + i % 50), "Comentario " + i, "activo", now, now));
+        }
+        RecetaRepository recetaRepository = stub(RecetaRepository.class, recetas);
+        listRecetas = new ListRecetasUseCase(recetaRepository);
+        searchRecetas = new SearchRecetasUseCase(recetaRepository);
+        filterRecetas = new FilterRecetasUseCase(recetaRepository);
+        listComentarios = new ListComentariosUseCase(stub(ComentarioRepository.class, comentarios));
+    }
+
+    @Benchmark
+    public List<RecetaDTO> listRecetas() {
+        return listRecetas.execute();
+    }
+
+    @Benchmark
+    public List<RecetaDTO> searchRecetas() {
+        return searchRecetas.execute("Receta");
+    }
+
+    @Benchmark
+    public List<RecetaDTO> filterRecetasByCategoria() {
+        return filterRecetas.executeByCategoria("postres");
+    }
+
+    @Benchmark
+    public List<ComentarioDTO> listComentarios() {
+        return listComentarios.execute(100_000);
+    }
+
+    /**
+     * Repository whose every method returns the given result.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Object result) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> result);
+    }
+}
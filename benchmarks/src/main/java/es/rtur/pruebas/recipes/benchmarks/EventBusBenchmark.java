@@ -0,0 +1,159 @@
+package es.rtur.pruebas.recipes.benchmarks;
+
+import es.rtur.pruebas.recipes.application.event.DomainEvent;
+import es.rtur.pruebas.recipes.application.event.DomainEventHandler;
+import es.rtur.pruebas.recipes.application.event.ValoracionCambiada;
+import es.rtur.pruebas.recipes.application.event.ringbuffer.RingBufferEventBus;
+import es.rtur.pruebas.recipes.application.event.ringbuffer.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer event bus vs a LinkedBlockingQueue with a consumer thread (the usual
+ * hand-rolled alternative). Each invocation publishes a burst of events from the
+ * benchmark thread and waits until the consumer has processed all of them, so the
+ * score is the end-to-end cost per event including the hand-off.
+ *
+ * Run: java -jar benchmarks/target/benchmarks.jar EventBusBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    static final int BURST = 1000;
+
+    private static final DomainEvent EVENT = new ValoracionCambiada(1, 1, "like", true);
+
+    @State(Scope.Benchmark)
+    public static class RingBufferState {
+
+        @Param({"1024", "8192"})
+        int bufferSize;
+
+        @Param({"blocking", "yielding"})
+        String waitStrategy;
+
+        RingBufferEventBus bus;
+        final AtomicLong consumed = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            bus = new RingBufferEventBus(bufferSize, WaitStrategy.of(waitStrategy));
+            bus.addHandler(new DomainEventHandler() {
+                private long count;
+
+                @Override
+                public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+                    count++;
+                    if (endOfBatch) {
+                        consumed.lazySet(count);
+                    }
+                }
+
+                @Override
+                public String getName() {
+                    return "benchmark";
+                }
+            });
+            bus.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            bus.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class QueueState {
+
+        @Param({"1024", "8192"})
+        int bufferSize;
+
+        BlockingQueue<DomainEvent> queue;
+        Thread consumer;
+        volatile boolean running;
+        final AtomicLong consumed = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            queue = new LinkedBlockingQueue<>(bufferSize);
+            running = true;
+            consumer = new Thread(() -> {
+                List<DomainEvent> batch = new ArrayList<>(bufferSize);
+                long count = 0;
+                try {
+                    while (running) {
+                        DomainEvent first = queue.poll(10, TimeUnit.MILLISECONDS);
+                        if (first == null) {
+                            continue;
+                        }
+                        count++;
+                        count += queue.drainTo(batch);
+                        batch.clear();
+                        consumed.lazySet(count);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "queue-consumer");
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException {
+            running = false;
+            consumer.join(5000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void ringBuffer(RingBufferState state, Blackhole bh) {
+        long target = state.consumed.get() + BURST;
+        for (int i = 0; i < BURST; i++) {
+            state.bus.publish(EVENT);
+        }
+        while (state.consumed.get() < target) {
+            Thread.onSpinWait();
+        }
+        bh.consume(target);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void linkedBlockingQueue(QueueState state, Blackhole bh) throws InterruptedException {
+        long target = state.consumed.get() + BURST;
+        for (int i = 0; i < BURST; i++) {
+            state.queue.put(EVENT);
+        }
+        while (state.consumed.get() < target) {
+            Thread.onSpinWait();
+        }
+        bh.consume(target);
+    }
+}
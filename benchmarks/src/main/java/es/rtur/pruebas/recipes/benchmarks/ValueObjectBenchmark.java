@@ -0,0 +1,137 @@
+package es.rtur.pruebas.recipes.benchmarks;
+
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionCount;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Value object hot paths: RecetaId.of, equals and hashCode (Objects.hash, which allocates a
+ * varargs array unless escape analysis removes it), and the HashMap keyed by RecetaId that
+ * countByRecetas and the listing use cases build for every page. The plain Integer
+ * variants are the baseline a cheaper value object should approach.
+ *
+ * Run: java -jar benchmarks/target/benchmarks.jar ValueObjectBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValueObjectBenchmark {
+
+    @Param({"20", "1000"})
+    int size;
+
+    private Integer[] values;
+    private RecetaId[] ids;
+    private RecetaId[] otherIds;
+    private Map<RecetaId, ValoracionCount> byRecetaId;
+    private Map<Integer, ValoracionCount> byInteger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = new Integer[size];
+        ids = new RecetaId[size];
+        otherIds = new RecetaId[size];
+        byRecetaId = new HashMap<>();
+        byInteger = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            // Above the Integer cache, as real ids are
+            values[i] = Integer.valueOf(100_000 + i);
+            ids[i] = RecetaId.of(values[i]);
+            otherIds[i] = RecetaId.of(Integer.valueOf(100_000 + i));
+            byRecetaId.put(ids[i], ValoracionCount.of(i, 0));
+            byInteger.put(values[i], ValoracionCount.of(i, 0));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void recetaIdOf(Blackhole bh) {
+        for (int i = 0; i < 1000; i++) {
+            bh.consume(RecetaId.of(values[i % size]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void recetaIdEquals(Blackhole bh) {
+        for (int i = 0; i < 1000; i++) {
+            int index = i % size;
+            bh.consume(ids[index].equals(otherIds[index]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void recetaIdHashCode(Blackhole bh) {
+        for (int i = 0; i < 1000; i++) {
+            bh.consume(ids[i % size].hashCode());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void integerHashCode(Blackhole bh) {
+        for (int i = 0; i < 1000; i++) {
+            bh.consume(values[i % size].hashCode());
+        }
+    }
+
+    /**
+     * Builds and reads a map keyed by RecetaId, as countByRecetas and its callers do per page.
+     */
+    @Benchmark
+    public void recetaIdMapBuildAndLookup(Blackhole bh) {
+        Map<RecetaId, ValoracionCount> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(RecetaId.of(values[i]), ValoracionCount.of(i, 0));
+        }
+        for (int i = 0; i < size; i++) {
+            bh.consume(map.get(otherIds[i]));
+        }
+    }
+
+    @Benchmark
+    public void integerMapBuildAndLookup(Blackhole bh) {
+        Map<Integer, ValoracionCount> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(values[i], ValoracionCount.of(i, 0));
+        }
+        for (int i = 0; i < size; i++) {
+            bh.consume(map.get(otherIds[i].getValue()));
+        }
+    }
+
+    @Benchmark
+    public void recetaIdMapLookup(Blackhole bh) {
+        for (int i = 0; i < size; i++) {
+            bh.consume(byRecetaId.get(otherIds[i]));
+        }
+    }
+
+    @Benchmark
+    public void integerMapLookup(Blackhole bh) {
+        for (int i = 0; i < size; i++) {
+            bh.consume(byInteger.get(values[i]));
+        }
+    }
+}
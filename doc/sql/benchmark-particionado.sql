@@ -0,0 +1,95 @@
+-- Benchmark de consultas sobre la ventana reciente: tabla sin particionar frente a tabla
+-- particionada por mes, con 50M valoraciones repartidas en 24 meses.
+-- Uso: psql -d recetas_bench -f doc/sql/benchmark-particionado.sql > resultados.txt
+-- Necesita unos 10 GB de disco; la carga tarda varios minutos por tabla.
+
+\timing on
+
+DROP TABLE IF EXISTS bench_valoraciones_plana;
+DROP TABLE IF EXISTS bench_valoraciones_part;
+
+CREATE TABLE bench_valoraciones_plana (
+    id_valoracion INTEGER NOT NULL PRIMARY KEY,
+    id_receta INTEGER NOT NULL,
+    id_usuario INTEGER NOT NULL,
+    tipo SMALLINT NOT NULL,
+    f_creacion TIMESTAMP(6) NOT NULL,
+    f_eliminacion TIMESTAMP(6)
+);
+
+CREATE TABLE bench_valoraciones_part (
+    id_valoracion INTEGER NOT NULL,
+    id_receta INTEGER NOT NULL,
+    id_usuario INTEGER NOT NULL,
+    tipo SMALLINT NOT NULL,
+    f_creacion TIMESTAMP(6) NOT NULL,
+    f_eliminacion TIMESTAMP(6),
+    PRIMARY KEY (id_valoracion, f_creacion)
+) PARTITION BY RANGE (f_creacion);
+
+DO $$
+DECLARE
+    mes DATE := date_trunc('month', current_date - INTERVAL '23 months');
+BEGIN
+    WHILE mes <= date_trunc('month', current_date) LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF bench_valoraciones_part FOR VALUES FROM (%L) TO (%L)',
+                       'bench_valoraciones_part_p' || to_char(mes, 'YYYY_MM'), mes, mes + INTERVAL '1 month');
+        mes := mes + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+-- 50M filas: 100k recetas, 2M usuarios, f_creacion uniforme en los últimos 24 meses
+INSERT INTO bench_valoraciones_plana
+SELECT g,
+       1 + (g % 100000),
+       1 + (g % 2000000),
+       1 + (g % 2),
+       now() - (random() * INTERVAL '730 days'),
+       CASE WHEN g % 20 = 0 THEN now() ELSE NULL END
+FROM generate_series(1, 50000000) g;
+
+INSERT INTO bench_valoraciones_part SELECT * FROM bench_valoraciones_plana;
+
+CREATE INDEX ON bench_valoraciones_plana (id_receta, id_usuario);
+CREATE INDEX ON bench_valoraciones_plana (f_creacion DESC);
+CREATE INDEX ON bench_valoraciones_part (id_receta, id_usuario);
+CREATE INDEX ON bench_valoraciones_part (f_creacion DESC);
+
+VACUUM ANALYZE bench_valoraciones_plana;
+VACUUM ANALYZE bench_valoraciones_part;
+
+-- 1. Últimas 20 valoraciones activas (findRecientes): recorrido ordenado, se para al llegar a 20
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_valoraciones_plana WHERE f_eliminacion IS NULL ORDER BY f_creacion DESC LIMIT 20;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench_valoraciones_part WHERE f_eliminacion IS NULL ORDER BY f_creacion DESC LIMIT 20;
+
+-- 2. Likes de una receta en los últimos 7 días: pruning a la partición del mes actual (y la anterior)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM bench_valoraciones_plana
+WHERE id_receta = 4242 AND tipo = 1 AND f_eliminacion IS NULL AND f_creacion >= now() - INTERVAL '7 days';
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM bench_valoraciones_part
+WHERE id_receta = 4242 AND tipo = 1 AND f_eliminacion IS NULL AND f_creacion >= now() - INTERVAL '7 days';
+
+-- 3. Actividad de los últimos 30 días agrupada por receta
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id_receta, count(*) FROM bench_valoraciones_plana
+WHERE f_creacion >= now() - INTERVAL '30 days' GROUP BY id_receta ORDER BY count(*) DESC LIMIT 10;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id_receta, count(*) FROM bench_valoraciones_part
+WHERE f_creacion >= now() - INTERVAL '30 days' GROUP BY id_receta ORDER BY count(*) DESC LIMIT 10;
+
+-- 4. Retención: borrar el mes más antiguo fila a fila frente a DROP de la partición
+BEGIN;
+EXPLAIN (ANALYZE)
+DELETE FROM bench_valoraciones_plana
+WHERE f_creacion < date_trunc('month', current_date - INTERVAL '22 months');
+ROLLBACK;
+
+BEGIN;
+SELECT format('ALTER TABLE bench_valoraciones_part DETACH PARTITION %I', c.relname)
+FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'bench_valoraciones_part'::regclass
+ORDER BY c.relname LIMIT 1 \gexec
+ROLLBACK;
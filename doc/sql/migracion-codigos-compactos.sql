@@ -0,0 +1,77 @@
+-- Migración a códigos compactos para dificultad, categoría y tipo de valoración.
+-- Ejecutar en PostgreSQL ANTES de desplegar la versión que mapea estas columnas
+-- como SMALLINT (hibernate "update" no convierte tipos de columnas existentes).
+
+BEGIN;
+
+-- Se aceptan los mismos textos que DifficultyLevel.findByValue (valor de la API o nombre de la
+-- constante, sin distinguir mayúsculas ni acentos) y los de TipoValoracion. Si queda algún valor
+-- sin correspondencia la migración se aborta y lo indica, en lugar de dejarlo a NULL.
+CREATE FUNCTION pg_temp.codigo_dificultad(dificultad TEXT) RETURNS SMALLINT AS $$
+    SELECT CASE translate(lower(trim(dificultad)), 'áéíóú', 'aeiou')
+        WHEN 'facil' THEN 1 WHEN 'easy' THEN 1
+        WHEN 'media' THEN 2 WHEN 'medium' THEN 2
+        WHEN 'dificil' THEN 3 WHEN 'hard' THEN 3
+        WHEN 'experto' THEN 4 WHEN 'expert' THEN 4
+    END::SMALLINT;
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE FUNCTION pg_temp.codigo_tipo_valoracion(tipo TEXT) RETURNS SMALLINT AS $$
+    SELECT CASE lower(trim(tipo))
+        WHEN 'like' THEN 1
+        WHEN 'dislike' THEN 2
+    END::SMALLINT;
+$$ LANGUAGE sql IMMUTABLE;
+
+DO $$
+DECLARE
+    desconocidos TEXT;
+BEGIN
+    SELECT string_agg(DISTINCT quote_literal(dificultad), ', ') INTO desconocidos
+    FROM recetas
+    WHERE dificultad IS NOT NULL AND pg_temp.codigo_dificultad(dificultad) IS NULL;
+    IF desconocidos IS NOT NULL THEN
+        RAISE EXCEPTION 'Dificultades sin código en recetas: %', desconocidos;
+    END IF;
+
+    SELECT string_agg(DISTINCT quote_literal(tipo), ', ') INTO desconocidos
+    FROM valoraciones
+    WHERE pg_temp.codigo_tipo_valoracion(tipo) IS NULL;
+    IF desconocidos IS NOT NULL THEN
+        RAISE EXCEPTION 'Tipos sin código en valoraciones: %', desconocidos;
+    END IF;
+END $$;
+
+-- Dificultad: texto -> código de DifficultyLevel
+ALTER TABLE recetas
+    ALTER COLUMN dificultad TYPE SMALLINT
+    USING pg_temp.codigo_dificultad(dificultad);
+
+-- Categoría: conjunto abierto, se normaliza en una tabla de diccionario
+CREATE TABLE IF NOT EXISTS categorias (
+    id_categoria SMALLINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre TEXT NOT NULL UNIQUE
+);
+
+INSERT INTO categorias (nombre)
+SELECT DISTINCT categoria FROM recetas WHERE categoria IS NOT NULL
+ON CONFLICT (nombre) DO NOTHING;
+
+ALTER TABLE recetas ADD COLUMN IF NOT EXISTS id_categoria SMALLINT;
+
+UPDATE recetas r
+SET id_categoria = c.id_categoria
+FROM categorias c
+WHERE c.nombre = r.categoria;
+
+ALTER TABLE recetas DROP COLUMN categoria;
+
+-- Tipo de valoración: texto -> código de TipoValoracion
+ALTER TABLE valoraciones
+    ALTER COLUMN tipo TYPE SMALLINT
+    USING pg_temp.codigo_tipo_valoracion(tipo);
+
+CREATE INDEX IF NOT EXISTS idx_recetas_dificultad ON recetas (dificultad);
+CREATE INDEX IF NOT EXISTS idx_recetas_categoria ON recetas (id_categoria);
+
+COMMIT;
@@ -0,0 +1,120 @@
+-- Particionado declarativo por rango mensual de f_creacion para valoraciones y comentarios.
+-- PostgreSQL 13+. Ejecutar en una ventana de mantenimiento (copia todas las filas) y después
+-- arrancar la aplicación con recipes.particionado.enabled=true, que crea las particiones futuras
+-- y, si se configura recipes.particionado.retention-months, borra las caducadas.
+--
+-- Limitaciones de PostgreSQL sobre tablas particionadas:
+--   * La clave primaria debe incluir la columna de partición: pasa a ser (id, f_creacion).
+--     Hibernate sigue usando solo el id, que es único porque sale de una secuencia.
+--   * Una restricción UNIQUE también debe incluir f_creacion, así que la unicidad
+--     (id_receta, id_usuario) de valoraciones (RN-04) deja de ser una restricción. La garantiza
+--     ValoracionRepositoryImpl.save, que en PostgreSQL toma pg_advisory_xact_lock(id_receta,
+--     id_usuario) y vuelve a buscar la valoración activa antes de insertar, en la misma transacción.
+--     Con database.generation=update Hibernate intentará crearla y solo dejará un aviso en el log.
+--   * Las columnas IDENTITY no se admiten en tablas particionadas antes de PostgreSQL 17;
+--     se usa una secuencia con DEFAULT nextval, que Hibernate trata igual.
+
+BEGIN;
+
+-- Crea las particiones mensuales necesarias para las filas existentes y los próximos 3 meses
+CREATE OR REPLACE FUNCTION crear_particiones_mensuales(tabla TEXT, desde DATE, hasta DATE)
+RETURNS VOID AS $$
+DECLARE
+    mes DATE := date_trunc('month', desde);
+BEGIN
+    WHILE mes <= hasta LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       tabla || '_p' || to_char(mes, 'YYYY_MM'), tabla, mes, mes + INTERVAL '1 month');
+        mes := mes + INTERVAL '1 month';
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Valoraciones
+
+ALTER TABLE valoraciones RENAME TO valoraciones_sin_particionar;
+
+CREATE SEQUENCE valoraciones_id_valoracion_seq_p;
+SELECT setval('valoraciones_id_valoracion_seq_p',
+              COALESCE((SELECT max(id_valoracion) FROM valoraciones_sin_particionar), 0) + 1, false);
+
+CREATE TABLE valoraciones (
+    id_valoracion INTEGER NOT NULL DEFAULT nextval('valoraciones_id_valoracion_seq_p'),
+    id_receta INTEGER NOT NULL REFERENCES recetas (id_receta),
+    id_usuario INTEGER NOT NULL REFERENCES usuarios (id_usuario),
+    tipo SMALLINT NOT NULL,
+    f_creacion TIMESTAMP(6) NOT NULL,
+    f_eliminacion TIMESTAMP(6),
+    PRIMARY KEY (id_valoracion, f_creacion)
+) PARTITION BY RANGE (f_creacion);
+
+ALTER SEQUENCE valoraciones_id_valoracion_seq_p OWNED BY valoraciones.id_valoracion;
+
+CREATE INDEX idx_valoraciones_receta_usuario ON valoraciones (id_receta, id_usuario);
+CREATE INDEX idx_valoraciones_usuario_fecha ON valoraciones (id_usuario, f_creacion DESC);
+
+SELECT crear_particiones_mensuales('valoraciones',
+       COALESCE((SELECT min(f_creacion)::date FROM valoraciones_sin_particionar), current_date),
+       (current_date + INTERVAL '3 months')::date);
+
+INSERT INTO valoraciones (id_valoracion, id_receta, id_usuario, tipo, f_creacion, f_eliminacion)
+SELECT id_valoracion, id_receta, id_usuario, tipo, f_creacion, f_eliminacion
+FROM valoraciones_sin_particionar;
+
+-- Comentarios
+
+ALTER TABLE comentarios RENAME TO comentarios_sin_particionar;
+ALTER INDEX idx_comentarios_receta_estado_fecha RENAME TO idx_comentarios_receta_estado_fecha_sp;
+
+CREATE SEQUENCE comentarios_id_comentario_seq_p;
+SELECT setval('comentarios_id_comentario_seq_p',
+              COALESCE((SELECT max(id_comentario) FROM comentarios_sin_particionar), 0) + 1, false);
+
+CREATE TABLE comentarios (
+    id_comentario INTEGER NOT NULL DEFAULT nextval('comentarios_id_comentario_seq_p'),
+    id_receta INTEGER NOT NULL REFERENCES recetas (id_receta),
+    id_autor INTEGER NOT NULL REFERENCES usuarios (id_usuario),
+    contenido TEXT NOT NULL,
+    estado VARCHAR(20),
+    f_creacion TIMESTAMP(6) NOT NULL,
+    f_modificacion TIMESTAMP(6),
+    PRIMARY KEY (id_comentario, f_creacion)
+) PARTITION BY RANGE (f_creacion);
+
+ALTER SEQUENCE comentarios_id_comentario_seq_p OWNED BY comentarios.id_comentario;
+
+CREATE INDEX idx_comentarios_receta_estado_fecha
+    ON comentarios (id_receta, estado, f_creacion DESC, id_comentario DESC);
+CREATE INDEX idx_comentarios_estado_fecha ON comentarios (estado, f_creacion DESC);
+
+SELECT crear_particiones_mensuales('comentarios',
+       COALESCE((SELECT min(f_creacion)::date FROM comentarios_sin_particionar), current_date),
+       (current_date + INTERVAL '3 months')::date);
+
+INSERT INTO comentarios (id_comentario, id_receta, id_autor, contenido, estado, f_creacion, f_modificacion)
+SELECT id_comentario, id_receta, id_autor, contenido, estado, f_creacion, f_modificacion
+FROM comentarios_sin_particionar;
+
+-- Las tablas renombradas conservan sus claves ajenas a recetas y usuarios: sin quitarlas, el
+-- borrado de recetas y el de usuarios fallarían por las filas copiadas que quedan en ellas.
+DO $$
+DECLARE
+    restriccion RECORD;
+BEGIN
+    FOR restriccion IN
+        SELECT conrelid::regclass AS tabla, conname FROM pg_constraint
+        WHERE contype = 'f'
+          AND conrelid IN ('valoraciones_sin_particionar'::regclass, 'comentarios_sin_particionar'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', restriccion.tabla, restriccion.conname);
+    END LOOP;
+END $$;
+
+COMMIT;
+
+ANALYZE valoraciones;
+ANALYZE comentarios;
+
+-- Copias de seguridad sin claves ajenas; borrarlas tras comprobar los datos:
+-- DROP TABLE valoraciones_sin_particionar;
+-- DROP TABLE comentarios_sin_particionar;
@@ -1,18 +1,94 @@
 package es.rtur.pruebas.recipes.domain.entity;
 
+import java.text.Normalizer;
+import java.util.Optional;
+
+/**
+ * Difficulty of a recipe.
+ * Each level has a stable small-integer code used for storage and the value used
+ * by the API ("facil", "media", "dificil", "experto"). Codes must never be reused.
+ */
 public enum DifficultyLevel {
-    EASY("Easy - Suitable for beginners"),
-    MEDIUM("Medium - Some cooking experience required"),
-    HARD("Hard - Advanced cooking skills needed"),
-    EXPERT("Expert - Professional level");
+    EASY(1, "facil", "Easy - Suitable for beginners"),
+    MEDIUM(2, "media", "Medium - Some cooking experience required"),
+    HARD(3, "dificil", "Hard - Advanced cooking skills needed"),
+    EXPERT(4, "experto", "Expert - Professional level");
+
+    private static final DifficultyLevel[] VALUES = values();
+    private static final DifficultyLevel[] BY_CODE = new DifficultyLevel[5];
+
+    static {
+        for (DifficultyLevel level : values()) {
+            BY_CODE[level.code] = level;
+        }
+    }
 
+    private final short code;
+    private final String value;
     private final String description;
 
-    DifficultyLevel(String description) {
+    DifficultyLevel(int code, String value, String description) {
+        this.code = (short) code;
+        this.value = value;
         this.description = description;
     }
 
+    public short getCode() {
+        return code;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
     public String getDescription() {
         return description;
     }
+
+    /**
+     * @throws IllegalArgumentException if no level has that code
+     */
+    public static DifficultyLevel fromCode(int code) {
+        if (code <= 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown difficulty code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Finds a level by its API value or constant name, ignoring case, accents and surrounding
+     * whitespace, so values stored before the codes existed ("Fácil", "DIFÍCIL") still match.
+     */
+    public static Optional<DifficultyLevel> findByValue(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        Optional<DifficultyLevel> level = match(value);
+        if (level.isPresent()) {
+            return level;
+        }
+        // Only values that do not match as they are pay for the normalization
+        return match(Normalizer.normalize(value.strip(), Normalizer.Form.NFD).replaceAll("\\p{M}", ""));
+    }
+
+    private static Optional<DifficultyLevel> match(String value) {
+        for (DifficultyLevel level : VALUES) {
+            if (level.value.equalsIgnoreCase(value) || level.name().equalsIgnoreCase(value)) {
+                return Optional.of(level);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return the level, or null if the value is null
+     * @throws IllegalArgumentException if the value is not a known difficulty
+     */
+    public static DifficultyLevel fromValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        return findByValue(value)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown difficulty: " + value));
+    }
 }
@@ -17,6 +17,11 @@
  */
 public class Receta {
 
+    /**
+     * Maximum length of the preparation snippet shown in recipe lists.
+     */
+    public static final int RESUMEN_MAX_LENGTH = 160;
+
     private final RecetaId id;
     
     @NotBlank(message = "Recipe name cannot be blank")
@@ -28,8 +33,10 @@ public class Receta {
     @Positive(message = "Number of servings must be positive")
     private Integer comensales;
     
-    private String dificultad;
+    private DifficultyLevel dificultad;
     private String preparacion;
+    private String resumen;
+    private boolean preparacionLoaded;
     private String categoria;
     
     @NotNull(message = "Author ID cannot be null")
@@ -40,6 +47,9 @@ public class Receta {
 
     /**
      * Constructor for creating a new Receta (ID may be null for new entities before persistence).
+     * The difficulty is its API value ("facil", "media"...), its constant name or null; see
+     * {@link DifficultyLevel#findByValue} for the accepted spellings.
+     * @throws IllegalArgumentException if the difficulty is not a known {@link DifficultyLevel}
      */
     public Receta(RecetaId id, String nombre, Integer tiempo, Integer comensales,
                   String dificultad, String preparacion, String categoria, UsuarioId idAutor) {
@@ -47,8 +57,10 @@ public Receta(RecetaId id, String nombre, Integer tiempo, Integer comensales,
         this.nombre = Objects.requireNonNull(nombre, "Recipe name cannot be null");
         this.tiempo = tiempo;
         this.comensales = comensales;
-        this.dificultad = dificultad;
+        this.dificultad = DifficultyLevel.fromValue(dificultad);
         this.preparacion = preparacion;
+        this.resumen = resumir(preparacion);
+        this.preparacionLoaded = true;
         this.categoria = categoria;
         this.idAutor = Objects.requireNonNull(idAutor, "Author ID cannot be null");
         this.fCreacion = LocalDateTime.now();
@@ -57,6 +69,7 @@ public Receta(RecetaId id, String nombre, Integer tiempo, Integer comensales,
 
     /**
      * Constructor for loading existing Receta from repository.
+     * @throws IllegalArgumentException if the difficulty is not a known {@link DifficultyLevel}
      */
     public Receta(RecetaId id, String nombre, Integer tiempo, Integer comensales,
                   String dificultad, String preparacion, String categoria, UsuarioId idAutor,
@@ -65,8 +78,10 @@ public Receta(RecetaId id, String nombre, Integer tiempo, Integer comensales,
         this.nombre = nombre;
         this.tiempo = tiempo;
         this.comensales = comensales;
-        this.dificultad = dificultad;
+        this.dificultad = DifficultyLevel.fromValue(dificultad);
         this.preparacion = preparacion;
+        this.resumen = resumir(preparacion);
+        this.preparacionLoaded = true;
         this.categoria = categoria;
         this.idAutor = idAutor;
         this.fCreacion = fCreacion;
@@ -74,10 +89,47 @@ public Receta(RecetaId id, String nombre, Integer tiempo, Integer comensales,
     }
 
     /**
-     * Updates recipe details.
+     * Loads an existing Receta for list views: only the precomputed snippet of the
+     * preparation is available, the full text is not read.
+     */
+    public static Receta forListing(RecetaId id, String nombre, Integer tiempo, Integer comensales,
+                                    String dificultad, String resumen, String categoria, UsuarioId idAutor,
+                                    LocalDateTime fCreacion, LocalDateTime fModificacion) {
+        Receta receta = new Receta(id, nombre, tiempo, comensales, dificultad, null, categoria, idAutor,
+                fCreacion, fModificacion);
+        receta.resumen = resumen;
+        receta.preparacionLoaded = false;
+        return receta;
+    }
+
+    /**
+     * Builds the list snippet of a preparation text: whitespace collapsed and cut at a
+     * word boundary to at most {@link #RESUMEN_MAX_LENGTH} characters, ellipsis included.
+     * @return the snippet, or null if there is no preparation
+     */
+    public static String resumir(String preparacion) {
+        if (preparacion == null) {
+            return null;
+        }
+        String texto = preparacion.strip().replaceAll("\\s+", " ");
+        if (texto.length() <= RESUMEN_MAX_LENGTH) {
+            return texto;
+        }
+        int corte = texto.lastIndexOf(' ', RESUMEN_MAX_LENGTH - 1);
+        if (corte < RESUMEN_MAX_LENGTH / 2) {
+            corte = RESUMEN_MAX_LENGTH - 1;
+        }
+        return texto.substring(0, corte).stripTrailing() + "…";
+    }
+
+    /**
+     * Updates recipe details; null or invalid values leave the current ones.
+     * @throws IllegalArgumentException if the difficulty is not a known {@link DifficultyLevel};
+     *         nothing is changed in that case
      */
     public void updateDetails(String nombre, Integer tiempo, Integer comensales,
                              String dificultad, String preparacion, String categoria) {
+        DifficultyLevel nuevaDificultad = dificultad != null ? DifficultyLevel.fromValue(dificultad) : this.dificultad;
         if (nombre != null && !nombre.isBlank()) {
             this.nombre = nombre;
         }
@@ -87,11 +139,11 @@ public void updateDetails(String nombre, Integer tiempo, Integer comensales,
         if (comensales != null && comensales > 0) {
             this.comensales = comensales;
         }
-        if (dificultad != null) {
-            this.dificultad = dificultad;
-        }
+        this.dificultad = nuevaDificultad;
         if (preparacion != null) {
             this.preparacion = preparacion;
+            this.resumen = resumir(preparacion);
+            this.preparacionLoaded = true;
         }
         if (categoria != null) {
             this.categoria = categoria;
@@ -135,8 +187,12 @@ public boolean canDelete(UsuarioId usuarioId, boolean isAdmin) {
     public String getNombre() { return nombre; }
     public Integer getTiempo() { return tiempo; }
     public Integer getComensales() { return comensales; }
-    public String getDificultad() { return dificultad; }
+    public String getDificultad() { return dificultad != null ? dificultad.getValue() : null; }
+    public DifficultyLevel getDifficultyLevel() { return dificultad; }
     public String getPreparacion() { return preparacion; }
+    public String getResumen() { return resumen; }
+    /** False when loaded for a list view: getPreparacion() is null but the stored text is not. */
+    public boolean isPreparacionLoaded() { return preparacionLoaded; }
     public String getCategoria() { return categoria; }
     public UsuarioId getIdAutor() { return idAutor; }
     public LocalDateTime getFCreacion() { return fCreacion; }
@@ -161,7 +217,7 @@ public String toString() {
                 "id=" + id +
                 ", nombre='" + nombre + '\'' +
                 ", tiempo=" + tiempo +
-                ", dificultad='" + dificultad + '\'' +
+                ", dificultad=" + dificultad +
                 ", categoria='" + categoria + '\'' +
                 '}';
     }
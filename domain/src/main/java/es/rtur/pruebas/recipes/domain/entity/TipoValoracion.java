@@ -0,0 +1,61 @@
+package es.rtur.pruebas.recipes.domain.entity;
+
+import java.util.Optional;
+
+/**
+ * Type of a Valoracion (RF-04).
+ * Each type has a stable small-integer code used for storage and the value used
+ * by the API ("like", "dislike"). Codes must never be reused.
+ */
+public enum TipoValoracion {
+    LIKE(1, "like"),
+    DISLIKE(2, "dislike");
+
+    private final short code;
+    private final String value;
+
+    TipoValoracion(int code, String value) {
+        this.code = (short) code;
+        this.value = value;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no type has that code
+     */
+    public static TipoValoracion fromCode(int code) {
+        return switch (code) {
+            case 1 -> LIKE;
+            case 2 -> DISLIKE;
+            default -> throw new IllegalArgumentException("Unknown valoracion tipo code: " + code);
+        };
+    }
+
+    /**
+     * Finds a type by its API value ("like" or "dislike").
+     */
+    public static Optional<TipoValoracion> findByValue(String value) {
+        if (LIKE.value.equals(value)) {
+            return Optional.of(LIKE);
+        }
+        if (DISLIKE.value.equals(value)) {
+            return Optional.of(DISLIKE);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not 'like' or 'dislike'
+     */
+    public static TipoValoracion fromValue(String value) {
+        return findByValue(value)
+                .orElseThrow(() -> new IllegalArgumentException("Valoracion tipo must be 'like' or 'dislike'"));
+    }
+}
@@ -103,6 +103,22 @@ public void activate() {
         this.fModificacion = LocalDateTime.now();
     }
 
+    /**
+     * Marks usuario for deletion. The account stops being active at once;
+     * its recipes, comments and ratings are removed afterwards in the background.
+     */
+    public void markForDeletion() {
+        this.estado = "eliminado";
+        this.fModificacion = LocalDateTime.now();
+    }
+
+    /**
+     * Checks if usuario is waiting to be deleted.
+     */
+    public boolean isMarkedForDeletion() {
+        return "eliminado".equals(this.estado);
+    }
+
     /**
      * Checks if usuario is active.
      */
@@ -24,7 +24,7 @@ public class Valoracion {
     private final UsuarioId idUsuario;
     
     @NotNull(message = "Valoracion type cannot be null")
-    private String tipo; // "like" or "dislike"
+    private TipoValoracion tipo;
     
     private final LocalDateTime fCreacion;
     private LocalDateTime fEliminacion;
@@ -36,8 +36,7 @@ public Valoracion(ValoracionId id, RecetaId idReceta, UsuarioId idUsuario, Strin
         this.id = id; // Allow null for new entities before persistence
         this.idReceta = Objects.requireNonNull(idReceta, "Recipe ID cannot be null");
         this.idUsuario = Objects.requireNonNull(idUsuario, "User ID cannot be null");
-        validateTipo(tipo);
-        this.tipo = tipo;
+        this.tipo = TipoValoracion.fromValue(tipo);
         this.fCreacion = LocalDateTime.now();
         this.fEliminacion = null;
     }
@@ -50,26 +49,16 @@ public Valoracion(ValoracionId id, RecetaId idReceta, UsuarioId idUsuario, Strin
         this.id = id;
         this.idReceta = idReceta;
         this.idUsuario = idUsuario;
-        this.tipo = tipo;
+        this.tipo = TipoValoracion.fromValue(tipo);
         this.fCreacion = fCreacion;
         this.fEliminacion = fEliminacion;
     }
 
-    /**
-     * Validates the tipo (type) of valoracion.
-     */
-    private void validateTipo(String tipo) {
-        if (tipo == null || (!tipo.equals("like") && !tipo.equals("dislike"))) {
-            throw new IllegalArgumentException("Valoracion tipo must be 'like' or 'dislike'");
-        }
-    }
-
     /**
      * Changes the valoracion type (toggle between like and dislike).
      */
     public void changeTipo(String newTipo) {
-        validateTipo(newTipo);
-        this.tipo = newTipo;
+        this.tipo = TipoValoracion.fromValue(newTipo);
     }
 
     /**
@@ -90,21 +79,22 @@ public boolean isActive() {
      * Checks if this is a like.
      */
     public boolean isLike() {
-        return "like".equals(this.tipo);
+        return this.tipo == TipoValoracion.LIKE;
     }
 
     /**
      * Checks if this is a dislike.
      */
     public boolean isDislike() {
-        return "dislike".equals(this.tipo);
+        return this.tipo == TipoValoracion.DISLIKE;
     }
 
     // Getters
     public ValoracionId getId() { return id; }
     public RecetaId getIdReceta() { return idReceta; }
     public UsuarioId getIdUsuario() { return idUsuario; }
-    public String getTipo() { return tipo; }
+    public String getTipo() { return tipo.getValue(); }
+    public TipoValoracion getTipoValoracion() { return tipo; }
     public LocalDateTime getFCreacion() { return fCreacion; }
     public LocalDateTime getFEliminacion() { return fEliminacion; }
 
@@ -127,7 +117,7 @@ public String toString() {
                 "id=" + id +
                 ", idReceta=" + idReceta +
                 ", idUsuario=" + idUsuario +
-                ", tipo='" + tipo + '\'' +
+                ", tipo=" + tipo +
                 ", active=" + isActive() +
                 '}';
     }
@@ -0,0 +1,33 @@
+package es.rtur.pruebas.recipes.domain.readmodel;
+
+import es.rtur.pruebas.recipes.domain.valueobject.IngredienteId;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+
+import java.math.BigDecimal;
+
+/**
+ * Read model for one ingredient line of a recipe: ingredient, quantity and unit.
+ */
+public class IngredienteReceta {
+
+    private final RecetaId idReceta;
+    private final IngredienteId idIngrediente;
+    private final String nombre;
+    private final BigDecimal cantidad;
+    private final String unidadMedida;
+
+    public IngredienteReceta(RecetaId idReceta, IngredienteId idIngrediente, String nombre,
+                             BigDecimal cantidad, String unidadMedida) {
+        this.idReceta = idReceta;
+        this.idIngrediente = idIngrediente;
+        this.nombre = nombre;
+        this.cantidad = cantidad;
+        this.unidadMedida = unidadMedida;
+    }
+
+    public RecetaId getIdReceta() { return idReceta; }
+    public IngredienteId getIdIngrediente() { return idIngrediente; }
+    public String getNombre() { return nombre; }
+    public BigDecimal getCantidad() { return cantidad; }
+    public String getUnidadMedida() { return unidadMedida; }
+}
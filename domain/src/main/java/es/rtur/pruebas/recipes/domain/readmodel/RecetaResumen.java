@@ -0,0 +1,58 @@
+package es.rtur.pruebas.recipes.domain.readmodel;
+
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for recipe listings: the recipe columns shown in a list
+ * plus its popularity counters (RF-02, RF-03, RF-04).
+ * Immutable and built by a single query; it is not an aggregate and is never saved.
+ */
+public class RecetaResumen {
+
+    private final RecetaId id;
+    private final String nombre;
+    private final Integer tiempo;
+    private final Integer comensales;
+    private final String dificultad;
+    private final String categoria;
+    private final String resumen;
+    private final UsuarioId idAutor;
+    private final LocalDateTime fCreacion;
+    private final long likes;
+    private final long dislikes;
+    private final long comentarios;
+
+    public RecetaResumen(RecetaId id, String nombre, Integer tiempo, Integer comensales,
+                         String dificultad, String categoria, String resumen,
+                         UsuarioId idAutor, LocalDateTime fCreacion,
+                         long likes, long dislikes, long comentarios) {
+        this.id = id;
+        this.nombre = nombre;
+        this.tiempo = tiempo;
+        this.comensales = comensales;
+        this.dificultad = dificultad;
+        this.categoria = categoria;
+        this.resumen = resumen;
+        this.idAutor = idAutor;
+        this.fCreacion = fCreacion;
+        this.likes = likes;
+        this.dislikes = dislikes;
+        this.comentarios = comentarios;
+    }
+
+    public RecetaId getId() { return id; }
+    public String getNombre() { return nombre; }
+    public Integer getTiempo() { return tiempo; }
+    public Integer getComensales() { return comensales; }
+    public String getDificultad() { return dificultad; }
+    public String getCategoria() { return categoria; }
+    public String getResumen() { return resumen; }
+    public UsuarioId getIdAutor() { return idAutor; }
+    public LocalDateTime getFCreacion() { return fCreacion; }
+    public long getLikes() { return likes; }
+    public long getDislikes() { return dislikes; }
+    public long getComentarios() { return comentarios; }
+}
@@ -0,0 +1,24 @@
+package es.rtur.pruebas.recipes.domain.readmodel;
+
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UtensilioId;
+
+/**
+ * Read model for one utensil used by a recipe.
+ */
+public class UtensilioReceta {
+
+    private final RecetaId idReceta;
+    private final UtensilioId idUtensilio;
+    private final String nombre;
+
+    public UtensilioReceta(RecetaId idReceta, UtensilioId idUtensilio, String nombre) {
+        this.idReceta = idReceta;
+        this.idUtensilio = idUtensilio;
+        this.nombre = nombre;
+    }
+
+    public RecetaId getIdReceta() { return idReceta; }
+    public UtensilioId getIdUtensilio() { return idUtensilio; }
+    public String getNombre() { return nombre; }
+}
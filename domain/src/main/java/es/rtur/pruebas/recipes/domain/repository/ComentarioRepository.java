@@ -5,6 +5,7 @@
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
 import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +36,20 @@ public interface ComentarioRepository {
      */
     List<Comentario> findByRecetaAndEstado(RecetaId idReceta, String estado);
 
+    /**
+     * Finds the latest comentarios of a recipe with the given estado,
+     * ordered by creation date and ID descending.
+     * First page of the keyset pagination.
+     */
+    List<Comentario> findLatestByRecetaAndEstado(RecetaId idReceta, String estado, int limit);
+
+    /**
+     * Finds the comentarios that come after the given position (creation date, ID)
+     * in descending order. Keyset pagination: the cost does not depend on the page number.
+     */
+    List<Comentario> findByRecetaAndEstadoBefore(RecetaId idReceta, String estado,
+                                                 LocalDateTime fCreacion, ComentarioId idComentario, int limit);
+
     /**
      * Finds comentarios by author.
      */
@@ -0,0 +1,26 @@
+package es.rtur.pruebas.recipes.domain.repository;
+
+import es.rtur.pruebas.recipes.domain.readmodel.IngredienteReceta;
+import es.rtur.pruebas.recipes.domain.readmodel.UtensilioReceta;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-side repository for recipe composition (ingredients and utensils).
+ * Loads the composition of many recipes at once, one query per table,
+ * so listings do not trigger one lazy load per recipe.
+ */
+public interface ComposicionRecetaRepository {
+
+    /**
+     * Finds the ingredient lines of all the given recipes, ordered by recipe.
+     */
+    List<IngredienteReceta> findIngredientesByRecetas(Collection<RecetaId> idsReceta);
+
+    /**
+     * Finds the utensils of all the given recipes, ordered by recipe.
+     */
+    List<UtensilioReceta> findUtensiliosByRecetas(Collection<RecetaId> idsReceta);
+}
@@ -10,6 +10,8 @@
 /**
  * Repository interface for Receta entity.
  * Defines the contract for data access operations.
+ * The list methods return recetas built with {@link Receta#forListing}: they carry the
+ * preparation snippet but not the full preparation text, which only findById loads.
  */
 public interface RecetaRepository {
 
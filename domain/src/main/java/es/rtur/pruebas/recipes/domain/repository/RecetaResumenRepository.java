@@ -0,0 +1,22 @@
+package es.rtur.pruebas.recipes.domain.repository;
+
+import es.rtur.pruebas.recipes.domain.readmodel.RecetaResumen;
+
+import java.util.List;
+
+/**
+ * Read-side repository for recipe listings with popularity counters.
+ */
+public interface RecetaResumenRepository {
+
+    /**
+     * Finds a page of recipes, newest first, with their like, dislike and active comment counts.
+     * The whole page, counters included, is loaded with a single SQL statement.
+     * RF-02: List recipes. RF-07: Filter by difficulty and category.
+     * @param dificultad Difficulty filter, or null
+     * @param categoria Category filter, or null
+     * @param offset Number of recipes to skip
+     * @param limit Maximum number of recipes
+     */
+    List<RecetaResumen> findPage(String dificultad, String categoria, int offset, int limit);
+}
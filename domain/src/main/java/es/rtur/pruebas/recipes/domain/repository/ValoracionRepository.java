@@ -4,8 +4,12 @@
 import es.rtur.pruebas.recipes.domain.valueobject.ValoracionId;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
 import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionCount;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -52,6 +56,23 @@ public interface ValoracionRepository {
      */
     long countDislikesByReceta(RecetaId idReceta);
 
+    /**
+     * Counts active likes and dislikes of several recipes in a single query.
+     * Recipes without active valoraciones are not included in the result.
+     */
+    Map<RecetaId, ValoracionCount> countByRecetas(Collection<RecetaId> idsReceta);
+
+    /**
+     * Finds the active valoracion type ('like' or 'dislike') of a user for several recipes
+     * in a single query. Recipes the user has not rated are not included in the result.
+     */
+    Map<RecetaId, String> findTiposByUsuarioAndRecetas(UsuarioId idUsuario, Collection<RecetaId> idsReceta);
+
+    /**
+     * Finds the active valoracion type of every recipe rated by a user.
+     */
+    Map<RecetaId, String> findTiposByUsuario(UsuarioId idUsuario);
+
     /**
      * Deletes a valoracion by ID.
      */
@@ -61,4 +82,30 @@ public interface ValoracionRepository {
      * Checks if a valoracion exists by ID.
      */
     boolean existsById(ValoracionId id);
+
+    /**
+     * Hard-deletes every valoracion of the given recipes, active or not, before deleting them.
+     * @return The deleted valoraciones, so the caller can record their deletion
+     */
+    List<Valoracion> deleteByRecetas(Collection<RecetaId> idsReceta);
+
+    /**
+     * Hard-deletes up to {@code max} valoraciones of the given recipes, active or not.
+     * @return The deleted valoraciones; fewer than max once none are left
+     */
+    List<Valoracion> deleteBatchByRecetas(Collection<RecetaId> idsReceta, int max);
+
+    /**
+     * Hard-deletes up to {@code max} valoraciones given by a user, active or not.
+     * @return The deleted valoraciones; fewer than max once none are left
+     */
+    List<Valoracion> deleteBatchByUsuario(UsuarioId idUsuario, int max);
+
+    /**
+     * Hard-deletes up to {@code max} soft-deleted valoraciones removed before {@code deletedBefore}
+     * whose ID is greater than {@code afterId}, lowest IDs first, so that a purge can walk
+     * all of them in ID order.
+     * @return IDs of the purged valoraciones in ascending order
+     */
+    List<ValoracionId> purgeDeleted(LocalDateTime deletedBefore, int afterId, int max);
 }
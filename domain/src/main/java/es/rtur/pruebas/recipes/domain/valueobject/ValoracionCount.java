@@ -0,0 +1,56 @@
+package es.rtur.pruebas.recipes.domain.valueobject;
+
+import java.util.Objects;
+
+/**
+ * Value object with the active like and dislike counts of a recipe (RF-04).
+ */
+public class ValoracionCount {
+
+    private static final ValoracionCount EMPTY = new ValoracionCount(0, 0);
+
+    private final long likes;
+    private final long dislikes;
+
+    private ValoracionCount(long likes, long dislikes) {
+        this.likes = likes;
+        this.dislikes = dislikes;
+    }
+
+    public static ValoracionCount of(long likes, long dislikes) {
+        if (likes < 0 || dislikes < 0) {
+            throw new IllegalArgumentException("Valoracion counts cannot be negative");
+        }
+        return new ValoracionCount(likes, dislikes);
+    }
+
+    public static ValoracionCount empty() {
+        return EMPTY;
+    }
+
+    public long getLikes() {
+        return likes;
+    }
+
+    public long getDislikes() {
+        return dislikes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ValoracionCount that = (ValoracionCount) o;
+        return likes == that.likes && dislikes == that.dislikes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(likes, dislikes);
+    }
+
+    @Override
+    public String toString() {
+        return "ValoracionCount{likes=" + likes + ", dislikes=" + dislikes + '}';
+    }
+}
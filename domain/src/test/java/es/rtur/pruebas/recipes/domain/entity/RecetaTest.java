@@ -0,0 +1,87 @@
+package es.rtur.pruebas.recipes.domain.entity;
+
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecetaTest {
+
+    @Test
+    void shouldKeepShortPreparationAsSnippet() {
+        assertEquals("Mezclar y hornear.", Receta.resumir("  Mezclar\n\n y   hornear.  "));
+        assertNull(Receta.resumir(null));
+    }
+
+    @Test
+    void shouldCutLongPreparationAtWordBoundary() {
+        String preparacion = "Sofreír la cebolla a fuego lento. ".repeat(20);
+
+        String resumen = Receta.resumir(preparacion);
+
+        assertTrue(resumen.length() <= Receta.RESUMEN_MAX_LENGTH);
+        assertTrue(resumen.endsWith("…"));
+        assertTrue(preparacion.startsWith(resumen.substring(0, resumen.length() - 1)));
+        assertFalse(resumen.substring(0, resumen.length() - 1).endsWith(" "));
+    }
+
+    @Test
+    void shouldUpdateSnippetWithPreparation() {
+        Receta receta = new Receta(null, "Paella", 60, 4, "media", "Original", "arroces", UsuarioId.of(1));
+
+        receta.updateDetails(null, null, null, null, "Nueva preparación", null);
+
+        assertEquals("Nueva preparación", receta.getResumen());
+        assertTrue(receta.isPreparacionLoaded());
+    }
+
+    @Test
+    void shouldLoadListingWithoutPreparation() {
+        Receta receta = Receta.forListing(RecetaId.of(1), "Paella", 60, 4, "media", "Sofreír…", "arroces",
+                UsuarioId.of(1), LocalDateTime.now(), LocalDateTime.now());
+
+        assertNull(receta.getPreparacion());
+        assertEquals("Sofreír…", receta.getResumen());
+        assertFalse(receta.isPreparacionLoaded());
+    }
+
+    @Test
+    void shouldParseDifficultyIntoTypedLevel() {
+        Receta receta = new Receta(null, "Paella", 60, 4, "Media", "Sofreír", "arroces", UsuarioId.of(1));
+
+        assertEquals(DifficultyLevel.MEDIUM, receta.getDifficultyLevel());
+        assertEquals("media", receta.getDificultad());
+        assertEquals(DifficultyLevel.MEDIUM, DifficultyLevel.fromCode(DifficultyLevel.MEDIUM.getCode()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Receta(null, "Paella", 60, 4, "imposible", "Sofreír", "arroces", UsuarioId.of(1)));
+    }
+
+    @Test
+    void shouldAcceptLegacyDifficultySpellings() {
+        assertEquals(DifficultyLevel.EASY, DifficultyLevel.fromValue("Fácil"));
+        assertEquals(DifficultyLevel.HARD, DifficultyLevel.fromValue(" DIFÍCIL "));
+        assertEquals(DifficultyLevel.EXPERT, DifficultyLevel.fromValue("expert"));
+
+        Receta receta = new Receta(RecetaId.of(1), "Paella", 60, 4, "difícil", "Sofreír", "arroces",
+                UsuarioId.of(1), LocalDateTime.now(), LocalDateTime.now());
+
+        assertEquals("dificil", receta.getDificultad());
+    }
+
+    @Test
+    void shouldRejectUnknownDifficultyWithoutChangingRecipe() {
+        Receta receta = new Receta(null, "Paella", 60, 4, "media", "Sofreír", "arroces", UsuarioId.of(1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> receta.updateDetails("Fideuá", null, null, "imposible", null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Receta(RecetaId.of(1), "Paella", 60, 4, "imposible", "Sofreír", "arroces",
+                        UsuarioId.of(1), LocalDateTime.now(), LocalDateTime.now()));
+
+        assertEquals("Paella", receta.getNombre());
+        assertEquals(DifficultyLevel.MEDIUM, receta.getDifficultyLevel());
+    }
+}
@@ -0,0 +1,143 @@
+package es.rtur.pruebas.recipes.infrastructure.metrics;
+
+import es.rtur.pruebas.recipes.application.metrics.Span;
+import es.rtur.pruebas.recipes.application.metrics.Trace;
+import es.rtur.pruebas.recipes.application.metrics.TraceExporter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Últimas trazas terminadas, en memoria, para consultarlas en local sin un colector.
+ *
+ * Cada traza se copia al terminar a una {@link Traza} inmutable con los tiempos de cada tramo
+ * relativos al inicio (el diagrama de cascada). Se guardan las {@code recipes.tracing.buffer-size}
+ * más recientes; al llegar al límite se descarta la más antigua.
+ */
+@ApplicationScoped
+public class AlmacenTrazas implements TraceExporter {
+
+    private final int capacidad;
+    private final ArrayDeque<Traza> trazas;
+
+    @Inject
+    public AlmacenTrazas(@ConfigProperty(name = "recipes.tracing.buffer-size", defaultValue = "500") int capacidad) {
+        this.capacidad = capacidad;
+        this.trazas = new ArrayDeque<>(capacidad);
+    }
+
+    @Override
+    public void export(Trace trace) {
+        if (capacidad <= 0) {
+            return;
+        }
+        Traza traza = Traza.de(trace);
+        synchronized (trazas) {
+            if (trazas.size() == capacidad) {
+                trazas.removeFirst();
+            }
+            trazas.addLast(traza);
+        }
+    }
+
+    /**
+     * @param duracionMinimaMs Duración mínima de la traza
+     * @param nombre Texto que debe contener el nombre del tramo raíz, o null para todas
+     * @param limite Número máximo de trazas
+     * @return Resumen de las trazas que cumplen los filtros, las más recientes primero
+     */
+    public List<ResumenTraza> buscar(double duracionMinimaMs, String nombre, int limite) {
+        List<ResumenTraza> encontradas = new ArrayList<>();
+        synchronized (trazas) {
+            Iterator<Traza> it = trazas.descendingIterator();
+            while (it.hasNext() && encontradas.size() < limite) {
+                Traza traza = it.next();
+                if (traza.duracionMs() >= duracionMinimaMs && (nombre == null || traza.nombre().contains(nombre))) {
+                    encontradas.add(traza.resumen());
+                }
+            }
+        }
+        return encontradas;
+    }
+
+    /**
+     * @return La traza con ese id, o vacío si no está (o ya se ha descartado)
+     */
+    public Optional<Traza> traza(String traceId) {
+        synchronized (trazas) {
+            Iterator<Traza> it = trazas.descendingIterator();
+            while (it.hasNext()) {
+                Traza traza = it.next();
+                if (traza.traceId().equals(traceId)) {
+                    return Optional.of(traza);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param nombre Nombre del tramo raíz: "GET /api/recetas/{id}" o el caso de uso si la traza empezó fuera de una petición
+     * @param sentencias Tramos de sentencias JDBC (jdbc.execute y jdbc.batch)
+     * @param tramosDescartados Tramos que no se guardaron por pasar del máximo por traza
+     * @param tramos Tramos en orden de inicio, el raíz primero
+     */
+    public record Traza(String traceId, String padreRemoto, String nombre, Instant inicio, double duracionMs,
+                        String error, int sentencias, int tramosDescartados, List<Tramo> tramos) {
+
+        static Traza de(Trace trace) {
+            Span raiz = trace.root();
+            List<Tramo> tramos = new ArrayList<>(trace.spans().size());
+            int sentencias = 0;
+            for (Span span : trace.spans()) {
+                if (span.kind() == Span.Kind.CLIENT && !span.name().equals("jdbc.connection")) {
+                    sentencias++;
+                }
+                tramos.add(new Tramo(span.spanId(), span.parent() == null ? null : span.parent().spanId(),
+                    span.name(), span.kind().name(), ms(span.startNanos() - raiz.startNanos()),
+                    ms(span.durationNanos()), span.error(), atributos(span)));
+            }
+            long inicioNanos = trace.epochNanos(raiz.startNanos());
+            return new Traza(trace.traceId(), trace.remoteParentId(), raiz.name(),
+                Instant.ofEpochSecond(0, inicioNanos), ms(raiz.durationNanos()), raiz.error(), sentencias,
+                trace.droppedSpans(), List.copyOf(tramos));
+        }
+
+        ResumenTraza resumen() {
+            return new ResumenTraza(traceId, nombre, inicio, duracionMs, error, tramos.size(), sentencias);
+        }
+    }
+
+    /**
+     * @param padre spanId del tramo que lo contiene, null para el raíz
+     * @param tipo SERVER (petición), INTERNAL (caso de uso o repositorio) o CLIENT (JDBC)
+     * @param inicioMs Inicio relativo al del tramo raíz
+     * @param error Excepción con la que terminó, o null
+     * @param atributos Ruta, estado HTTP e ids de receta y usuario
+     */
+    public record Tramo(String spanId, String padre, String nombre, String tipo, double inicioMs, double duracionMs,
+                        String error, Map<String, Object> atributos) {
+    }
+
+    public record ResumenTraza(String traceId, String nombre, Instant inicio, double duracionMs, String error,
+                               int tramos, int sentencias) {
+    }
+
+    private static Map<String, Object> atributos(Span span) {
+        return span.attributes().isEmpty() ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(span.attributes()));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
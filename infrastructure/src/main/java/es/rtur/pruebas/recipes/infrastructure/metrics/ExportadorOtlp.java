@@ -0,0 +1,177 @@
+package es.rtur.pruebas.recipes.infrastructure.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.rtur.pruebas.recipes.application.metrics.Span;
+import es.rtur.pruebas.recipes.application.metrics.Trace;
+import es.rtur.pruebas.recipes.application.metrics.TraceExporter;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Envía las trazas terminadas a un colector de OpenTelemetry por OTLP/HTTP con cuerpo JSON
+ * (POST a {@code <endpoint>/v1/traces}), si {@code recipes.tracing.otlp.endpoint} está
+ * configurado.
+ *
+ * Las trazas se encolan al terminar la petición y una tarea periódica las envía por lotes,
+ * así que un colector lento o caído no retrasa las respuestas: con la cola llena se descartan
+ * y se cuentan en el log. Sin endpoint no se encola nada.
+ */
+@ApplicationScoped
+public class ExportadorOtlp implements TraceExporter {
+
+    private static final Logger LOG = Logger.getLogger(ExportadorOtlp.class);
+
+    /** Valores de SpanKind de OTLP, en el orden de Span.Kind (SERVER, INTERNAL, CLIENT). */
+    private static final int[] TIPOS_OTLP = {2, 1, 3};
+    private static final int ESTADO_ERROR = 2;
+
+    private final Optional<URI> destino;
+    private final String servicio;
+    private final int lote;
+    private final BlockingQueue<AlmacenTrazas.Traza> cola;
+    private final LongAdder descartadas = new LongAdder();
+    private final ObjectMapper objectMapper;
+    private final HttpClient cliente;
+
+    @Inject
+    public ExportadorOtlp(@ConfigProperty(name = "recipes.tracing.otlp.endpoint") Optional<String> endpoint,
+                          @ConfigProperty(name = "quarkus.application.name", defaultValue = "recipes") String servicio,
+                          @ConfigProperty(name = "recipes.tracing.otlp.queue-size", defaultValue = "2048") int capacidad,
+                          @ConfigProperty(name = "recipes.tracing.otlp.batch-size", defaultValue = "256") int lote,
+                          ObjectMapper objectMapper) {
+        this.destino = endpoint.map(e -> URI.create(e.endsWith("/") ? e + "v1/traces" : e + "/v1/traces"));
+        this.servicio = servicio;
+        this.lote = lote;
+        this.cola = new ArrayBlockingQueue<>(Math.max(1, capacidad));
+        this.objectMapper = objectMapper;
+        this.cliente = destino.isPresent()
+            ? HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build()
+            : null;
+    }
+
+    @Override
+    public void export(Trace trace) {
+        if (destino.isPresent() && !cola.offer(AlmacenTrazas.Traza.de(trace))) {
+            descartadas.increment();
+        }
+    }
+
+    @Scheduled(every = "${recipes.tracing.otlp.interval:5s}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void enviarPeriodicamente() {
+        if (destino.isEmpty()) {
+            return;
+        }
+        long perdidas = descartadas.sumThenReset();
+        if (perdidas > 0) {
+            LOG.warnf("Cola de trazas OTLP llena: %d trazas descartadas", perdidas);
+        }
+        List<AlmacenTrazas.Traza> pendientes = new ArrayList<>(lote);
+        while (cola.drainTo(pendientes, lote) > 0) {
+            if (!enviar(pendientes)) {
+                return;
+            }
+            pendientes.clear();
+        }
+    }
+
+    @PreDestroy
+    void cerrar() {
+        enviarPeriodicamente();
+    }
+
+    /**
+     * @return false si el colector no ha aceptado el lote (el lote se pierde)
+     */
+    private boolean enviar(List<AlmacenTrazas.Traza> trazas) {
+        try {
+            HttpRequest peticion = HttpRequest.newBuilder(destino.orElseThrow())
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(cuerpo(trazas))))
+                .build();
+            HttpResponse<String> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() / 100 != 2) {
+                LOG.warnf("El colector OTLP ha rechazado %d trazas: HTTP %d %s", trazas.size(),
+                    respuesta.statusCode(), respuesta.body());
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            LOG.warnf("No se han podido enviar %d trazas al colector OTLP: %s", trazas.size(), e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Cuerpo de una petición ExportTraceServiceRequest en la codificación JSON de OTLP: ids en
+     * hexadecimal, tiempos en nanosegundos desde epoch y enteros de 64 bits como texto.
+     */
+    Map<String, Object> cuerpo(List<AlmacenTrazas.Traza> trazas) {
+        List<Map<String, Object>> spans = new ArrayList<>();
+        for (AlmacenTrazas.Traza traza : trazas) {
+            long inicio = nanos(traza.inicio());
+            for (AlmacenTrazas.Tramo tramo : traza.tramos()) {
+                Map<String, Object> span = new LinkedHashMap<>();
+                span.put("traceId", traza.traceId());
+                span.put("spanId", tramo.spanId());
+                String padre = tramo.padre() != null ? tramo.padre() : traza.padreRemoto();
+                if (padre != null) {
+                    span.put("parentSpanId", padre);
+                }
+                span.put("name", tramo.nombre());
+                span.put("kind", TIPOS_OTLP[Span.Kind.valueOf(tramo.tipo()).ordinal()]);
+                long inicioTramo = inicio + Math.round(tramo.inicioMs() * 1_000_000);
+                span.put("startTimeUnixNano", Long.toString(inicioTramo));
+                span.put("endTimeUnixNano", Long.toString(inicioTramo + Math.round(tramo.duracionMs() * 1_000_000)));
+                span.put("attributes", atributos(tramo.atributos()));
+                if (tramo.error() != null) {
+                    span.put("status", Map.of("code", ESTADO_ERROR, "message", tramo.error()));
+                }
+                spans.add(span);
+            }
+        }
+        Map<String, Object> recurso = Map.of("attributes", atributos(Map.of("service.name", servicio)));
+        Map<String, Object> ambito = Map.of("scope", Map.of("name", "es.rtur.pruebas.recipes"), "spans", spans);
+        return Map.of("resourceSpans", List.of(Map.of("resource", recurso, "scopeSpans", List.of(ambito))));
+    }
+
+    private static List<Map<String, Object>> atributos(Map<String, Object> atributos) {
+        List<Map<String, Object>> lista = new ArrayList<>(atributos.size());
+        for (Map.Entry<String, Object> atributo : atributos.entrySet()) {
+            Object valor = atributo.getValue();
+            Map<String, Object> valorOtlp = valor instanceof Integer || valor instanceof Long
+                ? Map.of("intValue", valor.toString())
+                : Map.of("stringValue", valor.toString());
+            lista.add(Map.of("key", atributo.getKey(), "value", valorOtlp));
+        }
+        return lista;
+    }
+
+    private static long nanos(Instant instante) {
+        return instante.getEpochSecond() * 1_000_000_000L + instante.getNano();
+    }
+}
@@ -0,0 +1,254 @@
+package es.rtur.pruebas.recipes.infrastructure.metrics;
+
+import es.rtur.pruebas.recipes.application.metrics.CallTimer;
+import es.rtur.pruebas.recipes.application.metrics.MetricsRegistry;
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.quarkus.agroal.runtime.AgroalDataSourceUtil;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InjectableBean;
+import io.quarkus.arc.InstanceHandle;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métricas de la aplicación en formato Prometheus: llamadas a casos de uso y repositorios
+ * ({@link MetricsRegistry}), estadísticas de Hibernate, pools de conexiones de Agroal y
+ * memoria de la JVM y del proceso.
+ *
+ * Los nombres siguen los de Micrometer para que los paneles sirvan igual si algún día se
+ * cambia a la extensión. Todo se lee al pedir las métricas; entre peticiones no hay coste
+ * salvo los contadores de Hibernate y Agroal, que se activan al arrancar con
+ * {@code recipes.metrics.enabled}.
+ */
+@ApplicationScoped
+public class ExportadorPrometheus {
+
+    public static final String CONTENT_TYPE = FormatoPrometheus.CONTENT_TYPE;
+
+    private static final Path ESTADO_PROCESO = Path.of("/proc/self/status");
+
+    private final MetricsRegistry registry;
+    private final SessionFactory sessionFactory;
+    private final boolean enabled;
+
+    @Inject
+    public ExportadorPrometheus(MetricsRegistry registry, SessionFactory sessionFactory,
+                                @ConfigProperty(name = "recipes.metrics.enabled", defaultValue = "true") boolean enabled) {
+        this.registry = registry;
+        this.sessionFactory = sessionFactory;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Activa las estadísticas de Hibernate y las métricas de todos los pools (también los
+     * de los shards), sin tener que declararlo datasource a datasource en la configuración.
+     */
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        sessionFactory.getStatistics().setStatisticsEnabled(true);
+        pools().values().forEach(ds -> ds.getConfiguration().setMetricsEnabled(true));
+    }
+
+    public String exportar() {
+        FormatoPrometheus salida = new FormatoPrometheus();
+        List<CallTimer> timers = registry.timers();
+        escribirLlamadas(salida, timers, "usecase", "casos de uso");
+        escribirLlamadas(salida, timers, "repository", "puertos de repositorio");
+        escribirHibernate(salida);
+        escribirPools(salida);
+        escribirJvm(salida);
+        return salida.toString();
+    }
+
+    private void escribirLlamadas(FormatoPrometheus salida, List<CallTimer> timers, String capa, String descripcion) {
+        List<CallTimer> deCapa = timers.stream().filter(t -> t.layer().equals(capa)).toList();
+        if (deCapa.isEmpty()) {
+            return;
+        }
+        String nombre = "recipes_" + capa + "_seconds";
+        long[] limites = CallTimer.bucketBounds();
+        salida.familia(nombre, "histogram", "Duración de las llamadas a " + descripcion);
+        for (CallTimer t : deCapa) {
+            long[] cubetas = t.bucketCounts();
+            long acumulado = 0;
+            for (int i = 0; i < cubetas.length; i++) {
+                acumulado += cubetas[i];
+                String le = i < limites.length
+                    ? BigDecimal.valueOf(limites[i], 9).stripTrailingZeros().toPlainString() : "+Inf";
+                salida.muestra(nombre + "_bucket", acumulado, "class", t.type(), "method", t.method(), "le", le);
+            }
+            salida.muestra(nombre + "_sum", t.totalNanos() / 1e9, "class", t.type(), "method", t.method());
+            salida.muestra(nombre + "_count", t.count(), "class", t.type(), "method", t.method());
+        }
+        salida.familia(nombre + "_max", "gauge", "Llamada más lenta a " + descripcion + " desde el arranque");
+        for (CallTimer t : deCapa) {
+            salida.muestra(nombre + "_max", t.maxNanos() / 1e9, "class", t.type(), "method", t.method());
+        }
+        salida.familia("recipes_" + capa + "_errors_total", "counter", "Llamadas a " + descripcion + " terminadas con excepción");
+        for (CallTimer t : deCapa) {
+            salida.muestra("recipes_" + capa + "_errors_total", t.errors(), "class", t.type(), "method", t.method());
+        }
+    }
+
+    private void escribirHibernate(FormatoPrometheus salida) {
+        Statistics s = sessionFactory.getStatistics();
+        if (!s.isStatisticsEnabled()) {
+            return;
+        }
+        salida.simple("hibernate_query_executions_total", "counter", "Consultas HQL y SQL nativas ejecutadas", s.getQueryExecutionCount());
+        salida.simple("hibernate_query_executions_max_seconds", "gauge", "Consulta más lenta", s.getQueryExecutionMaxTime() / 1e3);
+        salida.familia("hibernate_statements_total", "counter", "Sentencias JDBC preparadas y cerradas")
+            .muestra("hibernate_statements_total", s.getPrepareStatementCount(), "status", "prepared")
+            .muestra("hibernate_statements_total", s.getCloseStatementCount(), "status", "closed");
+        salida.simple("hibernate_entities_loads_total", "counter", "Entidades cargadas", s.getEntityLoadCount());
+        salida.simple("hibernate_entities_fetches_total", "counter", "Entidades cargadas por fetch perezoso", s.getEntityFetchCount());
+        salida.simple("hibernate_entities_inserts_total", "counter", "Entidades insertadas", s.getEntityInsertCount());
+        salida.simple("hibernate_entities_updates_total", "counter", "Entidades actualizadas", s.getEntityUpdateCount());
+        salida.simple("hibernate_entities_deletes_total", "counter", "Entidades borradas", s.getEntityDeleteCount());
+        salida.simple("hibernate_collections_loads_total", "counter", "Colecciones cargadas", s.getCollectionLoadCount());
+        salida.familia("hibernate_second_level_cache_requests_total", "counter", "Peticiones a la caché de segundo nivel")
+            .muestra("hibernate_second_level_cache_requests_total", s.getSecondLevelCacheHitCount(), "result", "hit")
+            .muestra("hibernate_second_level_cache_requests_total", s.getSecondLevelCacheMissCount(), "result", "miss");
+        salida.simple("hibernate_second_level_cache_puts_total", "counter", "Entradas añadidas a la caché de segundo nivel", s.getSecondLevelCachePutCount());
+        salida.familia("hibernate_query_cache_requests_total", "counter", "Peticiones a la caché de consultas")
+            .muestra("hibernate_query_cache_requests_total", s.getQueryCacheHitCount(), "result", "hit")
+            .muestra("hibernate_query_cache_requests_total", s.getQueryCacheMissCount(), "result", "miss");
+        salida.simple("hibernate_sessions_open_total", "counter", "Sesiones abiertas", s.getSessionOpenCount());
+        salida.familia("hibernate_transactions_total", "counter", "Transacciones terminadas")
+            .muestra("hibernate_transactions_total", s.getSuccessfulTransactionCount(), "result", "success")
+            .muestra("hibernate_transactions_total", s.getTransactionCount() - s.getSuccessfulTransactionCount(), "result", "failure");
+        salida.simple("hibernate_optimistic_failures_total", "counter", "Conflictos de bloqueo optimista", s.getOptimisticFailureCount());
+    }
+
+    private void escribirPools(FormatoPrometheus salida) {
+        Map<String, AgroalDataSourceMetrics> pools = new TreeMap<>();
+        pools().forEach((nombre, ds) -> {
+            if (ds.getConfiguration().metricsEnabled()) {
+                pools.put(nombre, ds.getMetrics());
+            }
+        });
+        if (pools.isEmpty()) {
+            return;
+        }
+        pool(salida, pools, "agroal_active_count", "gauge", "Conexiones en uso", AgroalDataSourceMetrics::activeCount);
+        pool(salida, pools, "agroal_available_count", "gauge", "Conexiones libres en el pool", AgroalDataSourceMetrics::availableCount);
+        pool(salida, pools, "agroal_awaiting_count", "gauge", "Hilos esperando una conexión", AgroalDataSourceMetrics::awaitingCount);
+        pool(salida, pools, "agroal_max_used_count", "gauge", "Máximo de conexiones en uso a la vez", AgroalDataSourceMetrics::maxUsedCount);
+        pool(salida, pools, "agroal_acquire_count_total", "counter", "Conexiones obtenidas del pool", AgroalDataSourceMetrics::acquireCount);
+        pool(salida, pools, "agroal_creation_count_total", "counter", "Conexiones físicas creadas", AgroalDataSourceMetrics::creationCount);
+        pool(salida, pools, "agroal_leak_detection_count_total", "counter", "Conexiones retenidas más del tiempo de fuga", AgroalDataSourceMetrics::leakDetectionCount);
+        pool(salida, pools, "agroal_blocking_time_average_seconds", "gauge", "Espera media para obtener una conexión",
+            m -> m.blockingTimeAverage().toNanos() / 1e9);
+        pool(salida, pools, "agroal_blocking_time_max_seconds", "gauge", "Espera máxima para obtener una conexión",
+            m -> m.blockingTimeMax().toNanos() / 1e9);
+        pool(salida, pools, "agroal_blocking_time_seconds_total", "counter", "Tiempo total esperando conexiones",
+            m -> m.blockingTimeTotal().toNanos() / 1e9);
+    }
+
+    /**
+     * Datasources activos por nombre ({@code <default>} el principal). No se usa
+     * AgroalDataSourceUtil.activeDataSourceNames() porque solo devuelve el principal.
+     */
+    private static Map<String, AgroalDataSource> pools() {
+        Map<String, AgroalDataSource> pools = new TreeMap<>();
+        for (InstanceHandle<AgroalDataSource> handle
+                : Arc.container().select(AgroalDataSource.class, Any.Literal.INSTANCE).handles()) {
+            InjectableBean<AgroalDataSource> bean = handle.getBean();
+            String nombre = bean != null && bean.isActive() ? AgroalDataSourceUtil.dataSourceName(bean) : null;
+            if (nombre != null) {
+                pools.put(nombre, handle.get());
+            }
+        }
+        return pools;
+    }
+
+    private static void pool(FormatoPrometheus salida, Map<String, AgroalDataSourceMetrics> pools, String nombre,
+                             String tipo, String ayuda, ToDoubleFunction<AgroalDataSourceMetrics> valor) {
+        salida.familia(nombre, tipo, ayuda);
+        pools.forEach((datasource, metricas) -> salida.muestra(nombre, valor.applyAsDouble(metricas), "datasource", datasource));
+    }
+
+    private void escribirJvm(FormatoPrometheus salida) {
+        List<MemoryPoolMXBean> zonas = ManagementFactory.getMemoryPoolMXBeans();
+        memoria(salida, zonas, "jvm_memory_used_bytes", "Memoria usada por zona", MemoryUsage::getUsed);
+        memoria(salida, zonas, "jvm_memory_committed_bytes", "Memoria reservada por zona", MemoryUsage::getCommitted);
+        memoria(salida, zonas, "jvm_memory_max_bytes", "Máximo de memoria por zona (-1 sin límite)", MemoryUsage::getMax);
+
+        List<BufferPoolMXBean> buffers = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+        salida.familia("jvm_buffer_count_buffers", "gauge", "Buffers nativos (direct y mapped)");
+        buffers.forEach(b -> salida.muestra("jvm_buffer_count_buffers", b.getCount(), "id", b.getName()));
+        salida.familia("jvm_buffer_memory_used_bytes", "gauge", "Memoria nativa usada por los buffers");
+        buffers.forEach(b -> salida.muestra("jvm_buffer_memory_used_bytes", b.getMemoryUsed(), "id", b.getName()));
+        salida.familia("jvm_buffer_total_capacity_bytes", "gauge", "Capacidad total de los buffers");
+        buffers.forEach(b -> salida.muestra("jvm_buffer_total_capacity_bytes", b.getTotalCapacity(), "id", b.getName()));
+
+        List<GarbageCollectorMXBean> gcs = ManagementFactory.getGarbageCollectorMXBeans();
+        salida.familia("jvm_gc_collections_total", "counter", "Recolecciones de basura");
+        gcs.forEach(gc -> salida.muestra("jvm_gc_collections_total", Math.max(0, gc.getCollectionCount()), "gc", gc.getName()));
+        salida.familia("jvm_gc_collection_seconds_total", "counter", "Tiempo total en recolección de basura");
+        gcs.forEach(gc -> salida.muestra("jvm_gc_collection_seconds_total", Math.max(0, gc.getCollectionTime()) / 1e3, "gc", gc.getName()));
+
+        salida.simple("jvm_threads_live_threads", "gauge", "Hilos vivos", ManagementFactory.getThreadMXBean().getThreadCount());
+        salida.simple("jvm_threads_peak_threads", "gauge", "Máximo de hilos vivos", ManagementFactory.getThreadMXBean().getPeakThreadCount());
+        salida.simple("process_uptime_seconds", "gauge", "Tiempo desde el arranque", ManagementFactory.getRuntimeMXBean().getUptime() / 1e3);
+        residente().ifPresent(bytes ->
+            salida.simple("process_resident_memory_bytes", "gauge", "Memoria residente del proceso (incluye la nativa)", bytes));
+    }
+
+    private static void memoria(FormatoPrometheus salida, List<MemoryPoolMXBean> zonas, String nombre, String ayuda,
+                                ToDoubleFunction<MemoryUsage> valor) {
+        salida.familia(nombre, "gauge", ayuda);
+        for (MemoryPoolMXBean zona : zonas) {
+            MemoryUsage uso = zona.getUsage();
+            if (uso != null) {
+                salida.muestra(nombre, valor.applyAsDouble(uso),
+                    "area", zona.getType() == MemoryType.HEAP ? "heap" : "nonheap", "id", zona.getName());
+            }
+        }
+    }
+
+    /**
+     * Memoria residente (VmRSS) en Linux; incluye la memoria nativa que no ven los MXBeans,
+     * que en un ejecutable nativo es casi toda.
+     */
+    private static Optional<Long> residente() {
+        if (!Files.isReadable(ESTADO_PROCESO)) {
+            return Optional.empty();
+        }
+        try {
+            for (String linea : Files.readAllLines(ESTADO_PROCESO)) {
+                if (linea.startsWith("VmRSS:")) {
+                    return Optional.of(Long.parseLong(linea.replaceAll("\\D", "")) * 1024);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return Optional.empty();
+        }
+        return Optional.empty();
+    }
+}
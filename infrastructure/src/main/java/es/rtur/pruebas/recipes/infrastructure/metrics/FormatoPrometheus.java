@@ -0,0 +1,70 @@
+package es.rtur.pruebas.recipes.infrastructure.metrics;
+
+/**
+ * Escritor del formato de texto de Prometheus (versión 0.0.4).
+ *
+ * Cada familia empieza con {@link #familia} y a continuación van todas sus muestras;
+ * las etiquetas se pasan como pares nombre, valor.
+ */
+final class FormatoPrometheus {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder texto = new StringBuilder(16 * 1024);
+
+    FormatoPrometheus familia(String nombre, String tipo, String ayuda) {
+        texto.append("# HELP ").append(nombre).append(' ').append(ayuda).append('\n');
+        texto.append("# TYPE ").append(nombre).append(' ').append(tipo).append('\n');
+        return this;
+    }
+
+    FormatoPrometheus muestra(String nombre, double valor, String... etiquetas) {
+        texto.append(nombre);
+        if (etiquetas.length > 0) {
+            texto.append('{');
+            for (int i = 0; i < etiquetas.length; i += 2) {
+                if (i > 0) {
+                    texto.append(',');
+                }
+                texto.append(etiquetas[i]).append("=\"");
+                escapar(etiquetas[i + 1]);
+                texto.append('"');
+            }
+            texto.append('}');
+        }
+        texto.append(' ');
+        if (valor == Math.rint(valor) && Math.abs(valor) < 1e15) {
+            texto.append((long) valor);
+        } else if (Double.isInfinite(valor)) {
+            texto.append(valor > 0 ? "+Inf" : "-Inf");
+        } else {
+            texto.append(valor);
+        }
+        texto.append('\n');
+        return this;
+    }
+
+    /**
+     * Familia con una sola muestra sin etiquetas.
+     */
+    FormatoPrometheus simple(String nombre, String tipo, String ayuda, double valor) {
+        return familia(nombre, tipo, ayuda).muestra(nombre, valor);
+    }
+
+    private void escapar(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '\\' -> texto.append("\\\\");
+                case '"' -> texto.append("\\\"");
+                case '\n' -> texto.append("\\n");
+                default -> texto.append(c);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return texto.toString();
+    }
+}
@@ -0,0 +1,241 @@
+package es.rtur.pruebas.recipes.infrastructure.metrics;
+
+import es.rtur.pruebas.recipes.application.metrics.CacheEvent;
+import es.rtur.pruebas.recipes.application.metrics.CallEvent;
+import es.rtur.pruebas.recipes.application.metrics.RepositoryCallEvent;
+import es.rtur.pruebas.recipes.application.metrics.UseCaseEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Grabación de JFR bajo demanda con los eventos propios de la aplicación (casos de uso,
+ * llamadas a repositorios y operaciones de caché), consumida con la API de streaming de JFR.
+ *
+ * Mientras graba, los eventos se agregan en memoria por operación y se guardan las llamadas
+ * más lentas, así que el resumen se puede consultar en cualquier momento sin volcar ni
+ * analizar un fichero .jfr. Solo hay una grabación a la vez; el resumen de la última se
+ * conserva hasta que empieza la siguiente. Para un perfil completo (CPU, GC, JDBC) sigue
+ * siendo mejor una grabación con jcmd, que ya incluye estos mismos eventos.
+ */
+@ApplicationScoped
+public class GrabacionJfr {
+
+    private RecordingStream stream;
+    private Agregado agregado;
+
+    /**
+     * Empieza a grabar.
+     * @param umbral Duración mínima de los casos de uso y llamadas a repositorio que se graban
+     * @param lentas Número de llamadas más lentas que se conservan
+     * @return false si ya había una grabación en curso
+     */
+    public synchronized boolean iniciar(Duration umbral, int lentas) {
+        if (stream != null) {
+            return false;
+        }
+        Agregado nuevo = new Agregado(lentas);
+        RecordingStream grabacion = new RecordingStream();
+        grabacion.enable(UseCaseEvent.NAME).withThreshold(umbral).withoutStackTrace();
+        grabacion.enable(RepositoryCallEvent.NAME).withThreshold(umbral).withoutStackTrace();
+        grabacion.enable(CacheEvent.NAME).withoutStackTrace();
+        grabacion.onEvent(UseCaseEvent.NAME, nuevo::llamada);
+        grabacion.onEvent(RepositoryCallEvent.NAME, nuevo::llamada);
+        grabacion.onEvent(CacheEvent.NAME, nuevo::cache);
+        grabacion.startAsync();
+        stream = grabacion;
+        agregado = nuevo;
+        return true;
+    }
+
+    /**
+     * Para la grabación en curso, después de procesar los eventos pendientes.
+     * @return Resumen final, o vacío si no había grabación en curso
+     */
+    public synchronized Optional<Resumen> detener() {
+        if (stream == null) {
+            return Optional.empty();
+        }
+        stream.stop();
+        stream.close();
+        stream = null;
+        agregado.terminar();
+        return Optional.of(agregado.resumen(false));
+    }
+
+    /**
+     * @return Resumen de la grabación en curso o de la última, o vacío si no ha habido ninguna
+     */
+    public synchronized Optional<Resumen> resumen() {
+        return agregado == null ? Optional.empty() : Optional.of(agregado.resumen(stream != null));
+    }
+
+    @PreDestroy
+    synchronized void cerrar() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    /**
+     * @param fin Fin de la grabación, null mientras sigue en curso
+     * @param activa Si la grabación sigue en curso
+     * @param operaciones Casos de uso y métodos de repositorio, los de más tiempo total primero
+     * @param masLentas Llamadas individuales más lentas, de más a menos
+     * @param caches Operaciones por caché
+     */
+    public record Resumen(Instant inicio, Instant fin, boolean activa,
+                          List<Operacion> operaciones, List<Llamada> masLentas, List<Cache> caches) {
+    }
+
+    /**
+     * @param evento Tipo de evento JFR (recipes.UseCase o recipes.RepositoryCall)
+     */
+    public record Operacion(String evento, String clase, String metodo, long llamadas, long errores,
+                            double totalMs, double mediaMs, double maxMs) {
+    }
+
+    /**
+     * @param filas Filas devueltas por una llamada a repositorio, -1 si no aplica
+     */
+    public record Llamada(Instant inicio, String evento, String clase, String metodo, String resultado,
+                          long filas, String hilo, double duracionMs) {
+    }
+
+    public record Cache(String cache, long aciertos, long fallos, long puts, long evicciones, double cargaMaxMs) {
+    }
+
+    /**
+     * Estado de una grabación; los eventos llegan por el hilo del stream y el resumen se
+     * pide desde las peticiones, de ahí la sincronización.
+     */
+    private static final class Agregado {
+
+        private final Instant inicio = Instant.now();
+        private final int lentas;
+        private final Map<String, Contador> operaciones = new HashMap<>();
+        private final Map<String, ContadorCache> caches = new HashMap<>();
+        private final PriorityQueue<Llamada> masLentas =
+            new PriorityQueue<>(Comparator.comparingDouble(Llamada::duracionMs));
+        private Instant fin;
+
+        Agregado(int lentas) {
+            this.lentas = lentas;
+        }
+
+        synchronized void llamada(RecordedEvent evento) {
+            String tipo = evento.getEventType().getName();
+            String clase = evento.getString("type");
+            String metodo = evento.getString("method");
+            String resultado = evento.getString("outcome");
+            long nanos = evento.getDuration().toNanos();
+            operaciones.computeIfAbsent(tipo + ' ' + clase + '#' + metodo, k -> new Contador(tipo, clase, metodo))
+                .sumar(nanos, !CallEvent.OK.equals(resultado));
+
+            if (masLentas.size() < lentas || masLentas.peek().duracionMs() < ms(nanos)) {
+                long filas = evento.hasField("rows") ? evento.getLong("rows") : -1;
+                String hilo = evento.getThread() != null ? evento.getThread().getJavaName() : null;
+                masLentas.add(new Llamada(evento.getStartTime(), tipo, clase, metodo, resultado, filas, hilo, ms(nanos)));
+                if (masLentas.size() > lentas) {
+                    masLentas.poll();
+                }
+            }
+        }
+
+        synchronized void cache(RecordedEvent evento) {
+            ContadorCache contador = caches.computeIfAbsent(evento.getString("cache"), ContadorCache::new);
+            boolean acierto = evento.getBoolean("hit");
+            switch (evento.getString("operation")) {
+                case CacheEvent.GET -> {
+                    if (acierto) {
+                        contador.aciertos++;
+                    } else {
+                        contador.fallos++;
+                        contador.cargaMaxNanos = Math.max(contador.cargaMaxNanos, evento.getDuration().toNanos());
+                    }
+                }
+                case CacheEvent.PUT -> contador.puts++;
+                case CacheEvent.EVICT -> contador.evicciones++;
+                default -> { }
+            }
+        }
+
+        synchronized void terminar() {
+            fin = Instant.now();
+        }
+
+        synchronized Resumen resumen(boolean activa) {
+            List<Operacion> porOperacion = new ArrayList<>();
+            for (Contador c : operaciones.values()) {
+                porOperacion.add(new Operacion(c.evento, c.clase, c.metodo, c.llamadas, c.errores,
+                    ms(c.totalNanos), ms(c.totalNanos / c.llamadas), ms(c.maxNanos)));
+            }
+            porOperacion.sort(Comparator.comparingDouble(Operacion::totalMs).reversed());
+
+            List<Llamada> lentasOrdenadas = new ArrayList<>(masLentas);
+            lentasOrdenadas.sort(Comparator.comparingDouble(Llamada::duracionMs).reversed());
+
+            List<Cache> porCache = new ArrayList<>();
+            for (ContadorCache c : caches.values()) {
+                porCache.add(new Cache(c.cache, c.aciertos, c.fallos, c.puts, c.evicciones, ms(c.cargaMaxNanos)));
+            }
+            porCache.sort(Comparator.comparing(Cache::cache));
+
+            return new Resumen(inicio, fin, activa, porOperacion, lentasOrdenadas, porCache);
+        }
+
+        private static double ms(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    private static final class Contador {
+        private final String evento;
+        private final String clase;
+        private final String metodo;
+        private long llamadas;
+        private long errores;
+        private long totalNanos;
+        private long maxNanos;
+
+        Contador(String evento, String clase, String metodo) {
+            this.evento = evento;
+            this.clase = clase;
+            this.metodo = metodo;
+        }
+
+        void sumar(long nanos, boolean error) {
+            llamadas++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            if (error) {
+                errores++;
+            }
+        }
+    }
+
+    private static final class ContadorCache {
+        private final String cache;
+        private long aciertos;
+        private long fallos;
+        private long puts;
+        private long evicciones;
+        private long cargaMaxNanos;
+
+        ContadorCache(String cache) {
+            this.cache = cache;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package es.rtur.pruebas.recipes.infrastructure.outbox;
+
+import java.util.List;
+
+/**
+ * Consumidor en proceso de los eventos del outbox.
+ * Los beans CDI que implementen esta interfaz reciben cada lote leído por el OutboxRelay.
+ * La entrega es "al menos una vez": si un consumidor lanza una excepción los eventos del
+ * lote se vuelven a entregar uno a uno, por lo que el procesamiento debe ser idempotente.
+ * Un evento que falla max-attempts veces se aparta y no se vuelve a entregar.
+ */
+public interface OutboxConsumer {
+
+    /**
+     * Procesa un lote de eventos ordenados por id de evento.
+     * @param eventos Eventos del lote (nunca vacío)
+     */
+    void procesar(List<OutboxEvento> eventos);
+}
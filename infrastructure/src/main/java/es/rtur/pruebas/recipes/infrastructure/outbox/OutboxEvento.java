@@ -0,0 +1,52 @@
+package es.rtur.pruebas.recipes.infrastructure.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento del outbox tal y como se entrega a los consumidores.
+ * Es una copia inmutable de la fila, desacoplada del contexto de persistencia.
+ */
+public final class OutboxEvento {
+
+    public static final String AGREGADO_RECETA = "receta";
+    public static final String AGREGADO_COMENTARIO = "comentario";
+    public static final String AGREGADO_VALORACION = "valoracion";
+
+    public static final String EVENTO_CREADO = "creado";
+    public static final String EVENTO_ACTUALIZADO = "actualizado";
+    public static final String EVENTO_ELIMINADO = "eliminado";
+
+    private final Long idEvento;
+    private final String tipoAgregado;
+    private final Integer idAgregado;
+    private final String tipoEvento;
+    private final String payload;
+    private final LocalDateTime fCreacion;
+
+    public OutboxEvento(Long idEvento, String tipoAgregado, Integer idAgregado, String tipoEvento,
+                        String payload, LocalDateTime fCreacion) {
+        this.idEvento = idEvento;
+        this.tipoAgregado = tipoAgregado;
+        this.idAgregado = idAgregado;
+        this.tipoEvento = tipoEvento;
+        this.payload = payload;
+        this.fCreacion = fCreacion;
+    }
+
+    public Long getIdEvento() { return idEvento; }
+    public String getTipoAgregado() { return tipoAgregado; }
+    public Integer getIdAgregado() { return idAgregado; }
+    public String getTipoEvento() { return tipoEvento; }
+    public String getPayload() { return payload; }
+    public LocalDateTime getFCreacion() { return fCreacion; }
+
+    @Override
+    public String toString() {
+        return "OutboxEvento{" +
+                "idEvento=" + idEvento +
+                ", tipoAgregado='" + tipoAgregado + '\'' +
+                ", idAgregado=" + idAgregado +
+                ", tipoEvento='" + tipoEvento + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package es.rtur.pruebas.recipes.infrastructure.outbox;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA para la tabla outbox_eventos.
+ * Cada fila es un cambio de dominio (receta, comentario o valoración) escrito en la
+ * misma transacción que el cambio, pendiente de ser despachado por el OutboxRelay.
+ * Las filas con f_fallido informado son eventos apartados que el relay ya no entrega.
+ */
+@Entity
+@Table(name = "outbox_eventos")
+public class OutboxEventoEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_evento", nullable = false)
+    public Long idEvento;
+
+    @Column(name = "tipo_agregado", nullable = false, length = 30)
+    public String tipoAgregado;
+
+    @Column(name = "id_agregado", nullable = false)
+    public Integer idAgregado;
+
+    @Column(name = "tipo_evento", nullable = false, length = 30)
+    public String tipoEvento;
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    public String payload;
+
+    @Column(name = "f_creacion", nullable = false, updatable = false)
+    public LocalDateTime fCreacion;
+
+    /** Entregas fallidas del evento; al llegar a recipes.outbox.relay.max-attempts se aparta. */
+    @Column(name = "intentos", nullable = false, columnDefinition = "INTEGER DEFAULT 0 NOT NULL")
+    public int intentos;
+
+    @Column(name = "ultimo_error", length = 500)
+    public String ultimoError;
+
+    /** Momento en que el relay apartó el evento tras agotar los intentos; null si está pendiente. */
+    @Column(name = "f_fallido")
+    public LocalDateTime fFallido;
+
+    @PrePersist
+    public void prePersist() {
+        if (fCreacion == null) {
+            fCreacion = LocalDateTime.now();
+        }
+    }
+}
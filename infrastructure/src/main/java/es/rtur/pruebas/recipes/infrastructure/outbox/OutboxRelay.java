@@ -0,0 +1,195 @@
+package es.rtur.pruebas.recipes.infrastructure.outbox;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.LockMode;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relay del outbox: lee eventos pendientes por lotes, los despacha a los
+ * OutboxConsumer en proceso y borra las filas procesadas.
+ *
+ * Cada lote se procesa en su propia transacción. Las filas se bloquean con
+ * FOR UPDATE SKIP LOCKED, de modo que varios nodos pueden ejecutar el relay a la vez
+ * repartiéndose los lotes sin esperar unos a otros. El borrado es un único DELETE ... IN
+ * por lote.
+ *
+ * Si un consumidor falla, la transacción del lote se revierte y sus eventos se entregan uno a
+ * uno, cada uno en su transacción, para que un evento que siempre falla no bloquee a los demás.
+ * Cada entrega fallida suma un intento al evento; al llegar a max-attempts el evento se aparta
+ * (f_fallido) con su último error y el relay deja de entregarlo. La pasada termina tras un lote
+ * fallido, así que un evento suma como mucho un intento por pasada. Un evento apartado se
+ * vuelve a entregar con {@code UPDATE outbox_eventos SET f_fallido = NULL, intentos = 0 WHERE id_evento = ...}.
+ */
+@ApplicationScoped
+public class OutboxRelay {
+
+    private static final Logger LOG = Logger.getLogger(OutboxRelay.class);
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Inject
+    Instance<OutboxConsumer> consumers;
+
+    @ConfigProperty(name = "recipes.outbox.relay.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "recipes.outbox.relay.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    @ConfigProperty(name = "recipes.outbox.relay.max-batches-per-run", defaultValue = "100")
+    int maxBatchesPerRun;
+
+    @ConfigProperty(name = "recipes.outbox.relay.max-attempts", defaultValue = "10")
+    int maxIntentos;
+
+    /**
+     * Pasada periódica del relay. Vacía el outbox hasta que un lote sale incompleto
+     * o se alcanza el máximo de lotes por pasada.
+     */
+    @Scheduled(every = "${recipes.outbox.relay.interval:1s}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            drenar();
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error despachando eventos del outbox");
+        }
+    }
+
+    /**
+     * Procesa lotes hasta vaciar el outbox, alcanzar el máximo por pasada o fallar un lote.
+     * @return Número total de eventos despachados
+     */
+    public int drenar() {
+        int total = 0;
+        for (int lote = 0; lote < maxBatchesPerRun; lote++) {
+            List<Long> ids = new ArrayList<>();
+            int procesados;
+            try {
+                procesados = QuarkusTransaction.requiringNew().call(() -> procesarLote(ids));
+            } catch (RuntimeException e) {
+                LOG.warnf("Lote del outbox fallido (%d eventos), se entregan uno a uno: %s", ids.size(), e.getMessage());
+                total += procesarUnoAUno(ids);
+                break;
+            }
+            total += procesados;
+            if (procesados < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            LOG.debugf("Outbox: %d eventos despachados", total);
+        }
+        return total;
+    }
+
+    /**
+     * Bloquea, despacha y borra un lote de eventos pendientes. Debe ejecutarse en una transacción.
+     * @param ids Recibe los ids del lote antes de despacharlo, para reintentarlos si falla
+     * @return Número de eventos del lote
+     */
+    int procesarLote(List<Long> ids) {
+        List<OutboxEventoEntity> filas = em.unwrap(Session.class)
+                .createSelectionQuery("FROM OutboxEventoEntity e WHERE e.fFallido IS NULL ORDER BY e.idEvento",
+                        OutboxEventoEntity.class)
+                .setHibernateLockMode(LockMode.UPGRADE_SKIPLOCKED)
+                .setReadOnly(true)
+                .setMaxResults(batchSize)
+                .getResultList();
+
+        if (filas.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvento> eventos = new ArrayList<>(filas.size());
+        for (OutboxEventoEntity fila : filas) {
+            eventos.add(evento(fila));
+            ids.add(fila.idEvento);
+        }
+        despachar(List.copyOf(eventos));
+
+        em.createQuery("DELETE FROM OutboxEventoEntity e WHERE e.idEvento IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return filas.size();
+    }
+
+    /**
+     * Entrega por separado los eventos de un lote fallido y anota un intento a los que fallan.
+     * @return Número de eventos despachados
+     */
+    private int procesarUnoAUno(List<Long> ids) {
+        int despachados = 0;
+        for (Long id : ids) {
+            try {
+                despachados += QuarkusTransaction.requiringNew().call(() -> procesarEvento(id));
+            } catch (RuntimeException e) {
+                QuarkusTransaction.requiringNew().run(() -> registrarFallo(id, e));
+            }
+        }
+        return despachados;
+    }
+
+    /**
+     * @return 1 si el evento se ha despachado, 0 si ya no está pendiente o lo tiene otro nodo
+     */
+    private int procesarEvento(Long id) {
+        List<OutboxEventoEntity> filas = em.unwrap(Session.class)
+                .createSelectionQuery("FROM OutboxEventoEntity e WHERE e.idEvento = :id AND e.fFallido IS NULL",
+                        OutboxEventoEntity.class)
+                .setParameter("id", id)
+                .setHibernateLockMode(LockMode.UPGRADE_SKIPLOCKED)
+                .setReadOnly(true)
+                .getResultList();
+        if (filas.isEmpty()) {
+            return 0;
+        }
+        despachar(List.of(evento(filas.get(0))));
+        em.createQuery("DELETE FROM OutboxEventoEntity e WHERE e.idEvento = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+        return 1;
+    }
+
+    private void registrarFallo(Long id, RuntimeException error) {
+        OutboxEventoEntity fila = em.find(OutboxEventoEntity.class, id);
+        if (fila == null) {
+            return;
+        }
+        fila.intentos++;
+        String mensaje = error.getClass().getName() + ": " + error.getMessage();
+        fila.ultimoError = mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje;
+        if (fila.intentos >= maxIntentos) {
+            fila.fFallido = LocalDateTime.now();
+            LOG.errorf("Evento %d del outbox (%s %d %s) apartado tras %d intentos: %s", id, fila.tipoAgregado,
+                    fila.idAgregado, fila.tipoEvento, fila.intentos, fila.ultimoError);
+        }
+    }
+
+    private void despachar(List<OutboxEvento> eventos) {
+        for (OutboxConsumer consumer : consumers) {
+            consumer.procesar(eventos);
+        }
+    }
+
+    private static OutboxEvento evento(OutboxEventoEntity fila) {
+        return new OutboxEvento(fila.idEvento, fila.tipoAgregado, fila.idAgregado,
+                fila.tipoEvento, fila.payload, fila.fCreacion);
+    }
+}
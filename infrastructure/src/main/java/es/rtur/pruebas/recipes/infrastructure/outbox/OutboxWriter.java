@@ -0,0 +1,120 @@
+package es.rtur.pruebas.recipes.infrastructure.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.rtur.pruebas.recipes.domain.entity.Valoracion;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escribe eventos en la tabla outbox_eventos.
+ * Exige una transacción activa (MANDATORY): el evento se confirma o se descarta
+ * junto con el cambio de dominio que lo origina.
+ */
+@ApplicationScoped
+public class OutboxWriter {
+
+    /** Eventos por executeBatch en los borrados en bloque */
+    private static final int LOTE_JDBC = 500;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /**
+     * Registra un evento en el outbox dentro de la transacción en curso.
+     * @param tipoAgregado Tipo de agregado (receta, comentario, valoracion)
+     * @param idAgregado ID del agregado afectado
+     * @param tipoEvento Tipo de evento (creado, actualizado, eliminado)
+     * @param datos Datos del evento, serializados como JSON
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void registrar(String tipoAgregado, Integer idAgregado, String tipoEvento, Map<String, Object> datos) {
+        OutboxEventoEntity evento = new OutboxEventoEntity();
+        evento.tipoAgregado = tipoAgregado;
+        evento.idAgregado = idAgregado;
+        evento.tipoEvento = tipoEvento;
+        evento.payload = toJson(datos);
+        em.persist(evento);
+    }
+
+    /**
+     * Registra el evento "eliminado" de varios agregados del mismo tipo con INSERT en lotes JDBC.
+     * Para los borrados en bloque: con ids IDENTITY, Hibernate haría un INSERT por evento.
+     * @param tipoAgregado Tipo de agregado (receta, comentario, valoracion)
+     * @param datosPorId Datos del evento de cada agregado borrado, por su ID
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void registrarEliminados(String tipoAgregado, Map<Integer, Map<String, Object>> datosPorId) {
+        if (datosPorId.isEmpty()) {
+            return;
+        }
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        em.unwrap(Session.class).doWork(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "INSERT INTO outbox_eventos (tipo_agregado, id_agregado, tipo_evento, payload, f_creacion, intentos) " +
+                    "VALUES (?, ?, ?, ?, ?, 0)")) {
+                int pendientes = 0;
+                for (Map.Entry<Integer, Map<String, Object>> evento : datosPorId.entrySet()) {
+                    ps.setString(1, tipoAgregado);
+                    ps.setInt(2, evento.getKey());
+                    ps.setString(3, OutboxEvento.EVENTO_ELIMINADO);
+                    ps.setString(4, toJson(evento.getValue()));
+                    ps.setTimestamp(5, ahora);
+                    ps.addBatch();
+                    if (++pendientes == LOTE_JDBC) {
+                        ps.executeBatch();
+                        pendientes = 0;
+                    }
+                }
+                if (pendientes > 0) {
+                    ps.executeBatch();
+                }
+            }
+        });
+    }
+
+    /**
+     * Registra el evento "eliminado" de las valoraciones de un borrado en bloque, con los mismos
+     * datos que el borrado individual.
+     * @return Número de valoraciones
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public int registrarValoracionesEliminadas(List<Valoracion> borradas) {
+        Map<Integer, Map<String, Object>> datosPorId = new LinkedHashMap<>();
+        for (Valoracion valoracion : borradas) {
+            Map<String, Object> datos = new LinkedHashMap<>();
+            datos.put("idReceta", valoracion.getIdReceta().getValue());
+            datos.put("idUsuario", valoracion.getIdUsuario().getValue());
+            datos.put("tipo", valoracion.getTipo());
+            datos.put("activa", valoracion.isActive());
+            datosPorId.put(valoracion.getId().getValue(), datos);
+        }
+        registrarEliminados(OutboxEvento.AGREGADO_VALORACION, datosPorId);
+        return borradas.size();
+    }
+
+    private String toJson(Map<String, Object> datos) {
+        if (datos == null || datos.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento del outbox", e);
+        }
+    }
+}
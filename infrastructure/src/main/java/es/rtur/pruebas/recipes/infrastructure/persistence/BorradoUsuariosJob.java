@@ -0,0 +1,248 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.domain.repository.ValoracionRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxEvento;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxWriter;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Borrado en segundo plano de los usuarios marcados con estado "eliminado".
+ *
+ * Borrar un usuario con mucho historial por cascade de JPA cargaría todo su grafo en una
+ * única transacción. Aquí se borra por fases (sus valoraciones, sus comentarios, lo que otros
+ * usuarios han dejado en sus recetas, sus recetas y por último el propio usuario), cada fase en
+ * lotes acotados y cada lote en su propia transacción corta.
+ *
+ * Las valoraciones se borran con {@link ValoracionRepository}, que las encuentra también cuando
+ * están repartidas en shards; las recibidas se buscan por los ids de las recetas del usuario.
+ * Cada valoración, comentario y receta borrados registra su evento "eliminado" en el outbox,
+ * en la transacción del lote, con los mismos datos que el borrado individual.
+ *
+ * El único estado persistente es el estado del usuario: cada lote borra lo que todavía queda,
+ * así que tras un reinicio la siguiente pasada continúa donde se quedó. Si un lote falla (p. ej.
+ * el usuario escribió algo tras pasar su fase y el borrado del usuario choca con la clave
+ * ajena), se registra el error, el usuario vuelve a empezar por la primera fase en la próxima
+ * pasada y la pasada sigue con los demás usuarios.
+ * El progreso en curso se guarda en memoria y se consulta con {@link #getProgreso}.
+ */
+@ApplicationScoped
+public class BorradoUsuariosJob {
+
+    private static final Logger LOG = Logger.getLogger(BorradoUsuariosJob.class);
+
+    static final String ESTADO_ELIMINADO = "eliminado";
+
+    static final String FASE_VALORACIONES = "valoraciones";
+    static final String FASE_COMENTARIOS = "comentarios";
+    static final String FASE_VALORACIONES_RECIBIDAS = "valoraciones-recibidas";
+    static final String FASE_COMENTARIOS_RECIBIDOS = "comentarios-recibidos";
+    static final String FASE_RECETAS = "recetas";
+    static final String FASE_USUARIO = "usuario";
+
+    private static final List<String> FASES = List.of(FASE_VALORACIONES, FASE_COMENTARIOS,
+            FASE_VALORACIONES_RECIBIDAS, FASE_COMENTARIOS_RECIBIDOS, FASE_RECETAS, FASE_USUARIO);
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Inject
+    OutboxWriter outbox;
+
+    @Inject
+    ValoracionRepository valoraciones;
+
+    @Inject
+    ComentarioRepositoryImpl comentarios;
+
+    @ConfigProperty(name = "recipes.usuarios.borrado.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "recipes.usuarios.borrado.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    @ConfigProperty(name = "recipes.usuarios.borrado.max-batches-per-run", defaultValue = "100")
+    int maxBatchesPerRun;
+
+    private final Map<Integer, Progreso> progresos = new ConcurrentHashMap<>();
+
+    /**
+     * Pasada periódica. Limita el número de lotes por pasada para no acaparar el pool de conexiones.
+     */
+    @Scheduled(every = "${recipes.usuarios.borrado.interval:10s}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void borrarPendientes() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            procesarPendientes();
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error borrando usuarios eliminados");
+        }
+    }
+
+    /**
+     * Avanza el borrado de los usuarios pendientes, como mucho max-batches-per-run lotes.
+     * @return Número de lotes ejecutados
+     */
+    public int procesarPendientes() {
+        List<Integer> pendientes = QuarkusTransaction.requiringNew().call(() -> em.createQuery(
+                "SELECT u.idUsuario FROM UsuarioEntity u WHERE u.estado = :estado ORDER BY u.idUsuario", Integer.class)
+            .setParameter("estado", ESTADO_ELIMINADO)
+            .getResultList());
+        int lotes = 0;
+        for (Integer idUsuario : pendientes) {
+            if (lotes >= maxBatchesPerRun) {
+                break;
+            }
+            lotes += borrar(idUsuario, maxBatchesPerRun - lotes);
+        }
+        return lotes;
+    }
+
+    /**
+     * Progreso del borrado de un usuario en este nodo.
+     * @return vacío si el usuario no está en proceso de borrado
+     */
+    public Optional<Progreso> getProgreso(Integer idUsuario) {
+        return Optional.ofNullable(progresos.get(idUsuario));
+    }
+
+    private int borrar(Integer idUsuario, int maxLotes) {
+        Progreso progreso = progresos.computeIfAbsent(idUsuario, Progreso::new);
+        // Se retoma en la fase en curso; tras un reinicio se empieza de nuevo y las fases ya vacías cuestan un lote
+        int inicio = progreso.fase != null ? FASES.indexOf(progreso.fase) : 0;
+        int lotes = 0;
+        for (String fase : FASES.subList(inicio, FASES.size())) {
+            progreso.fase = fase;
+            while (true) {
+                if (lotes >= maxLotes) {
+                    return lotes;
+                }
+                int borradas;
+                try {
+                    borradas = QuarkusTransaction.requiringNew().call(() -> borrarLote(fase, idUsuario));
+                } catch (RuntimeException e) {
+                    LOG.errorf(e, "Error borrando el usuario %d en la fase %s; se repetirán todas sus fases en la próxima pasada",
+                            idUsuario, fase);
+                    progreso.fase = null;
+                    progreso.lotes++;
+                    return lotes + 1;
+                }
+                lotes++;
+                progreso.lotes++;
+                progreso.filasBorradas += borradas;
+                if (borradas < batchSize) {
+                    break;
+                }
+            }
+        }
+        progresos.remove(idUsuario);
+        LOG.infof("Usuario %d borrado: %d filas en %d lotes", idUsuario, progreso.filasBorradas, progreso.lotes);
+        return lotes;
+    }
+
+    private int borrarLote(String fase, Integer idUsuario) {
+        return switch (fase) {
+            case FASE_VALORACIONES -> outbox.registrarValoracionesEliminadas(
+                    valoraciones.deleteBatchByUsuario(UsuarioId.of(idUsuario), batchSize));
+            case FASE_COMENTARIOS -> comentarios.deleteBatchByAutor(idUsuario, batchSize);
+            case FASE_VALORACIONES_RECIBIDAS -> borrarValoracionesRecibidas(idUsuario);
+            case FASE_COMENTARIOS_RECIBIDOS -> comentarios.deleteBatchByAutorReceta(idUsuario, batchSize);
+            case FASE_RECETAS -> borrarRecetas(idUsuario);
+            case FASE_USUARIO -> em.createQuery(
+                    "DELETE FROM UsuarioEntity u WHERE u.idUsuario = :usuario AND u.estado = :estado")
+                .setParameter("usuario", idUsuario)
+                .setParameter("estado", ESTADO_ELIMINADO)
+                .executeUpdate();
+            default -> throw new IllegalStateException("Fase desconocida: " + fase);
+        };
+    }
+
+    /**
+     * Borra hasta batch-size valoraciones de las recetas del usuario, recorriendo sus recetas en
+     * grupos de batch-size ids; solo devuelve menos de batch-size cuando ya no queda ninguna.
+     */
+    private int borrarValoracionesRecibidas(Integer idUsuario) {
+        List<Integer> recetas = em.createQuery(
+                "SELECT r.idReceta FROM RecetaEntity r WHERE r.autor.idUsuario = :usuario ORDER BY r.idReceta", Integer.class)
+            .setParameter("usuario", idUsuario)
+            .getResultList();
+        int borradas = 0;
+        for (int desde = 0; desde < recetas.size() && borradas < batchSize; desde += batchSize) {
+            List<RecetaId> grupo = recetas.subList(desde, Math.min(desde + batchSize, recetas.size())).stream()
+                .map(RecetaId::of)
+                .collect(Collectors.toList());
+            borradas += outbox.registrarValoracionesEliminadas(valoraciones.deleteBatchByRecetas(grupo, batchSize - borradas));
+        }
+        return borradas;
+    }
+
+    /**
+     * Borra un lote de recetas del usuario con sus hijos. Valoraciones y comentarios ya se
+     * vaciaron en las fases anteriores; se vuelven a borrar, con sus eventos, por si llegó
+     * alguno entre medias.
+     */
+    private int borrarRecetas(Integer idUsuario) {
+        List<Integer> ids = em.createQuery(
+                "SELECT r.idReceta FROM RecetaEntity r WHERE r.autor.idUsuario = :usuario ORDER BY r.idReceta", Integer.class)
+            .setParameter("usuario", idUsuario)
+            .setMaxResults(batchSize)
+            .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        outbox.registrarValoracionesEliminadas(
+                valoraciones.deleteByRecetas(ids.stream().map(RecetaId::of).collect(Collectors.toList())));
+        comentarios.deleteByRecetas(ids);
+        for (String hijo : RecetaRepositoryImpl.HIJOS_RECETA) {
+            em.createQuery("DELETE FROM " + hijo + " h WHERE h.receta.idReceta IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        }
+        for (Integer idReceta : ids) {
+            outbox.registrar(OutboxEvento.AGREGADO_RECETA, idReceta, OutboxEvento.EVENTO_ELIMINADO, null);
+        }
+        return em.createQuery("DELETE FROM RecetaEntity r WHERE r.idReceta IN :ids")
+            .setParameter("ids", ids)
+            .executeUpdate();
+    }
+
+    /**
+     * Progreso del borrado de un usuario.
+     */
+    public static class Progreso {
+
+        private final Integer idUsuario;
+        private final LocalDateTime inicio = LocalDateTime.now();
+        private volatile String fase;
+        private volatile long filasBorradas;
+        private volatile int lotes;
+
+        Progreso(Integer idUsuario) {
+            this.idUsuario = idUsuario;
+        }
+
+        public Integer getIdUsuario() { return idUsuario; }
+        public LocalDateTime getInicio() { return inicio; }
+        public String getFase() { return fase; }
+        public long getFilasBorradas() { return filasBorradas; }
+        public int getLotes() { return lotes; }
+    }
+}
@@ -0,0 +1,154 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.metrics.CacheEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché en memoria del diccionario de categorías (nombre ↔ código).
+ *
+ * Los filtros y mapeos de recetas traducen la categoría con una búsqueda en memoria
+ * en vez de comparar texto en la base de datos. Ante un fallo se consulta solo esa
+ * categoría (otro nodo puede haberla dado de alta); como las filas nunca cambian ni se
+ * borran, lo que ya está en caché no caduca. Los nombres que no existen también se
+ * recuerdan durante {@code recipes.categorias.ausentes-ttl}, para que un filtro por una
+ * categoría inexistente no consulte la base de datos en cada petición; un alta en este
+ * nodo los olvida en el momento y una de otro nodo se ve al caducar.
+ *
+ * Emite un {@link CacheEvent} por cada fallo (con la duración de la recarga) y por cada
+ * alta; los aciertos no, porque se buscan una vez por fila de cada listado.
+ */
+@ApplicationScoped
+public class CategoriaDiccionario {
+
+    static final String CACHE = "categorias";
+
+    @PersistenceContext
+    EntityManager em;
+
+    @ConfigProperty(name = "recipes.categorias.ausentes-ttl", defaultValue = "1m")
+    Duration ttlAusentes;
+
+    private final Map<String, Short> codigos = new ConcurrentHashMap<>();
+    private final Map<Short, String> nombres = new ConcurrentHashMap<>();
+
+    /** Nombres que no existían en la base de datos, con el System.nanoTime() en que caducan. */
+    private final Map<String, Long> ausentes = new ConcurrentHashMap<>();
+
+    /**
+     * Busca el código de una categoría existente.
+     * @param nombre Nombre de la categoría
+     * @return Código, o null si la categoría es null o no existe
+     */
+    public Short buscarCodigo(String nombre) {
+        if (nombre == null) {
+            return null;
+        }
+        Short codigo = codigos.get(nombre);
+        if (codigo != null) {
+            return codigo;
+        }
+        Long caducidad = ausentes.get(nombre);
+        if (caducidad != null && System.nanoTime() - caducidad < 0) {
+            return null;
+        }
+        return consultarCodigo(nombre);
+    }
+
+    /**
+     * Busca una categoría en la base de datos sin mirar los nombres ausentes.
+     */
+    private Short consultarCodigo(String nombre) {
+        CacheEvent fallo = new CacheEvent(CACHE, CacheEvent.GET);
+        Short codigo = QuarkusTransaction.joiningExisting().call(() ->
+            em.createQuery("SELECT c.idCategoria FROM CategoriaEntity c WHERE c.nombre = :nombre", Short.class)
+                .setParameter("nombre", nombre)
+                .getResultStream()
+                .findFirst()
+                .orElse(null));
+        if (codigo != null) {
+            cachear(codigo, nombre);
+        } else {
+            ausentes.put(nombre, System.nanoTime() + ttlAusentes.toNanos());
+        }
+        fallo.commit(nombre, false);
+        return codigo;
+    }
+
+    /**
+     * Devuelve el código de una categoría, dándola de alta si no existe.
+     * El alta va en su propia transacción para que quede visible aunque
+     * la transacción que guarda la receta se revierta.
+     * @param nombre Nombre de la categoría
+     * @return Código, o null si la categoría es null
+     */
+    public Short registrar(String nombre) {
+        if (nombre == null) {
+            return null;
+        }
+        Short codigo = codigos.get(nombre);
+        if (codigo == null) {
+            // Sin mirar los ausentes: otro nodo puede haberla dado de alta desde la última consulta
+            codigo = consultarCodigo(nombre);
+        }
+        if (codigo != null) {
+            return codigo;
+        }
+        CacheEvent alta = new CacheEvent(CACHE, CacheEvent.PUT);
+        try {
+            codigo = QuarkusTransaction.requiringNew().call(() -> {
+                CategoriaEntity categoria = new CategoriaEntity();
+                categoria.nombre = nombre;
+                em.persist(categoria);
+                em.flush();
+                return categoria.idCategoria;
+            });
+        } catch (PersistenceException e) {
+            // Otro nodo la ha dado de alta a la vez (restricción unique en nombre)
+            codigo = consultarCodigo(nombre);
+            if (codigo == null) {
+                throw e;
+            }
+        }
+        cachear(codigo, nombre);
+        alta.commit(nombre, false);
+        return codigo;
+    }
+
+    /**
+     * Nombre de una categoría a partir de su código.
+     * @throws IllegalStateException si el código no existe
+     */
+    public String nombre(Short codigo) {
+        if (codigo == null) {
+            return null;
+        }
+        String nombre = nombres.get(codigo);
+        if (nombre == null) {
+            CacheEvent fallo = new CacheEvent(CACHE, CacheEvent.GET);
+            CategoriaEntity categoria = QuarkusTransaction.joiningExisting().call(() ->
+                em.find(CategoriaEntity.class, codigo));
+            fallo.commit(codigo, false);
+            if (categoria == null) {
+                throw new IllegalStateException("Categoría desconocida: " + codigo);
+            }
+            nombre = categoria.nombre;
+            cachear(codigo, nombre);
+        }
+        return nombre;
+    }
+
+    private void cachear(Short codigo, String nombre) {
+        codigos.put(nombre, codigo);
+        nombres.put(codigo, nombre);
+        ausentes.remove(nombre);
+    }
+}
@@ -0,0 +1,21 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import jakarta.persistence.*;
+
+/**
+ * Entidad JPA para la tabla categorias.
+ * Diccionario de categorías de receta: recetas guarda solo el código (id_categoria).
+ * Las filas no se modifican ni se borran, así que se pueden cachear sin invalidación.
+ */
+@Entity
+@Table(name = "categorias")
+public class CategoriaEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_categoria", nullable = false)
+    public Short idCategoria;
+
+    @Column(name = "nombre", nullable = false, unique = true, columnDefinition = "TEXT")
+    public String nombre;
+}
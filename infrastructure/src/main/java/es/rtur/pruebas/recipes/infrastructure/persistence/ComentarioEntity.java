@@ -6,9 +6,13 @@
 /**
  * Entidad JPA para la tabla comentarios.
  * Representa un comentario de un usuario sobre una receta.
+ * El índice compuesto cubre el listado paginado por receta (keyset sobre f_creacion, id_comentario).
  */
 @Entity
-@Table(name = "comentarios")
+@Table(name = "comentarios", indexes = {
+    @Index(name = "idx_comentarios_receta_estado_fecha",
+           columnList = "id_receta, estado, f_creacion DESC, id_comentario DESC")
+})
 public class ComentarioEntity {
 
     @Id
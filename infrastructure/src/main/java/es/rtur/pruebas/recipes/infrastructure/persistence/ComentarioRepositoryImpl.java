@@ -1,17 +1,26 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Comentario;
 import es.rtur.pruebas.recipes.domain.repository.ComentarioRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.ComentarioId;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
 import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxEvento;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxWriter;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -21,11 +30,18 @@
  * Proporciona operaciones CRUD y consultas personalizadas para comentarios.
  */
 @ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
 public class ComentarioRepositoryImpl implements PanacheRepository<ComentarioEntity>, ComentarioRepository {
 
+    /** Comentarios por DELETE al borrar todos los de unas recetas (acota la lista de ids de cada sentencia) */
+    private static final int LOTE_BORRADO = 1000;
+
     @PersistenceContext
     EntityManager em;
 
+    @Inject
+    OutboxWriter outbox;
+
     /**
      * Busca comentarios de una receta específica.
      * @param idReceta ID de la receta
@@ -97,12 +113,62 @@ public List<ComentarioEntity> findRecientes(int limit) {
         return find("estado = 'activo' ORDER BY fCreacion DESC").page(0, limit).list();
     }
 
+    /**
+     * Proyección de las columnas de comentarios sin cargar el autor (que es EAGER en la entidad).
+     * El orden coincide con el índice idx_comentarios_receta_estado_fecha.
+     */
+    private static final String SELECT_PAGINA =
+        "SELECT c.idComentario, c.receta.idReceta, c.autor.idUsuario, c.contenido, c.estado, " +
+        "c.fCreacion, c.fModificacion " +
+        "FROM ComentarioEntity c " +
+        "WHERE c.receta.idReceta = :idReceta AND c.estado = :estado ";
+
+    private static final String ORDEN_PAGINA = "ORDER BY c.fCreacion DESC, c.idComentario DESC";
+
+    /**
+     * Últimos comentarios de una receta: un único rango del índice compuesto, con límite.
+     * @param idReceta ID de la receta
+     * @param estado Estado de los comentarios
+     * @param limit Número máximo de comentarios
+     * @return Filas proyectadas (ver SELECT_PAGINA)
+     */
+    public List<Object[]> findUltimosByReceta(Integer idReceta, String estado, int limit) {
+        return em.createQuery(SELECT_PAGINA + ORDEN_PAGINA, Object[].class)
+                .setParameter("idReceta", idReceta)
+                .setParameter("estado", estado)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Página de comentarios posterior a una posición (fCreacion, idComentario), en orden descendente.
+     * @param idReceta ID de la receta
+     * @param estado Estado de los comentarios
+     * @param fCreacion Fecha de creación del último comentario de la página anterior
+     * @param idComentario ID del último comentario de la página anterior
+     * @param limit Número máximo de comentarios
+     * @return Filas proyectadas (ver SELECT_PAGINA)
+     */
+    public List<Object[]> findPaginaByReceta(Integer idReceta, String estado,
+                                             LocalDateTime fCreacion, Integer idComentario, int limit) {
+        return em.createQuery(SELECT_PAGINA +
+                        "AND (c.fCreacion, c.idComentario) < (:fCreacion, :idComentario) " + ORDEN_PAGINA,
+                        Object[].class)
+                .setParameter("idReceta", idReceta)
+                .setParameter("estado", estado)
+                .setParameter("fCreacion", fCreacion)
+                .setParameter("idComentario", idComentario)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     // Domain Repository Implementation
 
     @Override
     @Transactional
     public Comentario save(Comentario comentario) {
         ComentarioEntity entity;
+        String tipoEvento = OutboxEvento.EVENTO_CREADO;
         if (comentario.getId() == null) {
             entity = toEntity(comentario);
             persist(entity);
@@ -113,8 +179,10 @@ public Comentario save(Comentario comentario) {
                 persist(entity);
             } else {
                 updateEntity(entity, comentario);
+                tipoEvento = OutboxEvento.EVENTO_ACTUALIZADO;
             }
         }
+        outbox.registrar(OutboxEvento.AGREGADO_COMENTARIO, entity.idComentario, tipoEvento, datosEvento(entity));
         return toDomain(entity);
     }
 
@@ -138,6 +206,17 @@ public List<Comentario> findByRecetaAndEstado(RecetaId idReceta, String estado)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Comentario> findLatestByRecetaAndEstado(RecetaId idReceta, String estado, int limit) {
+        return toDomain(findUltimosByReceta(idReceta.getValue(), estado, limit));
+    }
+
+    @Override
+    public List<Comentario> findByRecetaAndEstadoBefore(RecetaId idReceta, String estado,
+                                                        LocalDateTime fCreacion, ComentarioId idComentario, int limit) {
+        return toDomain(findPaginaByReceta(idReceta.getValue(), estado, fCreacion, idComentario.getValue(), limit));
+    }
+
     @Override
     public List<Comentario> findByAutor(UsuarioId idAutor) {
         return findByAutor(idAutor.getValue()).stream()
@@ -148,7 +227,50 @@ public List<Comentario> findByAutor(UsuarioId idAutor) {
     @Override
     @Transactional
     public void deleteById(ComentarioId id) {
-        deleteById(id.getValue().longValue());
+        ComentarioEntity entity = findById(id.getValue().longValue());
+        if (entity != null) {
+            Map<String, Object> datos = datosEvento(entity);
+            delete(entity);
+            outbox.registrar(OutboxEvento.AGREGADO_COMENTARIO, id.getValue(), OutboxEvento.EVENTO_ELIMINADO, datos);
+        }
+    }
+
+    /**
+     * Borra todos los comentarios de las recetas, en DELETE por ids de LOTE_BORRADO filas,
+     * y registra el evento "eliminado" de cada uno.
+     * @param idsReceta IDs de las recetas
+     * @return Número de comentarios borrados
+     */
+    @Transactional
+    public int deleteByRecetas(Collection<Integer> idsReceta) {
+        if (idsReceta.isEmpty()) {
+            return 0;
+        }
+        int total = 0;
+        int borrados;
+        do {
+            borrados = borrarLote("c.receta.idReceta IN :filtro", idsReceta, LOTE_BORRADO);
+            total += borrados;
+        } while (borrados == LOTE_BORRADO);
+        return total;
+    }
+
+    /**
+     * Borra como mucho max comentarios escritos por el usuario y registra sus eventos "eliminado".
+     * @return Número de comentarios borrados; menos de max cuando ya no queda ninguno
+     */
+    @Transactional
+    public int deleteBatchByAutor(Integer idAutor, int max) {
+        return borrarLote("c.autor.idUsuario = :filtro", idAutor, max);
+    }
+
+    /**
+     * Borra como mucho max comentarios de las recetas del usuario y registra sus eventos "eliminado".
+     * @return Número de comentarios borrados; menos de max cuando ya no queda ninguno
+     */
+    @Transactional
+    public int deleteBatchByAutorReceta(Integer idAutorReceta, int max) {
+        return borrarLote("c.receta.autor.idUsuario = :filtro", idAutorReceta, max);
     }
 
     @Override
@@ -156,6 +278,45 @@ public boolean existsById(ComentarioId id) {
         return count("idComentario", id.getValue()) > 0;
     }
 
+    /**
+     * Lee como mucho max comentarios que cumplen el filtro, solo las columnas del evento, los
+     * borra con un DELETE por ids y registra el evento "eliminado" de cada uno.
+     * @param filtro Condición JPQL sobre c con el parámetro :filtro
+     * @return Número de comentarios borrados
+     */
+    private int borrarLote(String filtro, Object valor, int max) {
+        List<Object[]> filas = em.createQuery(
+                "SELECT c.idComentario, c.receta.idReceta, c.autor.idUsuario, c.estado " +
+                "FROM ComentarioEntity c WHERE " + filtro + " ORDER BY c.idComentario", Object[].class)
+            .setParameter("filtro", valor)
+            .setMaxResults(max)
+            .getResultList();
+        if (filas.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, Map<String, Object>> eventos = new LinkedHashMap<>();
+        for (Object[] fila : filas) {
+            Map<String, Object> datos = new LinkedHashMap<>();
+            datos.put("idReceta", fila[1]);
+            datos.put("idAutor", fila[2]);
+            datos.put("estado", fila[3]);
+            eventos.put((Integer) fila[0], datos);
+        }
+        em.createQuery("DELETE FROM ComentarioEntity c WHERE c.idComentario IN :ids")
+            .setParameter("ids", new ArrayList<>(eventos.keySet()))
+            .executeUpdate();
+        outbox.registrarEliminados(OutboxEvento.AGREGADO_COMENTARIO, eventos);
+        return filas.size();
+    }
+
+    private Map<String, Object> datosEvento(ComentarioEntity entity) {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("idReceta", entity.receta != null ? entity.receta.idReceta : null);
+        datos.put("idAutor", entity.autor != null ? entity.autor.idUsuario : null);
+        datos.put("estado", entity.estado);
+        return datos;
+    }
+
     // Mappers
 
     private Comentario toDomain(ComentarioEntity entity) {
@@ -170,6 +331,22 @@ private Comentario toDomain(ComentarioEntity entity) {
         );
     }
 
+    private List<Comentario> toDomain(List<Object[]> filas) {
+        List<Comentario> comentarios = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            comentarios.add(new Comentario(
+                    ComentarioId.of((Integer) fila[0]),
+                    RecetaId.of((Integer) fila[1]),
+                    UsuarioId.of((Integer) fila[2]),
+                    (String) fila[3],
+                    (String) fila[4],
+                    (LocalDateTime) fila[5],
+                    (LocalDateTime) fila[6]
+            ));
+        }
+        return comentarios;
+    }
+
     private ComentarioEntity toEntity(Comentario domain) {
         ComentarioEntity entity = new ComentarioEntity();
         if (domain.getId() != null) {
@@ -0,0 +1,83 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.domain.readmodel.IngredienteReceta;
+import es.rtur.pruebas.recipes.domain.readmodel.UtensilioReceta;
+import es.rtur.pruebas.recipes.domain.repository.ComposicionRecetaRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.IngredienteId;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UtensilioId;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Carga por lotes de la composición (ingredientes y utensilios) de varias recetas.
+ * Una consulta de proyección por tabla con IN sobre los IDs de receta, sin instanciar
+ * entidades: un listado de N recetas cuesta dos sentencias en vez de 2N cargas perezosas.
+ */
+@ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
+public class ComposicionRecetaRepositoryImpl implements ComposicionRecetaRepository {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Override
+    public List<IngredienteReceta> findIngredientesByRecetas(Collection<RecetaId> idsReceta) {
+        if (idsReceta.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> filas = em.createQuery(
+                "SELECT ir.receta.idReceta, i.idIngrediente, i.nombre, ir.cantidad, ir.unidadMedida " +
+                "FROM IngredienteRecetaEntity ir JOIN ir.ingrediente i " +
+                "WHERE ir.receta.idReceta IN :ids " +
+                "ORDER BY ir.receta.idReceta, ir.idIngredienteReceta", Object[].class)
+            .setParameter("ids", toIntegers(idsReceta))
+            .getResultList();
+
+        List<IngredienteReceta> resultado = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            resultado.add(new IngredienteReceta(
+                RecetaId.of((Integer) fila[0]),
+                IngredienteId.of((Integer) fila[1]),
+                (String) fila[2],
+                (BigDecimal) fila[3],
+                (String) fila[4]));
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<UtensilioReceta> findUtensiliosByRecetas(Collection<RecetaId> idsReceta) {
+        if (idsReceta.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> filas = em.createQuery(
+                "SELECT ur.receta.idReceta, u.idUtensilio, u.nombre " +
+                "FROM UtensilioRecetaEntity ur JOIN ur.utensilio u " +
+                "WHERE ur.receta.idReceta IN :ids " +
+                "ORDER BY ur.receta.idReceta, ur.idUtensilioReceta", Object[].class)
+            .setParameter("ids", toIntegers(idsReceta))
+            .getResultList();
+
+        List<UtensilioReceta> resultado = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            resultado.add(new UtensilioReceta(
+                RecetaId.of((Integer) fila[0]),
+                UtensilioId.of((Integer) fila[1]),
+                (String) fila[2]));
+        }
+        return resultado;
+    }
+
+    private List<Integer> toIntegers(Collection<RecetaId> idsReceta) {
+        return idsReceta.stream().map(RecetaId::getValue).distinct().collect(Collectors.toList());
+    }
+}
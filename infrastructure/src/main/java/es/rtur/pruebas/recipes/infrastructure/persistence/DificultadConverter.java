@@ -0,0 +1,22 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda la dificultad de una receta como su código SMALLINT.
+ */
+@Converter
+public class DificultadConverter implements AttributeConverter<DifficultyLevel, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(DifficultyLevel dificultad) {
+        return dificultad != null ? dificultad.getCode() : null;
+    }
+
+    @Override
+    public DifficultyLevel convertToEntityAttribute(Short codigo) {
+        return codigo != null ? DifficultyLevel.fromCode(codigo) : null;
+    }
+}
@@ -1,5 +1,6 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Ingrediente;
 import es.rtur.pruebas.recipes.domain.repository.IngredienteRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.IngredienteId;
@@ -17,6 +18,7 @@
  * Proporciona operaciones CRUD y consultas personalizadas para ingredientes.
  */
 @ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
 public class IngredienteRepositoryImpl implements PanacheRepository<IngredienteEntity>, IngredienteRepository {
 
     /**
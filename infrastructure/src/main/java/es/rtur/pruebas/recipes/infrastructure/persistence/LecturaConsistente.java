@@ -0,0 +1,21 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * Marca de la petición en curso: el cliente escribió hace poco y debe leer del principal
+ * (read-your-writes) aunque el caso de uso sea de solo lectura.
+ */
+@RequestScoped
+public class LecturaConsistente {
+
+    private boolean activa;
+
+    public boolean isActiva() {
+        return activa;
+    }
+
+    public void activar() {
+        this.activa = true;
+    }
+}
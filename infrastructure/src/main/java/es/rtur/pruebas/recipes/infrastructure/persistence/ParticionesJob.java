@@ -0,0 +1,141 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mantenimiento de las particiones mensuales por f_creacion de valoraciones y comentarios
+ * en PostgreSQL (tablas convertidas con doc/sql/particionado-valoraciones-comentarios.sql).
+ *
+ * Crea por adelantado las particiones de los próximos meses y, si hay retención configurada,
+ * desengancha y borra las particiones completas más antiguas: un DROP TABLE por mes en lugar de
+ * un DELETE fila a fila. Las consultas JPQL no cambian; las que filtran u ordenan por f_creacion
+ * se benefician del pruning y del recorrido ordenado de particiones.
+ *
+ * Desactivado por defecto: solo aplica a bases de datos PostgreSQL con las tablas ya particionadas.
+ */
+@ApplicationScoped
+public class ParticionesJob {
+
+    private static final Logger LOG = Logger.getLogger(ParticionesJob.class);
+
+    static final List<String> TABLAS = List.of("valoraciones", "comentarios");
+
+    private static final DateTimeFormatter SUFIJO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @PersistenceContext
+    EntityManager em;
+
+    @ConfigProperty(name = "recipes.particionado.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "recipes.particionado.future-months", defaultValue = "3")
+    int mesesFuturos;
+
+    /**
+     * Meses completos que se conservan además del actual; 0 desactiva el borrado de particiones.
+     */
+    @ConfigProperty(name = "recipes.particionado.retention-months", defaultValue = "0")
+    int mesesRetencion;
+
+    void onStart(@Observes StartupEvent event) {
+        mantenerPeriodicamente();
+    }
+
+    /**
+     * Pasada periódica; crear una partición que ya existe no tiene coste.
+     */
+    @Scheduled(every = "${recipes.particionado.interval:6h}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void mantenerPeriodicamente() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            mantener(YearMonth.now());
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error manteniendo las particiones");
+        }
+    }
+
+    /**
+     * Crea las particiones de mesActual y los meses futuros configurados y borra las caducadas.
+     * Cada sentencia DDL se ejecuta en su propia transacción.
+     * @return Número de particiones borradas
+     */
+    public int mantener(YearMonth mesActual) {
+        int borradas = 0;
+        for (String tabla : TABLAS) {
+            for (int i = 0; i <= mesesFuturos; i++) {
+                ejecutar(sentenciaCreacion(tabla, mesActual.plusMonths(i)));
+            }
+            if (mesesRetencion > 0) {
+                YearMonth primerMesConservado = mesActual.minusMonths(mesesRetencion);
+                for (String particion : particiones(tabla)) {
+                    Optional<YearMonth> mes = mesDeParticion(tabla, particion);
+                    if (mes.isPresent() && mes.get().isBefore(primerMesConservado)) {
+                        ejecutar("ALTER TABLE " + tabla + " DETACH PARTITION " + particion);
+                        ejecutar("DROP TABLE " + particion);
+                        LOG.infof("Partición %s borrada (retención de %d meses)", particion, mesesRetencion);
+                        borradas++;
+                    }
+                }
+            }
+        }
+        return borradas;
+    }
+
+    private List<String> particiones(String tabla) {
+        return QuarkusTransaction.requiringNew().call(() -> em.unwrap(Session.class).createNativeQuery(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = :tabla ORDER BY c.relname", String.class)
+            .setParameter("tabla", tabla)
+            .getResultList());
+    }
+
+    private void ejecutar(String sql) {
+        QuarkusTransaction.requiringNew().run(() -> em.createNativeQuery(sql).executeUpdate());
+    }
+
+    /**
+     * Nombre de la partición mensual, p. ej. valoraciones_p2026_10.
+     */
+    static String nombreParticion(String tabla, YearMonth mes) {
+        return tabla + "_p" + mes.format(SUFIJO);
+    }
+
+    static String sentenciaCreacion(String tabla, YearMonth mes) {
+        return "CREATE TABLE IF NOT EXISTS " + nombreParticion(tabla, mes) + " PARTITION OF " + tabla +
+               " FOR VALUES FROM ('" + mes.atDay(1) + "') TO ('" + mes.plusMonths(1).atDay(1) + "')";
+    }
+
+    /**
+     * Mes de una partición creada por este job; vacío para cualquier otra (p. ej. una DEFAULT).
+     */
+    static Optional<YearMonth> mesDeParticion(String tabla, String particion) {
+        String prefijo = tabla + "_p";
+        if (!particion.startsWith(prefijo)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(YearMonth.parse(particion.substring(prefijo.length()), SUFIJO));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
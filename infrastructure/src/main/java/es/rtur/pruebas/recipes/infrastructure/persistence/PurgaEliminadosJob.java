@@ -0,0 +1,181 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.domain.repository.ValoracionRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionId;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Purga periódica de valoraciones borradas lógicamente (f_eliminacion informada) y de
+ * comentarios no activos cuya última modificación supera la retención configurada.
+ *
+ * Recorre cada tabla por clave primaria en lotes pequeños (keyset: id > último id del lote
+ * anterior), cada lote en su propia transacción corta y con una pausa entre lotes, de modo que
+ * los bloqueos duran poco y la purga no compite con las consultas de las valoraciones activas.
+ * Cada tabla tiene su propio presupuesto de max-batches-per-run lotes por pasada, así que una
+ * tabla con mucho atraso no deja sin purgar a la otra; lo que no cabe se purga en las pasadas
+ * siguientes. Cada lote se registra en DEBUG (filas y milisegundos), cada pasada en INFO y la
+ * pasada devuelve un {@link Resultado}.
+ * Las valoraciones se purgan con {@link ValoracionRepository#purgeDeleted}, que recorre también
+ * los shards cuando están repartidas.
+ */
+@ApplicationScoped
+public class PurgaEliminadosJob {
+
+    private static final Logger LOG = Logger.getLogger(PurgaEliminadosJob.class);
+
+    private static final String SELECCION_COMENTARIOS =
+        "SELECT c.idComentario FROM ComentarioEntity c " +
+        "WHERE c.idComentario > :ultimo AND c.estado <> 'activo' AND c.fModificacion < :limite " +
+        "ORDER BY c.idComentario";
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Inject
+    ValoracionRepository valoraciones;
+
+    @ConfigProperty(name = "recipes.purga.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "recipes.purga.retention", defaultValue = "30d")
+    Duration retencion;
+
+    @ConfigProperty(name = "recipes.purga.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "recipes.purga.pause", defaultValue = "200ms")
+    Duration pausa;
+
+    @ConfigProperty(name = "recipes.purga.max-batches-per-run", defaultValue = "1000")
+    int maxBatchesPerRun;
+
+    /**
+     * Pasada periódica de la purga.
+     */
+    @Scheduled(every = "${recipes.purga.interval:1h}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void purgarPeriodicamente() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Resultado resultado = purgar();
+            LOG.infof("Purga: %d valoraciones y %d comentarios en %d lotes (%d ms)%s",
+                    resultado.getValoraciones(), resultado.getComentarios(), resultado.getLotes(),
+                    resultado.getMilisegundos(),
+                    resultado.isIncompleta() ? ", presupuesto de lotes agotado: sigue en la próxima pasada" : "");
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error purgando valoraciones y comentarios eliminados");
+        }
+    }
+
+    /**
+     * Purga las filas eliminadas antes de ahora menos la retención.
+     * @return Filas borradas por tabla, lotes y duración de la pasada
+     */
+    public Resultado purgar() {
+        return purgar(maxBatchesPerRun);
+    }
+
+    /**
+     * @param maxLotes Lotes como mucho por tabla
+     */
+    Resultado purgar(int maxLotes) {
+        LocalDateTime limite = LocalDateTime.now().minus(retencion);
+        long inicio = System.nanoTime();
+        Resultado resultado = new Resultado();
+        resultado.valoraciones = purgarTabla("valoraciones", desde -> valoraciones.purgeDeleted(limite, desde, batchSize)
+                .stream()
+                .map(ValoracionId::getValue)
+                .collect(Collectors.toList()), maxLotes, resultado);
+        resultado.comentarios = purgarTabla("comentarios", desde -> {
+            List<Integer> lote = em.createQuery(SELECCION_COMENTARIOS, Integer.class)
+                .setParameter("ultimo", desde)
+                .setParameter("limite", limite)
+                .setMaxResults(batchSize)
+                .getResultList();
+            if (!lote.isEmpty()) {
+                em.createQuery("DELETE FROM ComentarioEntity c WHERE c.idComentario IN :ids")
+                    .setParameter("ids", lote)
+                    .executeUpdate();
+            }
+            return lote;
+        }, maxLotes, resultado);
+        resultado.milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        return resultado;
+    }
+
+    /**
+     * @param lote Borra un lote de ids mayores que el recibido y devuelve los borrados en orden
+     */
+    private long purgarTabla(String tabla, IntFunction<List<Integer>> lote, int maxLotes, Resultado resultado) {
+        long total = 0;
+        int ultimo = 0;
+        for (int lotes = 1; lotes <= maxLotes; lotes++) {
+            long inicioLote = System.nanoTime();
+            int desde = ultimo;
+            List<Integer> ids = QuarkusTransaction.requiringNew().call(() -> lote.apply(desde));
+            if (ids.isEmpty()) {
+                break;
+            }
+            resultado.lotes++;
+            total += ids.size();
+            ultimo = ids.get(ids.size() - 1);
+            LOG.debugf("Purga de %s: %d filas hasta id %d en %d ms", tabla, ids.size(), ultimo,
+                    (System.nanoTime() - inicioLote) / 1_000_000);
+            if (ids.size() < batchSize) {
+                break;
+            }
+            if (lotes == maxLotes) {
+                resultado.incompleta = true;
+                break;
+            }
+            esperar();
+        }
+        return total;
+    }
+
+    private void esperar() {
+        if (pausa.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(pausa.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Purga interrumpida", e);
+        }
+    }
+
+    /**
+     * Resultado de una pasada de la purga.
+     */
+    public static class Resultado {
+
+        private long valoraciones;
+        private long comentarios;
+        private int lotes;
+        private long milisegundos;
+        private boolean incompleta;
+
+        public long getValoraciones() { return valoraciones; }
+        public long getComentarios() { return comentarios; }
+        public int getLotes() { return lotes; }
+        public long getMilisegundos() { return milisegundos; }
+        /** Alguna tabla ha agotado sus lotes y puede que le queden filas por purgar. */
+        public boolean isIncompleta() { return incompleta; }
+    }
+}
@@ -0,0 +1,180 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Rebalanceo de los shards de valoraciones tras cambiar la topología.
+ *
+ * Recorre cada shard de {@code recipes.valoraciones.shards} y cada datasource retirado de
+ * {@code recipes.valoraciones.rebalanceo.origenes} por clave primaria en lotes y mueve al shard
+ * que le corresponde cada fila cuya receta ya no pertenece al shard donde está. La copia conserva
+ * el id y solo se inserta si el destino no tiene ya la valoración de ese usuario en esa receta;
+ * después se borra del origen. Si la pasada se interrumpe entre la copia y el borrado, la
+ * siguiente pasada detecta la copia y solo borra el origen, así que se puede repetir sin riesgo.
+ *
+ * Mientras hay filas pendientes de mover, las consultas de sus recetas no las ven: conviene
+ * ejecutarlo justo después de añadir el shard y antes de abrir el tráfico de escritura.
+ */
+@ApplicationScoped
+public class RebalanceoValoracionesJob {
+
+    private static final Logger LOG = Logger.getLogger(RebalanceoValoracionesJob.class);
+
+    @Inject
+    ShardsValoraciones shards;
+
+    @ConfigProperty(name = "recipes.valoraciones.rebalanceo.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "recipes.valoraciones.rebalanceo.origenes")
+    Optional<List<String>> origenes;
+
+    @ConfigProperty(name = "recipes.valoraciones.rebalanceo.batch-size", defaultValue = "500")
+    int batchSize;
+
+    /**
+     * Pasada periódica del rebalanceo; sin filas fuera de sitio no hace nada.
+     */
+    @Scheduled(every = "${recipes.valoraciones.rebalanceo.interval:1m}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void rebalancearPeriodicamente() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Resultado resultado = rebalancear();
+            if (resultado.getMovidas() + resultado.getDescartadas() > 0) {
+                LOG.infof("Rebalanceo de valoraciones: %d movidas y %d ya presentes en destino en %d lotes",
+                        resultado.getMovidas(), resultado.getDescartadas(), resultado.getLotes());
+            }
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error rebalanceando los shards de valoraciones");
+        }
+    }
+
+    /**
+     * Mueve a su shard todas las filas que están en otro.
+     * @return Filas movidas, filas descartadas por estar ya en el destino y lotes
+     */
+    public Resultado rebalancear() {
+        Resultado resultado = new Resultado();
+        List<String> nombres = shards.getNombres();
+        for (int i = 0; i < nombres.size(); i++) {
+            vaciar(shards.dataSource(nombres.get(i)), i, resultado);
+        }
+        for (String origen : origenes.orElse(List.of())) {
+            if (!nombres.contains(origen)) {
+                vaciar(shards.dataSource(origen), -1, resultado);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Mueve las filas de un datasource que no pertenecen a su shard.
+     * @param indice Índice del datasource en la topología, o -1 si está retirado (se vacía entero)
+     */
+    private void vaciar(AgroalDataSource origen, int indice, Resultado resultado) {
+        int ultimo = 0;
+        while (true) {
+            int desde = ultimo;
+            List<Object[]> lote = shards.ejecutar(origen, conexion -> {
+                try (PreparedStatement ps = conexion.prepareStatement(
+                        "SELECT " + ShardsValoraciones.COLUMNAS + " FROM valoraciones " +
+                        "WHERE id_valoracion > ? ORDER BY id_valoracion LIMIT ?")) {
+                    ps.setInt(1, desde);
+                    ps.setInt(2, batchSize);
+                    List<Object[]> filas = new ArrayList<>();
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            filas.add(new Object[] {rs.getInt(1), rs.getInt(2), rs.getInt(3),
+                                    rs.getShort(4), rs.getTimestamp(5), rs.getTimestamp(6)});
+                        }
+                    }
+                    return filas;
+                }
+            });
+            if (lote.isEmpty()) {
+                return;
+            }
+            ultimo = (Integer) lote.get(lote.size() - 1)[0];
+
+            Map<Integer, List<Object[]>> porDestino = new LinkedHashMap<>();
+            for (Object[] fila : lote) {
+                int destino = shards.shardDe((Integer) fila[1]);
+                if (destino != indice) {
+                    porDestino.computeIfAbsent(destino, k -> new ArrayList<>()).add(fila);
+                }
+            }
+            for (Map.Entry<Integer, List<Object[]>> grupo : porDestino.entrySet()) {
+                mover(origen, grupo.getKey(), grupo.getValue(), resultado);
+            }
+            resultado.lotes++;
+            if (lote.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void mover(AgroalDataSource origen, int destino, List<Object[]> filas, Resultado resultado) {
+        int insertadas = shards.enShard(destino, conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "INSERT INTO valoraciones (" + ShardsValoraciones.COLUMNAS + ") " +
+                    "SELECT ?, ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM valoraciones " +
+                    "WHERE id_valoracion = ? OR (id_receta = ? AND id_usuario = ?))")) {
+                for (Object[] fila : filas) {
+                    for (int i = 0; i < fila.length; i++) {
+                        ps.setObject(i + 1, fila[i]);
+                    }
+                    ps.setObject(7, fila[0]);
+                    ps.setObject(8, fila[1]);
+                    ps.setObject(9, fila[2]);
+                    ps.addBatch();
+                }
+                int total = 0;
+                for (int filasInsertadas : ps.executeBatch()) {
+                    total += Math.max(filasInsertadas, 0);
+                }
+                return total;
+            }
+        });
+        shards.ejecutar(origen, conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement("DELETE FROM valoraciones WHERE id_valoracion = ?")) {
+                for (Object[] fila : filas) {
+                    ps.setObject(1, fila[0]);
+                    ps.addBatch();
+                }
+                return ps.executeBatch();
+            }
+        });
+        resultado.movidas += insertadas;
+        resultado.descartadas += filas.size() - insertadas;
+    }
+
+    /**
+     * Resultado de una pasada del rebalanceo.
+     */
+    public static class Resultado {
+
+        private long movidas;
+        private long descartadas;
+        private int lotes;
+
+        public long getMovidas() { return movidas; }
+        public long getDescartadas() { return descartadas; }
+        public int getLotes() { return lotes; }
+    }
+}
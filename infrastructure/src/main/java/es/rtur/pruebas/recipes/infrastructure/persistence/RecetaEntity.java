@@ -1,6 +1,10 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.entity.Receta;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.LazyGroup;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,7 +14,10 @@
  * Representa una receta publicada por un usuario con sus ingredientes, utensilios y valoraciones.
  */
 @Entity
-@Table(name = "recetas")
+@Table(name = "recetas", indexes = {
+    @Index(name = "idx_recetas_dificultad", columnList = "dificultad"),
+    @Index(name = "idx_recetas_categoria", columnList = "id_categoria")
+})
 public class RecetaEntity {
 
     @Id
@@ -27,14 +34,23 @@ public class RecetaEntity {
     @Column(name = "comensales")
     public Integer comensales;
 
-    @Column(name = "dificultad", columnDefinition = "TEXT")
-    public String dificultad;
+    // Código SMALLINT (ver DifficultyLevel)
+    @Convert(converter = DificultadConverter.class)
+    @Column(name = "dificultad")
+    public DifficultyLevel dificultad;
 
+    // Texto sin límite: carga perezosa (bytecode enhancement), los listados usan resumen
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("preparacion")
     @Column(name = "preparacion", columnDefinition = "TEXT")
     public String preparacion;
 
-    @Column(name = "categoria", columnDefinition = "TEXT")
-    public String categoria;
+    @Column(name = "resumen", length = 200)
+    public String resumen;
+
+    // Código de la tabla categorias; se traduce con CategoriaDiccionario
+    @Column(name = "id_categoria")
+    public Short idCategoria;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_autor", nullable = false)
@@ -46,11 +62,14 @@ public class RecetaEntity {
     @Column(name = "f_modificacion", nullable = true)
     public LocalDateTime fModificacion;
 
-    // Relaciones con ingredientes y utensilios
+    // Relaciones con ingredientes y utensilios.
+    // @BatchSize: si se navegan desde varias recetas cargadas, se inicializan en lotes de 50
     @OneToMany(mappedBy = "receta", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     public List<IngredienteRecetaEntity> ingredientesReceta = new ArrayList<>();
 
     @OneToMany(mappedBy = "receta", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     public List<UtensilioRecetaEntity> utensiliosReceta = new ArrayList<>();
 
     @OneToMany(mappedBy = "receta", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -61,6 +80,9 @@ public class RecetaEntity {
 
     @PrePersist
     public void prePersist() {
+        if (resumen == null) {
+            resumen = Receta.resumir(preparacion);
+        }
         if (fCreacion == null) {
             fCreacion = LocalDateTime.now();
         }
@@ -1,16 +1,25 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
 import es.rtur.pruebas.recipes.domain.entity.Receta;
 import es.rtur.pruebas.recipes.domain.repository.RecetaRepository;
+import es.rtur.pruebas.recipes.domain.repository.ValoracionRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
 import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxEvento;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxWriter;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -20,11 +29,32 @@
  * Proporciona mapeo entre entidades JPA y entidades de dominio.
  */
 @ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
 public class RecetaRepositoryImpl implements PanacheRepository<RecetaEntity>, RecetaRepository {
 
+    /**
+     * Entidades hijas de la receta sin eventos en el outbox, que se borran con un DELETE masivo.
+     * Valoraciones y comentarios no están: se leen antes de borrarlos para registrar el evento de
+     * cada uno (las valoraciones con {@link ValoracionRepository#deleteByRecetas}, porque pueden
+     * vivir en shards).
+     */
+    static final List<String> HIJOS_RECETA = List.of("IngredienteRecetaEntity", "UtensilioRecetaEntity");
+
     @PersistenceContext
     EntityManager em;
 
+    @Inject
+    OutboxWriter outbox;
+
+    @Inject
+    CategoriaDiccionario categorias;
+
+    @Inject
+    ValoracionRepository valoraciones;
+
+    @Inject
+    ComentarioRepositoryImpl comentarios;
+
     /**
      * Busca recetas por autor.
      * @param idAutor ID del autor
@@ -45,11 +75,13 @@ public List<RecetaEntity> searchByNombre(String nombre) {
 
     /**
      * Busca recetas por dificultad (public method for JPA entities).
-     * @param dificultad Nivel de dificultad
-     * @return Lista de entidades RecetaEntity con esa dificultad
+     * @param dificultad Nivel de dificultad ("facil", "media"...)
+     * @return Lista de entidades RecetaEntity con esa dificultad; vacía si la dificultad no existe
      */
     public List<RecetaEntity> findEntitiesByDificultad(String dificultad) {
-        return list("dificultad", dificultad);
+        return DifficultyLevel.findByValue(dificultad)
+                .map(nivel -> list("dificultad", nivel))
+                .orElseGet(List::of);
     }
 
     /**
@@ -58,7 +90,8 @@ public List<RecetaEntity> findEntitiesByDificultad(String dificultad) {
      * @return Lista de recetas de esa categoría
      */
     public List<RecetaEntity> findEntitiesByCategoria(String categoria) {
-        return list("categoria", categoria);
+        Short codigo = categorias.buscarCodigo(categoria);
+        return codigo != null ? list("idCategoria", codigo) : List.of();
     }
 
     /**
@@ -113,38 +146,30 @@ public List<RecetaEntity> findRecientes(int limit) {
      */
     public List<RecetaEntity> buscarConFiltros(String dificultad, String categoria, Integer tiempoMaximo) {
         StringBuilder query = new StringBuilder("1=1");
-        
+        Map<String, Object> params = new HashMap<>();
+
         if (dificultad != null && !dificultad.isEmpty()) {
-            query.append(" AND dificultad = ?1");
+            Optional<DifficultyLevel> nivel = DifficultyLevel.findByValue(dificultad);
+            if (nivel.isEmpty()) {
+                return List.of();
+            }
+            query.append(" AND dificultad = :dificultad");
+            params.put("dificultad", nivel.get());
         }
         if (categoria != null && !categoria.isEmpty()) {
-            query.append(" AND categoria = ?").append(dificultad != null && !dificultad.isEmpty() ? "2" : "1");
+            Short codigo = categorias.buscarCodigo(categoria);
+            if (codigo == null) {
+                return List.of();
+            }
+            query.append(" AND idCategoria = :categoria");
+            params.put("categoria", codigo);
         }
         if (tiempoMaximo != null) {
-            int paramIndex = 1;
-            if (dificultad != null && !dificultad.isEmpty()) paramIndex++;
-            if (categoria != null && !categoria.isEmpty()) paramIndex++;
-            query.append(" AND tiempo <= ?").append(paramIndex);
-        }
-        
-        // Construir lista de parámetros
-        if (dificultad != null && !dificultad.isEmpty() && categoria != null && !categoria.isEmpty() && tiempoMaximo != null) {
-            return list(query.toString(), dificultad, categoria, tiempoMaximo);
-        } else if (dificultad != null && !dificultad.isEmpty() && categoria != null && !categoria.isEmpty()) {
-            return list(query.toString(), dificultad, categoria);
-        } else if (dificultad != null && !dificultad.isEmpty() && tiempoMaximo != null) {
-            return list(query.toString(), dificultad, tiempoMaximo);
-        } else if (categoria != null && !categoria.isEmpty() && tiempoMaximo != null) {
-            return list(query.toString(), categoria, tiempoMaximo);
-        } else if (dificultad != null && !dificultad.isEmpty()) {
-            return list(query.toString(), dificultad);
-        } else if (categoria != null && !categoria.isEmpty()) {
-            return list(query.toString(), categoria);
-        } else if (tiempoMaximo != null) {
-            return list(query.toString(), tiempoMaximo);
-        } else {
-            return listAll();
+            query.append(" AND tiempo <= :tiempoMaximo");
+            params.put("tiempoMaximo", tiempoMaximo);
         }
+
+        return params.isEmpty() ? listAll() : list(query.toString(), params);
     }
 
     // Domain Repository Implementation
@@ -153,68 +178,101 @@ public List<RecetaEntity> buscarConFiltros(String dificultad, String categoria,
     @Transactional
     public Receta save(Receta receta) {
         RecetaEntity entity;
+        String tipoEvento = OutboxEvento.EVENTO_CREADO;
         if (receta.getId() == null) {
             // New entity
             entity = toEntity(receta);
             persist(entity);
         } else {
             // Update existing
-            entity = PanacheRepository.super.findById(receta.getId().getValue().longValue());
+            entity = findById(receta.getId().getValue().longValue());
             if (entity == null) {
                 entity = toEntity(receta);
                 persist(entity);
             } else {
                 updateEntity(entity, receta);
+                tipoEvento = OutboxEvento.EVENTO_ACTUALIZADO;
             }
         }
+        outbox.registrar(OutboxEvento.AGREGADO_RECETA, entity.idReceta, tipoEvento, datosEvento(entity));
         return toDomain(entity);
     }
 
     @Override
     public Optional<Receta> findById(RecetaId id) {
-        RecetaEntity entity = PanacheRepository.super.findById(id.getValue().longValue());
+        RecetaEntity entity = findById(id.getValue().longValue());
         return entity != null ? Optional.of(toDomain(entity)) : Optional.empty();
     }
 
     @Override
     public List<Receta> findAllRecetas() {
         return listAll().stream()
-                .map(this::toDomain)
+                .map(this::toListingDomain)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<Receta> findByAutor(UsuarioId idAutor) {
         return findByAutor(idAutor.getValue()).stream()
-                .map(this::toDomain)
+                .map(this::toListingDomain)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<Receta> findByNombreContaining(String nombre) {
         return searchByNombre(nombre).stream()
-                .map(this::toDomain)
+                .map(this::toListingDomain)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<Receta> findByDificultad(String dificultad) {
         return findEntitiesByDificultad(dificultad).stream()
-                .map(this::toDomain)
+                .map(this::toListingDomain)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<Receta> findByCategoria(String categoria) {
         return findEntitiesByCategoria(categoria).stream()
-                .map(this::toDomain)
+                .map(this::toListingDomain)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Elimina la receta y sus hijos con DELETE masivos por tabla, en orden de dependencias,
+     * sin cargar las colecciones en memoria (el cascade de JPA borraría fila a fila).
+     * Cada valoración y comentario borrados registra su evento "eliminado", como el de la receta.
+     */
     @Override
     @Transactional
     public void deleteById(RecetaId id) {
-        PanacheRepository.super.deleteById(id.getValue().longValue());
+        if (eliminarEnBloque(id.getValue())) {
+            outbox.registrar(OutboxEvento.AGREGADO_RECETA, id.getValue(), OutboxEvento.EVENTO_ELIMINADO, null);
+        }
+    }
+
+    /**
+     * Borrado set-based: un DELETE por tabla hija (por lotes de ids en valoraciones y comentarios)
+     * y otro para la receta.
+     * Los DELETE masivos no pasan por el contexto de persistencia, así que antes se vuelcan
+     * los cambios pendientes y se desliga la receta si estaba cargada en la sesión.
+     * @return true si la receta existía
+     */
+    private boolean eliminarEnBloque(Integer idReceta) {
+        em.flush();
+        // Devuelve la instancia gestionada si ya está en la sesión, o un proxy sin SELECT
+        em.detach(em.getReference(RecetaEntity.class, idReceta));
+        outbox.registrarValoracionesEliminadas(valoraciones.deleteByRecetas(List.of(RecetaId.of(idReceta))));
+        comentarios.deleteByRecetas(List.of(idReceta));
+        for (String hijo : HIJOS_RECETA) {
+            em.createQuery("DELETE FROM " + hijo + " h WHERE h.receta.idReceta = :id")
+                    .setParameter("id", idReceta)
+                    .executeUpdate();
+        }
+        return em.createQuery("DELETE FROM RecetaEntity r WHERE r.idReceta = :id")
+                .setParameter("id", idReceta)
+                .executeUpdate() > 0;
     }
 
     @Override
@@ -222,6 +280,15 @@ public boolean existsById(RecetaId id) {
         return count("idReceta", id.getValue()) > 0;
     }
 
+    private Map<String, Object> datosEvento(RecetaEntity entity) {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("idAutor", entity.autor != null ? entity.autor.idUsuario : null);
+        datos.put("nombre", entity.nombre);
+        datos.put("dificultad", entity.dificultad != null ? entity.dificultad.getValue() : null);
+        datos.put("categoria", categorias.nombre(entity.idCategoria));
+        return datos;
+    }
+
     // Mappers
 
     private Receta toDomain(RecetaEntity entity) {
@@ -230,9 +297,27 @@ private Receta toDomain(RecetaEntity entity) {
                 entity.nombre,
                 entity.tiempo,
                 entity.comensales,
-                entity.dificultad,
+                entity.dificultad != null ? entity.dificultad.getValue() : null,
                 entity.preparacion,
-                entity.categoria,
+                categorias.nombre(entity.idCategoria),
+                UsuarioId.of(entity.autor.idUsuario),
+                entity.fCreacion,
+                entity.fModificacion
+        );
+    }
+
+    /**
+     * Mapeo para listados: no toca preparacion, así que el texto completo no se carga.
+     */
+    private Receta toListingDomain(RecetaEntity entity) {
+        return Receta.forListing(
+                RecetaId.of(entity.idReceta),
+                entity.nombre,
+                entity.tiempo,
+                entity.comensales,
+                entity.dificultad != null ? entity.dificultad.getValue() : null,
+                entity.resumen,
+                categorias.nombre(entity.idCategoria),
                 UsuarioId.of(entity.autor.idUsuario),
                 entity.fCreacion,
                 entity.fModificacion
@@ -247,9 +332,10 @@ private RecetaEntity toEntity(Receta domain) {
         entity.nombre = domain.getNombre();
         entity.tiempo = domain.getTiempo();
         entity.comensales = domain.getComensales();
-        entity.dificultad = domain.getDificultad();
+        entity.dificultad = domain.getDifficultyLevel();
         entity.preparacion = domain.getPreparacion();
-        entity.categoria = domain.getCategoria();
+        entity.resumen = domain.getResumen();
+        entity.idCategoria = categorias.registrar(domain.getCategoria());
         
         // Load author from database
         UsuarioEntity autor = em.find(UsuarioEntity.class, domain.getIdAutor().getValue());
@@ -262,8 +348,11 @@ private void updateEntity(RecetaEntity entity, Receta domain) {
         entity.nombre = domain.getNombre();
         entity.tiempo = domain.getTiempo();
         entity.comensales = domain.getComensales();
-        entity.dificultad = domain.getDificultad();
-        entity.preparacion = domain.getPreparacion();
-        entity.categoria = domain.getCategoria();
+        entity.dificultad = domain.getDifficultyLevel();
+        if (domain.isPreparacionLoaded()) {
+            entity.preparacion = domain.getPreparacion();
+            entity.resumen = domain.getResumen();
+        }
+        entity.idCategoria = categorias.registrar(domain.getCategoria());
     }
 }
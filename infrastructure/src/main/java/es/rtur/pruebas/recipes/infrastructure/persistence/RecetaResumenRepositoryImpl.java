@@ -0,0 +1,148 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.entity.TipoValoracion;
+import es.rtur.pruebas.recipes.domain.readmodel.RecetaResumen;
+import es.rtur.pruebas.recipes.domain.repository.RecetaResumenRepository;
+import es.rtur.pruebas.recipes.domain.repository.ValoracionRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionCount;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Modelo de lectura para listados de recetas con contadores de likes, dislikes y comentarios.
+ *
+ * Una única sentencia SQL: una subconsulta selecciona las recetas de la página y cada
+ * contador sale de una subconsulta agrupada por id_receta, restringida a los IDs de la
+ * página y unida con LEFT JOIN. No hay COUNT por receta, así que una página de N recetas
+ * cuesta siempre una sentencia.
+ * No se usa una CTE para la página porque H2 reutiliza su resultado entre ejecuciones
+ * con distintos parámetros.
+ * Dificultad, categoría y tipo de valoración se filtran y agrupan por su código SMALLINT;
+ * la categoría se traduce a nombre con CategoriaDiccionario.
+ * Con las valoraciones repartidas en shards ({@code recipes.valoraciones.shards}, ver
+ * {@link ShardsValoraciones}) no se pueden unir en la misma sentencia: los contadores de likes y dislikes salen de
+ * {@link ValoracionRepository#countByRecetas}, una consulta más por shard implicado.
+ */
+@ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
+public class RecetaResumenRepositoryImpl implements RecetaResumenRepository {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Inject
+    CategoriaDiccionario categorias;
+
+    @Inject
+    ValoracionRepository valoraciones;
+
+    @Inject
+    ShardsValoraciones shards;
+
+    @Override
+    public List<RecetaResumen> findPage(String dificultad, String categoria, int offset, int limit) {
+        boolean filtraDificultad = dificultad != null && !dificultad.isBlank();
+        boolean filtraCategoria = categoria != null && !categoria.isBlank();
+        Optional<DifficultyLevel> nivel = DifficultyLevel.findByValue(dificultad);
+        Short codigoCategoria = filtraCategoria ? categorias.buscarCodigo(categoria) : null;
+        if ((filtraDificultad && nivel.isEmpty()) || (filtraCategoria && codigoCategoria == null)) {
+            return List.of();
+        }
+
+        StringBuilder filtro = new StringBuilder("FROM recetas WHERE 1=1");
+        if (filtraDificultad) {
+            filtro.append(" AND dificultad = :dificultad");
+        }
+        if (filtraCategoria) {
+            filtro.append(" AND id_categoria = :categoria");
+        }
+        filtro.append(" ORDER BY f_creacion DESC, id_receta DESC LIMIT :limit OFFSET :offset");
+        String idsPagina = "SELECT id_receta " + filtro;
+        boolean valoracionesEnShards = shards.isActivo();
+
+        String sql =
+            "SELECT p.id_receta, p.nombre, p.tiempo, p.comensales, p.dificultad, p.id_categoria, p.resumen, " +
+            "p.id_autor, p.f_creacion, " +
+            (valoracionesEnShards ? "0, 0, " : "COALESCE(v.likes, 0), COALESCE(v.dislikes, 0), ") +
+            "COALESCE(c.comentarios, 0) " +
+            "FROM (SELECT id_receta, nombre, tiempo, comensales, dificultad, id_categoria, resumen, id_autor, f_creacion " +
+            filtro + ") p " +
+            (valoracionesEnShards ? "" :
+            "LEFT JOIN (" +
+            "SELECT id_receta, " +
+            "SUM(CASE WHEN tipo = " + TipoValoracion.LIKE.getCode() + " THEN 1 ELSE 0 END) AS likes, " +
+            "SUM(CASE WHEN tipo = " + TipoValoracion.DISLIKE.getCode() + " THEN 1 ELSE 0 END) AS dislikes " +
+            "FROM valoraciones " +
+            "WHERE f_eliminacion IS NULL AND id_receta IN (" + idsPagina + ") " +
+            "GROUP BY id_receta" +
+            ") v ON v.id_receta = p.id_receta ") +
+            "LEFT JOIN (" +
+            "SELECT id_receta, COUNT(*) AS comentarios " +
+            "FROM comentarios " +
+            "WHERE estado = 'activo' AND id_receta IN (" + idsPagina + ") " +
+            "GROUP BY id_receta" +
+            ") c ON c.id_receta = p.id_receta " +
+            "ORDER BY p.f_creacion DESC, p.id_receta DESC";
+
+        Query query = em.createNativeQuery(sql)
+            .setParameter("limit", limit)
+            .setParameter("offset", offset);
+        if (filtraDificultad) {
+            query.setParameter("dificultad", nivel.get().getCode());
+        }
+        if (filtraCategoria) {
+            query.setParameter("categoria", codigoCategoria);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> filas = query.getResultList();
+        Map<RecetaId, ValoracionCount> conteos = Map.of();
+        if (valoracionesEnShards && !filas.isEmpty()) {
+            conteos = valoraciones.countByRecetas(filas.stream()
+                .map(fila -> RecetaId.of(((Number) fila[0]).intValue()))
+                .collect(Collectors.toList()));
+        }
+        List<RecetaResumen> resumenes = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            RecetaId id = RecetaId.of(((Number) fila[0]).intValue());
+            ValoracionCount conteo = conteos.get(id);
+            resumenes.add(new RecetaResumen(
+                id,
+                (String) fila[1],
+                fila[2] != null ? ((Number) fila[2]).intValue() : null,
+                fila[3] != null ? ((Number) fila[3]).intValue() : null,
+                fila[4] != null ? DifficultyLevel.fromCode(((Number) fila[4]).intValue()).getValue() : null,
+                fila[5] != null ? categorias.nombre(((Number) fila[5]).shortValue()) : null,
+                (String) fila[6],
+                UsuarioId.of(((Number) fila[7]).intValue()),
+                toLocalDateTime(fila[8]),
+                conteo != null ? conteo.getLikes() : ((Number) fila[9]).longValue(),
+                conteo != null ? conteo.getDislikes() : ((Number) fila[10]).longValue(),
+                ((Number) fila[11]).longValue()
+            ));
+        }
+        return resumenes;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object valor) {
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) valor;
+    }
+}
@@ -1,5 +1,6 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Recipe;
 import es.rtur.pruebas.recipes.domain.repository.RecipeRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.RecipeId;
@@ -14,6 +15,7 @@
  * This is an adapter to handle the English/Spanish entity mismatch.
  */
 @ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
 public class RecipeRepositoryImpl implements RecipeRepository {
 
     @Inject
@@ -0,0 +1,41 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.customized.QuarkusConnectionProvider;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantConnectionResolver;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asocia los tenants de {@link ReplicaTenantResolver} a los datasources:
+ * "primario" al datasource por defecto y "replica" al datasource con nombre "replica".
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class ReplicaConnectionResolver implements TenantConnectionResolver {
+
+    @Inject
+    AgroalDataSource primario;
+
+    @Inject
+    @DataSource(ReplicaTenantResolver.REPLICA)
+    Instance<AgroalDataSource> replica;
+
+    private final Map<String, ConnectionProvider> proveedores = new ConcurrentHashMap<>();
+
+    @Override
+    public ConnectionProvider resolve(String tenantId) {
+        return proveedores.computeIfAbsent(tenantId, id -> switch (id) {
+            case ReplicaTenantResolver.PRIMARIO -> new QuarkusConnectionProvider(primario);
+            case ReplicaTenantResolver.REPLICA -> new QuarkusConnectionProvider(replica.get());
+            default -> throw new IllegalStateException("Tenant desconocido: " + id);
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.routing.RoutingContext;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InjectableContext;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.runtime.tenant.TenantResolver;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enrutado lectura/escritura entre el datasource principal y la réplica de lectura.
+ *
+ * Usa la multitenancy DATABASE de Hibernate: cada sesión se abre contra el datasource que
+ * {@link ReplicaConnectionResolver} asocia al tenant devuelto por {@link #resolveTenantId()}. Van a la réplica (datasource "replica") las
+ * sesiones abiertas dentro de un caso de uso {@code @ReadOnly}, salvo que la petición tenga
+ * activa la lectura consistente tras una escritura propia (ver {@link LecturaConsistente}).
+ * Todo lo demás, incluidas todas las escrituras, va al principal.
+ *
+ * Con el enrutado activo el arranque falla si la réplica es una base H2 en memoria distinta
+ * del principal: sería una base vacía y las lecturas no verían ningún dato.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class ReplicaTenantResolver implements TenantResolver {
+
+    public static final String PRIMARIO = "primario";
+    public static final String REPLICA = "replica";
+
+    @ConfigProperty(name = "recipes.replica.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+    Optional<String> urlPrimario;
+
+    @ConfigProperty(name = "quarkus.datasource.replica.jdbc.url")
+    Optional<String> urlReplica;
+
+    private final LongAdder sesionesPrimario = new LongAdder();
+    private final LongAdder sesionesReplica = new LongAdder();
+
+    void onStart(@Observes StartupEvent event) {
+        comprobarReplica(enabled, urlPrimario.orElse(null), urlReplica.orElse(null));
+    }
+
+    /**
+     * @throws IllegalStateException si el enrutado está activo y la réplica no es una copia
+     *         real del principal (una base H2 en memoria que no es la del principal)
+     */
+    static void comprobarReplica(boolean enabled, String urlPrimario, String urlReplica) {
+        if (!enabled || urlReplica == null || !urlReplica.startsWith("jdbc:h2:mem:")) {
+            return;
+        }
+        if (urlPrimario == null || !nombreBaseH2(urlPrimario).equals(nombreBaseH2(urlReplica))) {
+            throw new IllegalStateException("recipes.replica.enabled=true con una réplica H2 en memoria ("
+                + urlReplica + ") que no es la base del principal (" + urlPrimario
+                + "): configura quarkus.datasource.replica.jdbc.url o desactiva el enrutado");
+        }
+    }
+
+    /**
+     * Nombre de la base de una URL H2 sin sus opciones: jdbc:h2:mem:recipes;DB_CLOSE_DELAY=-1 da
+     * jdbc:h2:mem:recipes.
+     */
+    private static String nombreBaseH2(String url) {
+        int opciones = url.indexOf(';');
+        return opciones < 0 ? url : url.substring(0, opciones);
+    }
+
+    @Override
+    public String getDefaultTenantId() {
+        return PRIMARIO;
+    }
+
+    @Override
+    public String resolveTenantId() {
+        if (enabled && RoutingContext.isReadOnly() && !lecturaConsistenteActiva()) {
+            sesionesReplica.increment();
+            return REPLICA;
+        }
+        sesionesPrimario.increment();
+        return PRIMARIO;
+    }
+
+    private boolean lecturaConsistenteActiva() {
+        InjectableContext.ContextState estado = Arc.container().requestContext().getStateIfActive();
+        if (estado == null) {
+            return false;
+        }
+        LecturaConsistente lectura = Arc.container().instance(LecturaConsistente.class).get();
+        return lectura.isActiva();
+    }
+
+    /**
+     * Sesiones abiertas contra el principal desde el arranque.
+     */
+    public long getSesionesPrimario() {
+        return sesionesPrimario.sum();
+    }
+
+    /**
+     * Sesiones abiertas contra la réplica desde el arranque.
+     */
+    public long getSesionesReplica() {
+        return sesionesReplica.sum();
+    }
+}
@@ -0,0 +1,80 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.domain.entity.Receta;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/**
+ * Rellena la columna resumen de las recetas creadas antes de que existiera.
+ *
+ * Con database.generation=update la columna se añade vacía; los listados ya no leen
+ * preparacion, así que sin este relleno esas recetas saldrían sin resumen. Se ejecuta
+ * al arrancar, por lotes y cada lote en su propia transacción. Cuando no quedan filas
+ * pendientes cuesta una única consulta.
+ */
+@ApplicationScoped
+public class ResumenRecetaBackfill {
+
+    private static final Logger LOG = Logger.getLogger(ResumenRecetaBackfill.class);
+
+    @PersistenceContext
+    EntityManager em;
+
+    @ConfigProperty(name = "recipes.recetas.resumen-backfill.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "recipes.recetas.resumen-backfill.batch-size", defaultValue = "500")
+    int batchSize;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int total = rellenar();
+            if (total > 0) {
+                LOG.infof("Resumen calculado para %d recetas existentes", total);
+            }
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error rellenando el resumen de las recetas");
+        }
+    }
+
+    /**
+     * Calcula el resumen de todas las recetas que no lo tienen.
+     * @return Número de recetas actualizadas
+     */
+    public int rellenar() {
+        int total = 0;
+        while (true) {
+            int procesadas = QuarkusTransaction.requiringNew().call(this::rellenarLote);
+            total += procesadas;
+            if (procesadas < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private int rellenarLote() {
+        List<Object[]> pendientes = em.createQuery(
+                "SELECT r.idReceta, r.preparacion FROM RecetaEntity r " +
+                "WHERE r.resumen IS NULL AND r.preparacion IS NOT NULL ORDER BY r.idReceta", Object[].class)
+            .setMaxResults(batchSize)
+            .getResultList();
+        for (Object[] fila : pendientes) {
+            em.createQuery("UPDATE RecetaEntity r SET r.resumen = :resumen WHERE r.idReceta = :id")
+                .setParameter("resumen", Receta.resumir((String) fila[1]))
+                .setParameter("id", fila[0])
+                .executeUpdate();
+        }
+        return pendientes.size();
+    }
+}
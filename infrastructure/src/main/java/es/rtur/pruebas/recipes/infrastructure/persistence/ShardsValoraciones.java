@@ -0,0 +1,293 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.runtime.AgroalDataSourceUtil;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.PersistenceException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Topología de los shards de valoraciones: la lista ordenada de datasources configurada en
+ * {@code recipes.valoraciones.shards}.
+ *
+ * Cada receta vive entera en un único shard, elegido con un hash consistente ("jump hash")
+ * de su id: al añadir un shard al final de la lista solo se mueve la fracción 1/N de las
+ * recetas. Los shards solo pueden añadirse al final; reordenar la lista cambia el destino de
+ * casi todas las recetas y obliga a un rebalanceo completo ({@link RebalanceoValoracionesJob}).
+ *
+ * Los datasources de los shards deben declararse con {@code jdbc.transactions=disabled}: cada
+ * sentencia se confirma sola y no se enlista en la transacción JTA del datasource principal.
+ * Las consultas a varios shards se lanzan en paralelo en hilos virtuales con un tiempo máximo.
+ */
+@ApplicationScoped
+public class ShardsValoraciones {
+
+    /**
+     * Máximo de shards. Los ids de cada shard avanzan con este incremento desde su índice,
+     * de modo que son únicos entre shards y se conservan al mover filas en un rebalanceo.
+     */
+    static final int MAX_SHARDS = 64;
+
+    static final String COLUMNAS = "id_valoracion, id_receta, id_usuario, tipo, f_creacion, f_eliminacion";
+
+    @ConfigProperty(name = "recipes.valoraciones.shards")
+    Optional<List<String>> nombres;
+
+    @ConfigProperty(name = "recipes.valoraciones.shards.timeout", defaultValue = "5s")
+    Duration timeout;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile List<AgroalDataSource> dataSources;
+
+    /**
+     * Operación JDBC sobre la conexión de un shard.
+     */
+    @FunctionalInterface
+    public interface OperacionShard<T> {
+        T ejecutar(Connection conexion) throws SQLException;
+    }
+
+    @PreDestroy
+    void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Nombres de los datasources de los shards, en orden.
+     */
+    public List<String> getNombres() {
+        return nombres.orElse(List.of());
+    }
+
+    /**
+     * true si las valoraciones están repartidas en shards ({@code recipes.valoraciones.shards} configurado).
+     */
+    public boolean isActivo() {
+        return !getNombres().isEmpty();
+    }
+
+    public int getNumeroShards() {
+        return getDataSources().size();
+    }
+
+    /**
+     * Índice del shard de una receta.
+     */
+    public int shardDe(Integer idReceta) {
+        return shardDe(idReceta, getNumeroShards());
+    }
+
+    /**
+     * Jump consistent hash (Lamping y Veach) del id de la receta, previamente mezclado para que
+     * ids consecutivos no caigan en shards consecutivos.
+     * @param idReceta ID de la receta
+     * @param numeroShards Número de shards (al menos 1)
+     * @return Índice del shard, entre 0 y numeroShards - 1
+     */
+    static int shardDe(int idReceta, int numeroShards) {
+        long clave = mezclar(idReceta);
+        long b = -1;
+        long j = 0;
+        while (j < numeroShards) {
+            b = j;
+            clave = clave * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((clave >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    private static long mezclar(long valor) {
+        valor ^= valor >>> 33;
+        valor *= 0xff51afd7ed558ccdL;
+        valor ^= valor >>> 33;
+        valor *= 0xc4ceb9fe1a85ec53L;
+        valor ^= valor >>> 33;
+        return valor;
+    }
+
+    /**
+     * Agrupa recetas por shard.
+     * @return Mapa índice de shard -> ids de receta de ese shard
+     */
+    public Map<Integer, List<Integer>> agruparPorShard(Collection<Integer> idsReceta) {
+        Map<Integer, List<Integer>> grupos = new LinkedHashMap<>();
+        for (Integer idReceta : idsReceta) {
+            grupos.computeIfAbsent(shardDe(idReceta), k -> new ArrayList<>()).add(idReceta);
+        }
+        return grupos;
+    }
+
+    /**
+     * Ejecuta una operación en el shard indicado.
+     */
+    public <T> T enShard(int indice, OperacionShard<T> operacion) {
+        return ejecutar(getDataSources().get(indice), operacion);
+    }
+
+    /**
+     * Ejecuta la misma operación en todos los shards en paralelo.
+     * @return Resultados en el orden de los shards
+     */
+    public <T> List<T> enTodos(OperacionShard<T> operacion) {
+        List<Callable<T>> tareas = new ArrayList<>();
+        for (AgroalDataSource dataSource : getDataSources()) {
+            tareas.add(() -> ejecutar(dataSource, operacion));
+        }
+        return enParalelo(tareas);
+    }
+
+    /**
+     * Ejecuta una operación por grupo de recetas, cada una en su shard y todas en paralelo.
+     * @param grupos Resultado de {@link #agruparPorShard}
+     * @param operacion Operación que recibe la conexión del shard y las recetas del grupo
+     * @return Resultados en el orden de los grupos
+     */
+    public <T> List<T> porGrupos(Map<Integer, List<Integer>> grupos, OperacionGrupo<T> operacion) {
+        List<Callable<T>> tareas = new ArrayList<>();
+        for (Map.Entry<Integer, List<Integer>> grupo : grupos.entrySet()) {
+            AgroalDataSource dataSource = getDataSources().get(grupo.getKey());
+            tareas.add(() -> ejecutar(dataSource, conexion -> operacion.ejecutar(conexion, grupo.getValue())));
+        }
+        return enParalelo(tareas);
+    }
+
+    /**
+     * Operación JDBC sobre un grupo de recetas de un mismo shard.
+     */
+    @FunctionalInterface
+    public interface OperacionGrupo<T> {
+        T ejecutar(Connection conexion, List<Integer> idsReceta) throws SQLException;
+    }
+
+    /**
+     * Ejecuta una operación sobre un datasource cualquiera, esté o no en la topología
+     * (lo usa el rebalanceo para vaciar shards retirados).
+     */
+    <T> T ejecutar(AgroalDataSource dataSource, OperacionShard<T> operacion) {
+        try (Connection conexion = dataSource.getConnection()) {
+            return operacion.ejecutar(conexion);
+        } catch (SQLException e) {
+            throw new PersistenceException("Error en el shard de valoraciones: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> List<T> enParalelo(List<Callable<T>> tareas) {
+        if (tareas.size() == 1) {
+            try {
+                return List.of(tareas.get(0).call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new PersistenceException(e);
+            }
+        }
+        List<Future<T>> futuros = new ArrayList<>(tareas.size());
+        for (Callable<T> tarea : tareas) {
+            futuros.add(executor.submit(tarea));
+        }
+        long limite = System.nanoTime() + timeout.toNanos();
+        List<T> resultados = new ArrayList<>(tareas.size());
+        try {
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+            return resultados;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new PersistenceException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new PersistenceException("Los shards de valoraciones no respondieron en " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersistenceException(e);
+        } finally {
+            for (Future<T> futuro : futuros) {
+                futuro.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Resuelve un datasource por nombre.
+     * @throws IllegalStateException si no existe o no está activo
+     */
+    AgroalDataSource dataSource(String nombre) {
+        return AgroalDataSourceUtil.dataSourceIfActive(nombre)
+                .orElseThrow(() -> new IllegalStateException("Datasource de valoraciones no configurado: " + nombre));
+    }
+
+    private List<AgroalDataSource> getDataSources() {
+        List<AgroalDataSource> resueltos = dataSources;
+        if (resueltos == null) {
+            synchronized (this) {
+                resueltos = dataSources;
+                if (resueltos == null) {
+                    resueltos = inicializar();
+                    dataSources = resueltos;
+                }
+            }
+        }
+        return resueltos;
+    }
+
+    private List<AgroalDataSource> inicializar() {
+        List<String> configurados = getNombres();
+        if (configurados.isEmpty()) {
+            throw new IllegalStateException("recipes.valoraciones.shards no tiene ningún datasource");
+        }
+        if (configurados.size() > MAX_SHARDS) {
+            throw new IllegalStateException("Como máximo " + MAX_SHARDS + " shards de valoraciones");
+        }
+        List<AgroalDataSource> resueltos = new ArrayList<>(configurados.size());
+        for (int i = 0; i < configurados.size(); i++) {
+            AgroalDataSource dataSource = dataSource(configurados.get(i));
+            crearEsquema(dataSource, i);
+            resueltos.add(dataSource);
+        }
+        return List.copyOf(resueltos);
+    }
+
+    /**
+     * Crea la tabla de valoraciones del shard si no existe. Sin claves foráneas: recetas y
+     * usuarios viven en el datasource principal.
+     */
+    void crearEsquema(AgroalDataSource dataSource, int indice) {
+        ejecutar(dataSource, conexion -> {
+            try (Statement st = conexion.createStatement()) {
+                st.execute("CREATE TABLE IF NOT EXISTS valoraciones (" +
+                        "id_valoracion INTEGER GENERATED BY DEFAULT AS IDENTITY " +
+                        "(START WITH " + (indice + 1) + " INCREMENT BY " + MAX_SHARDS + ") PRIMARY KEY, " +
+                        "id_receta INTEGER NOT NULL, " +
+                        "id_usuario INTEGER NOT NULL, " +
+                        "tipo SMALLINT NOT NULL, " +
+                        "f_creacion TIMESTAMP NOT NULL, " +
+                        "f_eliminacion TIMESTAMP, " +
+                        "CONSTRAINT uk_valoraciones_receta_usuario UNIQUE (id_receta, id_usuario))");
+                st.execute("CREATE INDEX IF NOT EXISTS idx_valoraciones_usuario ON valoraciones (id_usuario)");
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.metrics.RequestTiming;
+import es.rtur.pruebas.recipes.application.metrics.Span;
+import es.rtur.pruebas.recipes.application.metrics.Trace;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import org.hibernate.SessionEventListener;
+
+/**
+ * Suma al {@link RequestTiming} de la petición muestreada el tiempo de ejecución de cada
+ * sentencia JDBC y la espera por conexión del pool, y abre un tramo (jdbc.execute, jdbc.batch,
+ * jdbc.connection) por cada una en la traza de la petición si se está trazando. Hibernate no
+ * pasa el SQL a estos eventos, así que el tramo no lo lleva; el tramo del repositorio que lo
+ * envuelve dice qué consulta es.
+ *
+ * Hibernate crea una instancia por sesión (propiedad hibernate.session.events.auto, de ahí el
+ * registro para reflexión en nativo). Fuera de una petición muestreada solo cuesta una lectura
+ * de ThreadLocal por sentencia. El SQL que se lanza por JDBC directo (shards de valoraciones)
+ * no pasa por aquí.
+ */
+@RegisterForReflection
+public class TiemposJdbc implements SessionEventListener {
+
+    private long inicioSentencia;
+    private long inicioConexion;
+    private Trace trazaSentencia;
+    private Span tramoSentencia;
+    private Trace trazaConexion;
+    private Span tramoConexion;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        inicioConexion = System.nanoTime();
+        trazaConexion = Trace.current();
+        tramoConexion = trazaConexion == null ? null : trazaConexion.startSpan("jdbc.connection", Span.Kind.CLIENT);
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTiming tiempos = RequestTiming.current();
+        if (tiempos != null) {
+            tiempos.addConnectionWait(System.nanoTime() - inicioConexion);
+        }
+        if (tramoConexion != null) {
+            trazaConexion.end(tramoConexion);
+            trazaConexion = null;
+            tramoConexion = null;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicioSentencia("jdbc.execute");
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        finSentencia();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicioSentencia("jdbc.batch");
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        finSentencia();
+    }
+
+    private void inicioSentencia(String tramo) {
+        inicioSentencia = System.nanoTime();
+        trazaSentencia = Trace.current();
+        tramoSentencia = trazaSentencia == null ? null : trazaSentencia.startSpan(tramo, Span.Kind.CLIENT);
+    }
+
+    private void finSentencia() {
+        RequestTiming tiempos = RequestTiming.current();
+        if (tiempos != null) {
+            tiempos.addStatement(System.nanoTime() - inicioSentencia);
+        }
+        if (tramoSentencia != null) {
+            trazaSentencia.end(tramoSentencia);
+            trazaSentencia = null;
+            tramoSentencia = null;
+        }
+    }
+}
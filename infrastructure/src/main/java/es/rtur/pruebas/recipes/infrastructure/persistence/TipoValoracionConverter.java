@@ -0,0 +1,22 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.domain.entity.TipoValoracion;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Guarda el tipo de valoración como su código SMALLINT (1 = like, 2 = dislike).
+ */
+@Converter
+public class TipoValoracionConverter implements AttributeConverter<TipoValoracion, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(TipoValoracion tipo) {
+        return tipo != null ? tipo.getCode() : null;
+    }
+
+    @Override
+    public TipoValoracion convertToEntityAttribute(Short codigo) {
+        return codigo != null ? TipoValoracion.fromCode(codigo) : null;
+    }
+}
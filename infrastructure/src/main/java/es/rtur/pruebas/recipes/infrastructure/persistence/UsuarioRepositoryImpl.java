@@ -1,5 +1,6 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Usuario;
 import es.rtur.pruebas.recipes.domain.repository.UsuarioRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
@@ -17,6 +18,7 @@
  * Proporciona operaciones CRUD y consultas personalizadas para usuarios.
  */
 @ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
 public class UsuarioRepositoryImpl implements PanacheRepository<UsuarioEntity>, UsuarioRepository {
 
     /**
@@ -1,5 +1,6 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.application.metrics.Measured;
 import es.rtur.pruebas.recipes.domain.entity.Utensilio;
 import es.rtur.pruebas.recipes.domain.repository.UtensilioRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.UtensilioId;
@@ -17,6 +18,7 @@
  * Proporciona operaciones CRUD y consultas personalizadas para utensilios.
  */
 @ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
 public class UtensilioRepositoryImpl implements PanacheRepository<UtensilioEntity>, UtensilioRepository {
 
     /**
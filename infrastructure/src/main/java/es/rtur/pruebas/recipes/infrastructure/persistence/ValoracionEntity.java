@@ -1,5 +1,6 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.domain.entity.TipoValoracion;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -27,10 +28,11 @@ public class ValoracionEntity {
     public UsuarioEntity usuario;
 
     /**
-     * Tipo de valoración: 'like' o 'dislike'
+     * Tipo de valoración, guardado como código SMALLINT (1 = like, 2 = dislike)
      */
-    @Column(name = "tipo", nullable = false, length = 20)
-    public String tipo;
+    @Convert(converter = TipoValoracionConverter.class)
+    @Column(name = "tipo", nullable = false)
+    public TipoValoracion tipo;
 
     @Column(name = "f_creacion", nullable = false, updatable = false)
     public LocalDateTime fCreacion;
@@ -1,17 +1,29 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.domain.entity.TipoValoracion;
 import es.rtur.pruebas.recipes.domain.entity.Valoracion;
 import es.rtur.pruebas.recipes.domain.repository.ValoracionRepository;
 import es.rtur.pruebas.recipes.domain.valueobject.ValoracionId;
 import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
 import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionCount;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxEvento;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxWriter;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -24,11 +36,21 @@
  * Implementa RN-04: Un usuario solo puede dar un like/dislike por receta.
  */
 @ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
 public class ValoracionRepositoryImpl implements PanacheRepository<ValoracionEntity>, ValoracionRepository {
 
+    /** Valoraciones por DELETE al borrar todas las de unas recetas (acota la lista de ids de cada sentencia) */
+    private static final int LOTE_BORRADO = 1000;
+
     @PersistenceContext
     EntityManager em;
 
+    @Inject
+    OutboxWriter outbox;
+
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
     /**
      * Busca la valoración activa de un usuario en una receta específica.
      * @param idReceta ID de la receta
@@ -65,7 +87,7 @@ public List<ValoracionEntity> findByUsuario(Integer idUsuario) {
      * @return Número de likes
      */
     public long countLikesByReceta(Integer idReceta) {
-        return count("receta.idReceta = ?1 AND tipo = 'like' AND fEliminacion IS NULL", idReceta);
+        return count("receta.idReceta = ?1 AND tipo = ?2 AND fEliminacion IS NULL", idReceta, TipoValoracion.LIKE);
     }
 
     /**
@@ -74,7 +96,27 @@ public long countLikesByReceta(Integer idReceta) {
      * @return Número de dislikes
      */
     public long countDislikesByReceta(Integer idReceta) {
-        return count("receta.idReceta = ?1 AND tipo = 'dislike' AND fEliminacion IS NULL", idReceta);
+        return count("receta.idReceta = ?1 AND tipo = ?2 AND fEliminacion IS NULL", idReceta, TipoValoracion.DISLIKE);
+    }
+
+    /**
+     * Cuenta likes y dislikes activos de varias recetas con una única consulta agrupada.
+     * @param idsReceta IDs de las recetas
+     * @return Filas [idReceta, likes, dislikes]; las recetas sin valoraciones no aparecen
+     */
+    public List<Object[]> getEstadisticasByRecetas(List<Integer> idsReceta) {
+        return em.createQuery(
+            "SELECT v.receta.idReceta, " +
+            "SUM(CASE WHEN v.tipo = :like THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN v.tipo = :dislike THEN 1 ELSE 0 END) " +
+            "FROM ValoracionEntity v " +
+            "WHERE v.receta.idReceta IN :ids AND v.fEliminacion IS NULL " +
+            "GROUP BY v.receta.idReceta",
+            Object[].class)
+            .setParameter("ids", idsReceta)
+            .setParameter("like", TipoValoracion.LIKE)
+            .setParameter("dislike", TipoValoracion.DISLIKE)
+            .getResultList();
     }
 
     /**
@@ -114,7 +156,7 @@ public boolean eliminarValoracion(Long idValoracion) {
     public boolean cambiarTipo(Long idValoracion, String nuevoTipo) {
         ValoracionEntity valoracion = findById(idValoracion);
         if (valoracion != null && valoracion.estaActiva()) {
-            valoracion.tipo = nuevoTipo;
+            valoracion.tipo = TipoValoracion.fromValue(nuevoTipo);
             persist(valoracion);
             return true;
         }
@@ -139,10 +181,31 @@ public boolean hasValorado(Integer idReceta, Integer idUsuario) {
      */
     public String getTipoValoracion(Integer idReceta, Integer idUsuario) {
         return findActivaByRecetaAndUsuario(idReceta, idUsuario)
-                .map(v -> v.tipo)
+                .map(v -> v.tipo.getValue())
                 .orElse(null);
     }
 
+    /**
+     * Obtiene el tipo de valoración activa de un usuario en varias recetas con una única consulta IN.
+     * @param idUsuario ID del usuario
+     * @param idsReceta IDs de las recetas; si es null, todas las recetas valoradas por el usuario
+     * @return Filas [idReceta, TipoValoracion]; las recetas sin valoración del usuario no aparecen
+     */
+    public List<Object[]> getTiposValoracion(Integer idUsuario, List<Integer> idsReceta) {
+        String jpql = "SELECT v.receta.idReceta, v.tipo " +
+            "FROM ValoracionEntity v " +
+            "WHERE v.usuario.idUsuario = :idUsuario AND v.fEliminacion IS NULL";
+        if (idsReceta != null) {
+            jpql += " AND v.receta.idReceta IN :ids";
+        }
+        TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class)
+            .setParameter("idUsuario", idUsuario);
+        if (idsReceta != null) {
+            query.setParameter("ids", idsReceta);
+        }
+        return query.getResultList();
+    }
+
     /**
      * Obtiene las recetas más valoradas (likes - dislikes).
      * @param limit Número máximo de recetas
@@ -154,8 +217,9 @@ public List<Integer> getRecetasMasValoradas(int limit) {
             "FROM ValoracionEntity v " +
             "WHERE v.fEliminacion IS NULL " +
             "GROUP BY v.receta.idReceta " +
-            "ORDER BY SUM(CASE WHEN v.tipo = 'like' THEN 1 ELSE -1 END) DESC",
+            "ORDER BY SUM(CASE WHEN v.tipo = :like THEN 1 ELSE -1 END) DESC",
             Integer.class)
+            .setParameter("like", TipoValoracion.LIKE)
             .setMaxResults(limit)
             .getResultList();
     }
@@ -166,9 +230,17 @@ public List<Integer> getRecetasMasValoradas(int limit) {
     @Transactional
     public Valoracion save(Valoracion valoracion) {
         ValoracionEntity entity;
+        String tipoEvento = OutboxEvento.EVENTO_CREADO;
         if (valoracion.getId() == null) {
-            entity = toEntity(valoracion);
-            persist(entity);
+            Optional<ValoracionEntity> activa = bloquearYBuscarActiva(valoracion);
+            if (activa.isPresent()) {
+                entity = activa.get();
+                updateEntity(entity, valoracion);
+                tipoEvento = OutboxEvento.EVENTO_ACTUALIZADO;
+            } else {
+                entity = toEntity(valoracion);
+                persist(entity);
+            }
         } else {
             entity = findById(valoracion.getId().getValue().longValue());
             if (entity == null) {
@@ -176,11 +248,35 @@ public Valoracion save(Valoracion valoracion) {
                 persist(entity);
             } else {
                 updateEntity(entity, valoracion);
+                tipoEvento = OutboxEvento.EVENTO_ACTUALIZADO;
             }
         }
+        outbox.registrar(OutboxEvento.AGREGADO_VALORACION, entity.idValoracion, tipoEvento, datosEvento(entity));
         return toDomain(entity);
     }
 
+    /**
+     * RN-04 en la base de datos: en PostgreSQL toma un bloqueo asesor de transacción por
+     * (receta, usuario) y vuelve a buscar la valoración activa, que puede haber creado una
+     * petición concurrente entre la comprobación del caso de uso y este insert. Con las tablas
+     * particionadas (doc/sql/particionado-valoraciones-comentarios.sql) no hay restricción UNIQUE
+     * que lo impida; sin particionar, evita que la segunda petición falle por la restricción.
+     * El bloqueo se libera al terminar la transacción. En H2 no se hace nada.
+     * @return Valoración activa creada por otra transacción, que hay que actualizar en lugar de insertar
+     */
+    private Optional<ValoracionEntity> bloquearYBuscarActiva(Valoracion valoracion) {
+        if (!"postgresql".equals(dbKind)) {
+            return Optional.empty();
+        }
+        Integer idReceta = valoracion.getIdReceta().getValue();
+        Integer idUsuario = valoracion.getIdUsuario().getValue();
+        em.createNativeQuery("SELECT count(*) FROM (SELECT pg_advisory_xact_lock(:receta, :usuario)) bloqueo", Long.class)
+            .setParameter("receta", idReceta)
+            .setParameter("usuario", idUsuario)
+            .getSingleResult();
+        return findActivaByRecetaAndUsuario(idReceta, idUsuario);
+    }
+
     @Override
     public Optional<Valoracion> findById(ValoracionId id) {
         ValoracionEntity entity = findById(id.getValue().longValue());
@@ -217,10 +313,51 @@ public long countDislikesByReceta(RecetaId idReceta) {
         return countDislikesByReceta(idReceta.getValue());
     }
 
+    @Override
+    public Map<RecetaId, ValoracionCount> countByRecetas(Collection<RecetaId> idsReceta) {
+        if (idsReceta.isEmpty()) {
+            return Map.of();
+        }
+        List<Integer> ids = idsReceta.stream().map(RecetaId::getValue).collect(Collectors.toList());
+        Map<RecetaId, ValoracionCount> conteos = new HashMap<>();
+        for (Object[] fila : getEstadisticasByRecetas(ids)) {
+            conteos.put(RecetaId.of((Integer) fila[0]),
+                    ValoracionCount.of(((Number) fila[1]).longValue(), ((Number) fila[2]).longValue()));
+        }
+        return conteos;
+    }
+
+    @Override
+    public Map<RecetaId, String> findTiposByUsuarioAndRecetas(UsuarioId idUsuario, Collection<RecetaId> idsReceta) {
+        if (idsReceta.isEmpty()) {
+            return Map.of();
+        }
+        List<Integer> ids = idsReceta.stream().map(RecetaId::getValue).collect(Collectors.toList());
+        return toTipos(getTiposValoracion(idUsuario.getValue(), ids));
+    }
+
+    @Override
+    public Map<RecetaId, String> findTiposByUsuario(UsuarioId idUsuario) {
+        return toTipos(getTiposValoracion(idUsuario.getValue(), null));
+    }
+
+    private Map<RecetaId, String> toTipos(List<Object[]> filas) {
+        Map<RecetaId, String> tipos = new HashMap<>();
+        for (Object[] fila : filas) {
+            tipos.put(RecetaId.of((Integer) fila[0]), ((TipoValoracion) fila[1]).getValue());
+        }
+        return tipos;
+    }
+
     @Override
     @Transactional
     public void deleteById(ValoracionId id) {
-        deleteById(id.getValue().longValue());
+        ValoracionEntity entity = findById(id.getValue().longValue());
+        if (entity != null) {
+            Map<String, Object> datos = datosEvento(entity);
+            delete(entity);
+            outbox.registrar(OutboxEvento.AGREGADO_VALORACION, id.getValue(), OutboxEvento.EVENTO_ELIMINADO, datos);
+        }
     }
 
     @Override
@@ -228,6 +365,89 @@ public boolean existsById(ValoracionId id) {
         return count("idValoracion", id.getValue()) > 0;
     }
 
+    @Override
+    @Transactional
+    public List<Valoracion> deleteByRecetas(Collection<RecetaId> idsReceta) {
+        List<Valoracion> borradas = new ArrayList<>();
+        List<Valoracion> lote;
+        do {
+            lote = deleteBatchByRecetas(idsReceta, LOTE_BORRADO);
+            borradas.addAll(lote);
+        } while (lote.size() == LOTE_BORRADO);
+        return borradas;
+    }
+
+    @Override
+    @Transactional
+    public List<Valoracion> deleteBatchByRecetas(Collection<RecetaId> idsReceta, int max) {
+        if (idsReceta.isEmpty()) {
+            return List.of();
+        }
+        return borrarLote("v.receta.idReceta IN :filtro",
+                idsReceta.stream().map(RecetaId::getValue).collect(Collectors.toList()), max);
+    }
+
+    @Override
+    @Transactional
+    public List<Valoracion> deleteBatchByUsuario(UsuarioId idUsuario, int max) {
+        return borrarLote("v.usuario.idUsuario = :filtro", idUsuario.getValue(), max);
+    }
+
+    @Override
+    @Transactional
+    public List<ValoracionId> purgeDeleted(LocalDateTime deletedBefore, int afterId, int max) {
+        List<Integer> ids = em.createQuery(
+                "SELECT v.idValoracion FROM ValoracionEntity v " +
+                "WHERE v.idValoracion > :ultimo AND v.fEliminacion IS NOT NULL AND v.fEliminacion < :limite " +
+                "ORDER BY v.idValoracion", Integer.class)
+            .setParameter("ultimo", afterId)
+            .setParameter("limite", deletedBefore)
+            .setMaxResults(max)
+            .getResultList();
+        if (!ids.isEmpty()) {
+            em.createQuery("DELETE FROM ValoracionEntity v WHERE v.idValoracion IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        }
+        return ids.stream().map(ValoracionId::of).collect(Collectors.toList());
+    }
+
+    /**
+     * Lee como mucho max valoraciones que cumplen el filtro, solo sus columnas para no cargar
+     * los usuarios, y las borra con un DELETE por ids.
+     * @param filtro Condición JPQL sobre v con el parámetro :filtro
+     */
+    private List<Valoracion> borrarLote(String filtro, Object valor, int max) {
+        List<Object[]> filas = em.createQuery(
+                "SELECT v.idValoracion, v.receta.idReceta, v.usuario.idUsuario, v.tipo, v.fCreacion, v.fEliminacion " +
+                "FROM ValoracionEntity v WHERE " + filtro + " ORDER BY v.idValoracion", Object[].class)
+            .setParameter("filtro", valor)
+            .setMaxResults(max)
+            .getResultList();
+        if (filas.isEmpty()) {
+            return List.of();
+        }
+        List<Valoracion> borradas = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            borradas.add(new Valoracion(ValoracionId.of((Integer) fila[0]), RecetaId.of((Integer) fila[1]),
+                    UsuarioId.of((Integer) fila[2]), ((TipoValoracion) fila[3]).getValue(),
+                    (LocalDateTime) fila[4], (LocalDateTime) fila[5]));
+        }
+        em.createQuery("DELETE FROM ValoracionEntity v WHERE v.idValoracion IN :ids")
+            .setParameter("ids", borradas.stream().map(v -> v.getId().getValue()).collect(Collectors.toList()))
+            .executeUpdate();
+        return borradas;
+    }
+
+    private Map<String, Object> datosEvento(ValoracionEntity entity) {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("idReceta", entity.receta != null ? entity.receta.idReceta : null);
+        datos.put("idUsuario", entity.usuario != null ? entity.usuario.idUsuario : null);
+        datos.put("tipo", entity.tipo.getValue());
+        datos.put("activa", entity.estaActiva());
+        return datos;
+    }
+
     // Mappers
 
     private Valoracion toDomain(ValoracionEntity entity) {
@@ -235,7 +455,7 @@ private Valoracion toDomain(ValoracionEntity entity) {
                 ValoracionId.of(entity.idValoracion),
                 RecetaId.of(entity.receta.idReceta),
                 UsuarioId.of(entity.usuario.idUsuario),
-                entity.tipo,
+                entity.tipo.getValue(),
                 entity.fCreacion,
                 entity.fEliminacion
         );
@@ -248,13 +468,13 @@ private ValoracionEntity toEntity(Valoracion domain) {
         }
         entity.receta = em.find(RecetaEntity.class, domain.getIdReceta().getValue());
         entity.usuario = em.find(UsuarioEntity.class, domain.getIdUsuario().getValue());
-        entity.tipo = domain.getTipo();
+        entity.tipo = domain.getTipoValoracion();
         entity.fEliminacion = domain.getFEliminacion();
         return entity;
     }
 
     private void updateEntity(ValoracionEntity entity, Valoracion domain) {
-        entity.tipo = domain.getTipo();
+        entity.tipo = domain.getTipoValoracion();
         entity.fEliminacion = domain.getFEliminacion();
     }
 }
@@ -0,0 +1,489 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.metrics.Measured;
+import es.rtur.pruebas.recipes.domain.entity.TipoValoracion;
+import es.rtur.pruebas.recipes.domain.entity.Valoracion;
+import es.rtur.pruebas.recipes.domain.repository.ValoracionRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionCount;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionId;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxEvento;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxWriter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación de ValoracionRepository repartida en varios datasources ({@link ShardsValoraciones})
+ * por hash del id de la receta.
+ *
+ * Las consultas de una receta van a un único shard. Las consultas que cruzan recetas (por usuario,
+ * por id de valoración, más valoradas) se lanzan en paralelo a todos los shards y se combinan;
+ * las de varias recetas conocidas se agrupan por shard y solo consultan los shards implicados.
+ * RN-04 se mantiene con la restricción única (id_receta, id_usuario) de cada shard, ya que todas
+ * las valoraciones de una receta están en el mismo shard.
+ *
+ * Se activa seleccionando la alternativa:
+ * {@code quarkus.arc.selected-alternatives=es.rtur.pruebas.recipes.infrastructure.persistence.ValoracionRepositoryShardeado}.
+ * El evento del outbox se escribe en el datasource principal después de confirmar la fila en el
+ * shard: si la transacción principal falla después, la valoración queda guardada sin su evento.
+ * Igual con los borrados masivos (borrado de recetas y de usuarios, purga): se confirman en el
+ * shard aunque la transacción principal se revierta, y la siguiente pasada no los repite.
+ *
+ * Durante un rebalanceo ({@link RebalanceoValoracionesJob}) las consultas de una receta ya van a
+ * su shard nuevo aunque sus filas sigan en el antiguo: hasta que se copian, la receta aparece sin
+ * valoraciones y un usuario puede volver a valorarla; al copiar, el rebalanceo conserva la fila
+ * del destino y descarta la antigua. Las consultas que recorren todos los shards (por usuario,
+ * por id) sí ven las filas pendientes. Por eso el rebalanceo debe terminar antes de abrir el tráfico.
+ */
+@Alternative
+@ApplicationScoped
+@Measured(Measured.Layer.REPOSITORY)
+public class ValoracionRepositoryShardeado implements ValoracionRepository {
+
+    private static final String SELECT = "SELECT " + ShardsValoraciones.COLUMNAS + " FROM valoraciones ";
+
+    /** Valoraciones por DELETE al borrar todas las de unas recetas (acota la lista de ids de cada sentencia) */
+    private static final int LOTE_BORRADO = 1000;
+
+    @Inject
+    ShardsValoraciones shards;
+
+    @Inject
+    OutboxWriter outbox;
+
+    /**
+     * Busca las valoraciones activas de un usuario en todos los shards.
+     * @param idUsuario ID del usuario
+     * @return Valoraciones activas, de la más reciente a la más antigua
+     */
+    public List<Valoracion> findByUsuario(Integer idUsuario) {
+        List<Valoracion> valoraciones = new ArrayList<>();
+        for (List<Valoracion> parcial : shards.enTodos(conexion -> consultar(conexion,
+                SELECT + "WHERE id_usuario = ? AND f_eliminacion IS NULL", idUsuario))) {
+            valoraciones.addAll(parcial);
+        }
+        valoraciones.sort(Comparator.comparing(Valoracion::getFCreacion).reversed());
+        return valoraciones;
+    }
+
+    /**
+     * Obtiene las recetas más valoradas (likes - dislikes).
+     * Cada shard devuelve su top; como una receta está entera en un shard, el top global
+     * está contenido en la unión de los tops parciales.
+     * @param limit Número máximo de recetas
+     * @return Lista de IDs de recetas ordenadas por popularidad
+     */
+    public List<Integer> getRecetasMasValoradas(int limit) {
+        List<int[]> puntuaciones = new ArrayList<>();
+        for (List<int[]> parcial : shards.enTodos(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "SELECT id_receta, SUM(CASE WHEN tipo = ? THEN 1 ELSE -1 END) AS puntuacion " +
+                    "FROM valoraciones WHERE f_eliminacion IS NULL " +
+                    "GROUP BY id_receta ORDER BY puntuacion DESC, id_receta LIMIT ?")) {
+                ps.setShort(1, TipoValoracion.LIKE.getCode());
+                ps.setInt(2, limit);
+                List<int[]> filas = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        filas.add(new int[] {rs.getInt(1), rs.getInt(2)});
+                    }
+                }
+                return filas;
+            }
+        })) {
+            puntuaciones.addAll(parcial);
+        }
+        return puntuaciones.stream()
+                .sorted(Comparator.<int[]>comparingInt(fila -> -fila[1]).thenComparingInt(fila -> fila[0]))
+                .limit(limit)
+                .map(fila -> fila[0])
+                .collect(Collectors.toList());
+    }
+
+    // Domain Repository Implementation
+
+    @Override
+    @Transactional
+    public Valoracion save(Valoracion valoracion) {
+        Integer idReceta = valoracion.getIdReceta().getValue();
+        Valoracion guardada = shards.enShard(shards.shardDe(idReceta), conexion -> {
+            if (valoracion.getId() != null && actualizar(conexion, valoracion)) {
+                return valoracion;
+            }
+            return insertar(conexion, valoracion);
+        });
+        String tipoEvento = guardada == valoracion ? OutboxEvento.EVENTO_ACTUALIZADO : OutboxEvento.EVENTO_CREADO;
+        outbox.registrar(OutboxEvento.AGREGADO_VALORACION, guardada.getId().getValue(), tipoEvento, datosEvento(guardada));
+        return guardada;
+    }
+
+    @Override
+    public Optional<Valoracion> findById(ValoracionId id) {
+        return primera(shards.enTodos(conexion -> consultar(conexion,
+                SELECT + "WHERE id_valoracion = ?", id.getValue())));
+    }
+
+    @Override
+    public Optional<Valoracion> findByRecetaAndUsuario(RecetaId idReceta, UsuarioId idUsuario) {
+        return shards.enShard(shards.shardDe(idReceta.getValue()), conexion -> consultar(conexion,
+                SELECT + "WHERE id_receta = ? AND id_usuario = ? AND f_eliminacion IS NULL",
+                idReceta.getValue(), idUsuario.getValue())).stream().findFirst();
+    }
+
+    @Override
+    public List<Valoracion> findByReceta(RecetaId idReceta) {
+        return shards.enShard(shards.shardDe(idReceta.getValue()), conexion -> consultar(conexion,
+                SELECT + "WHERE id_receta = ?", idReceta.getValue()));
+    }
+
+    @Override
+    public List<Valoracion> findActiveByReceta(RecetaId idReceta) {
+        return shards.enShard(shards.shardDe(idReceta.getValue()), conexion -> consultar(conexion,
+                SELECT + "WHERE id_receta = ? AND f_eliminacion IS NULL", idReceta.getValue()));
+    }
+
+    @Override
+    public long countLikesByReceta(RecetaId idReceta) {
+        return contarPorTipo(idReceta.getValue(), TipoValoracion.LIKE);
+    }
+
+    @Override
+    public long countDislikesByReceta(RecetaId idReceta) {
+        return contarPorTipo(idReceta.getValue(), TipoValoracion.DISLIKE);
+    }
+
+    @Override
+    public Map<RecetaId, ValoracionCount> countByRecetas(Collection<RecetaId> idsReceta) {
+        if (idsReceta.isEmpty()) {
+            return Map.of();
+        }
+        List<Integer> ids = idsReceta.stream().map(RecetaId::getValue).collect(Collectors.toList());
+        Map<RecetaId, ValoracionCount> conteos = new HashMap<>();
+        for (Map<RecetaId, ValoracionCount> parcial : shards.porGrupos(shards.agruparPorShard(ids), (conexion, grupo) -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "SELECT id_receta, " +
+                    "SUM(CASE WHEN tipo = ? THEN 1 ELSE 0 END), " +
+                    "SUM(CASE WHEN tipo = ? THEN 1 ELSE 0 END) " +
+                    "FROM valoraciones WHERE id_receta IN (" + marcadores(grupo.size()) + ") " +
+                    "AND f_eliminacion IS NULL GROUP BY id_receta")) {
+                ps.setShort(1, TipoValoracion.LIKE.getCode());
+                ps.setShort(2, TipoValoracion.DISLIKE.getCode());
+                asignar(ps, 3, grupo);
+                Map<RecetaId, ValoracionCount> filas = new HashMap<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        filas.put(RecetaId.of(rs.getInt(1)), ValoracionCount.of(rs.getLong(2), rs.getLong(3)));
+                    }
+                }
+                return filas;
+            }
+        })) {
+            conteos.putAll(parcial);
+        }
+        return conteos;
+    }
+
+    @Override
+    public Map<RecetaId, String> findTiposByUsuarioAndRecetas(UsuarioId idUsuario, Collection<RecetaId> idsReceta) {
+        if (idsReceta.isEmpty()) {
+            return Map.of();
+        }
+        List<Integer> ids = idsReceta.stream().map(RecetaId::getValue).collect(Collectors.toList());
+        Map<RecetaId, String> tipos = new HashMap<>();
+        for (Map<RecetaId, String> parcial : shards.porGrupos(shards.agruparPorShard(ids), (conexion, grupo) ->
+                consultarTipos(conexion, "WHERE id_usuario = ? AND f_eliminacion IS NULL " +
+                        "AND id_receta IN (" + marcadores(grupo.size()) + ")", idUsuario.getValue(), grupo))) {
+            tipos.putAll(parcial);
+        }
+        return tipos;
+    }
+
+    @Override
+    public Map<RecetaId, String> findTiposByUsuario(UsuarioId idUsuario) {
+        Map<RecetaId, String> tipos = new HashMap<>();
+        for (Map<RecetaId, String> parcial : shards.enTodos(conexion ->
+                consultarTipos(conexion, "WHERE id_usuario = ? AND f_eliminacion IS NULL",
+                        idUsuario.getValue(), List.of()))) {
+            tipos.putAll(parcial);
+        }
+        return tipos;
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(ValoracionId id) {
+        Optional<Valoracion> valoracion = findById(id);
+        if (valoracion.isPresent()) {
+            int shard = shards.shardDe(valoracion.get().getIdReceta().getValue());
+            shards.enShard(shard, conexion -> {
+                try (PreparedStatement ps = conexion.prepareStatement("DELETE FROM valoraciones WHERE id_valoracion = ?")) {
+                    ps.setInt(1, id.getValue());
+                    return ps.executeUpdate();
+                }
+            });
+            outbox.registrar(OutboxEvento.AGREGADO_VALORACION, id.getValue(), OutboxEvento.EVENTO_ELIMINADO,
+                    datosEvento(valoracion.get()));
+        }
+    }
+
+    @Override
+    public boolean existsById(ValoracionId id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public List<Valoracion> deleteByRecetas(Collection<RecetaId> idsReceta) {
+        List<Valoracion> borradas = new ArrayList<>();
+        List<Valoracion> lote;
+        do {
+            lote = deleteBatchByRecetas(idsReceta, LOTE_BORRADO);
+            borradas.addAll(lote);
+        } while (lote.size() == LOTE_BORRADO);
+        return borradas;
+    }
+
+    @Override
+    public List<Valoracion> deleteBatchByRecetas(Collection<RecetaId> idsReceta, int max) {
+        List<Integer> ids = idsReceta.stream().map(RecetaId::getValue).collect(Collectors.toList());
+        List<Valoracion> borradas = new ArrayList<>();
+        for (Map.Entry<Integer, List<Integer>> grupo : shards.agruparPorShard(ids).entrySet()) {
+            int restantes = max - borradas.size();
+            if (restantes <= 0) {
+                break;
+            }
+            borradas.addAll(shards.enShard(grupo.getKey(), conexion -> borrarLote(conexion,
+                    "id_receta IN (" + marcadores(grupo.getValue().size()) + ")", grupo.getValue(), restantes)));
+        }
+        return borradas;
+    }
+
+    @Override
+    public List<Valoracion> deleteBatchByUsuario(UsuarioId idUsuario, int max) {
+        List<Valoracion> borradas = new ArrayList<>();
+        for (int shard = 0; shard < shards.getNumeroShards() && borradas.size() < max; shard++) {
+            int restantes = max - borradas.size();
+            borradas.addAll(shards.enShard(shard, conexion -> borrarLote(conexion,
+                    "id_usuario = ?", List.of(idUsuario.getValue()), restantes)));
+        }
+        return borradas;
+    }
+
+    /**
+     * Cada shard propone sus max primeros ids por encima de afterId; se borran los max menores
+     * de la unión, de modo que el recorrido por id es el mismo que con una sola tabla.
+     */
+    @Override
+    public List<ValoracionId> purgeDeleted(LocalDateTime deletedBefore, int afterId, int max) {
+        List<List<Integer>> candidatos = shards.enTodos(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "SELECT id_valoracion FROM valoraciones " +
+                    "WHERE id_valoracion > ? AND f_eliminacion IS NOT NULL AND f_eliminacion < ? " +
+                    "ORDER BY id_valoracion LIMIT ?")) {
+                ps.setInt(1, afterId);
+                ps.setTimestamp(2, Timestamp.valueOf(deletedBefore));
+                ps.setInt(3, max);
+                List<Integer> ids = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+                return ids;
+            }
+        });
+        List<Integer> lote = candidatos.stream().flatMap(List::stream).sorted().limit(max).collect(Collectors.toList());
+        if (lote.isEmpty()) {
+            return List.of();
+        }
+        int ultimo = lote.get(lote.size() - 1);
+        for (int shard = 0; shard < candidatos.size(); shard++) {
+            List<Integer> idsShard = candidatos.get(shard).stream().filter(id -> id <= ultimo).collect(Collectors.toList());
+            if (!idsShard.isEmpty()) {
+                shards.enShard(shard, conexion -> borrarPorIds(conexion, idsShard));
+            }
+        }
+        return lote.stream().map(ValoracionId::of).collect(Collectors.toList());
+    }
+
+    // JDBC
+
+    /**
+     * Lee como mucho max valoraciones del shard que cumplen el filtro y las borra por id.
+     */
+    private List<Valoracion> borrarLote(Connection conexion, String filtro, List<Integer> parametros, int max)
+            throws SQLException {
+        List<Valoracion> lote;
+        try (PreparedStatement ps = conexion.prepareStatement(
+                SELECT + "WHERE " + filtro + " ORDER BY id_valoracion LIMIT ?")) {
+            asignar(ps, 1, parametros);
+            ps.setInt(parametros.size() + 1, max);
+            lote = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    lote.add(toDomain(rs));
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            borrarPorIds(conexion, lote.stream().map(v -> v.getId().getValue()).collect(Collectors.toList()));
+        }
+        return lote;
+    }
+
+    private static int borrarPorIds(Connection conexion, List<Integer> ids) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "DELETE FROM valoraciones WHERE id_valoracion IN (" + marcadores(ids.size()) + ")")) {
+            asignar(ps, 1, ids);
+            return ps.executeUpdate();
+        }
+    }
+
+    private boolean actualizar(Connection conexion, Valoracion valoracion) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "UPDATE valoraciones SET tipo = ?, f_eliminacion = ? WHERE id_valoracion = ?")) {
+            ps.setShort(1, valoracion.getTipoValoracion().getCode());
+            ps.setTimestamp(2, timestamp(valoracion.getFEliminacion()));
+            ps.setInt(3, valoracion.getId().getValue());
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    private Valoracion insertar(Connection conexion, Valoracion valoracion) throws SQLException {
+        LocalDateTime fCreacion = valoracion.getFCreacion() != null ? valoracion.getFCreacion() : LocalDateTime.now();
+        boolean conId = valoracion.getId() != null;
+        String sql = conId
+                ? "INSERT INTO valoraciones (" + ShardsValoraciones.COLUMNAS + ") VALUES (?, ?, ?, ?, ?, ?)"
+                : "INSERT INTO valoraciones (id_receta, id_usuario, tipo, f_creacion, f_eliminacion) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = conexion.prepareStatement(sql, new String[] {"id_valoracion"})) {
+            int i = 1;
+            if (conId) {
+                ps.setInt(i++, valoracion.getId().getValue());
+            }
+            ps.setInt(i++, valoracion.getIdReceta().getValue());
+            ps.setInt(i++, valoracion.getIdUsuario().getValue());
+            ps.setShort(i++, valoracion.getTipoValoracion().getCode());
+            ps.setTimestamp(i++, Timestamp.valueOf(fCreacion));
+            ps.setTimestamp(i, timestamp(valoracion.getFEliminacion()));
+            ps.executeUpdate();
+            Integer id = conId ? valoracion.getId().getValue() : null;
+            if (!conId) {
+                try (ResultSet claves = ps.getGeneratedKeys()) {
+                    claves.next();
+                    id = claves.getInt(1);
+                }
+            }
+            return new Valoracion(ValoracionId.of(id), valoracion.getIdReceta(), valoracion.getIdUsuario(),
+                    valoracion.getTipo(), fCreacion, valoracion.getFEliminacion());
+        }
+    }
+
+    private long contarPorTipo(Integer idReceta, TipoValoracion tipo) {
+        return shards.enShard(shards.shardDe(idReceta), conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "SELECT COUNT(*) FROM valoraciones WHERE id_receta = ? AND tipo = ? AND f_eliminacion IS NULL")) {
+                ps.setInt(1, idReceta);
+                ps.setShort(2, tipo.getCode());
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            }
+        });
+    }
+
+    private List<Valoracion> consultar(Connection conexion, String sql, Integer... parametros) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                ps.setInt(i + 1, parametros[i]);
+            }
+            List<Valoracion> valoraciones = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    valoraciones.add(toDomain(rs));
+                }
+            }
+            return valoraciones;
+        }
+    }
+
+    private Map<RecetaId, String> consultarTipos(Connection conexion, String filtro, Integer idUsuario,
+                                                 List<Integer> idsReceta) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement("SELECT id_receta, tipo FROM valoraciones " + filtro)) {
+            ps.setInt(1, idUsuario);
+            asignar(ps, 2, idsReceta);
+            Map<RecetaId, String> tipos = new HashMap<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    tipos.put(RecetaId.of(rs.getInt(1)), TipoValoracion.fromCode(rs.getShort(2)).getValue());
+                }
+            }
+            return tipos;
+        }
+    }
+
+    private static void asignar(PreparedStatement ps, int desde, List<Integer> valores) throws SQLException {
+        for (int i = 0; i < valores.size(); i++) {
+            ps.setInt(desde + i, valores.get(i));
+        }
+    }
+
+    private static String marcadores(int cantidad) {
+        return String.join(", ", Collections.nCopies(cantidad, "?"));
+    }
+
+    private static Timestamp timestamp(LocalDateTime fecha) {
+        return fecha != null ? Timestamp.valueOf(fecha) : null;
+    }
+
+    private static Optional<Valoracion> primera(List<List<Valoracion>> resultados) {
+        for (List<Valoracion> parcial : resultados) {
+            if (!parcial.isEmpty()) {
+                return Optional.of(parcial.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Map<String, Object> datosEvento(Valoracion valoracion) {
+        Map<String, Object> datos = new LinkedHashMap<>();
+        datos.put("idReceta", valoracion.getIdReceta().getValue());
+        datos.put("idUsuario", valoracion.getIdUsuario().getValue());
+        datos.put("tipo", valoracion.getTipo());
+        datos.put("activa", valoracion.isActive());
+        return datos;
+    }
+
+    // Mappers
+
+    private static Valoracion toDomain(ResultSet rs) throws SQLException {
+        Timestamp fEliminacion = rs.getTimestamp("f_eliminacion");
+        return new Valoracion(
+                ValoracionId.of(rs.getInt("id_valoracion")),
+                RecetaId.of(rs.getInt("id_receta")),
+                UsuarioId.of(rs.getInt("id_usuario")),
+                TipoValoracion.fromCode(rs.getShort("tipo")).getValue(),
+                rs.getTimestamp("f_creacion").toLocalDateTime(),
+                fEliminacion != null ? fEliminacion.toLocalDateTime() : null
+        );
+    }
+}
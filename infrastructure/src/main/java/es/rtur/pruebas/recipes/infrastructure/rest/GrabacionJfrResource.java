@@ -0,0 +1,64 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import es.rtur.pruebas.recipes.infrastructure.metrics.GrabacionJfr;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.Duration;
+
+/**
+ * Grabación de JFR bajo demanda con el resumen de las operaciones más lentas.
+ */
+@Path("/jfr/grabacion")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Métricas", description = "Telemetría de la aplicación")
+public class GrabacionJfrResource {
+
+    private final GrabacionJfr grabacion;
+
+    @Inject
+    public GrabacionJfrResource(GrabacionJfr grabacion) {
+        this.grabacion = grabacion;
+    }
+
+    @POST
+    @Operation(summary = "Empezar una grabación de JFR",
+               description = "Graba los casos de uso y llamadas a repositorio que duran al menos umbralMs, y las operaciones de caché")
+    public Response iniciar(@QueryParam("umbralMs") @DefaultValue("0") long umbralMs,
+                            @QueryParam("lentas") @DefaultValue("20") int lentas) {
+        if (umbralMs < 0 || lentas < 1 || lentas > 1000) {
+            throw new BadRequestException("umbralMs debe ser >= 0 y lentas estar entre 1 y 1000");
+        }
+        if (!grabacion.iniciar(Duration.ofMillis(umbralMs), lentas)) {
+            return Response.status(Response.Status.CONFLICT)
+                    .type(MediaType.TEXT_PLAIN)
+                    .entity("Ya hay una grabación en curso")
+                    .build();
+        }
+        return Response.status(Response.Status.CREATED).entity(grabacion.resumen().orElseThrow()).build();
+    }
+
+    @GET
+    @Operation(summary = "Resumen de la grabación en curso o de la última")
+    public GrabacionJfr.Resumen resumen() {
+        return grabacion.resumen().orElseThrow(() -> new NotFoundException("No ha habido ninguna grabación"));
+    }
+
+    @DELETE
+    @Operation(summary = "Parar la grabación en curso", description = "Devuelve el resumen final")
+    public GrabacionJfr.Resumen detener() {
+        return grabacion.detener().orElseThrow(() -> new NotFoundException("No hay ninguna grabación en curso"));
+    }
+}
@@ -0,0 +1,67 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import es.rtur.pruebas.recipes.infrastructure.persistence.LecturaConsistente;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.NewCookie;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Read-your-writes con réplica de lectura: tras una escritura correcta (POST, PUT, PATCH o DELETE)
+ * el cliente recibe una cookie con el instante hasta el que debe leer del principal; mientras
+ * no caduque, sus peticiones activan {@link LecturaConsistente} y no se envían a la réplica.
+ * La ventana debe cubrir el retraso de replicación habitual.
+ */
+@Provider
+public class LecturaConsistenteFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String COOKIE = "recipes-rw";
+
+    private static final Set<String> ESCRITURAS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    @Inject
+    LecturaConsistente lecturaConsistente;
+
+    @ConfigProperty(name = "recipes.replica.sticky-window", defaultValue = "5s")
+    Duration ventana;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        Cookie cookie = request.getCookies().get(COOKIE);
+        if (cookie != null && hasta(cookie.getValue()) > System.currentTimeMillis()) {
+            lecturaConsistente.activar();
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        if (!ESCRITURAS.contains(request.getMethod()) || response.getStatus() >= 400) {
+            return;
+        }
+        long hasta = System.currentTimeMillis() + ventana.toMillis();
+        NewCookie cookie = new NewCookie.Builder(COOKIE)
+                .value(Long.toString(hasta))
+                .path("/")
+                .maxAge((int) Math.max(1, ventana.toSeconds()))
+                .httpOnly(true)
+                .build();
+        response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie);
+    }
+
+    private static long hasta(String valor) {
+        try {
+            return Long.parseLong(valor);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import es.rtur.pruebas.recipes.infrastructure.metrics.ExportadorPrometheus;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+/**
+ * Endpoint de métricas para Prometheus.
+ */
+@Path("/metrics")
+@Tag(name = "Métricas", description = "Telemetría de la aplicación")
+public class MetricasResource {
+
+    private final ExportadorPrometheus exportador;
+
+    @Inject
+    public MetricasResource(ExportadorPrometheus exportador) {
+        this.exportador = exportador;
+    }
+
+    @GET
+    @Produces(ExportadorPrometheus.CONTENT_TYPE)
+    @Operation(summary = "Métricas en formato de texto de Prometheus",
+               description = "Casos de uso, repositorios, Hibernate, pools de conexiones y memoria")
+    public String metricas() {
+        return exportador.exportar();
+    }
+}
@@ -0,0 +1,83 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import es.rtur.pruebas.recipes.application.dto.ComentarioDTO;
+import es.rtur.pruebas.recipes.application.dto.ValoracionDTO;
+import es.rtur.pruebas.recipes.application.usecase.CreateComentarioUseCase;
+import es.rtur.pruebas.recipes.application.usecase.CreateValoracionUseCase;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+
+/**
+ * Valorar y comentar recetas con el usuario indicado en la cabecera {@value #CABECERA_USUARIO}.
+ *
+ * La API no tiene autenticación, así que cualquiera podría actuar en nombre de cualquier
+ * usuario: el recurso solo existe en las compilaciones con
+ * {@code recipes.api.cabecera-usuario.enabled=true} (dev, test y las pruebas de carga) y
+ * no se publica en producción.
+ */
+@Path("/api/recetas")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Recetas", description = "Consulta de recetas, comentarios y valoraciones")
+@IfBuildProperty(name = "recipes.api.cabecera-usuario.enabled", stringValue = "true")
+public class RecetaEscrituraResource {
+
+    static final String CABECERA_USUARIO = "X-Usuario-Id";
+
+    private final CreateValoracionUseCase createValoracionUseCase;
+    private final CreateComentarioUseCase createComentarioUseCase;
+
+    @Inject
+    public RecetaEscrituraResource(CreateValoracionUseCase createValoracionUseCase,
+                                   CreateComentarioUseCase createComentarioUseCase) {
+        this.createValoracionUseCase = createValoracionUseCase;
+        this.createComentarioUseCase = createComentarioUseCase;
+    }
+
+    @POST
+    @Path("/{id}/valoraciones")
+    @Operation(summary = "Valorar una receta", description = "Crea o cambia el like/dislike del usuario (RN-04)")
+    public ValoracionDTO valorar(@PathParam("id") int id,
+                                 @HeaderParam(CABECERA_USUARIO) Integer idUsuario,
+                                 ValoracionDTO valoracion) {
+        if (valoracion == null) {
+            throw new BadRequestException("Falta el cuerpo de la valoración");
+        }
+        valoracion.setIdReceta(id);
+        return createValoracionUseCase.execute(valoracion, idUsuario);
+    }
+
+    @POST
+    @Path("/{id}/comentarios")
+    @Operation(summary = "Comentar una receta")
+    public Response comentar(@PathParam("id") int id,
+                             @HeaderParam(CABECERA_USUARIO) Integer idUsuario,
+                             ComentarioDTO comentario) {
+        if (comentario == null || comentario.getContenido() == null || comentario.getContenido().isBlank()) {
+            throw new BadRequestException("El comentario no puede estar vacío");
+        }
+        comentario.setIdReceta(id);
+        ComentarioDTO creado = createComentarioUseCase.execute(comentario, idUsuario);
+        return Response.status(Response.Status.CREATED).entity(creado).build();
+    }
+
+    /**
+     * Usuario ausente, receta inexistente o tipo de valoración desconocido.
+     */
+    @ServerExceptionMapper
+    public Response datosNoValidos(IllegalArgumentException e) {
+        return RecetaResource.peticionIncorrecta(e);
+    }
+}
@@ -0,0 +1,102 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import es.rtur.pruebas.recipes.application.dto.ComentarioPageDTO;
+import es.rtur.pruebas.recipes.application.dto.RecetaDTO;
+import es.rtur.pruebas.recipes.application.dto.RecetaResumenDTO;
+import es.rtur.pruebas.recipes.application.usecase.GetRecetaUseCase;
+import es.rtur.pruebas.recipes.application.usecase.ListComentariosUseCase;
+import es.rtur.pruebas.recipes.application.usecase.ListRecetasResumenUseCase;
+import es.rtur.pruebas.recipes.application.usecase.SearchRecetasUseCase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+
+import java.util.List;
+
+/**
+ * API de recetas: listado, búsqueda, detalle y comentarios. Valorar y comentar están en
+ * {@link RecetaEscrituraResource}, que solo se publica fuera de producción.
+ */
+@Path("/api/recetas")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Recetas", description = "Consulta de recetas, comentarios y valoraciones")
+public class RecetaResource {
+
+    private final ListRecetasResumenUseCase listRecetasResumenUseCase;
+    private final SearchRecetasUseCase searchRecetasUseCase;
+    private final GetRecetaUseCase getRecetaUseCase;
+    private final ListComentariosUseCase listComentariosUseCase;
+
+    @Inject
+    public RecetaResource(ListRecetasResumenUseCase listRecetasResumenUseCase,
+                          SearchRecetasUseCase searchRecetasUseCase,
+                          GetRecetaUseCase getRecetaUseCase,
+                          ListComentariosUseCase listComentariosUseCase) {
+        this.listRecetasResumenUseCase = listRecetasResumenUseCase;
+        this.searchRecetasUseCase = searchRecetasUseCase;
+        this.getRecetaUseCase = getRecetaUseCase;
+        this.listComentariosUseCase = listComentariosUseCase;
+    }
+
+    @GET
+    @Operation(summary = "Listar recetas", description = "Página de recetas, las más recientes primero")
+    public List<RecetaResumenDTO> listar(@QueryParam("dificultad") String dificultad,
+                                         @QueryParam("categoria") String categoria,
+                                         @QueryParam("pagina") @DefaultValue("0") int pagina,
+                                         @QueryParam("tamano") Integer tamano) {
+        return listRecetasResumenUseCase.execute(dificultad, categoria, pagina, tamano);
+    }
+
+    @GET
+    @Path("/buscar")
+    @Operation(summary = "Buscar recetas", description = "Recetas cuyo nombre contiene el texto")
+    public List<RecetaDTO> buscar(@QueryParam("q") String texto) {
+        return searchRecetasUseCase.execute(texto);
+    }
+
+    @GET
+    @Path("/{id}")
+    @Operation(summary = "Detalle de una receta")
+    public RecetaDTO detalle(@PathParam("id") int id) {
+        try {
+            return getRecetaUseCase.execute(id);
+        } catch (IllegalArgumentException e) {
+            throw new NotFoundException(e.getMessage());
+        }
+    }
+
+    @GET
+    @Path("/{id}/comentarios")
+    @Operation(summary = "Comentarios de una receta", description = "Paginación por cursor, los más recientes primero")
+    public ComentarioPageDTO comentarios(@PathParam("id") int id,
+                                         @QueryParam("cursor") String cursor,
+                                         @QueryParam("limite") Integer limite) {
+        return listComentariosUseCase.executePage(id, cursor, limite);
+    }
+
+    /**
+     * Los casos de uso señalan con IllegalArgumentException los datos no válidos
+     * (página negativa, tamaño fuera de rango, cursor incorrecto...).
+     */
+    @ServerExceptionMapper
+    public Response datosNoValidos(IllegalArgumentException e) {
+        return peticionIncorrecta(e);
+    }
+
+    static Response peticionIncorrecta(IllegalArgumentException e) {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .type(MediaType.TEXT_PLAIN)
+                .entity(e.getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,138 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import es.rtur.pruebas.recipes.application.metrics.RequestTiming;
+import io.quarkus.vertx.http.runtime.CurrentVertxRequest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Desglose de tiempos de una muestra de las peticiones: casos de uso, sentencias JDBC, espera
+ * por conexión y serialización de la respuesta. Se devuelve en la cabecera Server-Timing (la
+ * muestran las herramientas de desarrollo del navegador) y en una línea clave=valor en la
+ * categoría de log {@value #CATEGORIA_LOG}.
+ *
+ * Para poder incluir la serialización en la cabecera, el cuerpo de las peticiones muestreadas
+ * se serializa primero en memoria y se escribe después de añadirla. Quarkus REST ya ha pasado
+ * las cabeceras de la respuesta a Vert.x al terminar el writer, así que esta se añade
+ * directamente en la respuesta de Vert.x, que aún no se ha enviado. Las peticiones no
+ * muestreadas y los streams SSE no pasan por ese camino.
+ */
+@Provider
+public class TiemposServidorFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    static final String CABECERA = "Server-Timing";
+    static final String CATEGORIA_LOG = "recipes.acceso";
+
+    private static final Logger LOG = Logger.getLogger(CATEGORIA_LOG);
+    private static final String PROPIEDAD = Muestra.class.getName();
+
+    @ConfigProperty(name = "recipes.server-timing.sample-rate", defaultValue = "0")
+    double tasa;
+
+    @Inject
+    CurrentVertxRequest peticionVertx;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (!muestrear() || request.getAcceptableMediaTypes().contains(MediaType.SERVER_SENT_EVENTS_TYPE)) {
+            RequestTiming.clear();
+            return;
+        }
+        request.setProperty(PROPIEDAD, new Muestra(RequestTiming.start(), request.getMethod(),
+                request.getUriInfo().getPath()));
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        Muestra muestra = (Muestra) request.getProperty(PROPIEDAD);
+        if (muestra == null) {
+            return;
+        }
+        muestra.estado = response.getStatus();
+        if (!response.hasEntity()) {
+            response.getHeaders().add(CABECERA, cabecera(muestra.tiempos));
+            terminar(muestra);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        Muestra muestra = (Muestra) context.getProperty(PROPIEDAD);
+        if (muestra == null) {
+            context.proceed();
+            return;
+        }
+        OutputStream salida = context.getOutputStream();
+        ByteArrayOutputStream cuerpo = new ByteArrayOutputStream();
+        context.setOutputStream(cuerpo);
+        long inicio = System.nanoTime();
+        try {
+            context.proceed();
+        } finally {
+            context.setOutputStream(salida);
+        }
+        muestra.tiempos.addSerialization(System.nanoTime() - inicio);
+        peticionVertx.getCurrent().response().putHeader(CABECERA, cabecera(muestra.tiempos));
+        cuerpo.writeTo(salida);
+        terminar(muestra);
+    }
+
+    private boolean muestrear() {
+        return tasa >= 1 || (tasa > 0 && ThreadLocalRandom.current().nextDouble() < tasa);
+    }
+
+    /**
+     * Métricas de Server-Timing: app (casos de uso, incluye db), db (ejecución de sentencias),
+     * pool (espera por conexión), ser (serialización) y total (hasta ahora).
+     */
+    static String cabecera(RequestTiming tiempos) {
+        return String.format(Locale.ROOT,
+                "app;dur=%.2f;desc=\"%d casos de uso\", db;dur=%.2f;desc=\"%d sentencias\", pool;dur=%.2f, ser;dur=%.2f, total;dur=%.2f",
+                ms(tiempos.useCaseNanos()), tiempos.useCases(), ms(tiempos.statementNanos()), tiempos.statements(),
+                ms(tiempos.connectionWaitNanos()), ms(tiempos.serializationNanos()), ms(tiempos.elapsedNanos()));
+    }
+
+    private static void terminar(Muestra muestra) {
+        RequestTiming tiempos = muestra.tiempos;
+        if (LOG.isInfoEnabled()) {
+            LOG.info(String.format(Locale.ROOT,
+                    "metodo=%s ruta=%s estado=%d total_ms=%.2f casos_uso_ms=%.2f casos_uso=%d db_ms=%.2f sentencias=%d pool_ms=%.2f serializacion_ms=%.2f",
+                    muestra.metodo, muestra.ruta, muestra.estado, ms(tiempos.elapsedNanos()),
+                    ms(tiempos.useCaseNanos()), tiempos.useCases(), ms(tiempos.statementNanos()), tiempos.statements(),
+                    ms(tiempos.connectionWaitNanos()), ms(tiempos.serializationNanos())));
+        }
+        RequestTiming.clear();
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Muestra {
+        private final RequestTiming tiempos;
+        private final String metodo;
+        private final String ruta;
+        private int estado;
+
+        Muestra(RequestTiming tiempos, String metodo, String ruta) {
+            this.tiempos = tiempos;
+            this.metodo = metodo;
+            this.ruta = ruta;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import es.rtur.pruebas.recipes.application.metrics.Span;
+import es.rtur.pruebas.recipes.application.metrics.Trace;
+import es.rtur.pruebas.recipes.application.metrics.Tracer;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Empieza una traza para una muestra de las peticiones ({@code recipes.tracing.sample-rate}) y
+ * para todas las que llegan con una cabecera traceparent muestreada, continuando la traza del
+ * llamante. El tramo raíz lleva la ruta, el estado HTTP, los parámetros de la ruta y el usuario
+ * de la cabecera {@value RecetaEscrituraResource#CABECERA_USUARIO}; la serialización de la respuesta es
+ * un tramo propio. La respuesta devuelve el id de la traza en la cabecera {@value #CABECERA_RESPUESTA}
+ * (W3C Trace Context nivel 2) para buscarla en /trazas.
+ *
+ * Se ejecuta antes que el resto de filtros para que la traza los incluya. Los streams SSE y las
+ * consultas a /trazas no se trazan.
+ */
+@Provider
+@Priority(Priorities.USER - 100)
+public class TrazasFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    static final String CABECERA = "traceparent";
+    static final String CABECERA_RESPUESTA = "traceresponse";
+
+    /** version-traceid-parentid-flags, con el bit 0 de flags a 1 si el llamante la muestrea. */
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+    private static final String PROPIEDAD = Trace.class.getName();
+    private static final String RUTA_PROPIA = "/trazas";
+
+    private final Tracer tracer;
+
+    @Inject
+    public TrazasFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        Trace.clear();
+        if (request.getAcceptableMediaTypes().contains(MediaType.SERVER_SENT_EVENTS_TYPE)
+                || request.getUriInfo().getPath().startsWith(RUTA_PROPIA)) {
+            return;
+        }
+        String traceId = null;
+        String padre = null;
+        String traceparent = request.getHeaderString(CABECERA);
+        Matcher cabecera = traceparent == null ? null : TRACEPARENT.matcher(traceparent);
+        if (cabecera != null && cabecera.matches() && !cabecera.group(1).matches("0+")) {
+            if ((Integer.parseInt(cabecera.group(3), 16) & 1) == 1) {
+                traceId = cabecera.group(1);
+                padre = cabecera.group(2);
+            }
+        }
+        if (traceId == null && !tracer.sample()) {
+            return;
+        }
+        MultivaluedMap<String, String> parametros = request.getUriInfo().getPathParameters();
+        String ruta = ruta(request.getUriInfo().getPath(), parametros);
+        Trace traza = tracer.start(traceId, padre, request.getMethod() + " " + ruta, Span.Kind.SERVER);
+        Span raiz = traza.root()
+            .attribute("http.request.method", request.getMethod())
+            .attribute("http.route", ruta)
+            .attribute("url.path", request.getUriInfo().getPath());
+        for (Map.Entry<String, List<String>> parametro : parametros.entrySet()) {
+            raiz.attribute("recipes." + parametro.getKey(), parametro.getValue().get(0));
+        }
+        raiz.attribute("recipes.idUsuario", request.getHeaderString(RecetaEscrituraResource.CABECERA_USUARIO));
+        request.setProperty(PROPIEDAD, traza);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        Trace traza = (Trace) request.getProperty(PROPIEDAD);
+        if (traza == null) {
+            return;
+        }
+        Span raiz = traza.root();
+        raiz.attribute("http.response.status_code", response.getStatus());
+        if (response.getStatus() >= 500) {
+            raiz.error(Integer.toString(response.getStatus()));
+        }
+        response.getHeaders().add(CABECERA_RESPUESTA, "00-" + traza.traceId() + "-" + raiz.spanId() + "-01");
+        if (!response.hasEntity()) {
+            tracer.finish(traza);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        Trace traza = (Trace) context.getProperty(PROPIEDAD);
+        if (traza == null) {
+            context.proceed();
+            return;
+        }
+        Span serializacion = traza.startSpan("serialize", Span.Kind.INTERNAL);
+        try {
+            context.proceed();
+        } finally {
+            traza.end(serializacion);
+            tracer.finish(traza);
+        }
+    }
+
+    /**
+     * Plantilla de la ruta, sustituyendo los segmentos que coinciden con un parámetro por su
+     * nombre: /api/recetas/42/valoraciones con id=42 da /api/recetas/{id}/valoraciones.
+     */
+    static String ruta(String path, MultivaluedMap<String, String> parametros) {
+        if (parametros.isEmpty()) {
+            return path;
+        }
+        String[] segmentos = path.split("/", -1);
+        for (int i = 0; i < segmentos.length; i++) {
+            for (Map.Entry<String, List<String>> parametro : parametros.entrySet()) {
+                if (parametro.getValue().contains(segmentos[i])) {
+                    segmentos[i] = "{" + parametro.getKey() + "}";
+                    break;
+                }
+            }
+        }
+        return String.join("/", segmentos);
+    }
+}
@@ -0,0 +1,100 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import es.rtur.pruebas.recipes.infrastructure.metrics.AlmacenTrazas;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Consulta de las últimas trazas guardadas en memoria, para ver en local la cascada de una
+ * petición lenta sin un colector.
+ */
+@Path("/trazas")
+@Tag(name = "Métricas", description = "Telemetría de la aplicación")
+public class TrazasResource {
+
+    /** Ancho en caracteres de la barra que representa la traza entera en la cascada de texto. */
+    static final int ANCHO_CASCADA = 60;
+
+    private final AlmacenTrazas almacen;
+
+    @Inject
+    public TrazasResource(AlmacenTrazas almacen) {
+        this.almacen = almacen;
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Últimas trazas",
+               description = "Las más recientes primero, filtradas por duración mínima y por texto del nombre (p. ej. CreateValoracionUseCase)")
+    public List<AlmacenTrazas.ResumenTraza> buscar(@QueryParam("minMs") @DefaultValue("0") double minMs,
+                                                   @QueryParam("nombre") String nombre,
+                                                   @QueryParam("limite") @DefaultValue("50") int limite) {
+        if (minMs < 0 || limite < 1 || limite > 1000) {
+            throw new BadRequestException("minMs debe ser >= 0 y limite estar entre 1 y 1000");
+        }
+        return almacen.buscar(minMs, nombre, limite);
+    }
+
+    @GET
+    @Path("/{traceId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Traza con todos sus tramos", description = "Inicio de cada tramo relativo al de la traza")
+    public AlmacenTrazas.Traza traza(@PathParam("traceId") String traceId) {
+        return almacen.traza(traceId).orElseThrow(() -> new NotFoundException("No se encuentra la traza " + traceId));
+    }
+
+    @GET
+    @Path("/{traceId}/cascada")
+    @Produces(MediaType.TEXT_PLAIN)
+    @Operation(summary = "Cascada de la traza en texto", description = "Un tramo por línea, sangrado por nivel")
+    public String cascada(@PathParam("traceId") String traceId) {
+        return cascada(traza(traceId));
+    }
+
+    /**
+     * Un tramo por línea: inicio y duración en ms, una barra proporcional a la duración
+     * desplazada según el inicio, y el nombre sangrado según la profundidad, con sus atributos.
+     */
+    static String cascada(AlmacenTrazas.Traza traza) {
+        Map<String, Integer> profundidad = new HashMap<>();
+        double total = Math.max(traza.duracionMs(), 0.001);
+        StringBuilder texto = new StringBuilder(String.format(Locale.ROOT, "%s %s %.2f ms, %d sentencias%n",
+            traza.traceId(), traza.nombre(), traza.duracionMs(), traza.sentencias()));
+        for (AlmacenTrazas.Tramo tramo : traza.tramos()) {
+            int nivel = tramo.padre() == null ? 0 : profundidad.getOrDefault(tramo.padre(), 0) + 1;
+            profundidad.put(tramo.spanId(), nivel);
+            int desde = (int) Math.min(ANCHO_CASCADA - 1, Math.round(tramo.inicioMs() / total * ANCHO_CASCADA));
+            int largo = (int) Math.max(1, Math.round(tramo.duracionMs() / total * ANCHO_CASCADA));
+            largo = Math.min(largo, ANCHO_CASCADA - desde);
+            texto.append(String.format(Locale.ROOT, "%9.2f %9.2f |%s%s%s| %s%s",
+                tramo.inicioMs(), tramo.duracionMs(), " ".repeat(desde), "=".repeat(largo),
+                " ".repeat(ANCHO_CASCADA - desde - largo), "  ".repeat(nivel), tramo.nombre()));
+            if (!tramo.atributos().isEmpty()) {
+                texto.append(' ').append(tramo.atributos());
+            }
+            if (tramo.error() != null) {
+                texto.append(" ERROR ").append(tramo.error());
+            }
+            texto.append('\n');
+        }
+        if (traza.tramosDescartados() > 0) {
+            texto.append(String.format(Locale.ROOT, "(%d tramos descartados)%n", traza.tramosDescartados()));
+        }
+        return texto.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import es.rtur.pruebas.recipes.infrastructure.sse.ContadorValoraciones;
+import es.rtur.pruebas.recipes.infrastructure.sse.ValoracionCountBroadcaster;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Stream SSE de contadores de likes/dislikes (RF-04).
+ * El endpoint devuelve un Multi, por lo que se atiende en el event loop de Vert.x
+ * sin reservar un hilo por conexión.
+ */
+@Path("/api/recetas/valoraciones")
+@Tag(name = "Valoraciones", description = "Likes y dislikes de recetas")
+public class ValoracionStreamResource {
+
+    private final ValoracionCountBroadcaster broadcaster;
+    private final int maxRecetas;
+
+    @Inject
+    public ValoracionStreamResource(ValoracionCountBroadcaster broadcaster,
+                                    @ConfigProperty(name = "recipes.sse.valoraciones.max-recetas", defaultValue = "100")
+                                    int maxRecetas) {
+        this.broadcaster = broadcaster;
+        this.maxRecetas = maxRecetas;
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Stream de contadores de valoraciones",
+               description = "Emite los contadores actuales y, después, como mucho un evento por receta y ventana")
+    public Multi<ContadorValoraciones> stream(@QueryParam("receta") List<Integer> idsReceta) {
+        if (idsReceta == null || idsReceta.isEmpty()) {
+            throw new BadRequestException("Debe indicarse al menos una receta");
+        }
+        Set<Integer> ids = new LinkedHashSet<>(idsReceta);
+        if (ids.size() > maxRecetas) {
+            throw new BadRequestException("Máximo " + maxRecetas + " recetas por suscripción");
+        }
+        for (Integer id : ids) {
+            if (id == null || id <= 0) {
+                throw new BadRequestException("ID de receta no válido: " + id);
+            }
+        }
+        return broadcaster.suscribir(ids);
+    }
+}
@@ -0,0 +1,22 @@
+package es.rtur.pruebas.recipes.infrastructure.sse;
+
+/**
+ * Evento SSE con los contadores de likes/dislikes de una receta.
+ */
+public class ContadorValoraciones {
+
+    private final Integer idReceta;
+    private final long likes;
+    private final long dislikes;
+
+    public ContadorValoraciones(Integer idReceta, long likes, long dislikes) {
+        this.idReceta = idReceta;
+        this.likes = likes;
+        this.dislikes = dislikes;
+    }
+
+    public Integer getIdReceta() { return idReceta; }
+    public long getLikes() { return likes; }
+    public long getDislikes() { return dislikes; }
+    public long getTotal() { return likes + dislikes; }
+}
@@ -0,0 +1,151 @@
+package es.rtur.pruebas.recipes.infrastructure.sse;
+
+import es.rtur.pruebas.recipes.application.event.DomainEvent;
+import es.rtur.pruebas.recipes.application.event.DomainEventHandler;
+import es.rtur.pruebas.recipes.application.event.ValoracionCambiada;
+import es.rtur.pruebas.recipes.application.usecase.GetValoracionesUseCase;
+import es.rtur.pruebas.recipes.application.usecase.GetValoracionesUseCase.ValoracionSummary;
+import es.rtur.pruebas.recipes.infrastructure.persistence.LecturaConsistente;
+import io.quarkus.scheduler.Scheduled;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Difunde por SSE los contadores de valoraciones de las recetas a las que se suscriben los clientes.
+ *
+ * Las suscripciones se guardan en un mapa concurrente idReceta → emisores. Los eventos
+ * ValoracionCambiada solo marcan la receta como pendiente; una tarea periódica recoge las
+ * pendientes, consulta sus contadores con una única consulta agrupada y emite un evento por
+ * receta. Así cada receta genera como mucho un evento por ventana, lleguen los votos que lleguen,
+ * y las suscripciones inactivas no ocupan ningún hilo.
+ *
+ * Los contadores se leen del principal: la ventana sigue de cerca al voto y una réplica retrasada
+ * difundiría el contador anterior, que no se corregiría hasta el siguiente cambio de la receta.
+ */
+@ApplicationScoped
+public class ValoracionCountBroadcaster implements DomainEventHandler {
+
+    private static final Logger LOG = Logger.getLogger(ValoracionCountBroadcaster.class);
+
+    private final Map<Integer, Set<MultiEmitter<? super ContadorValoraciones>>> suscripciones = new ConcurrentHashMap<>();
+    private final Set<Integer> pendientes = ConcurrentHashMap.newKeySet();
+
+    @Inject
+    GetValoracionesUseCase getValoracionesUseCase;
+
+    @Inject
+    LecturaConsistente lecturaConsistente;
+
+    @ConfigProperty(name = "recipes.sse.valoraciones.enabled", defaultValue = "true")
+    boolean enabled;
+
+    /**
+     * Crea el flujo de eventos de un cliente. Al suscribirse, las recetas se marcan como
+     * pendientes para que el cliente reciba los contadores actuales en la siguiente ventana.
+     * @param idsReceta Recetas a las que se suscribe el cliente
+     * @return Flujo de contadores; se da de baja al cancelarse o cerrarse la conexión
+     */
+    public Multi<ContadorValoraciones> suscribir(Set<Integer> idsReceta) {
+        return Multi.createFrom().emitter(emitter -> {
+            for (Integer idReceta : idsReceta) {
+                suscripciones.compute(idReceta, (id, emisores) -> {
+                    Set<MultiEmitter<? super ContadorValoraciones>> set =
+                            emisores != null ? emisores : ConcurrentHashMap.newKeySet();
+                    set.add(emitter);
+                    return set;
+                });
+            }
+            pendientes.addAll(idsReceta);
+            emitter.onTermination(() -> cancelar(idsReceta, emitter));
+        });
+    }
+
+    private void cancelar(Set<Integer> idsReceta, MultiEmitter<? super ContadorValoraciones> emitter) {
+        for (Integer idReceta : idsReceta) {
+            suscripciones.computeIfPresent(idReceta, (id, emisores) -> {
+                emisores.remove(emitter);
+                return emisores.isEmpty() ? null : emisores;
+            });
+        }
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, long sequence, boolean endOfBatch) {
+        if (event instanceof ValoracionCambiada cambio && suscripciones.containsKey(cambio.getIdReceta())) {
+            pendientes.add(cambio.getIdReceta());
+        }
+    }
+
+    /**
+     * Ventana de agrupación: emite los contadores de las recetas cambiadas desde la anterior.
+     */
+    @Scheduled(every = "${recipes.sse.valoraciones.interval:500ms}",
+               concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void flush() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            publicarPendientes();
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Error publicando contadores de valoraciones");
+        }
+    }
+
+    /**
+     * Emite un evento por cada receta pendiente con suscriptores.
+     * @return Número de recetas publicadas
+     */
+    @ActivateRequestContext
+    public int publicarPendientes() {
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Iterator<Integer> it = pendientes.iterator(); it.hasNext(); ) {
+            Integer idReceta = it.next();
+            it.remove();
+            if (suscripciones.containsKey(idReceta)) {
+                ids.add(idReceta);
+            }
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // Contexto de petición propio: la lectura consistente solo afecta a esta ventana
+        lecturaConsistente.activar();
+        Map<Integer, ValoracionSummary> conteos = getValoracionesUseCase.executeBatch(ids);
+        for (Integer idReceta : ids) {
+            Set<MultiEmitter<? super ContadorValoraciones>> emisores = suscripciones.get(idReceta);
+            if (emisores == null) {
+                continue;
+            }
+            ValoracionSummary conteo = conteos.get(idReceta);
+            ContadorValoraciones evento = new ContadorValoraciones(idReceta, conteo.getLikes(), conteo.getDislikes());
+            for (MultiEmitter<? super ContadorValoraciones> emitter : emisores) {
+                emitter.emit(evento);
+            }
+        }
+        return ids.size();
+    }
+
+    /**
+     * Número de recetas con al menos un suscriptor.
+     */
+    public int getRecetasSuscritas() {
+        return suscripciones.size();
+    }
+}
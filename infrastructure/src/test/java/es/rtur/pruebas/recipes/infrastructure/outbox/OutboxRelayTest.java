@@ -0,0 +1,189 @@
+package es.rtur.pruebas.recipes.infrastructure.outbox;
+
+import es.rtur.pruebas.recipes.domain.entity.Comentario;
+import es.rtur.pruebas.recipes.domain.entity.Receta;
+import es.rtur.pruebas.recipes.domain.entity.Valoracion;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.infrastructure.persistence.ComentarioRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.RecetaRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.UsuarioEntity;
+import es.rtur.pruebas.recipes.infrastructure.persistence.UsuarioRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.ValoracionRepositoryImpl;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el outbox transaccional y su relay.
+ */
+@QuarkusTest
+class OutboxRelayTest {
+
+    @Inject
+    OutboxRelay relay;
+
+    @Inject
+    RecordingOutboxConsumer consumer;
+
+    @Inject
+    RecetaRepositoryImpl recetaRepository;
+
+    @Inject
+    ComentarioRepositoryImpl comentarioRepository;
+
+    @Inject
+    ValoracionRepositoryImpl valoracionRepository;
+
+    @Inject
+    UsuarioRepositoryImpl usuarioRepository;
+
+    private UsuarioEntity autor;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        // Limpiar datos - orden importante por foreign keys
+        comentarioRepository.deleteAll();
+        valoracionRepository.deleteAll();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        recetaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        Panache.getEntityManager().createQuery("DELETE FROM OutboxEventoEntity").executeUpdate();
+        consumer.reset();
+
+        autor = new UsuarioEntity();
+        autor.nombre = "Chef";
+        autor.email = "chef@test.com";
+        autor.claveAcceso = "password";
+        autor.esAdmin = false;
+        usuarioRepository.persist(autor);
+    }
+
+    @Test
+    void testSaveEscribeEventosEnElOutbox() {
+        // Given
+        UsuarioId idAutor = UsuarioId.of(autor.idUsuario);
+
+        // When
+        Receta receta = recetaRepository.save(new Receta(null, "Paella", 60, 4, "media", "Preparación", "arroces", idAutor));
+        comentarioRepository.save(new Comentario(null, receta.getId(), idAutor, "Muy buena"));
+        valoracionRepository.save(new Valoracion(null, receta.getId(), idAutor, "like"));
+
+        // Then
+        assertEquals(3L, contarPendientes());
+    }
+
+    @Test
+    void testRelayDespachaEnOrdenYBorraLasFilas() {
+        // Given
+        UsuarioId idAutor = UsuarioId.of(autor.idUsuario);
+        Receta receta = recetaRepository.save(new Receta(null, "Paella", 60, 4, "media", "Preparación", "arroces", idAutor));
+        comentarioRepository.save(new Comentario(null, receta.getId(), idAutor, "Muy buena"));
+        recetaRepository.deleteById(receta.getId());
+
+        // When
+        int despachados = relay.drenar();
+
+        // Then: el borrado de la receta registra también el del comentario que arrastra
+        assertEquals(4, despachados);
+        List<OutboxEvento> recibidos = consumer.getRecibidos();
+        assertEquals(4, recibidos.size());
+        assertEquals(OutboxEvento.AGREGADO_RECETA, recibidos.get(0).getTipoAgregado());
+        assertEquals(OutboxEvento.EVENTO_CREADO, recibidos.get(0).getTipoEvento());
+        assertEquals(OutboxEvento.AGREGADO_COMENTARIO, recibidos.get(1).getTipoAgregado());
+        assertEquals(OutboxEvento.AGREGADO_COMENTARIO, recibidos.get(2).getTipoAgregado());
+        assertEquals(OutboxEvento.EVENTO_ELIMINADO, recibidos.get(2).getTipoEvento());
+        assertEquals(OutboxEvento.AGREGADO_RECETA, recibidos.get(3).getTipoAgregado());
+        assertEquals(OutboxEvento.EVENTO_ELIMINADO, recibidos.get(3).getTipoEvento());
+        assertTrue(recibidos.get(0).getPayload().contains("\"nombre\":\"Paella\""));
+        assertEquals(0L, contarPendientes());
+    }
+
+    @Test
+    void testRollbackNoDejaEventos() {
+        // Given
+        UsuarioId idAutor = UsuarioId.of(autor.idUsuario);
+
+        // When
+        assertThrows(IllegalStateException.class, () -> QuarkusTransaction.requiringNew().run(() -> {
+            recetaRepository.save(new Receta(null, "Tortilla", 20, 2, "facil", "Preparación", "huevos", idAutor));
+            throw new IllegalStateException("Fallo tras guardar");
+        }));
+
+        // Then
+        assertEquals(0L, contarPendientes());
+    }
+
+    @Test
+    void testFalloDelConsumidorConservaElLote() {
+        // Given
+        UsuarioId idAutor = UsuarioId.of(autor.idUsuario);
+        recetaRepository.save(new Receta(null, "Gazpacho", 15, 4, "facil", "Preparación", "sopas", idAutor));
+        consumer.setFallar(true);
+
+        // When
+        assertEquals(0, relay.drenar());
+
+        // Then: el evento sigue pendiente con un intento fallido
+        assertEquals(1L, contarPendientes());
+        assertEquals(1, evento(OutboxEvento.AGREGADO_RECETA).intentos);
+        consumer.setFallar(false);
+        assertEquals(1, relay.drenar());
+        assertEquals(0L, contarPendientes());
+    }
+
+    @Test
+    void testEventoQueSiempreFallaSeApartaSinBloquearAlResto() {
+        // Given: tres eventos; el del comentario hace fallar cualquier lote que lo contenga
+        UsuarioId idAutor = UsuarioId.of(autor.idUsuario);
+        Receta receta = recetaRepository.save(new Receta(null, "Paella", 60, 4, "media", "Preparación", "arroces", idAutor));
+        Comentario comentario = comentarioRepository.save(new Comentario(null, receta.getId(), idAutor, "Muy buena"));
+        valoracionRepository.save(new Valoracion(null, receta.getId(), idAutor, "like"));
+        consumer.setAgregadoVenenoso(OutboxEvento.AGREGADO_COMENTARIO, comentario.getId().getValue());
+
+        // When: el lote falla y los demás eventos se entregan por separado
+        assertEquals(2, relay.drenar());
+
+        // Then
+        assertEquals(List.of(OutboxEvento.AGREGADO_RECETA, OutboxEvento.AGREGADO_VALORACION),
+                consumer.getRecibidos().stream().map(OutboxEvento::getTipoAgregado).toList());
+        OutboxEventoEntity venenoso = evento(OutboxEvento.AGREGADO_COMENTARIO);
+        assertEquals(1, venenoso.intentos);
+        assertNull(venenoso.fFallido);
+        assertTrue(venenoso.ultimoError.contains("Evento que siempre falla"));
+
+        // When: max-attempts=3 en el perfil de test, un intento por pasada
+        relay.drenar();
+        relay.drenar();
+
+        // Then: queda apartado y las pasadas siguientes no lo entregan
+        venenoso = evento(OutboxEvento.AGREGADO_COMENTARIO);
+        assertEquals(3, venenoso.intentos);
+        assertNotNull(venenoso.fFallido);
+        recetaRepository.save(new Receta(null, "Gazpacho", 15, 4, "facil", "Preparación", "sopas", idAutor));
+        assertEquals(1, relay.drenar());
+        assertEquals(1L, contarPendientes());
+    }
+
+    private OutboxEventoEntity evento(String tipoAgregado) {
+        return QuarkusTransaction.requiringNew().call(() -> Panache.getEntityManager()
+                .createQuery("FROM OutboxEventoEntity e WHERE e.tipoAgregado = :tipo", OutboxEventoEntity.class)
+                .setParameter("tipo", tipoAgregado)
+                .getSingleResult());
+    }
+
+    private long contarPendientes() {
+        return QuarkusTransaction.requiringNew().call(() -> Panache.getEntityManager()
+                .createQuery("SELECT COUNT(e) FROM OutboxEventoEntity e", Long.class)
+                .getSingleResult());
+    }
+}
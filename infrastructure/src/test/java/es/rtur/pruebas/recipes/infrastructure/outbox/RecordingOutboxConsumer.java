@@ -0,0 +1,52 @@
+package es.rtur.pruebas.recipes.infrastructure.outbox;
+
+import jakarta.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumidor de prueba que guarda los eventos recibidos y puede simular fallos.
+ */
+@Singleton
+public class RecordingOutboxConsumer implements OutboxConsumer {
+
+    private final List<OutboxEvento> recibidos = new ArrayList<>();
+    private volatile boolean fallar;
+    private volatile String tipoVenenoso;
+    private volatile Integer idVenenoso;
+
+    @Override
+    public synchronized void procesar(List<OutboxEvento> eventos) {
+        if (fallar) {
+            throw new IllegalStateException("Fallo simulado del consumidor");
+        }
+        if (eventos.stream().anyMatch(e -> e.getTipoAgregado().equals(tipoVenenoso) && e.getIdAgregado().equals(idVenenoso))) {
+            throw new IllegalStateException("Evento que siempre falla");
+        }
+        recibidos.addAll(eventos);
+    }
+
+    public synchronized List<OutboxEvento> getRecibidos() {
+        return new ArrayList<>(recibidos);
+    }
+
+    public synchronized void reset() {
+        recibidos.clear();
+        fallar = false;
+        tipoVenenoso = null;
+        idVenenoso = null;
+    }
+
+    public void setFallar(boolean fallar) {
+        this.fallar = fallar;
+    }
+
+    /**
+     * Falla siempre que el lote contenga un evento del agregado indicado.
+     */
+    public void setAgregadoVenenoso(String tipoAgregado, Integer idAgregado) {
+        this.tipoVenenoso = tipoAgregado;
+        this.idVenenoso = idAgregado;
+    }
+}
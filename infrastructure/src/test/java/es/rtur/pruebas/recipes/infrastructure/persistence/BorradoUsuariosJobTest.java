@@ -0,0 +1,278 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.dto.ComentarioDTO;
+import es.rtur.pruebas.recipes.application.dto.ValoracionDTO;
+import es.rtur.pruebas.recipes.application.usecase.CreateComentarioUseCase;
+import es.rtur.pruebas.recipes.application.usecase.CreateValoracionUseCase;
+import es.rtur.pruebas.recipes.application.usecase.DeleteUsuarioUseCase;
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.entity.TipoValoracion;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxEvento;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el borrado por lotes de usuarios eliminados.
+ * Con batch-size=50 y max-batches-per-run=4 (perfil de test) cada pasada borra como mucho 200 filas.
+ */
+@QuarkusTest
+class BorradoUsuariosJobTest {
+
+    @Inject
+    BorradoUsuariosJob job;
+
+    @Inject
+    DeleteUsuarioUseCase deleteUsuarioUseCase;
+
+    @Inject
+    CreateComentarioUseCase createComentarioUseCase;
+
+    @Inject
+    CreateValoracionUseCase createValoracionUseCase;
+
+    @Inject
+    UsuarioRepositoryImpl usuarioRepository;
+
+    @Inject
+    RecetaRepositoryImpl recetaRepository;
+
+    @Inject
+    ComentarioRepositoryImpl comentarioRepository;
+
+    @Inject
+    ValoracionRepositoryImpl valoracionRepository;
+
+    @Inject
+    CategoriaDiccionario categorias;
+
+    @Inject
+    EntityManager em;
+
+    private Integer idVictima;
+    private Integer idOtro;
+    private Integer idRecetaOtro;
+    private List<Integer> idsRecetasVictima;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        limpiar();
+
+        UsuarioEntity victima = crearUsuario("Victima", "victima@test.com");
+        UsuarioEntity otro = crearUsuario("Otro", "otro@test.com");
+        usuarioRepository.persist(victima);
+        usuarioRepository.persist(otro);
+        idVictima = victima.idUsuario;
+        idOtro = otro.idUsuario;
+
+        RecetaEntity popular = crearReceta("Popular", victima);
+        RecetaEntity normal = crearReceta("Normal", victima);
+        RecetaEntity ajena = crearReceta("Ajena", otro);
+        recetaRepository.persist(popular);
+        recetaRepository.persist(normal);
+        recetaRepository.persist(ajena);
+        idsRecetasVictima = List.of(popular.idReceta, normal.idReceta);
+        idRecetaOtro = ajena.idReceta;
+
+        // 300 valoraciones recibidas en la receta popular
+        em.createNativeQuery("INSERT INTO usuarios (nombre, clave_acceso, email, f_creacion, es_admin, estado) "
+                + "SELECT 'Votante', 'password', CONCAT('votante', X, '@test.com'), CURRENT_TIMESTAMP, FALSE, 'activo' "
+                + "FROM SYSTEM_RANGE(1, 300)")
+            .executeUpdate();
+        em.createNativeQuery("INSERT INTO valoraciones (id_receta, id_usuario, tipo, f_creacion) "
+                + "SELECT :receta, id_usuario, 1, CURRENT_TIMESTAMP FROM usuarios WHERE email LIKE 'votante%'")
+            .setParameter("receta", popular.idReceta)
+            .executeUpdate();
+
+        // Actividad de la víctima en una receta ajena
+        ValoracionEntity valoracion = new ValoracionEntity();
+        valoracion.receta = ajena;
+        valoracion.usuario = victima;
+        valoracion.tipo = TipoValoracion.LIKE;
+        valoracionRepository.persist(valoracion);
+        ComentarioEntity comentario = new ComentarioEntity();
+        comentario.receta = ajena;
+        comentario.autor = victima;
+        comentario.contenido = "Muy rica";
+        comentarioRepository.persist(comentario);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Las valoraciones masivas no las limpian otras clases de test
+        QuarkusTransaction.requiringNew().run(this::limpiar);
+    }
+
+    @Test
+    void testDeleteUsuarioSoloMarcaAlUsuario() {
+        // When
+        deleteUsuarioUseCase.execute(idVictima, idVictima, false);
+
+        // Then: la cuenta queda desactivada pero sus datos siguen ahí hasta que pase el job
+        UsuarioEntity victima = QuarkusTransaction.requiringNew().call(() -> usuarioRepository.findById(idVictima.longValue()));
+        assertEquals(BorradoUsuariosJob.ESTADO_ELIMINADO, victima.estado);
+        assertEquals(2L, contar("SELECT COUNT(r) FROM RecetaEntity r WHERE r.autor.idUsuario = :id", idVictima));
+    }
+
+    @Test
+    void testDeleteUsuarioDeOtraCuentaRequiereAdmin() {
+        assertThrows(SecurityException.class, () -> deleteUsuarioUseCase.execute(idVictima, idOtro, false));
+        assertThrows(IllegalArgumentException.class, () -> deleteUsuarioUseCase.execute(-1, idOtro, true));
+
+        deleteUsuarioUseCase.execute(idVictima, idOtro, true);
+        assertEquals(BorradoUsuariosJob.ESTADO_ELIMINADO,
+            QuarkusTransaction.requiringNew().call(() -> usuarioRepository.findById(idVictima.longValue()).estado));
+    }
+
+    @Test
+    void testBorradoPorLotesEnVariasPasadas() {
+        // Given
+        deleteUsuarioUseCase.execute(idVictima, idVictima, false);
+        List<Integer> idsValoraciones = QuarkusTransaction.requiringNew().call(() -> em.createQuery(
+                "SELECT v.idValoracion FROM ValoracionEntity v", Integer.class).getResultList());
+        List<Integer> idsComentarios = QuarkusTransaction.requiringNew().call(() -> em.createQuery(
+                "SELECT c.idComentario FROM ComentarioEntity c", Integer.class).getResultList());
+
+        // When: primera pasada, limitada a 4 lotes
+        assertEquals(4, job.procesarPendientes());
+
+        // Then: la pasada se corta a mitad y el progreso queda registrado
+        BorradoUsuariosJob.Progreso progreso = job.getProgreso(idVictima).orElseThrow();
+        assertEquals(BorradoUsuariosJob.FASE_VALORACIONES_RECIBIDAS, progreso.getFase());
+        assertEquals(4, progreso.getLotes());
+        assertEquals(102, progreso.getFilasBorradas());
+        assertTrue(QuarkusTransaction.requiringNew().call(() -> usuarioRepository.findById(idVictima.longValue())) != null);
+
+        // When: las pasadas siguientes continúan donde se quedó la anterior
+        int pasadas = 1;
+        while (job.procesarPendientes() > 0) {
+            pasadas++;
+            assertTrue(pasadas < 10, "El borrado no termina");
+        }
+
+        // Then
+        assertTrue(pasadas > 1);
+        assertTrue(job.getProgreso(idVictima).isEmpty());
+        assertNull(QuarkusTransaction.requiringNew().call(() -> usuarioRepository.findById(idVictima.longValue())));
+        assertEquals(0L, contar("SELECT COUNT(v) FROM ValoracionEntity v WHERE v.receta.idReceta IN (SELECT r.idReceta FROM RecetaEntity r WHERE r.autor.idUsuario = :id) OR v.usuario.idUsuario = :id", idVictima));
+        assertEquals(0L, contar("SELECT COUNT(c) FROM ComentarioEntity c WHERE c.autor.idUsuario = :id", idVictima));
+        // Un evento "eliminado" por cada receta, valoración y comentario borrados
+        assertEquals(2L, contarEliminados(OutboxEvento.AGREGADO_RECETA, idsRecetasVictima));
+        assertEquals(301L, contarEliminados(OutboxEvento.AGREGADO_VALORACION, idsValoraciones));
+        assertEquals(1L, contarEliminados(OutboxEvento.AGREGADO_COMENTARIO, idsComentarios));
+        // Los datos de otros usuarios no se tocan
+        assertNotNull(QuarkusTransaction.requiringNew().call(() -> recetaRepository.findById(idRecetaOtro.longValue())));
+        assertNotNull(QuarkusTransaction.requiringNew().call(() -> usuarioRepository.findById(idOtro.longValue())));
+        assertEquals(300L, QuarkusTransaction.requiringNew().call(() -> usuarioRepository.count("email LIKE ?1", "votante%")));
+    }
+
+    @Test
+    void testUsuarioEliminadoNoPuedeEscribir() {
+        // Given: marcado en su propia transacción, como en una petición aparte
+        QuarkusTransaction.requiringNew().run(() -> deleteUsuarioUseCase.execute(idVictima, idVictima, false));
+
+        // When / Then
+        ComentarioDTO comentario = new ComentarioDTO();
+        comentario.setIdReceta(idRecetaOtro);
+        comentario.setContenido("Tras darse de baja");
+        assertThrows(IllegalArgumentException.class, () -> createComentarioUseCase.execute(comentario, idVictima));
+        ValoracionDTO valoracion = new ValoracionDTO();
+        valoracion.setIdReceta(idRecetaOtro);
+        valoracion.setTipo("like");
+        assertThrows(IllegalArgumentException.class, () -> createValoracionUseCase.execute(valoracion, idVictima));
+    }
+
+    @Test
+    void testFalloDeUnUsuarioNoBloqueaAlResto() {
+        // Given: los dos usuarios marcados; la víctima avanza hasta pasar su fase de comentarios
+        deleteUsuarioUseCase.execute(idVictima, idVictima, false);
+        deleteUsuarioUseCase.execute(idOtro, idOtro, false);
+        job.procesarPendientes();
+        assertEquals(BorradoUsuariosJob.FASE_VALORACIONES_RECIBIDAS, job.getProgreso(idVictima).orElseThrow().getFase());
+
+        // Un comentario que llega tarde hace fallar el borrado de la víctima por la clave ajena
+        QuarkusTransaction.requiringNew().run(() -> {
+            ComentarioEntity tardio = new ComentarioEntity();
+            tardio.receta = em.find(RecetaEntity.class, idRecetaOtro);
+            tardio.autor = em.find(UsuarioEntity.class, idVictima);
+            tardio.contenido = "Tardío";
+            em.persist(tardio);
+        });
+
+        // When: las pasadas no se cortan por el fallo
+        int pasadas = 0;
+        while (job.procesarPendientes() > 0) {
+            pasadas++;
+            assertTrue(pasadas < 20, "El borrado no termina");
+        }
+
+        // Then: los dos usuarios acaban borrados
+        assertNull(QuarkusTransaction.requiringNew().call(() -> usuarioRepository.findById(idVictima.longValue())));
+        assertNull(QuarkusTransaction.requiringNew().call(() -> usuarioRepository.findById(idOtro.longValue())));
+        assertEquals(0L, contar("SELECT COUNT(c) FROM ComentarioEntity c WHERE c.autor.idUsuario = :id", idVictima));
+    }
+
+    @Test
+    void testUsuarioActivoNoSeBorra() {
+        assertEquals(0, job.procesarPendientes());
+        assertNotNull(QuarkusTransaction.requiringNew().call(() -> usuarioRepository.findById(idVictima.longValue())));
+    }
+
+    private void limpiar() {
+        // Limpiar datos - orden importante por foreign keys
+        comentarioRepository.deleteAll();
+        valoracionRepository.deleteAll();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        recetaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+    }
+
+    private long contar(String jpql, Integer idUsuario) {
+        return QuarkusTransaction.requiringNew().call(() -> em.createQuery(jpql, Long.class)
+            .setParameter("id", idUsuario)
+            .getSingleResult());
+    }
+
+    private long contarEliminados(String tipoAgregado, List<Integer> ids) {
+        return QuarkusTransaction.requiringNew().call(() -> em.createQuery(
+                "SELECT COUNT(e) FROM OutboxEventoEntity e "
+                    + "WHERE e.tipoAgregado = :agregado AND e.tipoEvento = :tipo AND e.idAgregado IN :ids", Long.class)
+            .setParameter("agregado", tipoAgregado)
+            .setParameter("tipo", OutboxEvento.EVENTO_ELIMINADO)
+            .setParameter("ids", ids)
+            .getSingleResult());
+    }
+
+    private UsuarioEntity crearUsuario(String nombre, String email) {
+        UsuarioEntity usuario = new UsuarioEntity();
+        usuario.nombre = nombre;
+        usuario.email = email;
+        usuario.claveAcceso = "password";
+        usuario.esAdmin = false;
+        return usuario;
+    }
+
+    private RecetaEntity crearReceta(String nombre, UsuarioEntity autor) {
+        RecetaEntity receta = new RecetaEntity();
+        receta.nombre = nombre;
+        receta.dificultad = DifficultyLevel.EASY;
+        receta.tiempo = 30;
+        receta.comensales = 4;
+        receta.preparacion = "Preparación de " + nombre;
+        receta.idCategoria = categorias.registrar("general");
+        receta.autor = autor;
+        return receta;
+    }
+}
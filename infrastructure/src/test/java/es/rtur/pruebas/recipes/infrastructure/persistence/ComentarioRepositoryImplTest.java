@@ -1,12 +1,24 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.application.dto.ComentarioDTO;
+import es.rtur.pruebas.recipes.application.dto.ComentarioPageDTO;
+import es.rtur.pruebas.recipes.application.usecase.ListComentariosUseCase;
+import es.rtur.pruebas.recipes.domain.entity.Comentario;
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.valueobject.ComentarioId;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -25,6 +37,12 @@ class ComentarioRepositoryImplTest {
     @Inject
     UsuarioRepositoryImpl usuarioRepository;
 
+    @Inject
+    ListComentariosUseCase listComentariosUseCase;
+
+    @Inject
+    PresupuestoSql presupuestoSql;
+
     private RecetaEntity receta;
     private UsuarioEntity autor;
     private UsuarioEntity comentarista;
@@ -56,7 +74,8 @@ void testFindByReceta() {
         comentarioRepository.persist(crearComentario(receta, autor, "Gracias"));
 
         // When
-        List<ComentarioEntity> comentarios = comentarioRepository.findByReceta(receta.idReceta);
+        List<ComentarioEntity> comentarios = presupuestoSql.comprobar("ComentarioRepositoryImpl.findByReceta", 2,
+            () -> comentarioRepository.findByReceta(receta.idReceta));
 
         // Then
         assertEquals(2, comentarios.size());
@@ -75,7 +94,8 @@ void testFindActivosByReceta() {
         comentarioRepository.persist(eliminado);
 
         // When
-        List<ComentarioEntity> activos = comentarioRepository.findActivosByReceta(receta.idReceta);
+        List<ComentarioEntity> activos = presupuestoSql.comprobar("ComentarioRepositoryImpl.findActivosByReceta", 2,
+            () -> comentarioRepository.findActivosByReceta(receta.idReceta));
 
         // Then
         assertEquals(1, activos.size());
@@ -91,7 +111,8 @@ void testFindByAutor() {
         comentarioRepository.persist(crearComentario(receta, autor, "Comentario del chef"));
 
         // When
-        List<ComentarioEntity> comentarios = comentarioRepository.findByAutor(comentarista.idUsuario);
+        List<ComentarioEntity> comentarios = presupuestoSql.comprobar("ComentarioRepositoryImpl.findByAutor", 2,
+            () -> comentarioRepository.findByAutor(comentarista.idUsuario));
 
         // Then
         assertEquals(2, comentarios.size());
@@ -114,7 +135,8 @@ void testFindByEstado() {
         comentarioRepository.persist(pendiente);
 
         // When
-        List<ComentarioEntity> activos = comentarioRepository.findByEstado("activo");
+        List<ComentarioEntity> activos = presupuestoSql.comprobar("ComentarioRepositoryImpl.findByEstado", 2,
+            () -> comentarioRepository.findByEstado("activo"));
 
         // Then
         assertEquals(2, activos.size());
@@ -135,7 +157,8 @@ void testCountActivosByReceta() {
         comentarioRepository.persist(eliminado);
 
         // When
-        long count = comentarioRepository.countActivosByReceta(receta.idReceta);
+        long count = presupuestoSql.comprobar("ComentarioRepositoryImpl.countActivosByReceta", 1,
+            () -> comentarioRepository.countActivosByReceta(receta.idReceta));
 
         // Then
         assertEquals(2, count);
@@ -150,7 +173,8 @@ void testCambiarEstado() {
         comentarioRepository.flush();
 
         // When
-        boolean resultado = comentarioRepository.cambiarEstado((long) comentario.idComentario, "eliminado");
+        boolean resultado = presupuestoSql.comprobar("ComentarioRepositoryImpl.cambiarEstado", 2,
+            () -> comentarioRepository.cambiarEstado((long) comentario.idComentario, "eliminado"));
 
         // Then
         assertTrue(resultado);
@@ -168,12 +192,105 @@ void testFindRecientes() {
         comentarioRepository.persist(crearComentario(receta, comentarista, "Comentario 3"));
 
         // When
-        List<ComentarioEntity> recientes = comentarioRepository.findRecientes(2);
+        List<ComentarioEntity> recientes = presupuestoSql.comprobar("ComentarioRepositoryImpl.findRecientes", 2,
+            () -> comentarioRepository.findRecientes(2));
 
         // Then
         assertEquals(2, recientes.size());
     }
 
+    @Test
+    @Transactional
+    void testFindLatestByRecetaAndEstado() {
+        // Given
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            ComentarioEntity comentario = crearComentario(receta, comentarista, "Comentario " + i);
+            comentario.fCreacion = base.plusMinutes(i);
+            comentarioRepository.persist(comentario);
+        }
+        ComentarioEntity eliminado = crearComentario(receta, comentarista, "Eliminado");
+        eliminado.estado = "eliminado";
+        eliminado.fCreacion = base.plusHours(1);
+        comentarioRepository.persist(eliminado);
+
+        // When
+        List<Comentario> ultimos = presupuestoSql.comprobar("ComentarioRepositoryImpl.findLatestByRecetaAndEstado", 1,
+            () -> comentarioRepository.findLatestByRecetaAndEstado(RecetaId.of(receta.idReceta), "activo", 3));
+
+        // Then
+        assertEquals(3, ultimos.size());
+        assertEquals("Comentario 4", ultimos.get(0).getContenido());
+        assertEquals("Comentario 2", ultimos.get(2).getContenido());
+        assertEquals(comentarista.idUsuario, ultimos.get(0).getIdAutor().getValue());
+    }
+
+    @Test
+    @Transactional
+    void testFindByRecetaAndEstadoBefore_DesempataPorId() {
+        // Given: misma fecha de creación, el orden lo decide el ID
+        LocalDateTime fecha = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<ComentarioEntity> comentarios = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ComentarioEntity comentario = crearComentario(receta, comentarista, "Comentario " + i);
+            comentario.fCreacion = fecha;
+            comentarioRepository.persist(comentario);
+            comentarios.add(comentario);
+        }
+        ComentarioEntity cursor = comentarios.get(2);
+
+        // When
+        List<Comentario> pagina = presupuestoSql.comprobar("ComentarioRepositoryImpl.findByRecetaAndEstadoBefore", 1,
+            () -> comentarioRepository.findByRecetaAndEstadoBefore(
+                RecetaId.of(receta.idReceta), "activo", cursor.fCreacion, ComentarioId.of(cursor.idComentario), 10));
+
+        // Then
+        assertEquals(2, pagina.size());
+        assertEquals(comentarios.get(1).idComentario, pagina.get(0).getId().getValue());
+        assertEquals(comentarios.get(0).idComentario, pagina.get(1).getId().getValue());
+    }
+
+    @Test
+    void testExecutePageRecorreTodosLosComentariosSinDuplicados() {
+        // Given
+        crearComentariosActivos(25);
+
+        // When
+        Set<Integer> vistos = new HashSet<>();
+        List<Integer> tamanos = new ArrayList<>();
+        String cursor = null;
+        do {
+            String desde = cursor;
+            ComentarioPageDTO pagina = presupuestoSql.comprobar("ListComentariosUseCase.executePage", 1,
+                () -> listComentariosUseCase.executePage(receta.idReceta, desde, 10));
+            tamanos.add(pagina.getComentarios().size());
+            for (ComentarioDTO comentario : pagina.getComentarios()) {
+                assertTrue(vistos.add(comentario.getId()));
+            }
+            cursor = pagina.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(25, vistos.size());
+        assertEquals(List.of(10, 10, 5), tamanos);
+    }
+
+    @Test
+    void testExecutePageLimitaElTamanoDePagina() {
+        // Given
+        crearComentariosActivos(ListComentariosUseCase.MAX_PAGE_SIZE + 5);
+
+        // When
+        ComentarioPageDTO pagina = presupuestoSql.comprobar("ListComentariosUseCase.executePage", 1,
+            () -> listComentariosUseCase.executePage(receta.idReceta, null, 1000));
+
+        // Then
+        assertEquals(ListComentariosUseCase.MAX_PAGE_SIZE, pagina.getComentarios().size());
+        assertTrue(pagina.isHasMore());
+        assertThrows(IllegalArgumentException.class,
+            () -> listComentariosUseCase.executePage(receta.idReceta, "no-es-un-cursor", 10));
+    }
+
     @Test
     @Transactional
     void testPrePersistSetsFechas() {
@@ -183,7 +300,7 @@ void testPrePersistSetsFechas() {
         comentario.fModificacion = null;
 
         // When
-        comentarioRepository.persist(comentario);
+        presupuestoSql.comprobar("ComentarioRepositoryImpl.persist", 1, () -> comentarioRepository.persist(comentario));
 
         // Then
         assertNotNull(comentario.fCreacion);
@@ -192,6 +309,20 @@ void testPrePersistSetsFechas() {
     }
 
     // Métodos helper
+    private void crearComentariosActivos(int total) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+            RecetaEntity recetaGestionada = recetaRepository.findById(receta.idReceta.longValue());
+            UsuarioEntity autorGestionado = usuarioRepository.findById(comentarista.idUsuario.longValue());
+            for (int i = 0; i < total; i++) {
+                ComentarioEntity comentario = crearComentario(recetaGestionada, autorGestionado, "Comentario " + i);
+                // Fechas repetidas de dos en dos para ejercitar el desempate por ID
+                comentario.fCreacion = base.plusMinutes(i / 2);
+                comentarioRepository.persist(comentario);
+            }
+        });
+    }
+
     private UsuarioEntity crearUsuario(String nombre, String email) {
         UsuarioEntity usuario = new UsuarioEntity();
         usuario.nombre = nombre;
@@ -204,7 +335,7 @@ private UsuarioEntity crearUsuario(String nombre, String email) {
     private RecetaEntity crearReceta(String nombre, UsuarioEntity autor) {
         RecetaEntity receta = new RecetaEntity();
         receta.nombre = nombre;
-        receta.dificultad = "facil";
+        receta.dificultad = DifficultyLevel.EASY;
         receta.tiempo = 30;
         receta.comensales = 4;
         receta.preparacion = "Preparación";
@@ -0,0 +1,201 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.dto.RecetaResumenDTO;
+import es.rtur.pruebas.recipes.application.usecase.ListRecetasResumenUseCase;
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.readmodel.IngredienteReceta;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la carga por lotes de ingredientes y utensilios de varias recetas.
+ */
+@QuarkusTest
+class ComposicionRecetaRepositoryImplTest {
+
+    @Inject
+    ComposicionRecetaRepositoryImpl composicionRecetaRepository;
+
+    @Inject
+    ListRecetasResumenUseCase listRecetasResumenUseCase;
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    PresupuestoSql presupuestoSql;
+
+    private Integer idAutor;
+    private Integer idHarina;
+    private Integer idHuevo;
+    private Integer idSarten;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        // Limpiar datos - orden importante por foreign keys
+        Panache.getEntityManager().createQuery("DELETE FROM ComentarioEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM ValoracionEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM RecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UsuarioEntity").executeUpdate();
+
+        UsuarioEntity autor = new UsuarioEntity();
+        autor.nombre = "Chef";
+        autor.email = "chef@test.com";
+        autor.claveAcceso = "password";
+        autor.esAdmin = false;
+        em.persist(autor);
+        idAutor = autor.idUsuario;
+
+        idHarina = crearIngrediente("Harina");
+        idHuevo = crearIngrediente("Huevo");
+
+        UtensilioEntity sarten = new UtensilioEntity();
+        sarten.nombre = "Sartén";
+        sarten.tipo = "cocina";
+        em.persist(sarten);
+        idSarten = sarten.idUtensilio;
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Otras clases de test no limpian las tablas de composición
+        QuarkusTransaction.requiringNew().run(() -> {
+            em.createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+            em.createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        });
+    }
+
+    @Test
+    void testFindIngredientesByRecetasAgrupaPorReceta() {
+        // Given
+        List<Integer> ids = crearRecetas(3);
+
+        // When
+        List<IngredienteReceta> ingredientes = presupuestoSql.comprobar(
+            "ComposicionRecetaRepositoryImpl.findIngredientesByRecetas", 1,
+            () -> composicionRecetaRepository.findIngredientesByRecetas(
+                List.of(RecetaId.of(ids.get(0)), RecetaId.of(ids.get(2)))));
+
+        // Then: dos líneas por receta, solo de las recetas pedidas
+        assertEquals(4, ingredientes.size());
+        assertEquals(ids.get(0), ingredientes.get(0).getIdReceta().getValue());
+        assertEquals("Harina", ingredientes.get(0).getNombre());
+        assertEquals(0, new BigDecimal("200").compareTo(ingredientes.get(0).getCantidad()));
+        assertEquals("Huevo", ingredientes.get(1).getNombre());
+        assertEquals(ids.get(2), ingredientes.get(3).getIdReceta().getValue());
+        assertTrue(composicionRecetaRepository.findIngredientesByRecetas(List.of()).isEmpty());
+    }
+
+    @Test
+    void testDosSentenciasParaLaComposicionDeUnaPagina() {
+        // Given
+        crearRecetas(30);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        // When
+        statistics.clear();
+        List<RecetaResumenDTO> pagina = listRecetasResumenUseCase.executeWithComposicion(null, null, 0, 25);
+
+        // Then: una sentencia para la página y una por tabla de composición
+        assertEquals(25, pagina.size());
+        assertTrue(pagina.stream().allMatch(r -> r.getIngredientes().size() == 2 && r.getUtensilios().size() == 1));
+        assertEquals("Sartén", pagina.get(0).getUtensilios().get(0).getNombre());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testBatchSizeAlNavegarLasColecciones() {
+        // Given
+        crearRecetas(30);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        // When: las 30 colecciones se inicializan en un solo lote
+        statistics.clear();
+        int lineas = presupuestoSql.comprobar("RecetaEntity.ingredientesReceta", 3,
+            () -> QuarkusTransaction.requiringNew().call(() -> {
+                List<RecetaEntity> recetas = em.createQuery("FROM RecetaEntity", RecetaEntity.class).getResultList();
+                int total = 0;
+                for (RecetaEntity receta : recetas) {
+                    total += receta.ingredientesReceta.size();
+                }
+                return total;
+            }));
+
+        // Then
+        assertEquals(60, lineas);
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+            "Sentencias: " + statistics.getPrepareStatementCount());
+    }
+
+    private Integer crearIngrediente(String nombre) {
+        IngredienteEntity ingrediente = new IngredienteEntity();
+        ingrediente.nombre = nombre;
+        ingrediente.tipo = "basico";
+        em.persist(ingrediente);
+        return ingrediente.idIngrediente;
+    }
+
+    private List<Integer> crearRecetas(int total) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            UsuarioEntity autor = em.find(UsuarioEntity.class, idAutor);
+            IngredienteEntity harina = em.find(IngredienteEntity.class, idHarina);
+            IngredienteEntity huevo = em.find(IngredienteEntity.class, idHuevo);
+            UtensilioEntity sarten = em.find(UtensilioEntity.class, idSarten);
+            LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                RecetaEntity receta = new RecetaEntity();
+                receta.nombre = "Receta " + i;
+                receta.dificultad = DifficultyLevel.EASY;
+                receta.tiempo = 30;
+                receta.comensales = 4;
+                receta.preparacion = "Preparación";
+                receta.autor = autor;
+                receta.fCreacion = base.plusMinutes(i);
+                em.persist(receta);
+
+                receta.ingredientesReceta.add(lineaIngrediente(receta, harina, "200", "g"));
+                receta.ingredientesReceta.add(lineaIngrediente(receta, huevo, "2", "unidad"));
+
+                UtensilioRecetaEntity utensilio = new UtensilioRecetaEntity();
+                utensilio.receta = receta;
+                utensilio.utensilio = sarten;
+                receta.utensiliosReceta.add(utensilio);
+                ids.add(receta.idReceta);
+            }
+            return ids;
+        });
+    }
+
+    private IngredienteRecetaEntity lineaIngrediente(RecetaEntity receta, IngredienteEntity ingrediente,
+                                                     String cantidad, String unidad) {
+        IngredienteRecetaEntity linea = new IngredienteRecetaEntity();
+        linea.receta = receta;
+        linea.ingrediente = ingrediente;
+        linea.cantidad = new BigDecimal(cantidad);
+        linea.unidadMedida = unidad;
+        return linea;
+    }
+}
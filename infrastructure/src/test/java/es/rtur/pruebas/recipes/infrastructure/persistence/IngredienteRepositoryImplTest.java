@@ -20,6 +20,9 @@ class IngredienteRepositoryImplTest {
     @Inject
     IngredienteRepositoryImpl repository;
 
+    @Inject
+    PresupuestoSql presupuestoSql;
+
     @BeforeEach
     @Transactional
     void setUp() {
@@ -34,7 +37,8 @@ void testFindByNombre() {
         repository.persist(ingrediente);
 
         // When
-        Optional<IngredienteEntity> found = repository.findByNombre("Tomate");
+        Optional<IngredienteEntity> found = presupuestoSql.comprobar("IngredienteRepositoryImpl.findByNombre", 1,
+            () -> repository.findByNombre("Tomate"));
 
         // Then
         assertTrue(found.isPresent());
@@ -50,7 +54,8 @@ void testSearchByNombre() {
         repository.persist(crearIngrediente("Lechuga", "verdura"));
 
         // When
-        List<IngredienteEntity> resultados = repository.searchByNombre("tomate");
+        List<IngredienteEntity> resultados = presupuestoSql.comprobar("IngredienteRepositoryImpl.searchByNombre", 1,
+            () -> repository.searchByNombre("tomate"));
 
         // Then
         assertEquals(2, resultados.size());
@@ -65,7 +70,8 @@ void testFindByTipo() {
         repository.persist(crearIngrediente("Tomate", "verdura"));
 
         // When
-        List<IngredienteEntity> carnes = repository.findEntitiesByTipo("carne");
+        List<IngredienteEntity> carnes = presupuestoSql.comprobar("IngredienteRepositoryImpl.findEntitiesByTipo", 1,
+            () -> repository.findEntitiesByTipo("carne"));
 
         // Then
         assertEquals(2, carnes.size());
@@ -80,7 +86,8 @@ void testFindAllTipos() {
         repository.persist(crearIngrediente("Leche", "lacteo"));
 
         // When
-        List<String> tipos = repository.findAllTipos();
+        List<String> tipos = presupuestoSql.comprobar("IngredienteRepositoryImpl.findAllTipos", 1,
+            () -> repository.findAllTipos());
 
         // Then
         assertEquals(3, tipos.size());
@@ -96,8 +103,10 @@ void testExistsByNombre() {
         repository.persist(crearIngrediente("Azúcar", "endulzante"));
 
         // When & Then
-        assertTrue(repository.existsByNombre("Azúcar"));
-        assertFalse(repository.existsByNombre("Sal"));
+        assertTrue(presupuestoSql.comprobar("IngredienteRepositoryImpl.existsByNombre", 1,
+            () -> repository.existsByNombre("Azúcar")));
+        assertFalse(presupuestoSql.comprobar("IngredienteRepositoryImpl.existsByNombre", 1,
+            () -> repository.existsByNombre("Sal")));
     }
 
     private IngredienteEntity crearIngrediente(String nombre, String tipo) {
@@ -0,0 +1,43 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el mantenimiento de particiones.
+ * Las particiones solo existen en PostgreSQL; aquí se validan los nombres y rangos generados
+ * y que el job desactivado no toca la base de datos H2.
+ */
+@QuarkusTest
+class ParticionesJobTest {
+
+    @Inject
+    ParticionesJob job;
+
+    @Test
+    void testSentenciaCreacionCubreElMesCompleto() {
+        assertEquals("CREATE TABLE IF NOT EXISTS valoraciones_p2026_12 PARTITION OF valoraciones " +
+                     "FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')",
+            ParticionesJob.sentenciaCreacion("valoraciones", YearMonth.of(2026, 12)));
+    }
+
+    @Test
+    void testMesDeParticionSoloReconoceLasDelJob() {
+        assertEquals(Optional.of(YearMonth.of(2026, 3)),
+            ParticionesJob.mesDeParticion("comentarios", ParticionesJob.nombreParticion("comentarios", YearMonth.of(2026, 3))));
+        assertTrue(ParticionesJob.mesDeParticion("comentarios", "comentarios_default").isEmpty());
+        assertTrue(ParticionesJob.mesDeParticion("comentarios", "valoraciones_p2026_03").isEmpty());
+        assertTrue(ParticionesJob.mesDeParticion("comentarios", "comentarios_p2026_13").isEmpty());
+    }
+
+    @Test
+    void testDesactivadoNoEjecutaDdl() {
+        assertDoesNotThrow(() -> job.mantenerPeriodicamente());
+    }
+}
@@ -0,0 +1,87 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Presupuesto de memoria asignada y de tiempo por llamada para los tests: ejecuta la llamada
+ * en bucle en el hilo del test, primero para calentar (JIT, cachés, pools) y después en varias
+ * rondas medidas con {@code ThreadMXBean.getThreadAllocatedBytes} y {@code System.nanoTime}.
+ *
+ * De cada ronda se saca la media por llamada y se compara la mejor ronda con el presupuesto:
+ * una pausa de GC o una recarga de caché en una ronda no hace fallar el test, una regresión
+ * que se repite en todas sí. Solo cuenta lo asignado por el hilo del test; lo que H2 en memoria
+ * asigna al ejecutar las consultas entra en la cuenta, por eso los presupuestos se fijan sobre
+ * H2 con margen y no son comparables con los de PostgreSQL.
+ */
+final class PresupuestoAsignacion {
+
+    static final int CALENTAMIENTO = 200;
+    static final int RONDAS = 5;
+    static final int LLAMADAS_POR_RONDA = 50;
+
+    private static final com.sun.management.ThreadMXBean HILOS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Resultado de la última llamada, para que el JIT no descarte el trabajo medido. */
+    private static volatile Object sumidero;
+
+    private PresupuestoAsignacion() {
+    }
+
+    /**
+     * Media por llamada de la mejor ronda.
+     * @param bytes Bytes asignados por llamada
+     * @param nanos Tiempo de reloj por llamada
+     */
+    record Medida(long bytes, long nanos) {
+
+        double micros() {
+            return nanos / 1_000.0;
+        }
+    }
+
+    /**
+     * Mide la llamada y falla si los bytes o el tiempo por llamada pasan de sus presupuestos.
+     * @param operacion Nombre de la operación en el mensaje, p. ej. "ListRecetasUseCase.execute, 50 recetas"
+     * @param bytesMaximos Presupuesto de bytes asignados por llamada
+     * @param microsMaximos Presupuesto de tiempo por llamada en microsegundos
+     * @return La medida, para los tests que quieran comprobar algo más
+     */
+    static Medida comprobar(String operacion, long bytesMaximos, long microsMaximos, Supplier<?> llamada) {
+        Medida medida = medir(llamada);
+        if (medida.bytes() > bytesMaximos || medida.micros() > microsMaximos) {
+            fail(String.format("%s: %,d bytes y %.1f µs por llamada, presupuesto %,d bytes y %,d µs",
+                operacion, medida.bytes(), medida.micros(), bytesMaximos, microsMaximos));
+        }
+        return medida;
+    }
+
+    static Medida medir(Supplier<?> llamada) {
+        assumeTrue(HILOS.isThreadAllocatedMemorySupported(), "La JVM no mide la memoria asignada por hilo");
+        HILOS.setThreadAllocatedMemoryEnabled(true);
+        long hilo = Thread.currentThread().threadId();
+
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            sumidero = llamada.get();
+        }
+
+        long mejoresBytes = Long.MAX_VALUE;
+        long mejoresNanos = Long.MAX_VALUE;
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            long bytesInicio = HILOS.getThreadAllocatedBytes(hilo);
+            long nanosInicio = System.nanoTime();
+            for (int i = 0; i < LLAMADAS_POR_RONDA; i++) {
+                sumidero = llamada.get();
+            }
+            long nanos = System.nanoTime() - nanosInicio;
+            long bytes = HILOS.getThreadAllocatedBytes(hilo) - bytesInicio;
+            mejoresBytes = Math.min(mejoresBytes, bytes / LLAMADAS_POR_RONDA);
+            mejoresNanos = Math.min(mejoresNanos, nanos / LLAMADAS_POR_RONDA);
+        }
+        return new Medida(mejoresBytes, mejoresNanos);
+    }
+}
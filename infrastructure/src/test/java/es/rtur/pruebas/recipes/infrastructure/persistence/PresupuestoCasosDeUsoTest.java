@@ -0,0 +1,185 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.usecase.GetRecetaUseCase;
+import es.rtur.pruebas.recipes.application.usecase.GetValoracionesUseCase;
+import es.rtur.pruebas.recipes.application.usecase.ListRecetasResumenUseCase;
+import es.rtur.pruebas.recipes.application.usecase.ListRecetasUseCase;
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.entity.TipoValoracion;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Presupuestos de memoria asignada y de tiempo por llamada de los casos de uso más llamados,
+ * con el mapeo de entidades a dominio y de dominio a DTO incluido (ver {@link PresupuestoAsignacion}).
+ *
+ * Los presupuestos están en las constantes de abajo, medidos sobre H2 en memoria con el
+ * conjunto de datos del setUp y con margen para el ruido entre máquinas; si un cambio los
+ * supera a propósito, se vuelven a medir y se actualizan en el mismo commit.
+ */
+@QuarkusTest
+@TestProfile(PresupuestoCasosDeUsoTest.SinLogSql.class)
+class PresupuestoCasosDeUsoTest {
+
+    static final int RECETAS = 50;
+    static final int USUARIOS = 3;
+
+    // Presupuestos por llamada: los bytes con un 40 % de margen sobre lo medido y el tiempo
+    // con margen amplio, porque depende de la máquina (lo medido, en un solo núcleo, en el comentario)
+    static final long LIST_RECETAS_BYTES = 32_000;          // 23,6 KB
+    static final long LIST_RECETAS_MICROS = 5_000;          // 0,5 ms
+    static final long GET_RECETA_BYTES = 4_000;             // 2,1 KB
+    static final long GET_RECETA_MICROS = 1_000;            // 0,04 ms
+    static final long LIST_RESUMEN_BYTES = 40_000;          // 28,3 KB
+    static final long LIST_RESUMEN_MICROS = 5_000;          // 1 ms
+    static final long GET_VALORACIONES_BYTES = 56_000;      // 39,5 KB
+    static final long GET_VALORACIONES_MICROS = 10_000;     // 1,4 ms
+    static final long GET_VALORACIONES_BATCH_BYTES = 56_000; // 42 KB
+    static final long GET_VALORACIONES_BATCH_MICROS = 10_000; // 1,8 ms
+
+    /**
+     * Sin el log de SQL de los tests, que asignaría más que el propio caso de uso.
+     */
+    public static class SinLogSql implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.hibernate-orm.log.sql", "false");
+        }
+    }
+
+    @Inject
+    ListRecetasUseCase listRecetasUseCase;
+
+    @Inject
+    GetRecetaUseCase getRecetaUseCase;
+
+    @Inject
+    ListRecetasResumenUseCase listRecetasResumenUseCase;
+
+    @Inject
+    GetValoracionesUseCase getValoracionesUseCase;
+
+    @Inject
+    RecetaRepositoryImpl recetaRepository;
+
+    @Inject
+    UsuarioRepositoryImpl usuarioRepository;
+
+    @Inject
+    CategoriaDiccionario categorias;
+
+    @Inject
+    EntityManager em;
+
+    private List<Integer> ids;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        // Limpiar datos - orden importante por foreign keys
+        Panache.getEntityManager().createQuery("DELETE FROM ComentarioEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM ValoracionEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        recetaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        List<UsuarioEntity> usuarios = new ArrayList<>();
+        for (int i = 0; i < USUARIOS; i++) {
+            UsuarioEntity usuario = new UsuarioEntity();
+            usuario.nombre = "Usuario " + i;
+            usuario.email = "user" + i + "@test.com";
+            usuario.claveAcceso = "password";
+            usuario.esAdmin = false;
+            usuarioRepository.persist(usuario);
+            usuarios.add(usuario);
+        }
+
+        ids = new ArrayList<>();
+        for (int i = 0; i < RECETAS; i++) {
+            RecetaEntity receta = new RecetaEntity();
+            receta.nombre = "Receta " + i;
+            receta.dificultad = i % 2 == 0 ? DifficultyLevel.EASY : DifficultyLevel.MEDIUM;
+            receta.idCategoria = categorias.registrar("categoria-" + (i % 2));
+            receta.tiempo = 30;
+            receta.comensales = 4;
+            receta.preparacion = "Preparación de la receta " + i;
+            receta.autor = usuarios.get(i % USUARIOS);
+            recetaRepository.persist(receta);
+            ids.add(receta.idReceta);
+
+            for (UsuarioEntity usuario : usuarios) {
+                ValoracionEntity valoracion = new ValoracionEntity();
+                valoracion.receta = receta;
+                valoracion.usuario = usuario;
+                valoracion.tipo = usuario == usuarios.get(0) ? TipoValoracion.DISLIKE : TipoValoracion.LIKE;
+                em.persist(valoracion);
+            }
+        }
+    }
+
+    @Test
+    void testListRecetas() {
+        assertEquals(RECETAS, listRecetasUseCase.execute().size());
+
+        PresupuestoAsignacion.comprobar("ListRecetasUseCase.execute, " + RECETAS + " recetas",
+            LIST_RECETAS_BYTES, LIST_RECETAS_MICROS, () -> listRecetasUseCase.execute());
+    }
+
+    @Test
+    void testGetReceta() {
+        Integer id = ids.get(0);
+        assertEquals("Receta 0", getRecetaUseCase.execute(id).getNombre());
+
+        PresupuestoAsignacion.comprobar("GetRecetaUseCase.execute",
+            GET_RECETA_BYTES, GET_RECETA_MICROS, () -> getRecetaUseCase.execute(id));
+    }
+
+    @Test
+    void testListRecetasResumen() {
+        assertEquals(20, listRecetasResumenUseCase.execute(null, null, 0, 20).size());
+
+        PresupuestoAsignacion.comprobar("ListRecetasResumenUseCase.execute, página de 20",
+            LIST_RESUMEN_BYTES, LIST_RESUMEN_MICROS, () -> listRecetasResumenUseCase.execute(null, null, 0, 20));
+    }
+
+    @Test
+    void testGetValoraciones() {
+        Integer id = ids.get(0);
+        assertEquals(2, getValoracionesUseCase.execute(id).getLikes());
+
+        PresupuestoAsignacion.comprobar("GetValoracionesUseCase.execute",
+            GET_VALORACIONES_BYTES, GET_VALORACIONES_MICROS, () -> getValoracionesUseCase.execute(id));
+    }
+
+    @Test
+    void testGetValoracionesBatch() {
+        List<Integer> pagina = ids.subList(0, 20);
+        assertEquals(20, getValoracionesUseCase.executeBatch(pagina).size());
+
+        PresupuestoAsignacion.comprobar("GetValoracionesUseCase.executeBatch, 20 recetas",
+            GET_VALORACIONES_BATCH_BYTES, GET_VALORACIONES_BATCH_MICROS, () -> getValoracionesUseCase.executeBatch(pagina));
+    }
+
+    @Test
+    void testMedidaSinAsignaciones() {
+        // El arnés no se cuenta a sí mismo: una llamada que no asigna mide cero bytes
+        PresupuestoAsignacion.Medida medida = PresupuestoAsignacion.medir(() -> ids);
+
+        assertEquals(0, medida.bytes());
+    }
+}
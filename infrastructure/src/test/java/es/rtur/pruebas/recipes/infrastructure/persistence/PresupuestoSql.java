@@ -0,0 +1,103 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Default;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Presupuesto de sentencias SQL para los tests: cuenta, con un StatementInspector de
+ * Hibernate, las sentencias que lanza una llamada y falla si pasan del máximo declarado,
+ * con un informe de las sentencias agrupadas (un N+1 aparece como la misma sentencia
+ * repetida N veces).
+ *
+ * Solo cuenta las sentencias del hilo del test. Si hay una transacción activa, antes de la
+ * llamada se vuelcan y descartan las entidades del contexto de persistencia, de modo que la
+ * llamada empieza en frío y paga sus cargas EAGER; al terminar se vuelca otra vez para que
+ * cuenten también las escrituras pendientes. Las entidades que el test tuviera quedan
+ * desasociadas. No ve el SQL lanzado por JDBC directo (shards de valoraciones).
+ *
+ * Lleva también {@code @Default} para que los tests puedan inyectarlo sin el cualificador.
+ */
+@PersistenceUnitExtension
+@Default
+@ApplicationScoped
+public class PresupuestoSql implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURA = new ThreadLocal<>();
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    TransactionSynchronizationRegistry transacciones;
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captura = CAPTURA.get();
+        if (captura != null) {
+            captura.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Ejecuta la llamada y comprueba que no lanza más de {@code maximo} sentencias SQL.
+     * @param operacion Nombre de la operación en el informe, p. ej. "ListComentariosUseCase.executePage"
+     * @return Resultado de la llamada
+     */
+    public <T> T comprobar(String operacion, int maximo, Supplier<T> llamada) {
+        List<String> sentencias = new ArrayList<>();
+        boolean enTransaccion = transacciones.getTransactionStatus() == Status.STATUS_ACTIVE;
+        if (enTransaccion) {
+            em.flush();
+            em.clear();
+        }
+        CAPTURA.set(sentencias);
+        T resultado;
+        try {
+            resultado = llamada.get();
+            if (enTransaccion) {
+                em.flush();
+            }
+        } finally {
+            CAPTURA.remove();
+        }
+        if (sentencias.size() > maximo) {
+            fail(informe(operacion, maximo, sentencias));
+        }
+        return resultado;
+    }
+
+    /**
+     * Igual que {@link #comprobar(String, int, Supplier)} para llamadas sin resultado.
+     */
+    public void comprobar(String operacion, int maximo, Runnable llamada) {
+        comprobar(operacion, maximo, () -> {
+            llamada.run();
+            return null;
+        });
+    }
+
+    static String informe(String operacion, int maximo, List<String> sentencias) {
+        Map<String, Integer> veces = new LinkedHashMap<>();
+        sentencias.forEach(sql -> veces.merge(sql, 1, Integer::sum));
+        StringBuilder informe = new StringBuilder()
+            .append(operacion).append(": ").append(sentencias.size())
+            .append(" sentencias SQL, presupuesto ").append(maximo);
+        veces.forEach((sql, n) -> informe.append("\n  ").append(n).append("x ").append(sql));
+        return informe.toString();
+    }
+}
@@ -0,0 +1,162 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la purga de valoraciones y comentarios eliminados.
+ * Perfil de test: batch-size=20, sin pausa entre lotes y retención por defecto (30 días).
+ */
+@QuarkusTest
+class PurgaEliminadosJobTest {
+
+    @Inject
+    PurgaEliminadosJob job;
+
+    @Inject
+    CategoriaDiccionario categorias;
+
+    @Inject
+    EntityManager em;
+
+    private Integer idReceta;
+
+    @BeforeEach
+    void setUp() {
+        QuarkusTransaction.requiringNew().run(this::limpiar);
+        idReceta = QuarkusTransaction.requiringNew().call(() -> {
+            UsuarioEntity autor = new UsuarioEntity();
+            autor.nombre = "Chef";
+            autor.email = "chef@test.com";
+            autor.claveAcceso = "password";
+            em.persist(autor);
+
+            RecetaEntity receta = new RecetaEntity();
+            receta.nombre = "Paella";
+            receta.dificultad = DifficultyLevel.EASY;
+            receta.tiempo = 60;
+            receta.comensales = 4;
+            receta.preparacion = "Preparación";
+            receta.idCategoria = categorias.registrar("general");
+            receta.autor = autor;
+            em.persist(receta);
+
+            insertarValoraciones(receta, "antigua", 45, LocalDateTime.now().minusDays(60));
+            insertarValoraciones(receta, "reciente", 3, LocalDateTime.now().minusDays(1));
+            insertarValoraciones(receta, "activa", 5, null);
+
+            insertarComentarios(receta, autor, 30, "eliminado", LocalDateTime.now().minusDays(60));
+            insertarComentarios(receta, autor, 2, "activo", LocalDateTime.now().minusDays(60));
+            insertarComentarios(receta, autor, 1, "eliminado", LocalDateTime.now().minusDays(1));
+            return receta.idReceta;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Las valoraciones y comentarios de este test no los limpian otras clases
+        QuarkusTransaction.requiringNew().run(this::limpiar);
+    }
+
+    @Test
+    void testPurgaSoloEliminadosFueraDeRetencion() {
+        // When
+        PurgaEliminadosJob.Resultado resultado = job.purgar();
+
+        // Then
+        assertEquals(45, resultado.getValoraciones());
+        assertEquals(30, resultado.getComentarios());
+        assertEquals(5, resultado.getLotes());
+        assertFalse(resultado.isIncompleta());
+        assertEquals(8L, contar("SELECT COUNT(v) FROM ValoracionEntity v WHERE v.receta.idReceta = :id"));
+        assertEquals(5L, contar("SELECT COUNT(v) FROM ValoracionEntity v WHERE v.receta.idReceta = :id AND v.fEliminacion IS NULL"));
+        assertEquals(2L, contar("SELECT COUNT(c) FROM ComentarioEntity c WHERE c.receta.idReceta = :id AND c.estado = 'activo'"));
+        assertEquals(1L, contar("SELECT COUNT(c) FROM ComentarioEntity c WHERE c.receta.idReceta = :id AND c.estado <> 'activo'"));
+    }
+
+    @Test
+    void testCadaTablaTieneSuPresupuestoDeLotes() {
+        // When: dos lotes por tabla; las valoraciones necesitan tres
+        PurgaEliminadosJob.Resultado resultado = job.purgar(2);
+
+        // Then: los comentarios se purgan aunque las valoraciones agoten sus lotes
+        assertEquals(40, resultado.getValoraciones());
+        assertEquals(30, resultado.getComentarios());
+        assertEquals(4, resultado.getLotes());
+        assertTrue(resultado.isIncompleta());
+
+        // When: la siguiente pasada termina las valoraciones
+        resultado = job.purgar(2);
+
+        // Then
+        assertEquals(5, resultado.getValoraciones());
+        assertEquals(0, resultado.getComentarios());
+        assertFalse(resultado.isIncompleta());
+    }
+
+    @Test
+    void testSegundaPasadaNoEncuentraNada() {
+        job.purgar();
+
+        PurgaEliminadosJob.Resultado resultado = job.purgar();
+
+        assertEquals(0, resultado.getValoraciones());
+        assertEquals(0, resultado.getComentarios());
+        assertEquals(0, resultado.getLotes());
+    }
+
+    private void insertarValoraciones(RecetaEntity receta, String grupo, int cuantas, LocalDateTime fEliminacion) {
+        em.createNativeQuery("INSERT INTO usuarios (nombre, clave_acceso, email, f_creacion, es_admin, estado) "
+                + "SELECT 'Votante', 'password', CONCAT(:grupo, X, '@test.com'), CURRENT_TIMESTAMP, FALSE, 'activo' "
+                + "FROM SYSTEM_RANGE(1, :n)")
+            .setParameter("grupo", grupo)
+            .setParameter("n", cuantas)
+            .executeUpdate();
+        em.createNativeQuery("INSERT INTO valoraciones (id_receta, id_usuario, tipo, f_creacion, f_eliminacion) "
+                + "SELECT :receta, id_usuario, 1, CURRENT_TIMESTAMP, :fEliminacion FROM usuarios WHERE email LIKE :patron")
+            .setParameter("receta", receta.idReceta)
+            .setParameter("fEliminacion", fEliminacion)
+            .setParameter("patron", grupo + "%")
+            .executeUpdate();
+    }
+
+    private void insertarComentarios(RecetaEntity receta, UsuarioEntity autor, int cuantos, String estado, LocalDateTime fecha) {
+        for (int i = 0; i < cuantos; i++) {
+            ComentarioEntity comentario = new ComentarioEntity();
+            comentario.receta = receta;
+            comentario.autor = autor;
+            comentario.contenido = "Comentario " + i;
+            comentario.estado = estado;
+            comentario.fCreacion = fecha;
+            comentario.fModificacion = fecha;
+            em.persist(comentario);
+        }
+    }
+
+    private long contar(String jpql) {
+        return QuarkusTransaction.requiringNew().call(() -> em.createQuery(jpql, Long.class)
+            .setParameter("id", idReceta)
+            .getSingleResult());
+    }
+
+    private void limpiar() {
+        // Limpiar datos - orden importante por foreign keys
+        Panache.getEntityManager().createQuery("DELETE FROM ComentarioEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM ValoracionEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM RecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UsuarioEntity").executeUpdate();
+    }
+}
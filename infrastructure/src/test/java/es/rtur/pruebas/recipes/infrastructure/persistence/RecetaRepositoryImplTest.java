@@ -1,9 +1,19 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.entity.Receta;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.infrastructure.outbox.OutboxEvento;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.hibernate.orm.panache.Panache;
 import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -22,6 +32,9 @@ class RecetaRepositoryImplTest {
     @Inject
     RecetaRepositoryImpl recetaRepository;
 
+    @Inject
+    CategoriaDiccionario categorias;
+
     @Inject
     UsuarioRepositoryImpl usuarioRepository;
 
@@ -34,6 +47,15 @@ class RecetaRepositoryImplTest {
     @Inject
     ValoracionRepositoryImpl valoracionRepository;
 
+    @Inject
+    ResumenRecetaBackfill resumenRecetaBackfill;
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    PresupuestoSql presupuestoSql;
+
     private UsuarioEntity autor;
 
     @BeforeEach
@@ -67,7 +89,8 @@ void testPersistAndFindById() {
         recetaRepository.persist(receta);
 
         // When
-        var found = recetaRepository.findByIdOptional((long) receta.idReceta);
+        var found = presupuestoSql.comprobar("RecetaRepositoryImpl.findByIdOptional", 1,
+            () -> recetaRepository.findByIdOptional((long) receta.idReceta));
 
         // Then
         assertTrue(found.isPresent());
@@ -82,7 +105,8 @@ void testFindByAutor() {
         recetaRepository.persist(crearReceta("Receta 2", "media", 45));
 
         // When
-        List<RecetaEntity> recetas = recetaRepository.findByAutor(autor.idUsuario);
+        List<RecetaEntity> recetas = presupuestoSql.comprobar("RecetaRepositoryImpl.findByAutor", 1,
+            () -> recetaRepository.findByAutor(autor.idUsuario));
 
         // Then
         assertEquals(2, recetas.size());
@@ -97,7 +121,8 @@ void testSearchByNombre() {
         recetaRepository.persist(crearReceta("Tortilla Española", "facil", 20));
 
         // When
-        List<RecetaEntity> resultados = recetaRepository.searchByNombre("paella");
+        List<RecetaEntity> resultados = presupuestoSql.comprobar("RecetaRepositoryImpl.searchByNombre", 1,
+            () -> recetaRepository.searchByNombre("paella"));
 
         // Then
         assertEquals(2, resultados.size());
@@ -113,11 +138,12 @@ void testFindByDificultad() {
         recetaRepository.persist(crearReceta("Receta Difícil", "dificil", 120));
 
         // When
-        List<RecetaEntity> faciles = recetaRepository.findEntitiesByDificultad("facil");
+        List<RecetaEntity> faciles = presupuestoSql.comprobar("RecetaRepositoryImpl.findEntitiesByDificultad", 1,
+            () -> recetaRepository.findEntitiesByDificultad("facil"));
 
         // Then
         assertEquals(2, faciles.size());
-        assertTrue(faciles.stream().allMatch(r -> "facil".equals(r.dificultad)));
+        assertTrue(faciles.stream().allMatch(r -> r.dificultad == DifficultyLevel.EASY));
     }
 
     @Test
@@ -125,15 +151,16 @@ void testFindByDificultad() {
     void testFindByCategoria() {
         // Given
         RecetaEntity postre1 = crearReceta("Tarta de Chocolate", "media", 90);
-        postre1.categoria = "postre";
+        postre1.idCategoria = categorias.registrar("postre");
         recetaRepository.persist(postre1);
 
         RecetaEntity principal = crearReceta("Lentejas", "facil", 45);
-        principal.categoria = "plato principal";
+        principal.idCategoria = categorias.registrar("plato principal");
         recetaRepository.persist(principal);
 
         // When
-        List<RecetaEntity> postres = recetaRepository.findEntitiesByCategoria("postre");
+        List<RecetaEntity> postres = presupuestoSql.comprobar("RecetaRepositoryImpl.findEntitiesByCategoria", 1,
+            () -> recetaRepository.findEntitiesByCategoria("postre"));
 
         // Then
         assertEquals(1, postres.size());
@@ -159,7 +186,8 @@ void testFindByIngrediente() {
         recetaRepository.persist(paella);
 
         // When
-        List<RecetaEntity> recetas = recetaRepository.findByIngrediente("arroz");
+        List<RecetaEntity> recetas = presupuestoSql.comprobar("RecetaRepositoryImpl.findByIngrediente", 1,
+            () -> recetaRepository.findByIngrediente("arroz"));
 
         // Then
         assertEquals(1, recetas.size());
@@ -175,7 +203,8 @@ void testFindByTiempoMenorIgualQue() {
         recetaRepository.persist(crearReceta("Receta Lenta", "dificil", 120));
 
         // When
-        List<RecetaEntity> rapidas = recetaRepository.findByTiempoMenorIgualQue(30);
+        List<RecetaEntity> rapidas = presupuestoSql.comprobar("RecetaRepositoryImpl.findByTiempoMenorIgualQue", 1,
+            () -> recetaRepository.findByTiempoMenorIgualQue(30));
 
         // Then
         assertEquals(1, rapidas.size());
@@ -199,7 +228,8 @@ void testFindByComensales() {
         recetaRepository.persist(para6);
 
         // When (buscar para 4 comensales, rango ±2)
-        List<RecetaEntity> resultados = recetaRepository.findByComensales(4);
+        List<RecetaEntity> resultados = presupuestoSql.comprobar("RecetaRepositoryImpl.findByComensales", 1,
+            () -> recetaRepository.findByComensales(4));
 
         // Then (debe incluir 2, 4 y 6 comensales)
         assertEquals(3, resultados.size());
@@ -214,7 +244,8 @@ void testFindRecientes() {
         recetaRepository.persist(crearReceta("Receta 3", "dificil", 60));
 
         // When
-        List<RecetaEntity> recientes = recetaRepository.findRecientes(2);
+        List<RecetaEntity> recientes = presupuestoSql.comprobar("RecetaRepositoryImpl.findRecientes", 1,
+            () -> recetaRepository.findRecientes(2));
 
         // Then
         assertEquals(2, recientes.size());
@@ -225,19 +256,20 @@ void testFindRecientes() {
     void testBuscarConFiltros_TodosLosFiltros() {
         // Given
         RecetaEntity receta1 = crearReceta("Pasta Carbonara", "facil", 20);
-        receta1.categoria = "pasta";
+        receta1.idCategoria = categorias.registrar("pasta");
         recetaRepository.persist(receta1);
 
         RecetaEntity receta2 = crearReceta("Lasaña", "media", 60);
-        receta2.categoria = "pasta";
+        receta2.idCategoria = categorias.registrar("pasta");
         recetaRepository.persist(receta2);
 
         RecetaEntity receta3 = crearReceta("Ensalada César", "facil", 10);
-        receta3.categoria = "ensalada";
+        receta3.idCategoria = categorias.registrar("ensalada");
         recetaRepository.persist(receta3);
 
         // When
-        List<RecetaEntity> resultados = recetaRepository.buscarConFiltros("facil", "pasta", 30);
+        List<RecetaEntity> resultados = presupuestoSql.comprobar("RecetaRepositoryImpl.buscarConFiltros", 1,
+            () -> recetaRepository.buscarConFiltros("facil", "pasta", 30));
 
         // Then
         assertEquals(1, resultados.size());
@@ -253,7 +285,8 @@ void testBuscarConFiltros_SoloDificultad() {
         recetaRepository.persist(crearReceta("Receta 3", "dificil", 60));
 
         // When
-        List<RecetaEntity> resultados = recetaRepository.buscarConFiltros("facil", null, null);
+        List<RecetaEntity> resultados = presupuestoSql.comprobar("RecetaRepositoryImpl.buscarConFiltros", 1,
+            () -> recetaRepository.buscarConFiltros("facil", null, null));
 
         // Then
         assertEquals(2, resultados.size());
@@ -267,7 +300,8 @@ void testBuscarConFiltros_SinFiltros() {
         recetaRepository.persist(crearReceta("Receta 2", "media", 30));
 
         // When
-        List<RecetaEntity> resultados = recetaRepository.buscarConFiltros(null, null, null);
+        List<RecetaEntity> resultados = presupuestoSql.comprobar("RecetaRepositoryImpl.buscarConFiltros", 1,
+            () -> recetaRepository.buscarConFiltros(null, null, null));
 
         // Then
         assertEquals(2, resultados.size());
@@ -282,22 +316,183 @@ void testPrePersistSetsFechas() {
         receta.fModificacion = null;
 
         // When
-        recetaRepository.persist(receta);
+        presupuestoSql.comprobar("RecetaRepositoryImpl.persist", 1, () -> recetaRepository.persist(receta));
 
         // Then
         assertNotNull(receta.fCreacion);
         assertNotNull(receta.fModificacion);
     }
 
+    @Test
+    void testListadosNoCarganPreparacion() {
+        // Given
+        String preparacion = "Sofreír el arroz con el caldo. ".repeat(50);
+        Integer id = QuarkusTransaction.requiringNew().call(() -> {
+            RecetaEntity receta = crearReceta("Paella", "media", 60);
+            receta.preparacion = preparacion;
+            recetaRepository.persist(receta);
+            return receta.idReceta;
+        });
+
+        // When: listado y detalle
+        List<Receta> listado = presupuestoSql.comprobar("RecetaRepositoryImpl.findAllRecetas", 1,
+            () -> recetaRepository.findAllRecetas());
+        Receta detalle = presupuestoSql.comprobar("RecetaRepositoryImpl.findById", 1,
+            () -> recetaRepository.findById(RecetaId.of(id)).orElseThrow());
+
+        // Then: el listado solo trae el resumen; el detalle, el texto completo
+        assertEquals(1, listado.size());
+        assertNull(listado.get(0).getPreparacion());
+        assertFalse(listado.get(0).isPreparacionLoaded());
+        assertEquals(Receta.resumir(preparacion), listado.get(0).getResumen());
+        assertEquals(preparacion, detalle.getPreparacion());
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            RecetaEntity entidad = em.createQuery("FROM RecetaEntity", RecetaEntity.class).getSingleResult();
+            assertFalse(Hibernate.isPropertyInitialized(entidad, "preparacion"));
+            assertTrue(Hibernate.isPropertyInitialized(entidad, "resumen"));
+        });
+    }
+
+    @Test
+    void testGuardarRecetaDeListadoConservaPreparacion() {
+        // Given
+        Integer id = QuarkusTransaction.requiringNew().call(() -> {
+            RecetaEntity receta = crearReceta("Gazpacho", "facil", 15);
+            recetaRepository.persist(receta);
+            return receta.idReceta;
+        });
+        Receta deListado = recetaRepository.findAllRecetas().get(0);
+
+        // When
+        deListado.updateDetails("Gazpacho andaluz", null, null, null, null, null);
+        presupuestoSql.comprobar("RecetaRepositoryImpl.save", 4, () -> recetaRepository.save(deListado));
+
+        // Then: se relee en otra transacción para no ver la entidad ya cargada
+        Receta detalle = QuarkusTransaction.requiringNew().call(() -> recetaRepository.findById(RecetaId.of(id)).orElseThrow());
+        assertEquals("Gazpacho andaluz", detalle.getNombre());
+        assertEquals("Preparación de Gazpacho", detalle.getPreparacion());
+    }
+
+    @Test
+    void testDificultadYCategoriaSeGuardanComoCodigos() {
+        // Given
+        Receta guardada = presupuestoSql.comprobar("RecetaRepositoryImpl.save", 5,
+            () -> recetaRepository.save(new Receta(null, "Flan", 45, 6, "media", "Caramelizar",
+                "postres caseros", UsuarioId.of(autor.idUsuario))));
+
+        // When
+        Object[] fila = QuarkusTransaction.requiringNew().call(() -> (Object[]) em.createNativeQuery(
+                "SELECT dificultad, id_categoria FROM recetas WHERE id_receta = :id")
+            .setParameter("id", guardada.getId().getValue())
+            .getSingleResult());
+
+        // Then: códigos enteros en la tabla, valores de la API en el dominio
+        assertEquals(DifficultyLevel.MEDIUM.getCode(), ((Number) fila[0]).shortValue());
+        assertEquals(categorias.buscarCodigo("postres caseros"), ((Number) fila[1]).shortValue());
+        assertEquals(categorias.registrar("postres caseros"), categorias.buscarCodigo("postres caseros"));
+        assertEquals("postres caseros", categorias.nombre(((Number) fila[1]).shortValue()));
+        assertEquals("media", guardada.getDificultad());
+        assertEquals("postres caseros", recetaRepository.findByCategoria("postres caseros").get(0).getCategoria());
+        assertTrue(recetaRepository.findByCategoria("inexistente").isEmpty());
+        assertTrue(recetaRepository.findByDificultad("imposible").isEmpty());
+    }
+
+    @Test
+    void testCategoriaInexistenteNoSeConsultaEnCadaBusqueda() {
+        // Given: el primer fallo consulta solo esa categoría
+        String nombre = "inexistente-" + System.nanoTime();
+        presupuestoSql.comprobar("CategoriaDiccionario.buscarCodigo", 1, () -> assertNull(categorias.buscarCodigo(nombre)));
+
+        // When / Then: los siguientes fallos salen de la caché hasta que se da de alta
+        presupuestoSql.comprobar("CategoriaDiccionario.buscarCodigo", 0, () -> assertNull(categorias.buscarCodigo(nombre)));
+        Short codigo = categorias.registrar(nombre);
+        assertNotNull(codigo);
+        assertEquals(codigo, categorias.buscarCodigo(nombre));
+    }
+
+    @Test
+    void testEliminarRecetaBorraHijosSinCargarlos() {
+        // Given: receta con muchas valoraciones y un comentario
+        int votantes = 2000;
+        Integer idReceta = QuarkusTransaction.requiringNew().call(() -> {
+            RecetaEntity receta = crearReceta("Tortilla", "facil", 30);
+            recetaRepository.persist(receta);
+            em.createNativeQuery("INSERT INTO usuarios (nombre, clave_acceso, email, f_creacion, es_admin, estado) "
+                    + "SELECT 'Votante', 'password', CONCAT('votante', X, '@test.com'), CURRENT_TIMESTAMP, FALSE, 'activo' "
+                    + "FROM SYSTEM_RANGE(1, :n)")
+                .setParameter("n", votantes)
+                .executeUpdate();
+            em.createNativeQuery("INSERT INTO valoraciones (id_receta, id_usuario, tipo, f_creacion) "
+                    + "SELECT :receta, id_usuario, 1, CURRENT_TIMESTAMP FROM usuarios WHERE email LIKE 'votante%'")
+                .setParameter("receta", receta.idReceta)
+                .executeUpdate();
+            ComentarioEntity comentario = new ComentarioEntity();
+            comentario.receta = receta;
+            comentario.autor = receta.autor;
+            comentario.contenido = "Muy buena";
+            comentarioRepository.persist(comentario);
+            return receta.idReceta;
+        });
+        List<Integer> idsValoraciones = QuarkusTransaction.requiringNew().call(() -> em.createQuery(
+                "SELECT v.idValoracion FROM ValoracionEntity v WHERE v.receta.idReceta = :id", Integer.class)
+            .setParameter("id", idReceta)
+            .getResultList());
+        List<Integer> idsComentarios = QuarkusTransaction.requiringNew().call(() -> em.createQuery(
+                "SELECT c.idComentario FROM ComentarioEntity c WHERE c.receta.idReceta = :id", Integer.class)
+            .setParameter("id", idReceta)
+            .getResultList());
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        // When: la receta está cargada en la sesión, como en DeleteRecetaUseCase
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertTrue(recetaRepository.findById(RecetaId.of(idReceta)).isPresent());
+            statistics.clear();
+            recetaRepository.deleteById(RecetaId.of(idReceta));
+        });
+
+        // Then: valoraciones y comentarios en lotes de 1000 (SELECT de columnas y DELETE por ids), un
+        // DELETE por tabla para el resto y el evento de la receta; ninguna valoración cargada.
+        // Los eventos de las filas hijas van en lotes JDBC, fuera de las estadísticas de Hibernate
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 11,
+            "Sentencias: " + statistics.getPrepareStatementCount());
+        assertEquals((long) votantes, contarEliminados(OutboxEvento.AGREGADO_VALORACION, idsValoraciones));
+        assertEquals(1L, contarEliminados(OutboxEvento.AGREGADO_COMENTARIO, idsComentarios));
+        assertEquals(0L, QuarkusTransaction.requiringNew().call(() -> valoracionRepository.count("receta.idReceta", idReceta)));
+        assertEquals(0L, QuarkusTransaction.requiringNew().call(() -> comentarioRepository.count("receta.idReceta", idReceta)));
+        assertFalse(recetaRepository.existsById(RecetaId.of(idReceta)));
+    }
+
+    @Test
+    void testBackfillRellenaResumenesPendientes() {
+        // Given: recetas anteriores a la columna resumen
+        QuarkusTransaction.requiringNew().run(() -> {
+            recetaRepository.persist(crearReceta("Tortilla", "facil", 20));
+            recetaRepository.persist(crearReceta("Cocido", "dificil", 180));
+            em.createQuery("UPDATE RecetaEntity r SET r.resumen = NULL").executeUpdate();
+        });
+
+        // When
+        int rellenadas = presupuestoSql.comprobar("ResumenRecetaBackfill.rellenar", 3,
+            () -> resumenRecetaBackfill.rellenar());
+
+        // Then
+        assertEquals(2, rellenadas);
+        assertEquals(0, resumenRecetaBackfill.rellenar());
+        assertTrue(recetaRepository.findAllRecetas().stream()
+            .allMatch(r -> r.getResumen().startsWith("Preparación de ")));
+    }
+
     // Métodos helper
     private RecetaEntity crearReceta(String nombre, String dificultad, Integer tiempo) {
         RecetaEntity receta = new RecetaEntity();
         receta.nombre = nombre;
-        receta.dificultad = dificultad;
+        receta.dificultad = DifficultyLevel.fromValue(dificultad);
         receta.tiempo = tiempo;
         receta.comensales = 4;
         receta.preparacion = "Preparación de " + nombre;
-        receta.categoria = "general";
+        receta.idCategoria = categorias.registrar("general");
         receta.autor = autor;
         return receta;
     }
@@ -308,4 +503,14 @@ private IngredienteEntity crearIngrediente(String nombre, String tipo) {
         ingrediente.tipo = tipo;
         return ingrediente;
     }
+
+    private long contarEliminados(String tipoAgregado, List<Integer> ids) {
+        return QuarkusTransaction.requiringNew().call(() -> em.createQuery(
+                "SELECT COUNT(e) FROM OutboxEventoEntity e "
+                    + "WHERE e.tipoAgregado = :agregado AND e.tipoEvento = :tipo AND e.idAgregado IN :ids", Long.class)
+            .setParameter("agregado", tipoAgregado)
+            .setParameter("tipo", OutboxEvento.EVENTO_ELIMINADO)
+            .setParameter("ids", ids)
+            .getSingleResult());
+    }
 }
@@ -0,0 +1,197 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.dto.RecetaResumenDTO;
+import es.rtur.pruebas.recipes.application.usecase.ListRecetasResumenUseCase;
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.entity.TipoValoracion;
+import es.rtur.pruebas.recipes.domain.readmodel.RecetaResumen;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para el modelo de lectura de listados de recetas con contadores.
+ */
+@QuarkusTest
+class RecetaResumenRepositoryImplTest {
+
+    @Inject
+    RecetaResumenRepositoryImpl recetaResumenRepository;
+
+    @Inject
+    ListRecetasResumenUseCase listRecetasResumenUseCase;
+
+    @Inject
+    RecetaRepositoryImpl recetaRepository;
+
+    @Inject
+    CategoriaDiccionario categorias;
+
+    @Inject
+    UsuarioRepositoryImpl usuarioRepository;
+
+    @Inject
+    EntityManager em;
+
+    @Inject
+    PresupuestoSql presupuestoSql;
+
+    private List<UsuarioEntity> usuarios;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        // Limpiar datos - orden importante por foreign keys
+        Panache.getEntityManager().createQuery("DELETE FROM ComentarioEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM ValoracionEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        recetaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        usuarios = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UsuarioEntity usuario = new UsuarioEntity();
+            usuario.nombre = "Usuario " + i;
+            usuario.email = "user" + i + "@test.com";
+            usuario.claveAcceso = "password";
+            usuario.esAdmin = false;
+            usuarioRepository.persist(usuario);
+            usuarios.add(usuario);
+        }
+    }
+
+    @Test
+    void testFindPageIncluyeContadores() {
+        // Given
+        List<Integer> ids = crearRecetas(3);
+        QuarkusTransaction.requiringNew().run(() -> {
+            RecetaEntity paella = em.find(RecetaEntity.class, ids.get(0));
+            valorar(paella, usuarios.get(0), "like", false);
+            valorar(paella, usuarios.get(1), "like", false);
+            valorar(paella, usuarios.get(2), "dislike", false);
+            comentar(paella, usuarios.get(0), "activo");
+            comentar(paella, usuarios.get(1), "eliminado");
+
+            RecetaEntity gazpacho = em.find(RecetaEntity.class, ids.get(1));
+            valorar(gazpacho, usuarios.get(0), "like", true);
+            comentar(gazpacho, usuarios.get(2), "activo");
+            comentar(gazpacho, usuarios.get(2), "activo");
+        });
+
+        // When
+        List<RecetaResumen> pagina = presupuestoSql.comprobar("RecetaResumenRepositoryImpl.findPage", 1,
+            () -> recetaResumenRepository.findPage(null, null, 0, 10));
+
+        // Then: orden por fecha de creación descendente
+        assertEquals(3, pagina.size());
+        RecetaResumen sinActividad = pagina.get(0);
+        RecetaResumen gazpacho = pagina.get(1);
+        RecetaResumen paella = pagina.get(2);
+
+        assertEquals(ids.get(2), sinActividad.getId().getValue());
+        assertEquals(0, sinActividad.getLikes());
+        assertEquals(0, sinActividad.getComentarios());
+
+        assertEquals(0, gazpacho.getLikes());
+        assertEquals(2, gazpacho.getComentarios());
+
+        assertEquals(2, paella.getLikes());
+        assertEquals(1, paella.getDislikes());
+        assertEquals(1, paella.getComentarios());
+        assertEquals(usuarios.get(0).idUsuario, paella.getIdAutor().getValue());
+    }
+
+    @Test
+    void testFindPageFiltraYPagina() {
+        // Given
+        crearRecetas(5);
+
+        // When
+        List<RecetaResumen> faciles = presupuestoSql.comprobar("RecetaResumenRepositoryImpl.findPage", 1,
+            () -> recetaResumenRepository.findPage("facil", null, 0, 10));
+        List<RecetaResumen> segundaPagina = presupuestoSql.comprobar("RecetaResumenRepositoryImpl.findPage", 1,
+            () -> recetaResumenRepository.findPage(null, "categoria-0", 1, 2));
+
+        // Then
+        assertEquals(3, faciles.size());
+        assertTrue(faciles.stream().allMatch(r -> "facil".equals(r.getDificultad())));
+        assertEquals(2, segundaPagina.size());
+    }
+
+    @Test
+    void testUnaSentenciaSqlPorPaginaSeaCualSeaSuTamano() {
+        // Given
+        List<Integer> ids = crearRecetas(60);
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (Integer id : ids) {
+                RecetaEntity receta = em.find(RecetaEntity.class, id);
+                valorar(receta, usuarios.get(0), "like", false);
+                comentar(receta, usuarios.get(1), "activo");
+            }
+        });
+
+        for (int size : new int[] {1, 10, 50}) {
+            // When
+            List<RecetaResumenDTO> pagina = presupuestoSql.comprobar("ListRecetasResumenUseCase.execute, página de " + size,
+                1, () -> listRecetasResumenUseCase.execute(null, null, 0, size));
+
+            // Then
+            assertEquals(size, pagina.size());
+            assertTrue(pagina.stream().allMatch(r -> r.getLikes() == 1 && r.getComentarios() == 1));
+        }
+    }
+
+    private List<Integer> crearRecetas(int total) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            UsuarioEntity autor = em.find(UsuarioEntity.class, usuarios.get(0).idUsuario);
+            LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                RecetaEntity receta = new RecetaEntity();
+                receta.nombre = "Receta " + i;
+                receta.dificultad = i % 2 == 0 ? DifficultyLevel.EASY : DifficultyLevel.MEDIUM;
+                receta.idCategoria = categorias.registrar("categoria-" + (i % 2));
+                receta.tiempo = 30;
+                receta.comensales = 4;
+                receta.preparacion = "Preparación";
+                receta.autor = autor;
+                receta.fCreacion = base.plusMinutes(i);
+                recetaRepository.persist(receta);
+                ids.add(receta.idReceta);
+            }
+            return ids;
+        });
+    }
+
+    private void valorar(RecetaEntity receta, UsuarioEntity usuario, String tipo, boolean eliminada) {
+        ValoracionEntity valoracion = new ValoracionEntity();
+        valoracion.receta = receta;
+        valoracion.usuario = em.find(UsuarioEntity.class, usuario.idUsuario);
+        valoracion.tipo = TipoValoracion.fromValue(tipo);
+        if (eliminada) {
+            valoracion.eliminar();
+        }
+        em.persist(valoracion);
+    }
+
+    private void comentar(RecetaEntity receta, UsuarioEntity autor, String estado) {
+        ComentarioEntity comentario = new ComentarioEntity();
+        comentario.receta = receta;
+        comentario.autor = em.find(UsuarioEntity.class, autor.idUsuario);
+        comentario.contenido = "Comentario";
+        comentario.estado = estado;
+        em.persist(comentario);
+    }
+}
@@ -0,0 +1,104 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.application.routing.RoutingContext;
+import es.rtur.pruebas.recipes.application.usecase.DeleteUsuarioUseCase;
+import es.rtur.pruebas.recipes.application.usecase.ListRecetasUseCase;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del enrutado lectura/escritura.
+ * En el perfil de test la réplica es un segundo pool sobre la misma base H2, así que los datos
+ * son los mismos y solo cambia el datasource por el que se abre cada sesión.
+ */
+@QuarkusTest
+class ReplicaTenantResolverTest {
+
+    @Inject
+    @PersistenceUnitExtension
+    ReplicaTenantResolver resolver;
+
+    @Inject
+    LecturaConsistente lecturaConsistente;
+
+    @Inject
+    ListRecetasUseCase listRecetasUseCase;
+
+    @Inject
+    DeleteUsuarioUseCase deleteUsuarioUseCase;
+
+    @Inject
+    UsuarioRepositoryImpl usuarioRepository;
+
+    private Integer idUsuario;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        Panache.getEntityManager().createQuery("DELETE FROM ComentarioEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM ValoracionEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM RecetaEntity").executeUpdate();
+        usuarioRepository.deleteAll();
+
+        UsuarioEntity usuario = new UsuarioEntity();
+        usuario.nombre = "Lector";
+        usuario.email = "lector@test.com";
+        usuario.claveAcceso = "password";
+        usuarioRepository.persist(usuario);
+        idUsuario = usuario.idUsuario;
+    }
+
+    @Test
+    void testCasoDeUsoDeLecturaVaALaReplica() {
+        long replica = resolver.getSesionesReplica();
+
+        assertTrue(listRecetasUseCase.execute().isEmpty());
+
+        assertEquals(replica + 1, resolver.getSesionesReplica());
+        assertFalse(RoutingContext.isReadOnly());
+    }
+
+    @Test
+    void testEscrituraVaAlPrincipal() {
+        long replica = resolver.getSesionesReplica();
+        long primario = resolver.getSesionesPrimario();
+
+        deleteUsuarioUseCase.execute(idUsuario, idUsuario, false);
+
+        assertEquals(replica, resolver.getSesionesReplica());
+        assertTrue(resolver.getSesionesPrimario() > primario);
+    }
+
+    @Test
+    void testLecturaConsistenteTrasEscrituraVaAlPrincipal() {
+        long replica = resolver.getSesionesReplica();
+        long primario = resolver.getSesionesPrimario();
+        lecturaConsistente.activar();
+
+        listRecetasUseCase.execute();
+
+        assertEquals(replica, resolver.getSesionesReplica());
+        assertEquals(primario + 1, resolver.getSesionesPrimario());
+    }
+
+    @Test
+    void testReplicaEnMemoriaDistintaDelPrincipalImpideArrancar() {
+        String h2 = "jdbc:h2:mem:recipes;DB_CLOSE_DELAY=-1";
+        String postgres = "jdbc:postgresql://localhost:5432/recipes";
+        ReplicaTenantResolver.comprobarReplica(true, "jdbc:h2:mem:recipes", h2);
+        ReplicaTenantResolver.comprobarReplica(true, postgres, "jdbc:postgresql://replica:5432/recipes");
+        ReplicaTenantResolver.comprobarReplica(false, postgres, h2);
+        assertThrows(IllegalStateException.class, () -> ReplicaTenantResolver.comprobarReplica(true, postgres, h2));
+        assertThrows(IllegalStateException.class,
+            () -> ReplicaTenantResolver.comprobarReplica(true, "jdbc:h2:mem:otra", h2));
+    }
+}
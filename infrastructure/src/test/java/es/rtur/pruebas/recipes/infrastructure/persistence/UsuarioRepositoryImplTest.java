@@ -31,6 +31,9 @@ class UsuarioRepositoryImplTest {
     @Inject
     RecetaRepositoryImpl recetaRepository;
 
+    @Inject
+    PresupuestoSql presupuestoSql;
+
     @BeforeEach
     @Transactional
     void setUp() {
@@ -53,7 +56,8 @@ void testPersistAndFindById() {
         repository.persist(usuario);
 
         // When
-        Optional<UsuarioEntity> found = repository.findByIdOptional((long) usuario.idUsuario);
+        Optional<UsuarioEntity> found = presupuestoSql.comprobar("UsuarioRepositoryImpl.findByIdOptional", 1,
+            () -> repository.findByIdOptional((long) usuario.idUsuario));
 
         // Then
         assertTrue(found.isPresent());
@@ -69,7 +73,8 @@ void testFindByEmail() {
         repository.persist(usuario);
 
         // When
-        Optional<UsuarioEntity> found = repository.findEntityByEmail("maria@test.com");
+        Optional<UsuarioEntity> found = presupuestoSql.comprobar("UsuarioRepositoryImpl.findEntityByEmail", 1,
+            () -> repository.findEntityByEmail("maria@test.com"));
 
         // Then
         assertTrue(found.isPresent());
@@ -80,7 +85,8 @@ void testFindByEmail() {
     @Transactional
     void testFindByEmailNoExiste() {
         // When
-        Optional<UsuarioEntity> found = repository.findEntityByEmail("noexiste@test.com");
+        Optional<UsuarioEntity> found = presupuestoSql.comprobar("UsuarioRepositoryImpl.findEntityByEmail", 1,
+            () -> repository.findEntityByEmail("noexiste@test.com"));
 
         // Then
         assertFalse(found.isPresent());
@@ -103,8 +109,10 @@ void testFindByEstado() {
         repository.persist(inactivo);
 
         // When
-        List<UsuarioEntity> activos = repository.findEntitiesByEstado("activo");
-        List<UsuarioEntity> inactivos = repository.findEntitiesByEstado("inactivo");
+        List<UsuarioEntity> activos = presupuestoSql.comprobar("UsuarioRepositoryImpl.findEntitiesByEstado", 1,
+            () -> repository.findEntitiesByEstado("activo"));
+        List<UsuarioEntity> inactivos = presupuestoSql.comprobar("UsuarioRepositoryImpl.findEntitiesByEstado", 1,
+            () -> repository.findEntitiesByEstado("inactivo"));
 
         // Then
         assertEquals(2, activos.size());
@@ -122,7 +130,8 @@ void testFindAdministradores() {
         repository.persist(usuario);
 
         // When
-        List<UsuarioEntity> admins = repository.findAdministradores();
+        List<UsuarioEntity> admins = presupuestoSql.comprobar("UsuarioRepositoryImpl.findAdministradores", 1,
+            () -> repository.findAdministradores());
 
         // Then
         assertEquals(1, admins.size());
@@ -138,8 +147,10 @@ void testExistsByEmail() {
         repository.persist(usuario);
 
         // When & Then
-        assertTrue(repository.existsByEmail("test@test.com"));
-        assertFalse(repository.existsByEmail("noexiste@test.com"));
+        assertTrue(presupuestoSql.comprobar("UsuarioRepositoryImpl.existsByEmail", 1,
+            () -> repository.existsByEmail("test@test.com")));
+        assertFalse(presupuestoSql.comprobar("UsuarioRepositoryImpl.existsByEmail", 1,
+            () -> repository.existsByEmail("noexiste@test.com")));
     }
 
     @Test
@@ -151,7 +162,8 @@ void testSearchByNombre() {
         repository.persist(crearUsuario("Pedro García", "pedro@test.com", false));
 
         // When
-        List<UsuarioEntity> resultados = repository.searchByNombre("juan");
+        List<UsuarioEntity> resultados = presupuestoSql.comprobar("UsuarioRepositoryImpl.searchByNombre", 1,
+            () -> repository.searchByNombre("juan"));
 
         // Then
         assertEquals(2, resultados.size());
@@ -168,7 +180,8 @@ void testCambiarEstado() {
         repository.flush();
 
         // When
-        boolean resultado = repository.cambiarEstado((long) usuario.idUsuario, "inactivo");
+        boolean resultado = presupuestoSql.comprobar("UsuarioRepositoryImpl.cambiarEstado", 2,
+            () -> repository.cambiarEstado((long) usuario.idUsuario, "inactivo"));
 
         // Then
         assertTrue(resultado);
@@ -182,7 +195,8 @@ void testCambiarEstado() {
     @Transactional
     void testCambiarEstadoUsuarioNoExiste() {
         // When
-        boolean resultado = repository.cambiarEstado(99999L, "inactivo");
+        boolean resultado = presupuestoSql.comprobar("UsuarioRepositoryImpl.cambiarEstado", 2,
+            () -> repository.cambiarEstado(99999L, "inactivo"));
 
         // Then
         assertFalse(resultado);
@@ -197,7 +211,7 @@ void testPrePersistSetsFechas() {
         usuario.fModificacion = null;
 
         // When
-        repository.persist(usuario);
+        presupuestoSql.comprobar("UsuarioRepositoryImpl.persist", 1, () -> repository.persist(usuario));
 
         // Then
         assertNotNull(usuario.fCreacion);
@@ -20,6 +20,9 @@ class UtensilioRepositoryImplTest {
     @Inject
     UtensilioRepositoryImpl repository;
 
+    @Inject
+    PresupuestoSql presupuestoSql;
+
     @BeforeEach
     @Transactional
     void setUp() {
@@ -34,7 +37,8 @@ void testFindByNombre() {
         repository.persist(utensilio);
 
         // When
-        Optional<UtensilioEntity> found = repository.findByNombre("Sartén");
+        Optional<UtensilioEntity> found = presupuestoSql.comprobar("UtensilioRepositoryImpl.findByNombre", 1,
+            () -> repository.findByNombre("Sartén"));
 
         // Then
         assertTrue(found.isPresent());
@@ -50,7 +54,8 @@ void testSearchByNombre() {
         repository.persist(crearUtensilio("Batidora", "mezcla"));
 
         // When
-        List<UtensilioEntity> resultados = repository.searchByNombre("cuchillo");
+        List<UtensilioEntity> resultados = presupuestoSql.comprobar("UtensilioRepositoryImpl.searchByNombre", 1,
+            () -> repository.searchByNombre("cuchillo"));
 
         // Then
         assertEquals(2, resultados.size());
@@ -65,7 +70,8 @@ void testFindByTipo() {
         repository.persist(crearUtensilio("Cuchillo", "corte"));
 
         // When
-        List<UtensilioEntity> cuchillos = repository.findEntitiesByTipo("corte");
+        List<UtensilioEntity> cuchillos = presupuestoSql.comprobar("UtensilioRepositoryImpl.findEntitiesByTipo", 1,
+            () -> repository.findEntitiesByTipo("corte"));
 
         // Then
         assertEquals(1, cuchillos.size());
@@ -80,7 +86,8 @@ void testFindAllTipos() {
         repository.persist(crearUtensilio("Balanza", "medición"));
 
         // When
-        List<String> tipos = repository.findAllTipos();
+        List<String> tipos = presupuestoSql.comprobar("UtensilioRepositoryImpl.findAllTipos", 1,
+            () -> repository.findAllTipos());
 
         // Then
         assertEquals(3, tipos.size());
@@ -96,8 +103,10 @@ void testExistsByNombre() {
         repository.persist(crearUtensilio("Espátula", "mezcla"));
 
         // When & Then
-        assertTrue(repository.existsByNombre("Espátula"));
-        assertFalse(repository.existsByNombre("Tenedor"));
+        assertTrue(presupuestoSql.comprobar("UtensilioRepositoryImpl.existsByNombre", 1,
+            () -> repository.existsByNombre("Espátula")));
+        assertFalse(presupuestoSql.comprobar("UtensilioRepositoryImpl.existsByNombre", 1,
+            () -> repository.existsByNombre("Tenedor")));
     }
 
     private UtensilioEntity crearUtensilio(String nombre, String tipo) {
@@ -1,5 +1,10 @@
 package es.rtur.pruebas.recipes.infrastructure.persistence;
 
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.entity.TipoValoracion;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionCount;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.hibernate.orm.panache.Panache;
 import jakarta.inject.Inject;
@@ -29,6 +34,9 @@ class ValoracionRepositoryImplTest {
     @Inject
     UsuarioRepositoryImpl usuarioRepository;
 
+    @Inject
+    PresupuestoSql presupuestoSql;
+
     private RecetaEntity receta;
     private UsuarioEntity usuario1;
     private UsuarioEntity usuario2;
@@ -68,20 +76,20 @@ void testFindActivaByRecetaAndUsuario() {
         valoracionRepository.persist(valoracion);
 
         // When
-        Optional<ValoracionEntity> found = valoracionRepository
-            .findActivaByRecetaAndUsuario(receta.idReceta, usuario1.idUsuario);
+        Optional<ValoracionEntity> found = presupuestoSql.comprobar("ValoracionRepositoryImpl.findActivaByRecetaAndUsuario", 2,
+            () -> valoracionRepository.findActivaByRecetaAndUsuario(receta.idReceta, usuario1.idUsuario));
 
         // Then
         assertTrue(found.isPresent());
-        assertEquals("like", found.get().tipo);
+        assertEquals(TipoValoracion.LIKE, found.get().tipo);
     }
 
     @Test
     @Transactional
     void testFindActivaByRecetaAndUsuario_NoExiste() {
         // When
-        Optional<ValoracionEntity> found = valoracionRepository
-            .findActivaByRecetaAndUsuario(receta.idReceta, usuario1.idUsuario);
+        Optional<ValoracionEntity> found = presupuestoSql.comprobar("ValoracionRepositoryImpl.findActivaByRecetaAndUsuario", 2,
+            () -> valoracionRepository.findActivaByRecetaAndUsuario(receta.idReceta, usuario1.idUsuario));
 
         // Then
         assertFalse(found.isPresent());
@@ -96,8 +104,8 @@ void testFindActivaByRecetaAndUsuario_Eliminada() {
         valoracionRepository.persist(valoracion);
 
         // When
-        Optional<ValoracionEntity> found = valoracionRepository
-            .findActivaByRecetaAndUsuario(receta.idReceta, usuario1.idUsuario);
+        Optional<ValoracionEntity> found = presupuestoSql.comprobar("ValoracionRepositoryImpl.findActivaByRecetaAndUsuario", 2,
+            () -> valoracionRepository.findActivaByRecetaAndUsuario(receta.idReceta, usuario1.idUsuario));
 
         // Then
         assertFalse(found.isPresent());
@@ -111,7 +119,8 @@ void testFindActivasByReceta() {
         valoracionRepository.persist(crearValoracion(receta, usuario2, "dislike"));
 
         // When
-        List<ValoracionEntity> valoraciones = valoracionRepository.findActivasByReceta(receta.idReceta);
+        List<ValoracionEntity> valoraciones = presupuestoSql.comprobar("ValoracionRepositoryImpl.findActivasByReceta", 2,
+            () -> valoracionRepository.findActivasByReceta(receta.idReceta));
 
         // Then
         assertEquals(2, valoraciones.size());
@@ -128,7 +137,8 @@ void testFindByUsuario() {
         valoracionRepository.persist(crearValoracion(receta2, usuario1, "like"));
 
         // When
-        List<ValoracionEntity> valoraciones = valoracionRepository.findByUsuario(usuario1.idUsuario);
+        List<ValoracionEntity> valoraciones = presupuestoSql.comprobar("ValoracionRepositoryImpl.findByUsuario", 2,
+            () -> valoracionRepository.findByUsuario(usuario1.idUsuario));
 
         // Then
         assertEquals(2, valoraciones.size());
@@ -142,7 +152,8 @@ void testCountLikesByReceta() {
         valoracionRepository.persist(crearValoracion(receta, usuario2, "like"));
 
         // When
-        long count = valoracionRepository.countLikesByReceta(receta.idReceta);
+        long count = presupuestoSql.comprobar("ValoracionRepositoryImpl.countLikesByReceta", 1,
+            () -> valoracionRepository.countLikesByReceta(receta.idReceta));
 
         // Then
         assertEquals(2, count);
@@ -156,7 +167,8 @@ void testCountDislikesByReceta() {
         valoracionRepository.persist(crearValoracion(receta, usuario2, "like"));
 
         // When
-        long count = valoracionRepository.countDislikesByReceta(receta.idReceta);
+        long count = presupuestoSql.comprobar("ValoracionRepositoryImpl.countDislikesByReceta", 1,
+            () -> valoracionRepository.countDislikesByReceta(receta.idReceta));
 
         // Then
         assertEquals(1, count);
@@ -174,13 +186,74 @@ void testGetEstadisticasByReceta() {
         valoracionRepository.persist(crearValoracion(receta, usuario3, "dislike"));
 
         // When
-        Map<String, Long> estadisticas = valoracionRepository.getEstadisticasByReceta(receta.idReceta);
+        Map<String, Long> estadisticas = presupuestoSql.comprobar("ValoracionRepositoryImpl.getEstadisticasByReceta", 2,
+            () -> valoracionRepository.getEstadisticasByReceta(receta.idReceta));
 
         // Then
         assertEquals(2L, estadisticas.get("likes"));
         assertEquals(1L, estadisticas.get("dislikes"));
     }
 
+    @Test
+    @Transactional
+    void testCountByRecetas() {
+        // Given
+        RecetaEntity receta2 = crearReceta("Gazpacho", autor);
+        recetaRepository.persist(receta2);
+        RecetaEntity sinValoraciones = crearReceta("Tortilla", autor);
+        recetaRepository.persist(sinValoraciones);
+
+        valoracionRepository.persist(crearValoracion(receta, usuario1, "like"));
+        valoracionRepository.persist(crearValoracion(receta, usuario2, "dislike"));
+        valoracionRepository.persist(crearValoracion(receta2, usuario1, "like"));
+        ValoracionEntity eliminada = crearValoracion(receta2, usuario2, "like");
+        eliminada.eliminar();
+        valoracionRepository.persist(eliminada);
+
+        // When
+        Map<RecetaId, ValoracionCount> conteos = presupuestoSql.comprobar("ValoracionRepositoryImpl.countByRecetas", 1,
+            () -> valoracionRepository.countByRecetas(List.of(
+                RecetaId.of(receta.idReceta), RecetaId.of(receta2.idReceta), RecetaId.of(sinValoraciones.idReceta))));
+
+        // Then
+        assertEquals(2, conteos.size());
+        assertEquals(ValoracionCount.of(1, 1), conteos.get(RecetaId.of(receta.idReceta)));
+        assertEquals(ValoracionCount.of(1, 0), conteos.get(RecetaId.of(receta2.idReceta)));
+        assertFalse(conteos.containsKey(RecetaId.of(sinValoraciones.idReceta)));
+    }
+
+    @Test
+    @Transactional
+    void testFindTiposByUsuarioAndRecetas() {
+        // Given
+        RecetaEntity receta2 = crearReceta("Gazpacho", autor);
+        recetaRepository.persist(receta2);
+        RecetaEntity receta3 = crearReceta("Tortilla", autor);
+        recetaRepository.persist(receta3);
+        RecetaEntity noPedida = crearReceta("Cocido", autor);
+        recetaRepository.persist(noPedida);
+
+        valoracionRepository.persist(crearValoracion(receta, usuario1, "like"));
+        valoracionRepository.persist(crearValoracion(receta2, usuario1, "dislike"));
+        ValoracionEntity eliminada = crearValoracion(receta3, usuario1, "like");
+        eliminada.eliminar();
+        valoracionRepository.persist(eliminada);
+        valoracionRepository.persist(crearValoracion(noPedida, usuario1, "like"));
+        valoracionRepository.persist(crearValoracion(receta3, usuario2, "like"));
+
+        // When
+        Map<RecetaId, String> tipos = presupuestoSql.comprobar("ValoracionRepositoryImpl.findTiposByUsuarioAndRecetas", 1,
+            () -> valoracionRepository.findTiposByUsuarioAndRecetas(
+                UsuarioId.of(usuario1.idUsuario),
+                List.of(RecetaId.of(receta.idReceta), RecetaId.of(receta2.idReceta), RecetaId.of(receta3.idReceta))));
+        Map<RecetaId, String> todas = presupuestoSql.comprobar("ValoracionRepositoryImpl.findTiposByUsuario", 1,
+            () -> valoracionRepository.findTiposByUsuario(UsuarioId.of(usuario1.idUsuario)));
+
+        // Then
+        assertEquals(Map.of(RecetaId.of(receta.idReceta), "like", RecetaId.of(receta2.idReceta), "dislike"), tipos);
+        assertEquals(3, todas.size());
+    }
+
     @Test
     @Transactional
     void testEliminarValoracion() {
@@ -202,7 +275,8 @@ void testEliminarValoracion() {
     @Transactional
     void testEliminarValoracion_NoExiste() {
         // When
-        boolean resultado = valoracionRepository.eliminarValoracion(99999L);
+        boolean resultado = presupuestoSql.comprobar("ValoracionRepositoryImpl.eliminarValoracion", 1,
+            () -> valoracionRepository.eliminarValoracion(99999L));
 
         // Then
         assertFalse(resultado);
@@ -217,13 +291,14 @@ void testCambiarTipo() {
         valoracionRepository.flush();
 
         // When
-        boolean resultado = valoracionRepository.cambiarTipo((long) valoracion.idValoracion, "dislike");
+        boolean resultado = presupuestoSql.comprobar("ValoracionRepositoryImpl.cambiarTipo", 2,
+            () -> valoracionRepository.cambiarTipo((long) valoracion.idValoracion, "dislike"));
 
         // Then
         assertTrue(resultado);
         var actualizada = valoracionRepository.findByIdOptional((long) valoracion.idValoracion);
         assertTrue(actualizada.isPresent());
-        assertEquals("dislike", actualizada.get().tipo);
+        assertEquals(TipoValoracion.DISLIKE, actualizada.get().tipo);
     }
 
     @Test
@@ -233,8 +308,10 @@ void testHasValorado() {
         valoracionRepository.persist(crearValoracion(receta, usuario1, "like"));
 
         // When & Then
-        assertTrue(valoracionRepository.hasValorado(receta.idReceta, usuario1.idUsuario));
-        assertFalse(valoracionRepository.hasValorado(receta.idReceta, usuario2.idUsuario));
+        assertTrue(presupuestoSql.comprobar("ValoracionRepositoryImpl.hasValorado", 2,
+            () -> valoracionRepository.hasValorado(receta.idReceta, usuario1.idUsuario)));
+        assertFalse(presupuestoSql.comprobar("ValoracionRepositoryImpl.hasValorado", 2,
+            () -> valoracionRepository.hasValorado(receta.idReceta, usuario2.idUsuario)));
     }
 
     @Test
@@ -244,7 +321,8 @@ void testGetTipoValoracion() {
         valoracionRepository.persist(crearValoracion(receta, usuario1, "like"));
 
         // When
-        String tipo = valoracionRepository.getTipoValoracion(receta.idReceta, usuario1.idUsuario);
+        String tipo = presupuestoSql.comprobar("ValoracionRepositoryImpl.getTipoValoracion", 2,
+            () -> valoracionRepository.getTipoValoracion(receta.idReceta, usuario1.idUsuario));
 
         // Then
         assertEquals("like", tipo);
@@ -254,7 +332,8 @@ void testGetTipoValoracion() {
     @Transactional
     void testGetTipoValoracion_NoHaValorado() {
         // When
-        String tipo = valoracionRepository.getTipoValoracion(receta.idReceta, usuario1.idUsuario);
+        String tipo = presupuestoSql.comprobar("ValoracionRepositoryImpl.getTipoValoracion", 2,
+            () -> valoracionRepository.getTipoValoracion(receta.idReceta, usuario1.idUsuario));
 
         // Then
         assertNull(tipo);
@@ -283,7 +362,8 @@ void testGetRecetasMasValoradas() {
         valoracionRepository.persist(crearValoracion(receta2, usuario2, "like"));
 
         // When
-        List<Integer> recetasMasValoradas = valoracionRepository.getRecetasMasValoradas(2);
+        List<Integer> recetasMasValoradas = presupuestoSql.comprobar("ValoracionRepositoryImpl.getRecetasMasValoradas", 1,
+            () -> valoracionRepository.getRecetasMasValoradas(2));
 
         // Then
         assertEquals(2, recetasMasValoradas.size());
@@ -305,7 +385,7 @@ void testReglaNegocio_RN04_UnaSolaValoracionPorUsuario() {
             .findActivaByRecetaAndUsuario(receta.idReceta, usuario1.idUsuario);
         
         assertTrue(found.isPresent());
-        assertEquals("like", found.get().tipo);
+        assertEquals(TipoValoracion.LIKE, found.get().tipo);
     }
 
     @Test
@@ -329,7 +409,7 @@ void testPrePersistSetsFecha() {
         valoracion.fCreacion = null;
 
         // When
-        valoracionRepository.persist(valoracion);
+        presupuestoSql.comprobar("ValoracionRepositoryImpl.persist", 1, () -> valoracionRepository.persist(valoracion));
 
         // Then
         assertNotNull(valoracion.fCreacion);
@@ -348,7 +428,7 @@ private UsuarioEntity crearUsuario(String nombre, String email) {
     private RecetaEntity crearReceta(String nombre, UsuarioEntity autor) {
         RecetaEntity receta = new RecetaEntity();
         receta.nombre = nombre;
-        receta.dificultad = "facil";
+        receta.dificultad = DifficultyLevel.EASY;
         receta.tiempo = 30;
         receta.comensales = 4;
         receta.preparacion = "Preparación";
@@ -360,7 +440,7 @@ private ValoracionEntity crearValoracion(RecetaEntity receta, UsuarioEntity usua
         ValoracionEntity valoracion = new ValoracionEntity();
         valoracion.receta = receta;
         valoracion.usuario = usuario;
-        valoracion.tipo = tipo;
+        valoracion.tipo = TipoValoracion.fromValue(tipo);
         return valoracion;
     }
 }
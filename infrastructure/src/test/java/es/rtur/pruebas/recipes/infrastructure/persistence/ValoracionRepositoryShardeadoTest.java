@@ -0,0 +1,388 @@
+package es.rtur.pruebas.recipes.infrastructure.persistence;
+
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.entity.Valoracion;
+import es.rtur.pruebas.recipes.domain.readmodel.RecetaResumen;
+import es.rtur.pruebas.recipes.domain.repository.RecetaResumenRepository;
+import es.rtur.pruebas.recipes.domain.repository.ValoracionRepository;
+import es.rtur.pruebas.recipes.domain.valueobject.RecetaId;
+import es.rtur.pruebas.recipes.domain.valueobject.UsuarioId;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionCount;
+import es.rtur.pruebas.recipes.domain.valueobject.ValoracionId;
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del repositorio de valoraciones repartido en tres bases H2 en memoria
+ * y del rebalanceo entre shards.
+ */
+@QuarkusTest
+@TestProfile(ValoracionRepositoryShardeadoTest.Shards.class)
+class ValoracionRepositoryShardeadoTest {
+
+    static final List<String> SHARDS = List.of("valoraciones-0", "valoraciones-1", "valoraciones-2");
+    static final String RETIRADO = "valoraciones-retirado";
+
+    /**
+     * Activa el repositorio shardeado sobre tres datasources más uno retirado para el rebalanceo.
+     */
+    public static class Shards implements QuarkusTestProfile {
+
+        @Override
+        public Set<Class<?>> getEnabledAlternatives() {
+            return Set.of(ValoracionRepositoryShardeado.class);
+        }
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            Map<String, String> config = new HashMap<>();
+            for (String nombre : List.of(SHARDS.get(0), SHARDS.get(1), SHARDS.get(2), RETIRADO)) {
+                config.put("quarkus.datasource." + nombre + ".db-kind", "h2");
+                config.put("quarkus.datasource." + nombre + ".jdbc.url",
+                        "jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+                config.put("quarkus.datasource." + nombre + ".username", "sa");
+                config.put("quarkus.datasource." + nombre + ".password", "");
+                config.put("quarkus.datasource." + nombre + ".jdbc.transactions", "disabled");
+            }
+            config.put("recipes.valoraciones.shards", String.join(",", SHARDS));
+            config.put("recipes.valoraciones.rebalanceo.origenes", RETIRADO);
+            config.put("recipes.valoraciones.rebalanceo.batch-size", "7");
+            return config;
+        }
+    }
+
+    @Inject
+    ValoracionRepository repositorio;
+
+    @Inject
+    ValoracionRepositoryShardeado shardeado;
+
+    @Inject
+    ShardsValoraciones shards;
+
+    @Inject
+    RebalanceoValoracionesJob rebalanceo;
+
+    @Inject
+    RecetaResumenRepository recetaResumenRepository;
+
+    @Inject
+    RecetaRepositoryImpl recetaRepository;
+
+    @Inject
+    UsuarioRepositoryImpl usuarioRepository;
+
+    @BeforeEach
+    void setUp() {
+        // El shard retirado ya no está en la topología: su tabla se crea a mano
+        shards.crearEsquema(shards.dataSource(RETIRADO), SHARDS.size());
+        assertEquals(3, shards.getNumeroShards());
+    }
+
+    @AfterEach
+    void limpiar() {
+        for (String nombre : SHARDS) {
+            ejecutar(nombre, "DELETE FROM valoraciones");
+        }
+        ejecutar(RETIRADO, "DELETE FROM valoraciones");
+    }
+
+    @Test
+    void testSeActivaElRepositorioShardeado() {
+        assertInstanceOf(ValoracionRepositoryShardeado.class, ClientProxy.unwrap(repositorio));
+    }
+
+    @Test
+    void testLasValoracionesDeUnaRecetaVanASuShard() {
+        // Given
+        for (int idReceta = 1; idReceta <= 30; idReceta++) {
+            repositorio.save(new Valoracion(null, RecetaId.of(idReceta), UsuarioId.of(1), "like"));
+            repositorio.save(new Valoracion(null, RecetaId.of(idReceta), UsuarioId.of(2), "dislike"));
+        }
+
+        // Then: cada receta está entera en su shard y en ningún otro
+        long total = 0;
+        for (int i = 0; i < SHARDS.size(); i++) {
+            List<Integer> recetas = recetasEn(SHARDS.get(i));
+            total += recetas.size();
+            for (Integer idReceta : recetas) {
+                assertEquals(i, shards.shardDe(idReceta));
+            }
+            assertFalse(recetas.isEmpty(), "Shard vacío: " + SHARDS.get(i));
+        }
+        assertEquals(60, total);
+
+        assertEquals(1, repositorio.countLikesByReceta(RecetaId.of(7)));
+        assertEquals(1, repositorio.countDislikesByReceta(RecetaId.of(7)));
+        assertEquals(2, repositorio.findActiveByReceta(RecetaId.of(7)).size());
+        Valoracion valoracion = repositorio.findByRecetaAndUsuario(RecetaId.of(7), UsuarioId.of(2)).orElseThrow();
+        assertEquals("dislike", valoracion.getTipo());
+        assertEquals(valoracion, repositorio.findById(valoracion.getId()).orElseThrow());
+    }
+
+    @Test
+    void testLosIdsSonUnicosEntreShards() {
+        // Given
+        for (int idReceta = 1; idReceta <= 20; idReceta++) {
+            repositorio.save(new Valoracion(null, RecetaId.of(idReceta), UsuarioId.of(1), "like"));
+        }
+
+        // Then
+        assertEquals(20, shardeado.findByUsuario(1).stream().map(Valoracion::getId).distinct().count());
+    }
+
+    @Test
+    void testActualizarYBorrarUnaValoracion() {
+        // Given
+        Valoracion valoracion = repositorio.save(new Valoracion(null, RecetaId.of(5), UsuarioId.of(3), "like"));
+
+        // When
+        valoracion.changeTipo("dislike");
+        repositorio.save(valoracion);
+
+        // Then
+        assertEquals(1, repositorio.countDislikesByReceta(RecetaId.of(5)));
+        assertEquals(0, repositorio.countLikesByReceta(RecetaId.of(5)));
+
+        // When
+        repositorio.deleteById(valoracion.getId());
+
+        // Then
+        assertFalse(repositorio.existsById(valoracion.getId()));
+        assertTrue(repositorio.findByReceta(RecetaId.of(5)).isEmpty());
+    }
+
+    @Test
+    void testUnUsuarioSoloValoraUnaVezCadaReceta() {
+        repositorio.save(new Valoracion(null, RecetaId.of(9), UsuarioId.of(4), "like"));
+
+        assertThrows(PersistenceException.class,
+                () -> repositorio.save(new Valoracion(null, RecetaId.of(9), UsuarioId.of(4), "dislike")));
+    }
+
+    @Test
+    void testConsultasEntreRecetasCombinanTodosLosShards() {
+        // Given: la receta 3 suma +3, la 11 suma +2, la 20 suma +1 y la 25 suma 0
+        votar(3, "like", "like", "like");
+        votar(11, "like", "dislike", "like");
+        votar(20, "like");
+        votar(25, "dislike");
+        repositorio.save(new Valoracion(null, RecetaId.of(11), UsuarioId.of(100), "like"));
+        repositorio.save(new Valoracion(null, RecetaId.of(25), UsuarioId.of(100), "like"));
+
+        // Then
+        assertEquals(List.of(3, 11, 20), shardeado.getRecetasMasValoradas(3));
+
+        Map<RecetaId, ValoracionCount> conteos = repositorio.countByRecetas(
+                List.of(RecetaId.of(3), RecetaId.of(11), RecetaId.of(25), RecetaId.of(99)));
+        assertEquals(3, conteos.size());
+        assertEquals(ValoracionCount.of(3, 1), conteos.get(RecetaId.of(11)));
+        assertEquals(ValoracionCount.of(1, 1), conteos.get(RecetaId.of(25)));
+
+        Map<RecetaId, String> tipos = repositorio.findTiposByUsuario(UsuarioId.of(100));
+        assertEquals(Map.of(RecetaId.of(11), "like", RecetaId.of(25), "like"), tipos);
+        assertEquals(Map.of(RecetaId.of(25), "like"),
+                repositorio.findTiposByUsuarioAndRecetas(UsuarioId.of(100), List.of(RecetaId.of(3), RecetaId.of(25))));
+        assertEquals(2, shardeado.findByUsuario(100).size());
+    }
+
+    @Test
+    void testRebalanceoMueveLasFilasFueraDeSitio() {
+        // Given: filas de un shard retirado y filas escritas en un shard que no es el suyo
+        for (int idReceta = 1; idReceta <= 20; idReceta++) {
+            insertar(RETIRADO, 1000 + idReceta, idReceta, 1);
+        }
+        for (int idReceta = 1; idReceta <= 20; idReceta++) {
+            int incorrecto = (shards.shardDe(idReceta) + 1) % SHARDS.size();
+            insertar(SHARDS.get(incorrecto), 2000 + idReceta, idReceta, 2);
+        }
+        // Copia ya presente en destino de una pasada interrumpida
+        insertar(SHARDS.get(shards.shardDe(4)), 1004, 4, 1);
+
+        // When
+        RebalanceoValoracionesJob.Resultado resultado = rebalanceo.rebalancear();
+
+        // Then
+        assertEquals(39, resultado.getMovidas());
+        assertEquals(1, resultado.getDescartadas());
+        assertTrue(recetasEn(RETIRADO).isEmpty());
+        for (int i = 0; i < SHARDS.size(); i++) {
+            for (Integer idReceta : recetasEn(SHARDS.get(i))) {
+                assertEquals(i, shards.shardDe(idReceta));
+            }
+        }
+        for (int idReceta = 1; idReceta <= 20; idReceta++) {
+            assertEquals(2, repositorio.findByReceta(RecetaId.of(idReceta)).size());
+        }
+        assertTrue(repositorio.findById(ValoracionId.of(1007)).isPresent());
+
+        // Una segunda pasada no tiene nada que mover
+        RebalanceoValoracionesJob.Resultado segunda = rebalanceo.rebalancear();
+        assertEquals(0, segunda.getMovidas() + segunda.getDescartadas());
+    }
+
+    @Test
+    void testBorradosPorLotesRecorrenTodosLosShards() {
+        // Given: 12 recetas valoradas por los usuarios 1, 2 y 3
+        for (int idReceta = 1; idReceta <= 12; idReceta++) {
+            votar(idReceta, "like", "dislike", "like");
+        }
+
+        // When / Then: lotes de 5 con las valoraciones del usuario 1 repartidas en los tres shards
+        assertEquals(5, repositorio.deleteBatchByUsuario(UsuarioId.of(1), 5).size());
+        assertEquals(5, repositorio.deleteBatchByUsuario(UsuarioId.of(1), 5).size());
+        List<Valoracion> ultimo = repositorio.deleteBatchByUsuario(UsuarioId.of(1), 5);
+        assertEquals(2, ultimo.size());
+        assertEquals(UsuarioId.of(1), ultimo.get(0).getIdUsuario());
+        assertTrue(shardeado.findByUsuario(1).isEmpty());
+
+        List<RecetaId> recetas = List.of(RecetaId.of(1), RecetaId.of(2), RecetaId.of(3), RecetaId.of(4));
+        assertEquals(3, repositorio.deleteBatchByRecetas(recetas, 3).size());
+        assertEquals(5, repositorio.deleteBatchByRecetas(recetas, 10).size());
+        assertEquals(6, repositorio.deleteByRecetas(List.of(RecetaId.of(5), RecetaId.of(6), RecetaId.of(7))).size());
+        assertTrue(repositorio.findByReceta(RecetaId.of(6)).isEmpty());
+        assertEquals(2, repositorio.findByReceta(RecetaId.of(8)).size());
+    }
+
+    @Test
+    void testPurgaRecorreLosShardsPorId() {
+        // Given: valoraciones borradas hace tiempo repartidas entre los shards y una reciente
+        LocalDateTime antigua = LocalDateTime.now().minusDays(60);
+        for (int idReceta = 1; idReceta <= 9; idReceta++) {
+            insertar(SHARDS.get(shards.shardDe(idReceta)), 3000 + idReceta, idReceta, 1, antigua);
+        }
+        insertar(SHARDS.get(shards.shardDe(10)), 3010, 10, 1, LocalDateTime.now());
+        LocalDateTime limite = LocalDateTime.now().minusDays(30);
+
+        // When / Then: lotes de 4 en orden de id, como con una sola tabla
+        List<ValoracionId> primero = repositorio.purgeDeleted(limite, 0, 4);
+        assertEquals(List.of(ValoracionId.of(3001), ValoracionId.of(3002), ValoracionId.of(3003), ValoracionId.of(3004)),
+                primero);
+        assertEquals(4, repositorio.purgeDeleted(limite, 3004, 4).size());
+        assertEquals(List.of(ValoracionId.of(3009)), repositorio.purgeDeleted(limite, 3008, 4));
+        assertTrue(repositorio.purgeDeleted(limite, 3009, 4).isEmpty());
+        assertTrue(repositorio.findById(ValoracionId.of(3010)).isPresent());
+        assertFalse(repositorio.findById(ValoracionId.of(3005)).isPresent());
+    }
+
+    @Test
+    void testListadoYBorradoDeRecetasUsanLosShards() {
+        // Given: una receta en el datasource principal con sus valoraciones en un shard
+        Integer[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            UsuarioEntity autor = new UsuarioEntity();
+            autor.nombre = "Chef shards";
+            autor.email = "chef-shards@test.com";
+            autor.claveAcceso = "password";
+            autor.esAdmin = false;
+            usuarioRepository.persist(autor);
+            RecetaEntity receta = new RecetaEntity();
+            receta.nombre = "Receta con shards";
+            receta.dificultad = DifficultyLevel.EASY;
+            receta.tiempo = 10;
+            receta.comensales = 2;
+            receta.preparacion = "Preparación";
+            receta.autor = autor;
+            recetaRepository.persist(receta);
+            return new Integer[] {receta.idReceta, autor.idUsuario};
+        });
+        RecetaId idReceta = RecetaId.of(ids[0]);
+        votar(ids[0], "like", "like", "dislike");
+
+        // When
+        RecetaResumen resumen = recetaResumenRepository.findPage(null, null, 0, 100).stream()
+                .filter(r -> r.getId().equals(idReceta))
+                .findFirst().orElseThrow();
+
+        // Then
+        assertEquals(2, resumen.getLikes());
+        assertEquals(1, resumen.getDislikes());
+
+        // When: el borrado de la receta también borra sus valoraciones del shard
+        QuarkusTransaction.requiringNew().run(() -> recetaRepository.deleteById(idReceta));
+
+        // Then
+        assertTrue(repositorio.findByReceta(idReceta).isEmpty());
+        QuarkusTransaction.requiringNew().run(() -> usuarioRepository.deleteById(UsuarioId.of(ids[1])));
+    }
+
+    @Test
+    void testAnadirUnShardSoloMueveRecetasAlNuevo() {
+        int movidas = 0;
+        for (int idReceta = 1; idReceta <= 10_000; idReceta++) {
+            int antes = ShardsValoraciones.shardDe(idReceta, 3);
+            int despues = ShardsValoraciones.shardDe(idReceta, 4);
+            if (antes != despues) {
+                assertEquals(3, despues);
+                movidas++;
+            }
+        }
+        // Alrededor de 1/4 de las recetas
+        assertTrue(movidas > 2_200 && movidas < 2_800, "Recetas movidas: " + movidas);
+    }
+
+    private void votar(int idReceta, String... tipos) {
+        for (int i = 0; i < tipos.length; i++) {
+            repositorio.save(new Valoracion(null, RecetaId.of(idReceta), UsuarioId.of(i + 1), tipos[i]));
+        }
+    }
+
+    private void insertar(String nombre, int idValoracion, int idReceta, int idUsuario) {
+        insertar(nombre, idValoracion, idReceta, idUsuario, null);
+    }
+
+    private void insertar(String nombre, int idValoracion, int idReceta, int idUsuario, LocalDateTime fEliminacion) {
+        shards.ejecutar(shards.dataSource(nombre), conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(
+                    "INSERT INTO valoraciones (" + ShardsValoraciones.COLUMNAS + ") VALUES (?, ?, ?, 1, ?, ?)")) {
+                ps.setInt(1, idValoracion);
+                ps.setInt(2, idReceta);
+                ps.setInt(3, idUsuario);
+                ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                ps.setTimestamp(5, fEliminacion != null ? Timestamp.valueOf(fEliminacion) : null);
+                return ps.executeUpdate();
+            }
+        });
+    }
+
+    private List<Integer> recetasEn(String nombre) {
+        return shards.ejecutar(shards.dataSource(nombre), conexion -> {
+            try (Statement st = conexion.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT id_receta FROM valoraciones")) {
+                List<Integer> recetas = new ArrayList<>();
+                while (rs.next()) {
+                    recetas.add(rs.getInt(1));
+                }
+                return recetas;
+            }
+        });
+    }
+
+    private void ejecutar(String nombre, String sql) {
+        shards.ejecutar(shards.dataSource(nombre), conexion -> {
+            try (Statement st = conexion.createStatement()) {
+                return st.executeUpdate(sql);
+            }
+        });
+    }
+}
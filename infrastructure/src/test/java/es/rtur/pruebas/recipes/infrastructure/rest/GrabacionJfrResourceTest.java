@@ -0,0 +1,58 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Tests de la grabación de JFR bajo demanda.
+ */
+@QuarkusTest
+class GrabacionJfrResourceTest {
+
+    @AfterEach
+    void tearDown() {
+        given().when().delete("/jfr/grabacion");
+    }
+
+    @Test
+    void testGrabarCasosDeUsoYRepositorios() {
+        given().when().post("/jfr/grabacion")
+            .then().statusCode(201)
+            .body("activa", equalTo(true));
+
+        given().queryParam("q", "sin-resultados").when().get("/api/recetas/buscar").then().statusCode(200);
+        given().when().get("/api/recetas/999999").then().statusCode(404);
+
+        given().when().delete("/jfr/grabacion")
+            .then().statusCode(200)
+            .body("activa", equalTo(false))
+            .body("fin", notNullValue())
+            .body("operaciones.clase", hasItem("SearchRecetasUseCase"))
+            .body("operaciones.find { it.clase == 'RecetaRepositoryImpl' && it.metodo == 'findByNombreContaining' }.evento",
+                equalTo("recipes.RepositoryCall"))
+            .body("masLentas.find { it.clase == 'GetRecetaUseCase' }.resultado", equalTo("IllegalArgumentException"))
+            .body("masLentas.find { it.metodo == 'findByNombreContaining' }.filas", equalTo(0));
+
+        // El resumen de la última grabación se sigue pudiendo consultar
+        given().when().get("/jfr/grabacion")
+            .then().statusCode(200)
+            .body("operaciones.clase", hasItem("GetRecetaUseCase"));
+    }
+
+    @Test
+    void testUnaSolaGrabacionALaVez() {
+        given().when().post("/jfr/grabacion").then().statusCode(201);
+        given().when().post("/jfr/grabacion").then().statusCode(409);
+
+        given().when().delete("/jfr/grabacion").then().statusCode(200);
+        given().when().delete("/jfr/grabacion").then().statusCode(404);
+
+        given().queryParam("umbralMs", -1).when().post("/jfr/grabacion").then().statusCode(400);
+    }
+}
@@ -0,0 +1,45 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Tests del endpoint de métricas de Prometheus.
+ */
+@QuarkusTest
+class MetricasResourceTest {
+
+    @Test
+    void testMetricasDeCasosDeUsoYRepositorios() {
+        given().queryParam("q", "Paella").when().get("/api/recetas/buscar").then().statusCode(200);
+        given().when().get("/api/recetas/999999").then().statusCode(404);
+
+        given().when().get("/metrics")
+            .then().statusCode(200)
+            .contentType(containsString("text/plain"))
+            .body(matchesPattern("(?s).*recipes_usecase_seconds_count\\{class=\"SearchRecetasUseCase\",method=\"execute\"} [1-9].*"))
+            .body(matchesPattern("(?s).*recipes_usecase_errors_total\\{class=\"GetRecetaUseCase\",method=\"execute\"} [1-9].*"))
+            .body(containsString("recipes_usecase_seconds_bucket{class=\"SearchRecetasUseCase\",method=\"execute\",le=\"+Inf\"}"))
+            .body(containsString("recipes_repository_seconds_count{class=\"RecetaRepositoryImpl\",method=\"findById\"}"))
+            // Métodos heredados de Panache que no son del puerto de dominio
+            .body(not(containsString("method=\"persist\"")));
+    }
+
+    @Test
+    void testMetricasDeHibernatePoolsYMemoria() {
+        given().when().get("/metrics")
+            .then().statusCode(200)
+            .body(containsString("# TYPE hibernate_query_executions_total counter"))
+            .body(containsString("hibernate_second_level_cache_requests_total{result=\"hit\"}"))
+            .body(containsString("agroal_active_count{datasource=\"<default>\"}"))
+            .body(containsString("agroal_awaiting_count{datasource=\"replica\"}"))
+            .body(containsString("agroal_blocking_time_max_seconds{datasource=\"<default>\"}"))
+            .body(containsString("jvm_memory_used_bytes{area=\"heap\""))
+            .body(containsString("jvm_buffer_memory_used_bytes{id=\"direct\"}"));
+    }
+}
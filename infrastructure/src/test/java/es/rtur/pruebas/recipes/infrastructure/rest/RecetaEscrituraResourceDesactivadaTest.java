@@ -0,0 +1,41 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Sin {@code recipes.api.cabecera-usuario.enabled} (producción) no se puede valorar ni comentar
+ * en nombre de otro usuario con la cabecera {@value RecetaEscrituraResource#CABECERA_USUARIO}.
+ */
+@QuarkusTest
+@TestProfile(RecetaEscrituraResourceDesactivadaTest.SinCabeceraUsuario.class)
+class RecetaEscrituraResourceDesactivadaTest {
+
+    public static class SinCabeceraUsuario implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("recipes.api.cabecera-usuario.enabled", "false");
+        }
+    }
+
+    @Test
+    void testValorarYComentarNoSePublican() {
+        given().contentType(ContentType.JSON).body("{\"tipo\":\"like\"}")
+            .header(RecetaEscrituraResource.CABECERA_USUARIO, 1)
+            .when().post("/api/recetas/1/valoraciones")
+            .then().statusCode(404);
+
+        given().contentType(ContentType.JSON).body("{\"contenido\":\"Suplantado\"}")
+            .header(RecetaEscrituraResource.CABECERA_USUARIO, 1)
+            .when().post("/api/recetas/1/comentarios")
+            .then().statusCode(405);
+    }
+}
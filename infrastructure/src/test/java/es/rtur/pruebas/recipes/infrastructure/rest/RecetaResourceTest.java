@@ -0,0 +1,125 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.infrastructure.persistence.RecetaEntity;
+import es.rtur.pruebas.recipes.infrastructure.persistence.RecetaRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.UsuarioEntity;
+import es.rtur.pruebas.recipes.infrastructure.persistence.UsuarioRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.ValoracionRepositoryImpl;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Tests de la API REST de recetas.
+ */
+@QuarkusTest
+class RecetaResourceTest {
+
+    @Inject
+    ValoracionRepositoryImpl valoracionRepository;
+
+    @Inject
+    RecetaRepositoryImpl recetaRepository;
+
+    @Inject
+    UsuarioRepositoryImpl usuarioRepository;
+
+    private Integer idReceta;
+    private Integer idUsuario;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        // Limpiar datos - orden importante por foreign keys
+        Panache.getEntityManager().createQuery("DELETE FROM ComentarioEntity").executeUpdate();
+        valoracionRepository.deleteAll();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        recetaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        UsuarioEntity autor = new UsuarioEntity();
+        autor.nombre = "Chef";
+        autor.email = "chef@test.com";
+        autor.claveAcceso = "password";
+        autor.esAdmin = false;
+        usuarioRepository.persist(autor);
+        idUsuario = autor.idUsuario;
+
+        idReceta = crearReceta("Paella valenciana", autor);
+        crearReceta("Gazpacho andaluz", autor);
+    }
+
+    @Test
+    void testListarYBuscar() {
+        given().queryParam("tamano", 10)
+            .when().get("/api/recetas")
+            .then().statusCode(200)
+            .body("$", hasSize(2));
+
+        given().queryParam("q", "Paella")
+            .when().get("/api/recetas/buscar")
+            .then().statusCode(200)
+            .body("$", hasSize(1))
+            .body("[0].nombre", equalTo("Paella valenciana"));
+    }
+
+    @Test
+    void testDetalleYRecetaInexistente() {
+        given().when().get("/api/recetas/" + idReceta)
+            .then().statusCode(200)
+            .body("nombre", equalTo("Paella valenciana"));
+
+        given().when().get("/api/recetas/" + (idReceta + 1000))
+            .then().statusCode(404);
+    }
+
+    @Test
+    void testValorarRequiereUsuario() {
+        given().contentType(ContentType.JSON).body("{\"tipo\":\"like\"}")
+            .when().post("/api/recetas/" + idReceta + "/valoraciones")
+            .then().statusCode(400);
+
+        given().contentType(ContentType.JSON).body("{\"tipo\":\"like\"}")
+            .header(RecetaEscrituraResource.CABECERA_USUARIO, idUsuario)
+            .when().post("/api/recetas/" + idReceta + "/valoraciones")
+            .then().statusCode(200)
+            .body("tipo", equalTo("like"))
+            .body("idReceta", equalTo(idReceta));
+    }
+
+    @Test
+    void testComentarYListarComentarios() {
+        given().contentType(ContentType.JSON).body("{\"contenido\":\"¡Riquísima!\"}")
+            .header(RecetaEscrituraResource.CABECERA_USUARIO, idUsuario)
+            .when().post("/api/recetas/" + idReceta + "/comentarios")
+            .then().statusCode(201)
+            .body("contenido", equalTo("¡Riquísima!"));
+
+        given().when().get("/api/recetas/" + idReceta + "/comentarios")
+            .then().statusCode(200)
+            .body("comentarios.contenido", hasItem("¡Riquísima!"));
+    }
+
+    private Integer crearReceta(String nombre, UsuarioEntity autor) {
+        RecetaEntity receta = new RecetaEntity();
+        receta.nombre = nombre;
+        receta.dificultad = DifficultyLevel.EASY;
+        receta.tiempo = 30;
+        receta.comensales = 4;
+        receta.preparacion = "Preparación";
+        receta.autor = autor;
+        recetaRepository.persist(receta);
+        return receta.idReceta;
+    }
+}
@@ -0,0 +1,33 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.matchesPattern;
+
+/**
+ * Tests de la cabecera Server-Timing (en los tests se muestrean todas las peticiones).
+ */
+@QuarkusTest
+class TiemposServidorFilterTest {
+
+    private static final String DURACION = "dur=\\d+\\.\\d{2}";
+
+    @Test
+    void testDesgloseDeTiempos() {
+        given().queryParam("q", "Paella")
+            .when().get("/api/recetas/buscar")
+            .then().statusCode(200)
+            .header(TiemposServidorFilter.CABECERA, matchesPattern(
+                "app;" + DURACION + ";desc=\"1 casos de uso\", db;" + DURACION + ";desc=\"[1-9]\\d* sentencias\", "
+                    + "pool;" + DURACION + ", ser;" + DURACION + ", total;" + DURACION));
+    }
+
+    @Test
+    void testRespuestaDeError() {
+        given().when().get("/api/recetas/999999")
+            .then().statusCode(404)
+            .header(TiemposServidorFilter.CABECERA, matchesPattern("app;" + DURACION + ";desc=\"1 casos de uso\", .*"));
+    }
+}
@@ -0,0 +1,237 @@
+package es.rtur.pruebas.recipes.infrastructure.rest;
+
+import com.sun.net.httpserver.HttpServer;
+import es.rtur.pruebas.recipes.application.usecase.DeleteRecetaUseCase;
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.infrastructure.persistence.RecetaEntity;
+import es.rtur.pruebas.recipes.infrastructure.persistence.RecetaRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.UsuarioEntity;
+import es.rtur.pruebas.recipes.infrastructure.persistence.UsuarioRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.ValoracionRepositoryImpl;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de las trazas: cascada de una petición y de un caso de uso fuera de una petición,
+ * continuación de la traza del llamante y envío por OTLP a un colector falso.
+ */
+@QuarkusTest
+@TestProfile(TrazasResourceTest.Trazado.class)
+class TrazasResourceTest {
+
+    /**
+     * Todas las peticiones trazadas y un colector OTLP local.
+     */
+    public static class Trazado implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("recipes.tracing.sample-rate", "1", "recipes.tracing.otlp.interval", "1s");
+        }
+
+        @Override
+        public List<TestResourceEntry> testResources() {
+            return List.of(new TestResourceEntry(ColectorOtlp.class));
+        }
+    }
+
+    /**
+     * Colector OTLP/HTTP que solo guarda los cuerpos recibidos.
+     */
+    public static class ColectorOtlp implements QuarkusTestResourceLifecycleManager {
+
+        private final List<String> recibidos = new CopyOnWriteArrayList<>();
+        private HttpServer servidor;
+
+        @Override
+        public Map<String, String> start() {
+            try {
+                servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            servidor.createContext("/v1/traces", intercambio -> {
+                recibidos.add(new String(intercambio.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                intercambio.sendResponseHeaders(200, -1);
+                intercambio.close();
+            });
+            servidor.start();
+            return Map.of("recipes.tracing.otlp.endpoint", "http://localhost:" + servidor.getAddress().getPort());
+        }
+
+        @Override
+        public void inject(TestInjector injector) {
+            injector.injectIntoFields(this, new TestInjector.MatchesType(ColectorOtlp.class));
+        }
+
+        @Override
+        public void stop() {
+            servidor.stop(0);
+        }
+    }
+
+    ColectorOtlp colector;
+
+    @Inject
+    DeleteRecetaUseCase deleteRecetaUseCase;
+
+    @Inject
+    ValoracionRepositoryImpl valoracionRepository;
+
+    @Inject
+    RecetaRepositoryImpl recetaRepository;
+
+    @Inject
+    UsuarioRepositoryImpl usuarioRepository;
+
+    private Integer idReceta;
+    private Integer idUsuario;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        // Limpiar datos - orden importante por foreign keys
+        Panache.getEntityManager().createQuery("DELETE FROM ComentarioEntity").executeUpdate();
+        valoracionRepository.deleteAll();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        recetaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        UsuarioEntity autor = new UsuarioEntity();
+        autor.nombre = "Chef";
+        autor.email = "chef@test.com";
+        autor.claveAcceso = "password";
+        autor.esAdmin = false;
+        usuarioRepository.persist(autor);
+        idUsuario = autor.idUsuario;
+
+        RecetaEntity receta = new RecetaEntity();
+        receta.nombre = "Paella valenciana";
+        receta.dificultad = DifficultyLevel.EASY;
+        receta.tiempo = 30;
+        receta.comensales = 4;
+        receta.preparacion = "Preparación";
+        receta.autor = autor;
+        recetaRepository.persist(receta);
+        idReceta = receta.idReceta;
+    }
+
+    @Test
+    void testCascadaDeCrearValoracion() {
+        String traceresponse = given().contentType(ContentType.JSON).body("{\"tipo\":\"like\"}")
+            .header(RecetaEscrituraResource.CABECERA_USUARIO, idUsuario)
+            .when().post("/api/recetas/" + idReceta + "/valoraciones")
+            .then().statusCode(200)
+            .extract().header(TrazasFilter.CABECERA_RESPUESTA);
+        String traceId = traceresponse.split("-")[1];
+
+        JsonPath traza = given().when().get("/trazas/" + traceId)
+            .then().statusCode(200)
+            .body("nombre", equalTo("POST /api/recetas/{id}/valoraciones"))
+            .body("sentencias", greaterThan(0))
+            .body("tramos[0].atributos.'recipes.id'", equalTo(idReceta.toString()))
+            .body("tramos[0].atributos.'recipes.idUsuario'", equalTo(idUsuario.toString()))
+            .body("tramos[0].atributos.'http.response.status_code'", equalTo(200))
+            .body("tramos.nombre", hasItems("CreateValoracionUseCase.execute", "jdbc.execute", "serialize"))
+            .extract().jsonPath();
+
+        // El caso de uso cuelga del tramo raíz y las sentencias, de un repositorio o del caso de
+        // uso (las del flush al confirmar la transacción)
+        String raiz = traza.getString("tramos[0].spanId");
+        assertEquals(raiz, traza.getString("tramos.find { it.nombre == 'CreateValoracionUseCase.execute' }.padre"));
+        assertEquals(idUsuario, traza.getInt("tramos.find { it.nombre == 'CreateValoracionUseCase.execute' }.atributos.'recipes.idUsuario'"));
+        List<String> padresSentencias = traza.getList("tramos.findAll { it.nombre == 'jdbc.execute' }.padre");
+        for (String padre : padresSentencias) {
+            String nombre = traza.getString("tramos.find { it.spanId == '" + padre + "' }.nombre");
+            assertTrue(nombre.contains("Repository") || nombre.equals("CreateValoracionUseCase.execute"), nombre);
+        }
+
+        given().when().get("/trazas/" + traceId + "/cascada")
+            .then().statusCode(200)
+            .body(containsString("CreateValoracionUseCase.execute"));
+    }
+
+    @Test
+    void testCasoDeUsoFueraDeUnaPeticion() {
+        deleteRecetaUseCase.execute(idReceta, idUsuario, false);
+
+        String traceId = given().queryParam("nombre", "DeleteRecetaUseCase")
+            .when().get("/trazas")
+            .then().statusCode(200)
+            .body("$", hasSize(1))
+            .body("[0].nombre", equalTo("DeleteRecetaUseCase.execute"))
+            .extract().path("[0].traceId");
+
+        given().when().get("/trazas/" + traceId)
+            .then().statusCode(200)
+            .body("tramos[0].atributos.'recipes.id'", equalTo(idReceta))
+            .body("tramos[0].atributos.'recipes.idUsuario'", equalTo(idUsuario))
+            .body("tramos.nombre", hasItems("RecetaRepositoryImpl.findById", "RecetaRepositoryImpl.deleteById", "jdbc.execute"));
+    }
+
+    @Test
+    void testContinuarTrazaDelLlamante() {
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        given().header(TrazasFilter.CABECERA, "00-" + traceId + "-00f067aa0ba902b7-01")
+            .when().get("/api/recetas/" + idReceta)
+            .then().statusCode(200)
+            .header(TrazasFilter.CABECERA_RESPUESTA, startsWith("00-" + traceId + "-"));
+
+        given().when().get("/trazas/" + traceId)
+            .then().statusCode(200)
+            .body("padreRemoto", equalTo("00f067aa0ba902b7"))
+            .body("nombre", equalTo("GET /api/recetas/{id}"));
+
+        given().when().get("/trazas/00000000000000000000000000000000").then().statusCode(404);
+        given().queryParam("limite", 0).when().get("/trazas").then().statusCode(400);
+    }
+
+    @Test
+    void testExportacionOtlp() throws InterruptedException {
+        String traceId = given().when().get("/api/recetas/" + idReceta)
+            .then().statusCode(200)
+            .extract().header(TrazasFilter.CABECERA_RESPUESTA).split("-")[1];
+
+        String enviado = null;
+        for (int i = 0; i < 50 && enviado == null; i++) {
+            enviado = colector.recibidos.stream().filter(c -> c.contains(traceId)).findFirst().orElse(null);
+            if (enviado == null) {
+                Thread.sleep(100);
+            }
+        }
+        assertNotNull(enviado, "La traza no ha llegado al colector OTLP");
+
+        JsonPath otlp = JsonPath.from(enviado);
+        assertEquals("service.name", otlp.getString("resourceSpans[0].resource.attributes[0].key"));
+        Map<String, Object> raiz = otlp.getMap("resourceSpans[0].scopeSpans[0].spans.find { it.traceId == '" + traceId + "' && it.kind == 2 }");
+        assertEquals("GET /api/recetas/{id}", raiz.get("name"));
+        assertTrue(Long.parseLong((String) raiz.get("endTimeUnixNano")) >= Long.parseLong((String) raiz.get("startTimeUnixNano")));
+    }
+}
@@ -0,0 +1,213 @@
+package es.rtur.pruebas.recipes.infrastructure.sse;
+
+import es.rtur.pruebas.recipes.application.event.ValoracionCambiada;
+import es.rtur.pruebas.recipes.domain.entity.DifficultyLevel;
+import es.rtur.pruebas.recipes.domain.entity.TipoValoracion;
+import es.rtur.pruebas.recipes.infrastructure.persistence.RecetaEntity;
+import es.rtur.pruebas.recipes.infrastructure.persistence.RecetaRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.ReplicaTenantResolver;
+import es.rtur.pruebas.recipes.infrastructure.persistence.UsuarioEntity;
+import es.rtur.pruebas.recipes.infrastructure.persistence.UsuarioRepositoryImpl;
+import es.rtur.pruebas.recipes.infrastructure.persistence.ValoracionEntity;
+import es.rtur.pruebas.recipes.infrastructure.persistence.ValoracionRepositoryImpl;
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import io.quarkus.hibernate.orm.panache.Panache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests para la difusión SSE de contadores de valoraciones.
+ */
+@QuarkusTest
+class ValoracionCountBroadcasterTest {
+
+    @Inject
+    ValoracionCountBroadcaster broadcaster;
+
+    @Inject
+    ValoracionRepositoryImpl valoracionRepository;
+
+    @Inject
+    RecetaRepositoryImpl recetaRepository;
+
+    @Inject
+    UsuarioRepositoryImpl usuarioRepository;
+
+    @Inject
+    @PersistenceUnitExtension
+    ReplicaTenantResolver resolver;
+
+    private Integer idReceta;
+    private Integer idOtraReceta;
+
+    @BeforeEach
+    @Transactional
+    void setUp() {
+        // Limpiar datos - orden importante por foreign keys
+        Panache.getEntityManager().createQuery("DELETE FROM ComentarioEntity").executeUpdate();
+        valoracionRepository.deleteAll();
+        Panache.getEntityManager().createQuery("DELETE FROM IngredienteRecetaEntity").executeUpdate();
+        Panache.getEntityManager().createQuery("DELETE FROM UtensilioRecetaEntity").executeUpdate();
+        recetaRepository.deleteAll();
+        usuarioRepository.deleteAll();
+
+        UsuarioEntity autor = crearUsuario("Chef", "chef@test.com");
+        usuarioRepository.persist(autor);
+
+        RecetaEntity receta = crearReceta("Paella", autor);
+        recetaRepository.persist(receta);
+        idReceta = receta.idReceta;
+
+        RecetaEntity otra = crearReceta("Gazpacho", autor);
+        recetaRepository.persist(otra);
+        idOtraReceta = otra.idReceta;
+
+        broadcaster.publicarPendientes();
+    }
+
+    @Test
+    void testSuscripcionRecibeContadoresIniciales() {
+        // Given
+        votar(idReceta, "like", "dislike");
+
+        // When
+        AssertSubscriber<ContadorValoraciones> cliente = broadcaster.suscribir(Set.of(idReceta))
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        broadcaster.publicarPendientes();
+
+        // Then
+        List<ContadorValoraciones> eventos = cliente.getItems();
+        assertEquals(1, eventos.size());
+        assertEquals(idReceta, eventos.get(0).getIdReceta());
+        assertEquals(1, eventos.get(0).getLikes());
+        assertEquals(1, eventos.get(0).getDislikes());
+        cliente.cancel();
+    }
+
+    @Test
+    void testContadoresSeLeenDelPrincipal() {
+        // Given
+        AssertSubscriber<ContadorValoraciones> cliente = broadcaster.suscribir(Set.of(idReceta))
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        long replica = resolver.getSesionesReplica();
+
+        // When
+        broadcaster.publicarPendientes();
+
+        // Then: la réplica puede ir retrasada respecto al voto que se difunde
+        assertEquals(1, cliente.getItems().size());
+        assertEquals(replica, resolver.getSesionesReplica());
+        cliente.cancel();
+    }
+
+    @Test
+    void testVariosVotosEnLaVentanaGeneranUnSoloEvento() {
+        // Given
+        AssertSubscriber<ContadorValoraciones> cliente = broadcaster.suscribir(Set.of(idReceta))
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        broadcaster.publicarPendientes();
+
+        // When
+        List<Integer> votantes = votar(idReceta, "like", "like", "like");
+        for (Integer idUsuario : votantes) {
+            broadcaster.onEvent(new ValoracionCambiada(idReceta, idUsuario, "like", true), 0, true);
+        }
+        int publicadas = broadcaster.publicarPendientes();
+
+        // Then
+        assertEquals(1, publicadas);
+        List<ContadorValoraciones> eventos = cliente.getItems();
+        assertEquals(2, eventos.size());
+        assertEquals(3, eventos.get(1).getLikes());
+        assertEquals(0, broadcaster.publicarPendientes());
+        cliente.cancel();
+    }
+
+    @Test
+    void testSoloSeNotificaALosSuscriptoresDeLaReceta() {
+        // Given
+        AssertSubscriber<ContadorValoraciones> cliente = broadcaster.suscribir(Set.of(idReceta))
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        broadcaster.publicarPendientes();
+
+        // When
+        List<Integer> votantes = votar(idOtraReceta, "dislike");
+        broadcaster.onEvent(new ValoracionCambiada(idOtraReceta, votantes.get(0), "dislike", true), 0, true);
+
+        // Then
+        assertEquals(0, broadcaster.publicarPendientes());
+        assertEquals(1, cliente.getItems().size());
+        cliente.cancel();
+    }
+
+    @Test
+    void testCancelarEliminaLaSuscripcion() {
+        // Given
+        AssertSubscriber<ContadorValoraciones> cliente = broadcaster.suscribir(Set.of(idReceta, idOtraReceta))
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        assertEquals(2, broadcaster.getRecetasSuscritas());
+
+        // When
+        cliente.cancel();
+
+        // Then
+        assertEquals(0, broadcaster.getRecetasSuscritas());
+    }
+
+    @Test
+    void testStreamSinRecetasDevuelve400() {
+        given()
+            .when().get("/api/recetas/valoraciones/stream")
+            .then().statusCode(400);
+    }
+
+    private List<Integer> votar(Integer idReceta, String... tipos) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            RecetaEntity receta = recetaRepository.findById(idReceta.longValue());
+            List<Integer> votantes = new ArrayList<>();
+            for (String tipo : tipos) {
+                UsuarioEntity usuario = crearUsuario("Usuario", "user" + System.nanoTime() + "@test.com");
+                usuarioRepository.persist(usuario);
+                ValoracionEntity valoracion = new ValoracionEntity();
+                valoracion.receta = receta;
+                valoracion.usuario = usuario;
+                valoracion.tipo = TipoValoracion.fromValue(tipo);
+                valoracionRepository.persist(valoracion);
+                votantes.add(usuario.idUsuario);
+            }
+            return votantes;
+        });
+    }
+
+    private UsuarioEntity crearUsuario(String nombre, String email) {
+        UsuarioEntity usuario = new UsuarioEntity();
+        usuario.nombre = nombre;
+        usuario.email = email;
+        usuario.claveAcceso = "password";
+        usuario.esAdmin = false;
+        return usuario;
+    }
+
+    private RecetaEntity crearReceta(String nombre, UsuarioEntity autor) {
+        RecetaEntity receta = new RecetaEntity();
+        receta.nombre = nombre;
+        receta.dificultad = DifficultyLevel.EASY;
+        receta.tiempo = 30;
+        receta.comensales = 4;
+        receta.preparacion = "Preparación";
+        receta.autor = autor;
+        return receta;
+    }
+}
@@ -0,0 +1,131 @@
+package es.rtur.pruebas.recipes.loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High dynamic range latency histogram in the spirit of HdrHistogram: values in microseconds
+ * from 1 µs to 1 hour with three significant digits (a relative error under 0.1%) in fixed
+ * memory, whatever the number of samples. Below 2048 µs every value has its own bucket; above,
+ * each power of two is split into 1024 linear sub-buckets.
+ *
+ * Recording is lock-free and can happen from any thread. Percentiles are meant to be read once
+ * the recording has finished.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 2048;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final int UNIT_BITS = 63 - Long.numberOfLeadingZeros(HALF);
+    static final long MAX_VALUE = 3_600_000_000L;
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(MAX_VALUE) + 1);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final DoubleAdder sumOfSquares = new DoubleAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE));
+        counts.incrementAndGet(index(value));
+        total.increment();
+        sum.add(value);
+        sumOfSquares.add((double) value * value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    long count() {
+        return total.sum();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    double mean() {
+        long count = count();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    double standardDeviation() {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        double mean = mean();
+        return Math.sqrt(Math.max(0, sumOfSquares.sum() / count - mean * mean));
+    }
+
+    /**
+     * Highest value equivalent to the bucket holding the given percentile (0-100), capped at the
+     * recorded maximum.
+     */
+    long valueAtPercentile(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return Math.min(highestEquivalent(i), max());
+            }
+        }
+        return max();
+    }
+
+    /**
+     * Percentile distribution in the .hgrm text format of HdrHistogram, so the files can be fed to
+     * its plotter: 5 ticks per halving of the distance to 100%.
+     * @param scale Divisor applied to the microsecond values (1000 to print milliseconds)
+     */
+    void outputPercentileDistribution(PrintStream out, double scale) {
+        out.printf("%12s %14s %10s %14s%n%n", "Value", "Percentile", "TotalCount", "1/(1-Percentile)");
+        long count = count();
+        if (count > 0) {
+            long cumulative = 0;
+            int index = 0;
+            double percentile = 0;
+            while (true) {
+                long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+                while (cumulative < target) {
+                    cumulative += counts.get(index++);
+                }
+                double reached = (double) cumulative / count;
+                long value = Math.min(highestEquivalent(index - 1), max());
+                if (cumulative == count) {
+                    out.printf("%12.3f %1.12f %10d%n", value / scale, 1.0, cumulative);
+                    break;
+                }
+                out.printf("%12.3f %1.12f %10d %14.2f%n", value / scale, reached, cumulative, 1 / (1 - reached));
+                double halfDistance = Math.pow(2, Math.floor(Math.log(100 / (100 - percentile)) / Math.log(2)) + 1);
+                percentile += 100 / (5 * halfDistance);
+            }
+        }
+        out.printf("#[Mean    = %12.3f, StdDeviation   = %12.3f]%n", mean() / scale, standardDeviation() / scale);
+        out.printf("#[Max     = %12.3f, Total count    = %12d]%n", max() / scale, count);
+        out.printf("#[Buckets = %12d, SubBuckets     = %12d]%n", (counts.length() - SUB_BUCKETS) / HALF + 1, SUB_BUCKETS);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - UNIT_BITS;
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) ((value >> shift) - HALF);
+    }
+
+    static long highestEquivalent(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long lowest = (long) ((index - SUB_BUCKETS) % HALF + HALF) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
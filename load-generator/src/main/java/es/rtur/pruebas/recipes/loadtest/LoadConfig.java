@@ -0,0 +1,105 @@
+package es.rtur.pruebas.recipes.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, from {@code --name=value} arguments.
+ *
+ * @param baseUrl     Application URL, without trailing slash
+ * @param rate        Arrivals per second, independent of how fast the server answers (open model)
+ * @param warmup      Time at the start whose requests are sent but not recorded
+ * @param duration    Measured time after the warmup
+ * @param mix         Relative weight of each scenario
+ * @param poisson     Exponential inter-arrival times (true) or a constant interval (false)
+ * @param recetas     Highest recipe id to request
+ * @param usuarios    Highest user id to act as
+ * @param maxInFlight Requests allowed to be pending at once; arrivals beyond it are counted as dropped
+ * @param timeout     Per-request timeout, counted as an error
+ * @param seed        Seed of the arrival times and of the scenario and id choices
+ * @param output      Directory of the .hgrm percentile files
+ */
+record LoadConfig(String baseUrl, double rate, Duration warmup, Duration duration, Map<Scenario, Integer> mix,
+                  boolean poisson, int recetas, int usuarios, int maxInFlight, Duration timeout, long seed,
+                  Path output) {
+
+    static final String USAGE = """
+            Usage: java -jar load-generator.jar [options]
+              --base-url=http://localhost:8080
+              --rate=50                 arrivals per second (open model)
+              --warmup=10s --duration=60s
+              --mix=browse:40,search:20,detail:25,like:10,comment:5
+              --arrivals=poisson|constant
+              --recetas=1000 --usuarios=1000   id ranges to pick from
+              --max-in-flight=1024 --timeout=30s --seed=42
+              --output=target/load-report""";
+
+    static LoadConfig parse(String... args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        String arrivals = options.getOrDefault("arrivals", "poisson");
+        if (!arrivals.equals("poisson") && !arrivals.equals("constant")) {
+            throw new IllegalArgumentException("Unknown arrivals: " + arrivals);
+        }
+        LoadConfig config = new LoadConfig(
+                options.getOrDefault("base-url", "http://localhost:8080").replaceAll("/+$", ""),
+                Double.parseDouble(options.getOrDefault("rate", "50")),
+                duration(options.getOrDefault("warmup", "10s")),
+                duration(options.getOrDefault("duration", "60s")),
+                mix(options.getOrDefault("mix", "browse:40,search:20,detail:25,like:10,comment:5")),
+                arrivals.equals("poisson"),
+                Integer.parseInt(options.getOrDefault("recetas", "1000")),
+                Integer.parseInt(options.getOrDefault("usuarios", "1000")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "1024")),
+                duration(options.getOrDefault("timeout", "30s")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Path.of(options.getOrDefault("output", "target/load-report")));
+        if (config.rate() <= 0 || config.recetas() < 1 || config.usuarios() < 1 || config.maxInFlight() < 1) {
+            throw new IllegalArgumentException("rate, recetas, usuarios and max-in-flight must be positive");
+        }
+        return config;
+    }
+
+    /**
+     * Accepts 500ms, 30s, 5m or an ISO-8601 duration.
+     */
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+
+    static Map<Scenario, Integer> mix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Scenario.fromLabel(parts[0]), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one scenario");
+        }
+        return mix;
+    }
+}
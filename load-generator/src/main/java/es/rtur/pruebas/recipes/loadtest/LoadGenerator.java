@@ -0,0 +1,185 @@
+package es.rtur.pruebas.recipes.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the REST API. Requests are scheduled at the configured arrival
+ * rate whatever the server does, and sent with the non-blocking JDK HttpClient, so a slow server
+ * faces a growing queue instead of a politely waiting client.
+ *
+ * The response time of each request is measured from its <em>intended</em> start time, not from
+ * the moment it was actually sent. If the generator or the server falls behind, the waiting is
+ * part of the latency, which avoids coordinated omission. The service time (from the actual send)
+ * is recorded as well; a large gap between both means requests were queuing.
+ *
+ * Run: java -jar load-generator/target/load-generator.jar --base-url=http://localhost:8080 --rate=100
+ */
+public final class LoadGenerator {
+
+    private final LoadConfig config;
+    private final HttpClient client;
+    private final Map<Scenario, Stats> stats = new EnumMap<>(Scenario.class);
+
+    /**
+     * Results of one scenario. Latencies in microseconds.
+     */
+    static final class Stats {
+        final LatencyHistogram response = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+        long requests() {
+            return response.count();
+        }
+    }
+
+    LoadGenerator(LoadConfig config) {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        config.mix().keySet().forEach(scenario -> stats.put(scenario, new Stats()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(LoadConfig.USAGE);
+            return;
+        }
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        LoadGenerator generator = new LoadGenerator(config);
+        generator.checkTarget();
+        System.out.printf("%.1f req/s for %s (warmup %s) against %s, mix %s%n",
+                config.rate(), config.duration(), config.warmup(), config.baseUrl(), config.mix());
+        generator.run();
+        generator.printSummary(System.out);
+        generator.writeHistograms();
+    }
+
+    /**
+     * Fails fast when the application is not running.
+     */
+    void checkTarget() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(config.baseUrl() + "/api/recetas?tamano=1"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IOException("GET /api/recetas answered " + response.statusCode());
+        }
+    }
+
+    Map<Scenario, Stats> run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        Scenario[] scenarios = config.mix().keySet().toArray(new Scenario[0]);
+        int[] cumulative = new int[scenarios.length];
+        int totalWeight = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            totalWeight += config.mix().get(scenarios[i]);
+            cumulative[i] = totalWeight;
+        }
+
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        double meanInterval = 1e9 / config.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        double next = start;
+
+        while (next < end) {
+            long intended = (long) next;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int pick = random.nextInt(totalWeight);
+            int s = 0;
+            while (cumulative[s] <= pick) {
+                s++;
+            }
+            Scenario scenario = scenarios[s];
+            Stats target = stats.get(scenario);
+            boolean measured = intended >= measureFrom;
+            HttpRequest request = scenario.request(config, random);
+
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    target.dropped.increment();
+                }
+            } else {
+                long sent = System.nanoTime();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                    long now = System.nanoTime();
+                    inFlight.release();
+                    if (!measured) {
+                        return;
+                    }
+                    target.response.record((now - intended) / 1_000);
+                    target.service.record((now - sent) / 1_000);
+                    if (error != null || response.statusCode() >= 400) {
+                        target.errors.increment();
+                    }
+                });
+            }
+            next += config.poisson() ? -Math.log(1 - random.nextDouble()) * meanInterval : meanInterval;
+        }
+
+        if (!inFlight.tryAcquire(config.maxInFlight(), config.timeout().toMillis() + 1_000, TimeUnit.MILLISECONDS)) {
+            System.err.println("Some requests were still pending at the end of the run");
+        }
+        return stats;
+    }
+
+    void printSummary(PrintStream out) {
+        double seconds = config.duration().toNanos() / 1e9;
+        out.printf("%n%-8s %9s %8s %8s %9s %10s %10s %10s %10s %10s %12s%n", "scenario", "requests", "errors",
+                "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+        for (Map.Entry<Scenario, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            LatencyHistogram h = s.response;
+            out.printf("%-8s %9d %8d %8d %9.1f %10.2f %10.2f %10.2f %10.2f %10.2f %12.2f%n",
+                    entry.getKey().label(), s.requests(), s.errors.sum(), s.dropped.sum(), s.requests() / seconds,
+                    h.valueAtPercentile(50) / 1e3, h.valueAtPercentile(90) / 1e3, h.valueAtPercentile(99) / 1e3,
+                    h.valueAtPercentile(99.9) / 1e3, h.max() / 1e3, s.service.valueAtPercentile(99) / 1e3);
+        }
+    }
+
+    /**
+     * One .hgrm file per scenario with the response-time percentile distribution, in milliseconds.
+     */
+    void writeHistograms() throws IOException {
+        Files.createDirectories(config.output());
+        for (Map.Entry<Scenario, Stats> entry : stats.entrySet()) {
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(config.output().resolve(entry.getKey().label() + ".hgrm")))) {
+                entry.getValue().response.outputPercentileDistribution(out, 1_000);
+            }
+        }
+        System.out.println("Percentile distributions written to " + config.output().toAbsolutePath());
+    }
+}
@@ -0,0 +1,98 @@
+package es.rtur.pruebas.recipes.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * User actions of the load mix, each one a request to the REST API of the application.
+ * Recipes are picked with a skew towards the lowest ids so that a few are hot, like in
+ * production; browsing mostly hits the first pages.
+ */
+enum Scenario {
+
+    BROWSE {
+        @Override
+        HttpRequest request(LoadConfig config, SplittableRandom random) {
+            int pagina = (int) Math.min(50, Math.floor(-Math.log(1 - random.nextDouble()) * 2));
+            return get(config, "/api/recetas?pagina=" + pagina + "&tamano=20");
+        }
+    },
+    SEARCH {
+        @Override
+        HttpRequest request(LoadConfig config, SplittableRandom random) {
+            String texto = TERMS.get(random.nextInt(TERMS.size()));
+            return get(config, "/api/recetas/buscar?q=" + URLEncoder.encode(texto, StandardCharsets.UTF_8));
+        }
+    },
+    DETAIL {
+        @Override
+        HttpRequest request(LoadConfig config, SplittableRandom random) {
+            return get(config, "/api/recetas/" + receta(config, random));
+        }
+    },
+    LIKE {
+        @Override
+        HttpRequest request(LoadConfig config, SplittableRandom random) {
+            String tipo = random.nextInt(4) == 0 ? "dislike" : "like";
+            return post(config, random, "/api/recetas/" + receta(config, random) + "/valoraciones",
+                    "{\"tipo\":\"" + tipo + "\"}");
+        }
+    },
+    COMMENT {
+        @Override
+        HttpRequest request(LoadConfig config, SplittableRandom random) {
+            String contenido = COMMENTS.get(random.nextInt(COMMENTS.size()));
+            return post(config, random, "/api/recetas/" + receta(config, random) + "/comentarios",
+                    "{\"contenido\":\"" + contenido + "\"}");
+        }
+    };
+
+    private static final List<String> TERMS = List.of(
+            "Tortilla", "Paella", "Gazpacho", "pollo", "Crema", "Arroz", "horno", "Ensalada",
+            "Croquetas", "Guiso", "chorizo", "merluza", "de la abuela", "Bizcocho", "lentejas");
+
+    private static final List<String> COMMENTS = List.of(
+            "¡Riquísima!", "La repetiré seguro.", "Le he puesto menos sal.", "Muy fácil de hacer.",
+            "Tardé más de lo indicado.", "Perfecta para una cena rápida.");
+
+    abstract HttpRequest request(LoadConfig config, SplittableRandom random);
+
+    String label() {
+        return name().toLowerCase();
+    }
+
+    static Scenario fromLabel(String label) {
+        return valueOf(label.trim().toUpperCase());
+    }
+
+    /**
+     * Recipe id between 1 and config.recetas(), cubed uniform: the first 10% of the ids
+     * get almost half of the requests.
+     */
+    private static int receta(LoadConfig config, SplittableRandom random) {
+        double u = random.nextDouble();
+        return 1 + (int) (config.recetas() * u * u * u);
+    }
+
+    private static HttpRequest get(LoadConfig config, String path) {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl() + path))
+                .timeout(config.timeout())
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest post(LoadConfig config, SplittableRandom random, String path, String json) {
+        return HttpRequest.newBuilder(URI.create(config.baseUrl() + path))
+                .timeout(config.timeout())
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header("X-Usuario-Id", String.valueOf(1 + random.nextInt(config.usuarios())))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
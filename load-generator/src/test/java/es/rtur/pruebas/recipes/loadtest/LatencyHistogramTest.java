@@ -0,0 +1,53 @@
+package es.rtur.pruebas.recipes.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsAreContiguousAndCoverTheirValues() {
+        for (long value : new long[] {0, 1, 2047, 2048, 4095, 4096, 123_456, 9_999_999, LatencyHistogram.MAX_VALUE}) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(LatencyHistogram.highestEquivalent(index) >= value, "value " + value);
+            assertTrue(index == 0 || LatencyHistogram.highestEquivalent(index - 1) < value, "value " + value);
+        }
+        assertEquals(LatencyHistogram.index(4095) + 1, LatencyHistogram.index(4096));
+    }
+
+    @Test
+    void percentilesHaveThreeSignificantDigits() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1_000_000; micros++) {
+            histogram.record(micros);
+        }
+
+        assertEquals(1_000_000, histogram.count());
+        assertEquals(500_000, histogram.valueAtPercentile(50), 500);
+        assertEquals(990_000, histogram.valueAtPercentile(99), 990);
+        assertEquals(999_000, histogram.valueAtPercentile(99.9), 999);
+        assertEquals(1_000_000, histogram.valueAtPercentile(100));
+        assertEquals(500_000.5, histogram.mean(), 0.01);
+    }
+
+    @Test
+    void writesTheHdrHistogramPercentileFormat() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 1000; i++) {
+            histogram.record(1_000 + i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.outputPercentileDistribution(new PrintStream(bytes, true, StandardCharsets.UTF_8), 1_000);
+        String text = bytes.toString(StandardCharsets.UTF_8);
+
+        assertTrue(text.startsWith("       Value     Percentile TotalCount 1/(1-Percentile)"), text);
+        assertTrue(text.contains("       1.999 1.000000000000       1000\n"), text);
+        assertTrue(text.contains("#[Max     =        1.999, Total count    =         1000]"), text);
+    }
+}
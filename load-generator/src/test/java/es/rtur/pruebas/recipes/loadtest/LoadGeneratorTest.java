@@ -0,0 +1,82 @@
+package es.rtur.pruebas.recipes.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTest {
+
+    private HttpServer server;
+    private final Set<String> paths = ConcurrentHashMap.newKeySet();
+    private volatile long delayMillis;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/recetas", exchange -> {
+            paths.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath().replaceAll("\\d+", "{id}"));
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "[]".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        // Single thread: requests queue up when the server is slow
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void sendsTheWholeMixAtTheConfiguredRate() throws Exception {
+        LoadConfig config = config(200, "1s", "browse:1,search:1,detail:1,like:1,comment:1");
+
+        Map<Scenario, LoadGenerator.Stats> stats = new LoadGenerator(config).run();
+
+        long requests = stats.values().stream().mapToLong(LoadGenerator.Stats::requests).sum();
+        assertTrue(requests > 140 && requests < 260, "requests: " + requests);
+        assertEquals(0, stats.values().stream().mapToLong(s -> s.errors.sum()).sum());
+        assertEquals(Set.of("GET /api/recetas", "GET /api/recetas/buscar", "GET /api/recetas/{id}",
+                "POST /api/recetas/{id}/valoraciones", "POST /api/recetas/{id}/comentarios"), paths);
+    }
+
+    @Test
+    void queuingTimeCountsAsLatency() throws Exception {
+        // 20 ms per request at 100/s: the server only handles 50/s and the queue grows
+        delayMillis = 20;
+        LoadConfig config = config(100, "1s", "detail:1");
+
+        LoadGenerator.Stats stats = new LoadGenerator(config).run().get(Scenario.DETAIL);
+
+        long responseP99 = stats.response.valueAtPercentile(99);
+        long serviceP50 = stats.service.valueAtPercentile(50);
+        assertTrue(responseP99 > 200_000, "response p99 (µs): " + responseP99);
+        assertTrue(responseP99 >= serviceP50, "response p99 " + responseP99 + " < service p50 " + serviceP50);
+    }
+
+    private LoadConfig config(int rate, String duration, String mix) {
+        return LoadConfig.parse("--base-url=http://127.0.0.1:" + server.getAddress().getPort(),
+                "--rate=" + rate, "--warmup=0s", "--duration=" + duration, "--mix=" + mix,
+                "--arrivals=constant", "--recetas=100", "--usuarios=10", "--timeout=10s");
+    }
+}